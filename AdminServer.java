@@ -0,0 +1,728 @@
+/**
+ * The AdminServer class gives the front-desk and back-office tools an HTTP
+ * interface to the members, without the Swing window. It uses the HTTP server
+ * that comes with the JDK, so it needs no extra libraries.
+ *
+ * Every response is JSON. The requests are:
+ *   GET  /members?q=text&type=regular|premium&offset=0&limit=100
+ *                                     the members matching a search, in the order
+ *                                     they were added (all parameters are optional)
+ *   GET  /members?name=ram&limit=20   the members whose name starts with the text,
+ *                                     in name order; phone= and email= find exact
+ *                                     matches instead (q and type still apply)
+ *   GET  /members?fuzzy=kathmandu%20aarv&limit=10
+ *                                     the members whose name, location, email or
+ *                                     referral source come closest to the text,
+ *                                     best first, allowing for misspellings
+ *   GET  /members?started=2026-10-12..2026-10-18
+ *                                     the members whose membership started between
+ *                                     the two dates, in date order; born= does the
+ *                                     same for the date of birth, and turning=18
+ *                                     with during=2026-10-01..2026-10-31 finds the
+ *                                     members reaching that age between the dates
+ *   GET  /members?view=unpaid         a live view, in ID order: unpaid is active
+ *                                     premium members with dues left, eligible is
+ *                                     regular members eligible for an upgrade, and
+ *                                     reverted is regular members with a removal
+ *                                     reason (q, type, offset and limit still apply)
+ *   GET  /members/1042                one member
+ *   GET  /members/1042/discount       the loyalty discount on the member's plan
+ *   POST /members/1042/activate       activates the membership
+ *   POST /members/1042/deactivate     deactivates the membership
+ *   POST /members/1042/upgrade?plan=standard
+ *                                     changes the member's plan
+ *   POST /members/1042/pay?amount=5000
+ *                                     pays towards a premium member's charge
+ *   GET  /metrics                     running totals: active and inactive counts,
+ *                                     premium revenue and balance owed, loyalty
+ *                                     tiers and members per plan
+ * The actions answer with the message the member class gives, as the GUI shows
+ * it, and the member as it is afterwards. An unknown ID gets 404, a request
+ * that cannot be read gets 400, paying for a regular member gets 409, and a
+ * request that fails for any other reason gets 500; the body of an error is
+ * {"error": "..."}.
+ *
+ * The q search uses the same matching as the search box of the member tables,
+ * and looks at every member; name, phone, email and the dates use the
+ * repository's indexes.
+ * A listing is written member by member as the repository is walked, so listing
+ * every member needs no more memory than listing one: the response is sent in
+ * chunks and nothing is collected first. The JSON is written by hand, field by
+ * field, rather than by a library that discovers the fields by reflection.
+ *
+ * Each request is handled on its own thread, a virtual thread on Java 21 and
+ * later, in the same way as CheckInServer. Changes are made through the member
+ * methods the GUI uses, so they are recorded in the member journal in the same
+ * way. The server and the GUI must not be run on the same files at the same time.
+ *
+ * Usage: java AdminServer [port] [address]
+ * (the defaults are port 8080 on 127.0.0.1; the server has no login, so only
+ * listen on other addresses behind something that checks who is asking)
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdminServer implements Closeable {
+    public static final int DEFAULT_PORT = 8080;
+
+    // The same files the GUI uses, in the working directory
+    private static final String REGULAR_DB_NAME = "regular_members.txt";
+    private static final String PREMIUM_DB_NAME = "premium_members.txt";
+    private static final String SNAPSHOT_DB_NAME = "members.dat";
+    private static final String DELTA_DB_NAME = "members.delta";
+    private static final String JOURNAL_DB_NAME = "members.wal";
+    private static final String VISITS_DB_NAME = "members.visits";
+    private static final String PLANS_FILE_NAME = PlanCatalog.DEFAULT_FILE_NAME;
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final MemberRepository members;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final boolean virtualThreads;
+    // The live views, by the name used in view=
+    private final Map<String, MemberView> views = new LinkedHashMap<>();
+
+    /**
+     * Thrown by a request handler to answer with an error instead of a result.
+     */
+    private static class RequestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Creates a server for the given members and binds it to a port.
+     * Call start to begin answering requests.
+     *
+     * @param members The members to serve
+     * @param address The address to listen on
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public AdminServer(MemberRepository members, InetAddress address, int port) throws IOException {
+        this.members = members;
+        this.server = HttpServer.create(new InetSocketAddress(address, port), 1024);
+        views.put("unpaid", members.createView(
+            member -> member instanceof PremiumMember && member.isActiveStatus()
+                && !((PremiumMember) member).isFullPayment(),
+            EnumSet.of(MemberChange.ACTIVATED, MemberChange.DEACTIVATED, MemberChange.PAYMENT_MADE,
+                MemberChange.DISCOUNT_CALCULATED, MemberChange.PLAN_UPGRADED, MemberChange.REVERTED)));
+        views.put("eligible", members.createView(
+            member -> member instanceof RegularMember && ((RegularMember) member).isEligibleForUpgrade(),
+            EnumSet.of(MemberChange.ATTENDANCE_MARKED, MemberChange.PLAN_UPGRADED, MemberChange.REVERTED)));
+        views.put("reverted", members.createView(
+            member -> member instanceof RegularMember && hasText(((RegularMember) member).getRemovalReason()),
+            EnumSet.of(MemberChange.REVERTED)));
+        server.createContext("/members", this::handle);
+        server.createContext("/metrics", this::handle);
+
+        ExecutorService executor = newVirtualThreadExecutor();
+        virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "admin-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        requestExecutor = executor;
+        server.setExecutor(executor);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Starts answering requests on a background thread.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops answering requests, giving the ones in progress a second to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        requestExecutor.shutdown();
+        for (MemberView view : views.values()) {
+            members.removeView(view);
+        }
+    }
+
+    /**
+     * Answers one request for /members or a path below it.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String[] parts = path.split("/");
+            if (parts.length == 2 && parts[1].equals("metrics")) {
+                requireMethod(method, "GET");
+                sendJson(exchange, 200, metricsJson(members.getMetrics().getTotals()));
+                return;
+            }
+            // parts[0] is empty and parts[1] is "members"
+            if (parts.length < 2 || !parts[1].equals("members") || parts.length > 4) {
+                throw new RequestException(404, "No such resource: " + path);
+            }
+            if (parts.length == 2) {
+                requireMethod(method, "GET");
+                listMembers(exchange, query);
+                return;
+            }
+
+            GymMember member = findMember(parts[2]);
+            String action = parts.length == 4 ? parts[3] : "";
+            switch (action) {
+                case "":
+                    requireMethod(method, "GET");
+                    sendJson(exchange, 200, memberJson(member));
+                    break;
+                case "discount":
+                    requireMethod(method, "GET");
+                    sendJson(exchange, 200, discountJson(member));
+                    break;
+                case "activate":
+                    requireMethod(method, "POST");
+                    member.activateMembership();
+                    sendJson(exchange, 200, resultJson("Membership activated.", member));
+                    break;
+                case "deactivate":
+                    requireMethod(method, "POST");
+                    member.deactivateMembership();
+                    sendJson(exchange, 200, resultJson("Membership deactivated.", member));
+                    break;
+                case "upgrade":
+                    requireMethod(method, "POST");
+                    sendJson(exchange, 200, resultJson(upgradePlan(member, query.get("plan")), member));
+                    break;
+                case "pay":
+                    requireMethod(method, "POST");
+                    sendJson(exchange, 200, resultJson(payDueAmount(member, query.get("amount")), member));
+                    break;
+                default:
+                    throw new RequestException(404, "No such resource: " + path);
+            }
+        } catch (RequestException e) {
+            StringBuilder json = new StringBuilder("{\"error\":");
+            appendString(json, e.getMessage());
+            json.append('}');
+            sendJson(exchange, e.status, json);
+        } catch (RuntimeException e) {
+            // A bug, or a member file that could not be written; the client still gets an answer
+            System.err.println("Error answering " + exchange.getRequestMethod() + " "
+                + exchange.getRequestURI() + ": " + e);
+            if (exchange.getResponseCode() == -1) {
+                StringBuilder json = new StringBuilder("{\"error\":");
+                appendString(json, "Internal server error");
+                json.append('}');
+                sendJson(exchange, 500, json);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sends the members matching the search as a JSON array. Each member is
+     * written as soon as it is found, so the whole listing is never held in memory.
+     */
+    private void listMembers(HttpExchange exchange, Map<String, String> query)
+            throws IOException, RequestException {
+        String filter = query.getOrDefault("q", "").trim();
+        String type = query.getOrDefault("type", "");
+        if (!type.isEmpty() && !type.equals("regular") && !type.equals("premium")) {
+            throw new RequestException(400, "Invalid type: " + type);
+        }
+        int offset = parseCount(query.get("offset"), 0);
+        int limit = parseCount(query.get("limit"), Integer.MAX_VALUE);
+
+        // A name, phone, email or fuzzy text narrows the listing through the repository's indexes
+        boolean filtered = !filter.isEmpty() || !type.isEmpty();
+        int wanted = filtered ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        Iterable<GymMember> candidates = members;
+        if (query.containsKey("phone")) {
+            candidates = Arrays.asList(members.findByPhone(query.get("phone").trim()));
+        } else if (query.containsKey("email")) {
+            candidates = Arrays.asList(members.findByEmail(query.get("email").trim()));
+        } else if (query.containsKey("name")) {
+            candidates = Arrays.asList(members.findByNamePrefix(query.get("name").trim(), wanted));
+        } else if (query.containsKey("fuzzy")) {
+            candidates = Arrays.asList(members.searchFuzzy(query.get("fuzzy"), wanted));
+        } else if (query.containsKey("started")) {
+            LocalDate[] range = parseDateRange(query.get("started"));
+            candidates = Arrays.asList(members.findByStartDate(range[0], range[1]));
+        } else if (query.containsKey("born")) {
+            LocalDate[] range = parseDateRange(query.get("born"));
+            candidates = Arrays.asList(members.findByDateOfBirth(range[0], range[1]));
+        } else if (query.containsKey("turning")) {
+            int age = parseCount(query.get("turning"), 0);
+            LocalDate[] range = parseDateRange(query.get("during"));
+            candidates = Arrays.asList(members.findTurningAge(age, range[0], range[1]));
+        } else if (query.containsKey("view")) {
+            MemberView view = views.get(query.get("view"));
+            if (view == null) {
+                throw new RequestException(400, "Unknown view: " + query.get("view"));
+            }
+            GymMember[] viewed = view.toArray();
+            Arrays.sort(viewed, Comparator.comparingInt(GymMember::getId)); // So offset pages stay stable
+            candidates = Arrays.asList(viewed);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0); // Length not known, so the body is chunked
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 65536)) {
+            StringBuilder json = new StringBuilder(512);
+            int skipped = 0;
+            int written = 0;
+            writer.write('[');
+            for (GymMember member : candidates) {
+                if (written == limit) {
+                    break;
+                }
+                if (type.equals("regular") && !(member instanceof RegularMember)
+                        || type.equals("premium") && !(member instanceof PremiumMember)
+                        || !MemberTableModel.matches(member, filter)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                json.setLength(0);
+                if (written > 0) {
+                    json.append(',');
+                }
+                appendMember(json, member);
+                writer.append(json);
+                written++;
+            }
+            writer.write(']');
+        }
+    }
+
+    private String upgradePlan(GymMember member, String plan) throws RequestException {
+        if (plan == null || plan.isEmpty()) {
+            throw new RequestException(400, "Missing plan");
+        }
+        if (member instanceof RegularMember) {
+            RegularMember regularMember = (RegularMember) member;
+            if (regularMember.getPlanPrice(plan) == -1) {
+                throw new RequestException(400, "Invalid plan: " + plan);
+            }
+            return regularMember.upgradePlan(plan);
+        }
+        PremiumMember premiumMember = (PremiumMember) member;
+        if (premiumMember.getPlanPrice(plan) == -1) {
+            throw new RequestException(400, "Invalid plan: " + plan);
+        }
+        return premiumMember.upgradePlan(plan);
+    }
+
+    private String payDueAmount(GymMember member, String amountText) throws RequestException {
+        if (!(member instanceof PremiumMember)) {
+            throw new RequestException(409, "Only premium members have an amount due");
+        }
+        if (amountText == null) {
+            throw new RequestException(400, "Missing amount");
+        }
+        double amount;
+        try {
+            amount = Double.parseDouble(amountText);
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid amount: " + amountText);
+        }
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            throw new RequestException(400, "Invalid amount: " + amountText);
+        }
+        return ((PremiumMember) member).payDueAmount(amount);
+    }
+
+    private GymMember findMember(String idText) throws RequestException {
+        int id;
+        try {
+            id = Integer.parseInt(idText);
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid ID: " + idText);
+        }
+        GymMember member = members.findById(id);
+        if (member == null) {
+            throw new RequestException(404, "No member found with ID: " + id);
+        }
+        return member;
+    }
+
+    private static void requireMethod(String method, String expected) throws RequestException {
+        if (!method.equals(expected)) {
+            throw new RequestException(405, "Use " + expected + " for this resource");
+        }
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.trim().isEmpty();
+    }
+
+    private static int parseCount(String text, int defaultValue) throws RequestException {
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            int count = Integer.parseInt(text);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new RequestException(400, "Invalid number: " + text);
+    }
+
+    /**
+     * Reads a range of dates written as "2026-10-12..2026-10-18", or a single
+     * date standing for a range of one day.
+     */
+    private static LocalDate[] parseDateRange(String text) throws RequestException {
+        if (text == null) {
+            throw new RequestException(400, "Missing dates");
+        }
+        int dots = text.indexOf("..");
+        try {
+            LocalDate from = LocalDate.parse((dots < 0 ? text : text.substring(0, dots)).trim());
+            LocalDate to = dots < 0 ? from : LocalDate.parse(text.substring(dots + 2).trim());
+            return new LocalDate[] {from, to};
+        } catch (DateTimeParseException e) {
+            throw new RequestException(400, "Invalid dates: " + text);
+        }
+    }
+
+    /**
+     * Splits a raw query string into its decoded parameters. A parameter that
+     * appears more than once keeps its last value.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) throws RequestException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, "Invalid query: " + rawQuery);
+        }
+        return parameters;
+    }
+
+    private static StringBuilder metricsJson(MemberMetrics.Totals totals) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"members\":").append(totals.getMemberCount());
+        json.append(",\"active\":").append(totals.getActiveCount());
+        json.append(",\"inactive\":").append(totals.getInactiveCount());
+        json.append(",\"regular\":").append(totals.getRegularCount());
+        json.append(",\"premium\":").append(totals.getPremiumCount());
+        json.append(",\"revenueBooked\":");
+        appendNumber(json, totals.getRevenueBooked());
+        json.append(",\"outstandingBalance\":");
+        appendNumber(json, totals.getOutstandingBalance());
+        json.append(",\"loyaltyPoints\":");
+        appendNumber(json, totals.getTotalLoyaltyPoints());
+        long[] tiers = totals.getLoyaltyTierCounts();
+        json.append(",\"loyaltyTiers\":{\"under25\":").append(tiers[0]);
+        json.append(",\"from25\":").append(tiers[1]);
+        json.append(",\"from50\":").append(tiers[2]);
+        json.append(",\"from100\":").append(tiers[3]);
+        json.append("},\"plans\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> plan : totals.getMembersPerPlan().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(json, plan.getKey());
+            json.append(':').append(plan.getValue());
+        }
+        json.append("}}");
+        return json;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static StringBuilder memberJson(GymMember member) {
+        StringBuilder json = new StringBuilder(512);
+        appendMember(json, member);
+        return json;
+    }
+
+    private static StringBuilder resultJson(String message, GymMember member) {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"message\":");
+        appendString(json, message);
+        json.append(",\"member\":");
+        appendMember(json, member);
+        return json.append('}');
+    }
+
+    /**
+     * Quotes the discount the member would get on their plan, worked out in
+     * the same way as the Calculate Discount and Pay Due Amount buttons do.
+     */
+    private static StringBuilder discountJson(GymMember member) {
+        double basePrice = DiscountEngine.basePriceOf(member);
+        double discount = DiscountEngine.calculateDiscountAmount(member);
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"id\":").append(member.getId());
+        json.append(",\"loyaltyPoints\":");
+        appendNumber(json, member.getLoyaltyPoints());
+        json.append(",\"basePrice\":");
+        appendNumber(json, basePrice);
+        json.append(",\"discount\":");
+        appendNumber(json, discount);
+        json.append(",\"finalAmount\":");
+        appendNumber(json, Math.round((basePrice - discount) * 100.0) / 100.0);
+        return json.append('}');
+    }
+
+    /**
+     * Appends a member as a JSON object. The member is locked while it is read,
+     * so the object shows it either before or after any change, never halfway.
+     */
+    static void appendMember(StringBuilder json, GymMember member) {
+        synchronized (member) {
+            boolean premium = member instanceof PremiumMember;
+            json.append("{\"id\":").append(member.getId());
+            json.append(",\"type\":").append(premium ? "\"premium\"" : "\"regular\"");
+            json.append(",\"name\":");
+            appendString(json, member.getName());
+            json.append(",\"location\":");
+            appendString(json, member.getLocation());
+            json.append(",\"phone\":");
+            appendString(json, member.getPhone());
+            json.append(",\"email\":");
+            appendString(json, member.getEmail());
+            json.append(",\"gender\":");
+            appendString(json, member.getGender());
+            json.append(",\"dob\":");
+            appendString(json, member.getDOB());
+            json.append(",\"membershipStartDate\":");
+            appendString(json, member.getMembershipStartDate());
+            json.append(",\"attendance\":").append(member.getAttendance());
+            json.append(",\"loyaltyPoints\":");
+            appendNumber(json, member.getLoyaltyPoints());
+            json.append(",\"active\":").append(member.isActiveStatus());
+
+            if (premium) {
+                PremiumMember premiumMember = (PremiumMember) member;
+                json.append(",\"plan\":");
+                appendString(json, premiumMember.getPlan());
+                json.append(",\"premiumCharge\":");
+                appendNumber(json, premiumMember.getPremiumCharge());
+                json.append(",\"personalTrainer\":");
+                appendString(json, premiumMember.getPersonalTrainer());
+                json.append(",\"referralSource\":");
+                appendString(json, premiumMember.getReferralSource());
+                json.append(",\"fullPayment\":").append(premiumMember.isFullPayment());
+                json.append(",\"paidAmount\":");
+                appendNumber(json, premiumMember.getPaidAmount());
+                json.append(",\"discountAmount\":");
+                appendNumber(json, premiumMember.getDiscountAmount());
+            } else {
+                RegularMember regularMember = (RegularMember) member;
+                json.append(",\"plan\":");
+                appendString(json, regularMember.getPlan());
+                json.append(",\"price\":");
+                appendNumber(json, regularMember.getPrice());
+                json.append(",\"eligibleForUpgrade\":").append(regularMember.isEligibleForUpgrade());
+                json.append(",\"referralSource\":");
+                appendString(json, regularMember.getReferralSource());
+                json.append(",\"removalReason\":");
+                appendString(json, regularMember.getRemovalReason());
+            }
+            json.append('}');
+        }
+    }
+
+    /**
+     * Appends a string as a JSON string literal, or null if there is no string.
+     */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16))
+                            .append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Appends a number, or null for a value JSON cannot hold. Whole numbers
+     * are written without a fraction.
+     */
+    private static void appendNumber(StringBuilder json, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.append("null");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            json.append((long) value);
+        } else {
+            json.append(value);
+        }
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread, or null
+     * if this Java version does not have virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null; // Before Java 21, or a preview that is not enabled
+        }
+    }
+
+    /**
+     * Loads the members from the working directory, the same way the GUI does,
+     * and answers requests until the program is stopped. The members are saved
+     * when the server stops.
+     */
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            InetAddress address = InetAddress.getByName(args.length > 1 ? args[1] : "127.0.0.1");
+
+            PlanCatalog.watch(new File(PLANS_FILE_NAME));
+            MemberRepository members = new MemberRepository();
+            MemberDatabase database = new MemberDatabase(members, new File(SNAPSHOT_DB_NAME),
+                new File(DELTA_DB_NAME), new File(JOURNAL_DB_NAME), new File(VISITS_DB_NAME));
+            if (database.hasSnapshot()) {
+                database.install(database.readSnapshot(ProgressListener.NONE));
+            } else {
+                MemberRepository imported = new MemberRepository();
+                MemberTableLoader.load(new File(REGULAR_DB_NAME), new File(PREMIUM_DB_NAME), imported);
+                database.install(database.importedMembers(imported));
+            }
+            int replayed = database.openJournal();
+
+            // Build the search indexes and totals now, so the first request does not wait for them
+            members.findByNamePrefix("", 0);
+            members.findByPhone("");
+            members.findByEmail("");
+            members.searchFuzzy("", 0);
+            members.getMetrics();
+
+            // Deactivate the memberships that lapse while the server runs
+            MembershipExpiryScheduler expiry = new MembershipExpiryScheduler(members,
+                MembershipExpiryScheduler.DEFAULT_TERM_MONTHS, LocalDate.now());
+            expiry.scheduleAll();
+            // Memberships that ran out while the server was down
+            int lapsed = expiry.advanceTo(LocalDate.now());
+
+            AdminServer server = new AdminServer(members, address, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    expiry.close();
+                    server.close();
+                    database.save();
+                    database.close();
+                } catch (IOException e) {
+                    System.err.println("Error saving members: " + e.getMessage());
+                }
+            }));
+            server.start();
+            expiry.start();
+
+            System.out.println("Loaded " + members.size() + " members (" + replayed + " journal changes replayed, "
+                + expiry.size() + " memberships due for renewal, " + lapsed + " lapsed ones deactivated)");
+            System.out.println("Admin server listening on http://" + address.getHostAddress() + ":" + server.getPort()
+                + "/members" + (server.isUsingVirtualThreads() ? " (virtual threads)" : ""));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error starting admin server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,843 @@
+/**
+ * The AttendanceHistory class remembers the days each member came in, so that
+ * questions like "who came in on 3 March?" or "how often has member 1042 been
+ * in over the last 30 days?" can be answered; the attendance count of a member
+ * only says how often it has been in altogether.
+ *
+ * The same check-ins are kept twice, in the two shapes the questions need:
+ * - For each member, the days it came in. Days are counted from 1 January
+ *   1970, as LocalDate.toEpochDay does. A member that comes in often has a
+ *   bitmap with one bit per day, from the week of its first visit to the week
+ *   of its last, so a year of visits takes 48 bytes. A member that comes in
+ *   rarely has a sorted array of its days instead, four bytes each; whichever
+ *   of the two is smaller is used.
+ * - For each day, the IDs of the members who came in, as a MemberIdBitmap.
+ * A day counts once, however often the member came in on it. Counting visits
+ * in a range of days is a count of bits; intersecting and merging days works
+ * on whole words of IDs at a time. Both take microseconds.
+ *
+ * A member-day costs a few bits to a few bytes, where a list of LocalDate
+ * objects would take about 30 bytes per day plus the list.
+ *
+ * MemberRepository keeps one history for its members. Check-ins at the front
+ * desk and the turnstiles are recorded on the day they happen, and imported
+ * scan files on the day of each scan. The history is kept by member ID, so it
+ * outlives the member objects. Queries can run at the same time; recording
+ * waits for them.
+ *
+ * VisitListeners are told about every visit recorded. MemberDatabase listens
+ * so that the visits go to the member journal straight away and are saved in
+ * "members.visits" (see AttendanceSnapshot) with the members; loading the
+ * members puts the saved history back with replaceWith.
+ *
+ * Check-ins arrive one at a time from many threads, so record does not take the
+ * lock for each one. It appends the visit to a small buffer, one of STRIPES
+ * chosen by the thread, and only a full buffer is added to the history, in one
+ * batch like recordAll. Each query first adds whatever is waiting in the
+ * buffers, so it always sees every visit recorded before it started.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.time.LocalDate;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class AttendanceHistory {
+    private static final int[] EMPTY = new int[0];
+    // Digits of the radix sort in recordAll
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+    // Buffers of visits waiting to be recorded; a power of two
+    private static final int STRIPES = 16;
+    private static final int STRIPE_SIZE = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Each stripe is locked on its own. A thread holding a stripe may take the
+    // write lock, never the other way round
+    private final VisitBuffer[] stripes = new VisitBuffer[STRIPES];
+    private final List<VisitListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Open-addressing table of members by ID. memberDays[slot] is null for an empty slot,
+    // an int[] of days (ascending, memberVisits[slot] of them), or a long[] bitmap whose
+    // first word holds days 64 * memberFirstWords[slot] onwards
+    private int[] memberIds = new int[1024];
+    private Object[] memberDays = new Object[1024];
+    private int[] memberFirstWords = new int[1024];
+    private int[] memberVisits = new int[1024];
+    private int memberCount;
+
+    // The members who came in on each day, dayMembers[day - firstDay]; null for a day with none
+    private MemberIdBitmap[] dayMembers = new MemberIdBitmap[0];
+    private int firstDay;
+    private long visitCount;
+
+    public AttendanceHistory() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new VisitBuffer();
+        }
+    }
+
+    /**
+     * Records that a member came in on a day. A visit that was already recorded
+     * is ignored.
+     *
+     * @param id The member's ID
+     * @param day The day it came in
+     */
+    public void record(int id, LocalDate day) {
+        long visit = visit(id, toDay(day));
+        VisitBuffer stripe = stripes[(int) Thread.currentThread().getId() & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.visits[stripe.count++] = visit;
+            if (stripe.count == STRIPE_SIZE) {
+                addAll(stripe.visits, STRIPE_SIZE);
+                stripe.count = 0;
+            }
+        }
+        if (!listeners.isEmpty()) {
+            tellListeners(new long[] { visit }, 1);
+        }
+    }
+
+    /**
+     * Packs a visit into a long for recordAll. Visits sort by ID, then by day.
+     */
+    static long visit(int id, int epochDay) {
+        return ((long) id << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the member ID of a visit made with visit(id, day).
+     */
+    static int idOf(long visit) {
+        return (int) (visit >> 32);
+    }
+
+    /**
+     * Records many visits at once, made with visit(id, day). The visits are
+     * sorted first, so each member is looked up once for all of its days, and
+     * each day's bitmap is filled in ID order.
+     *
+     * @param visits The visits; sorted in place
+     * @param count The number of visits at the start of the array to record
+     * @return The number of visits that were not already recorded
+     */
+    long recordAll(long[] visits, int count) {
+        long added = addAll(visits, count);
+        if (!listeners.isEmpty()) {
+            tellListeners(visits, count);
+        }
+        return added;
+    }
+
+    /**
+     * Adds visits the way recordAll does, without telling the listeners. Used
+     * for the buffered visits, whose listeners were told by record, and for
+     * visits read back from saved files.
+     *
+     * @param visits The visits; sorted in place
+     * @param count The number of visits at the start of the array to add
+     * @return The number of visits that were not already recorded
+     */
+    long addAll(long[] visits, int count) {
+        sortVisits(visits, count);
+        long added = 0;
+        lock.writeLock().lock();
+        try {
+            int slot = -1;
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && visits[i] == visits[i - 1]) {
+                    continue;
+                }
+                int id = idOf(visits[i]);
+                int day = (int) visits[i];
+                if (slot >= 0 && id == memberIds[slot]) {
+                    if (!addDay(slot, day)) {
+                        continue;
+                    }
+                } else {
+                    slot = findMember(id);
+                    if (memberDays[slot] != null) {
+                        if (!addDay(slot, day)) {
+                            continue;
+                        }
+                    } else {
+                        slot = addMember(slot, id, day);
+                    }
+                }
+                addToDay(id, day);
+                added++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    /**
+     * Registers a listener to be told about every visit that is recorded.
+     *
+     * @param listener The listener to add
+     */
+    public void addVisitListener(VisitListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about visits.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeVisitListener(VisitListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Puts the visits of a history read from saved files in place of these
+     * ones, in one step. Visits still waiting in the buffers are dropped with
+     * the rest; they are in the member journal, which is replayed afterwards.
+     * The loaded history must not be used any more.
+     *
+     * @param loaded The history to take the visits from
+     */
+    void replaceWith(AttendanceHistory loaded) {
+        loaded.flush();
+        for (VisitBuffer stripe : stripes) {
+            synchronized (stripe) {
+                stripe.count = 0;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            memberIds = loaded.memberIds;
+            memberDays = loaded.memberDays;
+            memberFirstWords = loaded.memberFirstWords;
+            memberVisits = loaded.memberVisits;
+            memberCount = loaded.memberCount;
+            dayMembers = loaded.dayMembers;
+            firstDay = loaded.firstDay;
+            visitCount = loaded.visitCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hands every member's days to the given action, for AttendanceSnapshot.
+     * Recording waits until it is done.
+     *
+     * @param action Called once for each member with at least one visit
+     * @throws IOException if the action fails
+     */
+    void forEachMember(MemberDays action) throws IOException {
+        flush();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < memberIds.length; slot++) {
+                if (memberDays[slot] != null) {
+                    action.accept(memberIds[slot], daysOf(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a member came in on a day.
+     */
+    public boolean attended(int id, LocalDate day) {
+        return visitsBetween(id, day, day) > 0;
+    }
+
+    /**
+     * Returns the number of days a member came in between two days, both included.
+     *
+     * @param id The member's ID
+     * @param from The first day
+     * @param to The last day
+     * @return The number of days, 0 if to is before from
+     */
+    public int visitsBetween(int id, LocalDate from, LocalDate to) {
+        int first = toDay(from);
+        int last = toDay(to);
+        flush();
+        lock.readLock().lock();
+        try {
+            int slot = findMember(id);
+            Object days = memberDays[slot];
+            if (days == null || last < first) {
+                return 0;
+            }
+            if (days instanceof int[]) {
+                int[] list = (int[]) days;
+                int visits = memberVisits[slot];
+                return lowerBound(list, visits, last + 1) - lowerBound(list, visits, first);
+            }
+            return countBits((long[]) days, memberFirstWords[slot], first, last);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of days a member came in during the given number of
+     * days up to and including today.
+     */
+    public int visitsInLast(int id, int days) {
+        LocalDate today = LocalDate.now();
+        return visitsBetween(id, today.minusDays(days - 1), today);
+    }
+
+    /**
+     * Returns the days a member came in, earliest first.
+     */
+    public LocalDate[] daysVisited(int id) {
+        int[] days;
+        flush();
+        lock.readLock().lock();
+        try {
+            days = daysOf(findMember(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+        LocalDate[] dates = new LocalDate[days.length];
+        for (int i = 0; i < days.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(days[i]);
+        }
+        return dates;
+    }
+
+    /**
+     * Returns the last day a member came in, or null if it never did.
+     */
+    public LocalDate lastVisit(int id) {
+        flush();
+        lock.readLock().lock();
+        try {
+            int slot = findMember(id);
+            Object days = memberDays[slot];
+            if (days == null) {
+                return null;
+            }
+            if (days instanceof int[]) {
+                return LocalDate.ofEpochDay(((int[]) days)[memberVisits[slot] - 1]);
+            }
+            long[] bits = (long[]) days;
+            int w = bits.length - 1;
+            while (bits[w] == 0) {
+                w--;
+            }
+            return LocalDate.ofEpochDay(((long) (memberFirstWords[slot] + w) << 6) + 63
+                - Long.numberOfLeadingZeros(bits[w]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of members who came in on a day.
+     */
+    public int countOn(LocalDate day) {
+        flush();
+        lock.readLock().lock();
+        try {
+            MemberIdBitmap members = membersOf(toDay(day));
+            return members == null ? 0 : members.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the members who came in on a day, in ascending order.
+     */
+    public int[] membersOn(LocalDate day) {
+        flush();
+        lock.readLock().lock();
+        try {
+            MemberIdBitmap members = membersOf(toDay(day));
+            return members == null ? EMPTY : members.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the members who came in on every one of the given
+     * days, in ascending order.
+     *
+     * @param days The days; with none, no member is returned
+     * @return The IDs
+     */
+    public int[] membersOnEvery(LocalDate... days) {
+        flush();
+        lock.readLock().lock();
+        try {
+            MemberIdBitmap[] bitmaps = membersOfEach(days);
+            if (bitmaps == null) {
+                return EMPTY;
+            }
+            return MemberIdBitmap.and(bitmaps).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of members who came in on every one of the given
+     * days, without listing them.
+     */
+    public int countOnEvery(LocalDate... days) {
+        flush();
+        lock.readLock().lock();
+        try {
+            MemberIdBitmap[] bitmaps = membersOfEach(days);
+            if (bitmaps == null) {
+                return 0;
+            }
+            return MemberIdBitmap.andCardinality(bitmaps);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the members who came in at least once between two
+     * days, both included, in ascending order.
+     */
+    public int[] membersBetween(LocalDate from, LocalDate to) {
+        flush();
+        lock.readLock().lock();
+        try {
+            return membersBetween(toDay(from), toDay(to)).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of members who came in at least once between two
+     * days, both included, without listing them.
+     */
+    public int countBetween(LocalDate from, LocalDate to) {
+        flush();
+        lock.readLock().lock();
+        try {
+            return membersBetween(toDay(from), toDay(to)).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of members with at least one recorded visit.
+     */
+    public int getMemberCount() {
+        flush();
+        lock.readLock().lock();
+        try {
+            return memberCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of member-days recorded.
+     */
+    public long getVisitCount() {
+        flush();
+        lock.readLock().lock();
+        try {
+            return visitCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the visits waiting in every buffer. Each buffer stays locked until
+     * its visits are in, so a query never overtakes visits another query is
+     * still putting in.
+     */
+    private void flush() {
+        for (VisitBuffer stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.count > 0) {
+                    addAll(stripe.visits, stripe.count);
+                    stripe.count = 0;
+                }
+            }
+        }
+    }
+
+    private void tellListeners(long[] visits, int count) {
+        for (VisitListener listener : listeners) {
+            listener.visitsRecorded(visits, count);
+        }
+    }
+
+    /**
+     * Puts a member with its first day in an empty slot of the table.
+     *
+     * @return The member's slot, which changes if the table had to grow
+     */
+    private int addMember(int slot, int id, int day) {
+        memberIds[slot] = id;
+        memberDays[slot] = new int[] { day };
+        memberVisits[slot] = 1;
+        memberCount++;
+        // Keep the table at most half full so probe sequences stay short
+        if (memberCount * 2 > memberIds.length) {
+            rehash(memberIds.length * 2);
+            slot = findMember(id);
+        }
+        return slot;
+    }
+
+    /**
+     * Adds a member to the members of a day.
+     */
+    private void addToDay(int id, int day) {
+        if (dayMembers.length == 0) {
+            dayMembers = new MemberIdBitmap[64];
+            firstDay = day - 32;
+        } else if (day < firstDay || day >= firstDay + dayMembers.length) {
+            growDays(day);
+        }
+        MemberIdBitmap members = dayMembers[day - firstDay];
+        if (members == null) {
+            members = new MemberIdBitmap();
+            dayMembers[day - firstDay] = members;
+        }
+        members.add(id);
+        visitCount++;
+    }
+
+    /**
+     * Adds a day to a member already in the table, switching between the sorted
+     * array and the bitmap so that the smaller of the two is used.
+     *
+     * @return false if the day was already there
+     */
+    private boolean addDay(int slot, int day) {
+        Object days = memberDays[slot];
+        int visits = memberVisits[slot];
+        int word = day >> 6;
+        if (days instanceof long[]) {
+            long[] bits = (long[]) days;
+            int firstWord = memberFirstWords[slot];
+            if (word >= firstWord && word < firstWord + bits.length) {
+                long bit = 1L << day;
+                if ((bits[word - firstWord] & bit) != 0) {
+                    return false;
+                }
+                bits[word - firstWord] |= bit;
+                memberVisits[slot] = visits + 1;
+                return true;
+            }
+            int newFirst = Math.min(firstWord, word);
+            int newLength = Math.max(firstWord + bits.length, word + 1) - newFirst;
+            if (newLength > visits + 1) {
+                // A far-away day would more than double the bitmap: go back to a list
+                int[] list = daysOf(slot);
+                list = Arrays.copyOf(list, visits + 1);
+                int at = lowerBound(list, visits, day);
+                System.arraycopy(list, at, list, at + 1, visits - at);
+                list[at] = day;
+                memberDays[slot] = list;
+            } else {
+                long[] grown = new long[newLength];
+                System.arraycopy(bits, 0, grown, firstWord - newFirst, bits.length);
+                grown[word - newFirst] |= 1L << day;
+                memberDays[slot] = grown;
+                memberFirstWords[slot] = newFirst;
+            }
+            memberVisits[slot] = visits + 1;
+            return true;
+        }
+
+        int[] list = (int[]) days;
+        // Days usually arrive in order, so try the end first
+        int at = list[visits - 1] < day ? visits : lowerBound(list, visits, day);
+        if (at < visits && list[at] == day) {
+            return false;
+        }
+        int firstWord = Math.min(list[0], day) >> 6;
+        int lastWord = Math.max(list[visits - 1], day) >> 6;
+        if ((lastWord - firstWord + 1) * 2 <= visits + 1) {
+            // A bitmap over the member's weeks now takes no more room than the list
+            long[] bits = new long[lastWord - firstWord + 1];
+            for (int i = 0; i < visits; i++) {
+                bits[(list[i] >> 6) - firstWord] |= 1L << list[i];
+            }
+            bits[word - firstWord] |= 1L << day;
+            memberDays[slot] = bits;
+            memberFirstWords[slot] = firstWord;
+        } else {
+            if (visits == list.length) {
+                list = Arrays.copyOf(list, visits + Math.max(visits >> 1, 2));
+                memberDays[slot] = list;
+            }
+            System.arraycopy(list, at, list, at + 1, visits - at);
+            list[at] = day;
+        }
+        memberVisits[slot] = visits + 1;
+        return true;
+    }
+
+    /**
+     * Sorts visits by ID and day. The IDs and days of one batch usually fall
+     * in narrow ranges, so each visit is turned into a small number, its
+     * position in the grid of IDs by days, and these are sorted by their
+     * digits in base 2^RADIX_BITS, which takes a few passes over the visits
+     * where comparing them would take many.
+     */
+    private static void sortVisits(long[] visits, int count) {
+        if (count < 1 << RADIX_BITS) {
+            // Clearing the table of digits would cost more than comparing so few visits
+            Arrays.sort(visits, 0, count);
+            return;
+        }
+        int minId = Integer.MAX_VALUE;
+        int maxId = Integer.MIN_VALUE;
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int id = idOf(visits[i]);
+            int day = (int) visits[i];
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+        long days = (long) maxDay - minDay + 1;
+        long cells = ((long) maxId - minId + 1) * days;
+        int bits = 64 - Long.numberOfLeadingZeros(cells - 1);
+        if (bits > 2 * RADIX_BITS) {
+            Arrays.parallelSort(visits, 0, count); // Too spread out to sort in two passes
+            return;
+        }
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (idOf(visits[i]) - (long) minId) * days + ((int) visits[i] - minDay);
+        }
+        long[] sorted = new long[count];
+        int[] starts = new int[1 << RADIX_BITS];
+        for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < count; i++) {
+                starts[(int) (keys[i] >>> shift) & RADIX_MASK]++;
+            }
+            int start = 0;
+            for (int digit = 0; digit < starts.length; digit++) {
+                int digitCount = starts[digit];
+                starts[digit] = start;
+                start += digitCount;
+            }
+            for (int i = 0; i < count; i++) {
+                sorted[starts[(int) (keys[i] >>> shift) & RADIX_MASK]++] = keys[i];
+            }
+            long[] swap = keys;
+            keys = sorted;
+            sorted = swap;
+        }
+        for (int i = 0; i < count; i++) {
+            visits[i] = visit((int) (minId + keys[i] / days), (int) (minDay + keys[i] % days));
+        }
+    }
+
+    /**
+     * Returns a member's days in ascending order, or none if it is not in the table.
+     */
+    private int[] daysOf(int slot) {
+        Object days = memberDays[slot];
+        if (days == null) {
+            return EMPTY;
+        }
+        int visits = memberVisits[slot];
+        if (days instanceof int[]) {
+            return Arrays.copyOf((int[]) days, visits);
+        }
+        long[] bits = (long[]) days;
+        int[] list = new int[visits];
+        int n = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                list[n++] = ((memberFirstWords[slot] + w) << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Counts the days from first to last, both included, that are set in a bitmap.
+     */
+    private static int countBits(long[] bits, int firstWord, int first, int last) {
+        int fromWord = Math.max(first >> 6, firstWord);
+        int toWord = Math.min(last >> 6, firstWord + bits.length - 1);
+        int count = 0;
+        for (int w = fromWord; w <= toWord; w++) {
+            long word = bits[w - firstWord];
+            if (w == first >> 6) {
+                word &= -1L << first; // Days before first
+            }
+            if (w == last >> 6) {
+                word &= -1L >>> (63 - (last & 63)); // Days after last
+            }
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of days in the list that come before the given day.
+     */
+    private static int lowerBound(int[] list, int size, int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the members of each of the given days, the quietest day first,
+     * so that an intersection has the fewest chunks to look at; or null if
+     * there are no days or one of them has no members. Called while holding a lock.
+     */
+    private MemberIdBitmap[] membersOfEach(LocalDate[] days) {
+        if (days.length == 0) {
+            return null;
+        }
+        MemberIdBitmap[] bitmaps = new MemberIdBitmap[days.length];
+        for (int i = 0; i < days.length; i++) {
+            bitmaps[i] = membersOf(toDay(days[i]));
+            if (bitmaps[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(bitmaps, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        return bitmaps;
+    }
+
+    /**
+     * Merges the members of the days from first to last. Called while holding a lock.
+     */
+    private MemberIdBitmap membersBetween(int first, int last) {
+        MemberIdBitmap result = new MemberIdBitmap();
+        first = Math.max(first, firstDay);
+        last = Math.min(last, firstDay + dayMembers.length - 1);
+        for (int day = first; day <= last; day++) {
+            MemberIdBitmap members = dayMembers[day - firstDay];
+            if (members != null) {
+                result.addAll(members);
+            }
+        }
+        return result;
+    }
+
+    private MemberIdBitmap membersOf(int day) {
+        if (day < firstDay || day >= firstDay + dayMembers.length) {
+            return null;
+        }
+        return dayMembers[day - firstDay];
+    }
+
+    /**
+     * Makes room in dayMembers for the given day, with some spare room on the side it grew.
+     */
+    private void growDays(int day) {
+        int newFirst = Math.min(firstDay, day);
+        int newEnd = Math.max(firstDay + dayMembers.length, day + 1);
+        int spare = Math.max(dayMembers.length / 2, 64);
+        if (day < firstDay) {
+            newFirst -= spare;
+        } else {
+            newEnd += spare;
+        }
+        MemberIdBitmap[] grown = new MemberIdBitmap[newEnd - newFirst];
+        System.arraycopy(dayMembers, 0, grown, firstDay - newFirst, dayMembers.length);
+        dayMembers = grown;
+        firstDay = newFirst;
+    }
+
+    /**
+     * Returns the slot of a member ID, or the empty slot where it would go.
+     */
+    private int findMember(int id) {
+        int mask = memberIds.length - 1;
+        int slot = hash(id) & mask;
+        while (memberDays[slot] != null && memberIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldIds = memberIds;
+        Object[] oldDays = memberDays;
+        int[] oldFirstWords = memberFirstWords;
+        int[] oldVisits = memberVisits;
+        memberIds = new int[capacity];
+        memberDays = new Object[capacity];
+        memberFirstWords = new int[capacity];
+        memberVisits = new int[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldDays[i] != null) {
+                int slot = findMember(oldIds[i]);
+                memberIds[slot] = oldIds[i];
+                memberDays[slot] = oldDays[i];
+                memberFirstWords[slot] = oldFirstWords[i];
+                memberVisits[slot] = oldVisits[i];
+            }
+        }
+    }
+
+    private static int toDay(LocalDate day) {
+        return Math.toIntExact(day.toEpochDay());
+    }
+
+    /**
+     * Spreads the bits of the ID so that sequential IDs do not fall into
+     * neighbouring slots and build long probe chains.
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Receives the days of one member from forEachMember.
+     */
+    interface MemberDays {
+        /**
+         * @param id The member's ID
+         * @param days The days it came in, ascending
+         */
+        void accept(int id, int[] days) throws IOException;
+    }
+
+    /**
+     * Visits recorded by record and not yet added to the history.
+     */
+    private static class VisitBuffer {
+        final long[] visits = new long[STRIPE_SIZE];
+        int count;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * The AttendanceSnapshot class saves and loads an AttendanceHistory, so the
+ * days the members came in are kept when the program stops. The history is
+ * saved in "members.visits", beside the member snapshot, at the same times.
+ *
+ * A full save writes every member's days, with each day stored as the gap
+ * from the one before in as few bytes as it needs: a member who comes in
+ * every other day costs about a byte per visit. Like MemberSnapshot, it is
+ * written to a temporary file that is then moved over the old one.
+ *
+ * Between full saves, the visits recorded since the last save are appended as
+ * a segment at the end of the file. Loading reads the saved days and then the
+ * segments in order. A segment that was only partly written (the program
+ * stopped during a save) is cut off; the visits it held are still in the
+ * member journal.
+ *
+ * File layout:
+ * - Header: magic number "GYMV" and format version
+ * - Members: number of days, ID, first day, then the gap to each following day;
+ *   the counts and gaps are variable-length numbers (seven bits per byte,
+ *   lowest first). A count of 0 ends the members
+ * - Checksum: CRC32 of everything before it
+ * - Segments: number of visits, the visits as AttendanceHistory.visit packs
+ *   them, and a CRC32 of the segment
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+public class AttendanceSnapshot {
+    private static final int MAGIC = 0x47594D56; // "GYMV"
+    private static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Visits are handed to the history in batches of this many while loading
+    private static final int BATCH_SIZE = 1 << 16;
+
+    /**
+     * Writes the whole history to the file, replacing it and any segments
+     * appended to it.
+     *
+     * @param file The file to write
+     * @param history The history to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(File file, AttendanceHistory history) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(fileOut, crc), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            history.forEachMember((id, days) -> {
+                writeVarint(out, days.length);
+                out.writeInt(id);
+                out.writeInt(days[0]);
+                for (int i = 1; i < days.length; i++) {
+                    writeVarint(out, days[i] - days[i - 1]);
+                }
+            });
+            writeVarint(out, 0);
+            out.flush();
+            // The checksum itself is written past the checked stream
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            tempFile.delete();
+            throw e;
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Appends a segment holding the given visits to a file written by save,
+     * and forces it to disk.
+     *
+     * @param file The file, which must already exist
+     * @param visits The visits, made with AttendanceHistory.visit
+     * @param count The number of visits at the start of the array
+     * @throws IOException if the segment cannot be written
+     */
+    public static void append(File file, long[] visits, int count) throws IOException {
+        if (!file.exists()) {
+            throw new IOException(file.getName() + " does not exist");
+        }
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(file, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(fileOut, crc), BUFFER_SIZE));
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(visits[i]);
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+        }
+    }
+
+    /**
+     * Reads the file into a history: the saved days, then every complete
+     * segment. A torn segment at the end is cut off.
+     *
+     * @param file The file; a missing file holds no visits
+     * @param history The history to add the visits to, without telling its listeners
+     * @return The number of visits read
+     * @throws IOException if the file cannot be read, or its saved days are damaged
+     */
+    public static long load(File file, AttendanceHistory history) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        long read = 0;
+        long validEnd;
+        long[] batch = new long[BATCH_SIZE];
+        int batchCount = 0;
+        CRC32 crc = new CRC32();
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            MemberSnapshot.CountingInputStream countingIn = new MemberSnapshot.CountingInputStream(
+                new BufferedInputStream(fileIn, BUFFER_SIZE));
+            DataInputStream trailerIn = new DataInputStream(countingIn);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(countingIn, crc));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file.getName() + " is not an attendance history");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported attendance history version " + version + " in " + file.getName());
+            }
+            while (true) {
+                int days = readVarint(in);
+                if (days == 0) {
+                    break;
+                }
+                int id = in.readInt();
+                int day = in.readInt();
+                for (int i = 0; i < days; i++) {
+                    if (i > 0) {
+                        day += readVarint(in);
+                    }
+                    if (batchCount == BATCH_SIZE) {
+                        history.addAll(batch, batchCount);
+                        batchCount = 0;
+                    }
+                    batch[batchCount++] = AttendanceHistory.visit(id, day);
+                }
+                read += days;
+            }
+            if (trailerIn.readInt() != (int) crc.getValue()) {
+                throw new IOException("Attendance history " + file.getName() + " is corrupted (checksum mismatch)");
+            }
+            history.addAll(batch, batchCount);
+            validEnd = countingIn.getCount();
+
+            while (true) {
+                // Read the whole segment before adding it, so a torn segment adds nothing
+                long[] segment;
+                try {
+                    crc.reset();
+                    int count = in.readInt();
+                    if (count < 0 || count > (file.length() - validEnd) / 8) {
+                        break;
+                    }
+                    segment = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        segment[i] = in.readLong();
+                    }
+                    if (trailerIn.readInt() != (int) crc.getValue()) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    break; // Torn segment at the end of the file
+                }
+                history.addAll(segment, segment.length);
+                read += segment.length;
+                validEnd = countingIn.getCount();
+            }
+        }
+        if (validEnd < file.length()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        return read;
+    }
+
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Damaged number in attendance history");
+    }
+}
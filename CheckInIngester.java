@@ -0,0 +1,549 @@
+/**
+ * The CheckInIngester class reads a turnstile scan file and marks attendance for
+ * every scan in it, using every CPU core.
+ *
+ * A scan file has one scan per line: the member ID, a separator (comma, semicolon,
+ * space or tab) and the time of the scan, for example "1042,2026-01-01T06:00:03".
+ * Blank lines and lines starting with "#" are skipped.
+ *
+ * The work is done in two steps:
+ * - The file is memory-mapped and split into chunks that always end on a line
+ *   break, like MemberTableLoader does. Each chunk is parsed on a fork-join pool
+ *   into a table counting the scans of each member ID, and the tables are merged.
+ * - The merged table is split into partitions, and each partition is applied on
+ *   the pool. A member's ID falls into exactly one partition, so every member is
+ *   changed by one task, once, with all of its scans: a member scanned 12 times
+ *   gets markAttendance(12), which the journal records as a single change.
+ *
+ * The day of each counted scan is recorded in the repository's
+ * AttendanceHistory, once the scans are applied. A scan whose time does not
+ * start with a date (2026-01-01) is still counted, but has no day to record.
+ *
+ * Scans for IDs that do not exist, and for members whose membership is not active,
+ * are not counted. They are listed in the result instead, so the front desk sees
+ * them all in one summary.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CheckInIngester {
+    // Chunks smaller than this are parsed by a single task
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    // Partitions smaller than this (in table slots) are applied by a single task
+    private static final int PARTITION_SIZE = 1 << 14;
+
+    private static final long NO_DAY = Long.MIN_VALUE;
+    private static final int[] DAYS_IN_MONTH = { 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+    // Days from 1 January of year 0 to 1 January 1970
+    private static final long DAYS_0000_TO_1970 = (146097 * 5L) - (30L * 365L + 7L);
+
+    private CheckInIngester() {
+    }
+
+    /**
+     * Reads a scan file and marks attendance for the members scanned in it.
+     * Cancelling is only possible while the file is being read; once the scans
+     * are being applied, they are applied in full.
+     *
+     * @param file The scan file
+     * @param members The members to mark attendance for
+     * @param progress Told how far the ingestion has got, and asked whether to stop
+     * @return A summary of what was applied and what was not
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedIOException if the ingestion was cancelled
+     */
+    public static Result ingest(File file, MemberRepository members, ProgressListener progress) throws IOException {
+        ScanCounts counts;
+        int malformedLines;
+        LongList visits;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file.getName() + " is too large to map (" + size + " bytes)");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ParseResult parsed = ForkJoinPool.commonPool().invoke(new ParseTask(buffer, 0, (int) size));
+            counts = parsed.counts;
+            malformedLines = parsed.malformedLines;
+            visits = parsed.visits;
+        }
+        if (progress.isCancelRequested()) {
+            throw new InterruptedIOException("Cancelled");
+        }
+
+        progress.progress(0, counts.slotCount());
+        Result result = ForkJoinPool.commonPool().invoke(
+            new ApplyTask(counts, members, 0, counts.slotCount(), progress, new AtomicInteger()));
+        result.malformedLines = malformedLines;
+        result.unknownIds.sort();
+        result.inactiveIds.sort();
+        recordVisits(visits, result, members.getAttendanceHistory());
+        return result;
+    }
+
+    /**
+     * Records the days of the scans that were counted, leaving out those of
+     * unknown IDs and inactive members.
+     */
+    private static void recordVisits(LongList visits, Result result, AttendanceHistory history) {
+        int[] unknownIds = result.getUnknownIds();
+        int[] inactiveIds = result.getInactiveIds();
+        long[] values = visits.values;
+        int kept = 0;
+        for (int i = 0; i < visits.size; i++) {
+            int id = AttendanceHistory.idOf(values[i]);
+            if (Arrays.binarySearch(unknownIds, id) < 0 && Arrays.binarySearch(inactiveIds, id) < 0) {
+                values[kept++] = values[i];
+            }
+        }
+        history.recordAll(values, kept);
+    }
+
+    /**
+     * The outcome of an ingestion.
+     */
+    public static class Result {
+        private long appliedScans;
+        private int appliedMembers;
+        private long unknownScans;
+        private long inactiveScans;
+        private int malformedLines;
+        private final IntList unknownIds = new IntList();
+        private final IntList inactiveIds = new IntList();
+
+        public long getScanCount() {
+            return appliedScans + unknownScans + inactiveScans;
+        }
+
+        public long getAppliedScans() {
+            return appliedScans;
+        }
+
+        public int getAppliedMembers() {
+            return appliedMembers;
+        }
+
+        public long getUnknownScans() {
+            return unknownScans;
+        }
+
+        public long getInactiveScans() {
+            return inactiveScans;
+        }
+
+        public int getMalformedLines() {
+            return malformedLines;
+        }
+
+        /**
+         * Returns the IDs that were scanned but belong to no member, in ascending order.
+         */
+        public int[] getUnknownIds() {
+            return unknownIds.toArray();
+        }
+
+        /**
+         * Returns the IDs of members that were scanned while their membership
+         * was not active, in ascending order.
+         */
+        public int[] getInactiveIds() {
+            return inactiveIds.toArray();
+        }
+
+        void addAll(Result other) {
+            appliedScans += other.appliedScans;
+            appliedMembers += other.appliedMembers;
+            unknownScans += other.unknownScans;
+            inactiveScans += other.inactiveScans;
+            unknownIds.addAll(other.unknownIds);
+            inactiveIds.addAll(other.inactiveIds);
+        }
+    }
+
+    /**
+     * Scans parsed from one chunk.
+     */
+    private static class ParseResult {
+        final ScanCounts counts = new ScanCounts();
+        // Each dated scan, as AttendanceHistory.visit(id, day)
+        final LongList visits = new LongList();
+        int malformedLines;
+    }
+
+    /**
+     * Parses the lines between start and end, splitting itself in two while
+     * the range is larger than CHUNK_SIZE.
+     */
+    @SuppressWarnings("serial")
+    private static class ParseTask extends RecursiveTask<ParseResult> {
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        ParseTask(MappedByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ParseResult compute() {
+            if (end - start > CHUNK_SIZE) {
+                int split = nextLineStart(start + (end - start) / 2);
+                if (split > start && split < end) {
+                    ParseTask left = new ParseTask(buffer, start, split);
+                    ParseTask right = new ParseTask(buffer, split, end);
+                    left.fork();
+                    ParseResult rightResult = right.compute();
+                    ParseResult leftResult = left.join();
+                    // Merge the smaller table into the larger one
+                    if (leftResult.counts.size() < rightResult.counts.size()) {
+                        ParseResult swap = leftResult;
+                        leftResult = rightResult;
+                        rightResult = swap;
+                    }
+                    leftResult.counts.addAll(rightResult.counts);
+                    leftResult.visits.addAll(rightResult.visits);
+                    leftResult.malformedLines += rightResult.malformedLines;
+                    return leftResult;
+                }
+            }
+            return parseRange();
+        }
+
+        /**
+         * Returns the position just after the next line break at or after pos,
+         * or end if there is none.
+         */
+        private int nextLineStart(int pos) {
+            while (pos < end) {
+                if (buffer.get(pos++) == '\n') {
+                    return pos;
+                }
+            }
+            return end;
+        }
+
+        private ParseResult parseRange() {
+            ParseResult result = new ParseResult();
+            int pos = start;
+            while (pos < end) {
+                int lineEnd = pos;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (!parseLine(pos, lineEnd, result)) {
+                    result.malformedLines++;
+                }
+                pos = lineEnd + 1;
+            }
+            return result;
+        }
+
+        /**
+         * Reads the member ID at the start of a line and counts the scan, with
+         * the day it was made on if the time starts with a date.
+         *
+         * @return false if the line is not a valid scan, comment or blank line
+         */
+        private boolean parseLine(int pos, int lineEnd, ParseResult result) {
+            if (lineEnd > pos && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            while (pos < lineEnd && isBlank(buffer.get(pos))) {
+                pos++;
+            }
+            if (pos == lineEnd || buffer.get(pos) == '#') {
+                return true; // Blank line or comment
+            }
+
+            long id = 0;
+            int digitsStart = pos;
+            while (pos < lineEnd) {
+                byte b = buffer.get(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                id = id * 10 + (b - '0');
+                if (id > Integer.MAX_VALUE) {
+                    return false;
+                }
+                pos++;
+            }
+            if (pos == digitsStart || pos == lineEnd) {
+                return false; // No ID, or no timestamp after it
+            }
+            byte separator = buffer.get(pos);
+            if (separator != ',' && separator != ';' && !isBlank(separator)) {
+                return false;
+            }
+            pos++;
+            while (pos < lineEnd && isBlank(buffer.get(pos))) {
+                pos++;
+            }
+            if (pos == lineEnd) {
+                return false;
+            }
+            result.counts.add((int) id, 1);
+            long day = parseDay(pos, lineEnd);
+            if (day != NO_DAY) {
+                result.visits.add(AttendanceHistory.visit((int) id, (int) day));
+            }
+            return true;
+        }
+
+        /**
+         * Reads a date in the form 2026-01-01 at pos, and returns it as a
+         * count of days since 1 January 1970, like LocalDate.toEpochDay.
+         *
+         * @return The day, or NO_DAY if there is no valid date at pos
+         */
+        private long parseDay(int pos, int lineEnd) {
+            if (lineEnd - pos < 10 || buffer.get(pos + 4) != '-' || buffer.get(pos + 7) != '-') {
+                return NO_DAY;
+            }
+            int year = digits(pos, 4);
+            int month = digits(pos + 5, 2);
+            int day = digits(pos + 8, 2);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month - 1]
+                    || (month == 2 && day == 29 && !Year.isLeap(year))) {
+                return NO_DAY;
+            }
+            // Days before the year, then before the month, then in it; see LocalDate.toEpochDay
+            long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+            total += (367 * month - 362) / 12 + day - 1;
+            if (month > 2) {
+                total -= Year.isLeap(year) ? 1 : 2;
+            }
+            return total - DAYS_0000_TO_1970;
+        }
+
+        /**
+         * Reads count decimal digits at pos.
+         *
+         * @return The number, or -1 if a character is not a digit
+         */
+        private int digits(int pos, int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                byte b = buffer.get(pos + i);
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        private static boolean isBlank(byte b) {
+            return b == ' ' || b == '\t';
+        }
+    }
+
+    /**
+     * Applies the scans in the table slots between start and end, splitting
+     * itself in two while the range is larger than PARTITION_SIZE.
+     */
+    @SuppressWarnings("serial")
+    private static class ApplyTask extends RecursiveTask<Result> {
+        private final ScanCounts counts;
+        private final MemberRepository members;
+        private final int start;
+        private final int end;
+        private final ProgressListener progress;
+        private final AtomicInteger slotsDone;
+
+        ApplyTask(ScanCounts counts, MemberRepository members, int start, int end,
+                  ProgressListener progress, AtomicInteger slotsDone) {
+            this.counts = counts;
+            this.members = members;
+            this.start = start;
+            this.end = end;
+            this.progress = progress;
+            this.slotsDone = slotsDone;
+        }
+
+        @Override
+        protected Result compute() {
+            if (end - start > PARTITION_SIZE) {
+                int split = start + (end - start) / 2;
+                ApplyTask left = new ApplyTask(counts, members, start, split, progress, slotsDone);
+                ApplyTask right = new ApplyTask(counts, members, split, end, progress, slotsDone);
+                left.fork();
+                Result rightResult = right.compute();
+                Result leftResult = left.join();
+                leftResult.addAll(rightResult);
+                return leftResult;
+            }
+
+            Result result = new Result();
+            for (int slot = start; slot < end; slot++) {
+                int scans = counts.countAt(slot);
+                if (scans == 0) {
+                    continue; // Empty slot
+                }
+                int id = counts.idAt(slot);
+                GymMember member = members.findById(id);
+                if (member == null) {
+                    result.unknownScans += scans;
+                    result.unknownIds.add(id);
+                } else if (!member.isActiveStatus()) {
+                    result.inactiveScans += scans;
+                    result.inactiveIds.add(id);
+                } else {
+                    member.markAttendance(scans);
+                    result.appliedScans += scans;
+                    result.appliedMembers++;
+                }
+            }
+            progress.progress(slotsDone.addAndGet(end - start), counts.slotCount());
+            return result;
+        }
+    }
+
+    /**
+     * Counts scans per member ID in an open-addressing table keyed on the
+     * primitive ID, like the index in MemberRepository.
+     */
+    private static class ScanCounts {
+        // counts[i] is the number of scans of ids[i], 0 means the slot is empty
+        private int[] ids = new int[1024];
+        private int[] counts = new int[1024];
+        private int mask = 1023;
+        private int size = 0;
+
+        void add(int id, int scans) {
+            int slot = hash(id) & mask;
+            while (counts[slot] != 0) {
+                if (ids[slot] == id) {
+                    counts[slot] += scans;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            counts[slot] = scans;
+            size++;
+            // Keep the table at most half full so probe sequences stay short
+            if (size * 2 > counts.length) {
+                rehash(counts.length * 2);
+            }
+        }
+
+        void addAll(ScanCounts other) {
+            for (int slot = 0; slot < other.counts.length; slot++) {
+                if (other.counts[slot] != 0) {
+                    add(other.ids[slot], other.counts[slot]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int slotCount() {
+            return counts.length;
+        }
+
+        int idAt(int slot) {
+            return ids[slot];
+        }
+
+        int countAt(int slot) {
+            return counts[slot];
+        }
+
+        private void rehash(int capacity) {
+            int[] oldIds = ids;
+            int[] oldCounts = counts;
+            ids = new int[capacity];
+            counts = new int[capacity];
+            mask = capacity - 1;
+            for (int slot = 0; slot < oldCounts.length; slot++) {
+                if (oldCounts[slot] != 0) {
+                    int newSlot = hash(oldIds[slot]) & mask;
+                    while (counts[newSlot] != 0) {
+                        newSlot = (newSlot + 1) & mask;
+                    }
+                    ids[newSlot] = oldIds[slot];
+                    counts[newSlot] = oldCounts[slot];
+                }
+            }
+        }
+
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * A growable list of primitive ints, for the IDs listed in the result.
+     */
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * A growable list of longs.
+     */
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+/**
+ * The CheckInServer class runs the check-in desk without the Swing window: a
+ * small TCP service that the turnstile controllers connect to.
+ *
+ * The protocol is plain text, one request and one response per line, so a
+ * controller (or a person with telnet) can use it directly:
+ *   check in 1042   ->  OK 31           (attendance after the visit)
+ *                       INACTIVE        (membership not active, not counted)
+ *   status 1042     ->  ACTIVE 31 155.00    (attendance and loyalty points)
+ *                       INACTIVE 31 155.00
+ *   balance 1042    ->  BALANCE 25000.00    (still to pay, premium members)
+ *                       NONE                (regular members have no balance)
+ *   quit            ->  BYE, and the connection is closed
+ * A request for an ID that does not exist gets UNKNOWN, and a request that
+ * cannot be read gets a line starting with ERROR. Commands are not case sensitive.
+ *
+ * Controllers may send several requests without waiting for the answers; the
+ * responses come back in order and are flushed once no more requests are waiting,
+ * so a burst of scans shares network writes.
+ *
+ * A check-in is only answered OK once it is in the member journal on disk, so a
+ * visit the controller was told about survives a crash. The server waits for the
+ * journal once for each batch of responses rather than once for each check-in,
+ * and the journal writes the check-ins of every connection in one disk flush, so
+ * a burst of scans shares that wait too. If the journal cannot be written, the
+ * connection is closed without the batch's responses.
+ *
+ * Each connection is handled on its own thread. On Java 21 and later these are
+ * virtual threads, so thousands of idle controller connections cost almost
+ * nothing; the program is built for Java 17, so the virtual thread executor is
+ * looked up when the server starts, and ordinary threads are used if it is not there.
+ *
+ * Requests go straight to the MemberRepository, which can be read and changed by
+ * many threads at once, and every check-in is recorded in the member journal and
+ * the attendance history like one made in the GUI. The server and the GUI must
+ * not be run on the same files at the same time.
+ *
+ * Usage: java CheckInServer [port] [address]
+ * (the defaults are port 7070 on 127.0.0.1; use 0.0.0.0 to accept controllers
+ * from the network)
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CheckInServer implements Closeable {
+    public static final int DEFAULT_PORT = 7070;
+
+    // The same files the GUI uses, in the working directory
+    private static final String REGULAR_DB_NAME = "regular_members.txt";
+    private static final String PREMIUM_DB_NAME = "premium_members.txt";
+    private static final String SNAPSHOT_DB_NAME = "members.dat";
+    private static final String DELTA_DB_NAME = "members.delta";
+    private static final String JOURNAL_DB_NAME = "members.wal";
+    private static final String VISITS_DB_NAME = "members.visits";
+    private static final String PLANS_FILE_NAME = PlanCatalog.DEFAULT_FILE_NAME;
+
+    // Requests are short; anything longer is not a request
+    private static final int MAX_LINE = 256;
+    // Responses waiting to be sent on one connection
+    private static final int REPLY_BUFFER_SIZE = 8192;
+
+    private final MemberRepository members;
+    private final MemberDatabase database;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final boolean virtualThreads;
+    private Thread acceptThread;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a server for the given members and binds it to a port. Check-ins
+     * are answered without waiting for them to reach the disk.
+     * Call start to begin accepting connections.
+     *
+     * @param members The members that check in
+     * @param address The address to listen on
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public CheckInServer(MemberRepository members, InetAddress address, int port) throws IOException {
+        this(members, null, address, port);
+    }
+
+    /**
+     * Creates a server for the given members and binds it to a port. Check-ins
+     * are answered once the database's journal has them on disk.
+     * Call start to begin accepting connections.
+     *
+     * @param members The members that check in
+     * @param database The database keeping the members, or null not to wait for the disk
+     * @param address The address to listen on
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public CheckInServer(MemberRepository members, MemberDatabase database, InetAddress address, int port)
+            throws IOException {
+        this.members = members;
+        this.database = database;
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(address, port), 1024);
+
+        ExecutorService executor = newVirtualThreadExecutor();
+        virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "check-in-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        connectionExecutor = executor;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public synchronized void start() {
+        if (acceptThread != null) {
+            return;
+        }
+        acceptThread = new Thread(this::acceptConnections, "check-in-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        connectionExecutor.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true); // Answers are tiny and must not wait for more data
+                connections.add(socket);
+                if (closed) {
+                    socket.close(); // Accepted while the server was closing
+                    break;
+                }
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting check-in connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the requests on one connection until the controller disconnects.
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket) {
+            OutputStream out = connection.getOutputStream();
+            LineReader in = new LineReader(connection.getInputStream());
+            byte[] line = new byte[MAX_LINE];
+            StringBuilder response = new StringBuilder(64);
+            // Responses not sent yet; kept here rather than in a BufferedOutputStream,
+            // which would send them by itself when full, before the journal has them
+            byte[] replies = new byte[REPLY_BUFFER_SIZE];
+            int replyCount = 0;
+            boolean checkedIn = false;
+            while (true) {
+                // Answer everything read so far before waiting for more
+                if (replyCount > 0 && !in.hasBufferedInput()) {
+                    sendReplies(out, replies, replyCount, checkedIn);
+                    replyCount = 0;
+                    checkedIn = false;
+                }
+                int length = in.readLine(line);
+                if (length == -1) {
+                    break;
+                }
+                response.setLength(0);
+                boolean keepOpen = length == -2
+                    ? error(response, "line too long")
+                    : handle(line, length, response);
+                // Only a check-in that was counted is answered with OK
+                checkedIn |= response.length() > 1 && response.charAt(0) == 'O' && response.charAt(1) == 'K';
+
+                int replyLength = Math.min(response.length(), MAX_LINE - 1);
+                if (replyCount + replyLength + 1 > replies.length) {
+                    sendReplies(out, replies, replyCount, checkedIn);
+                    replyCount = 0;
+                    checkedIn = false;
+                }
+                // Responses are short and ASCII, so they are copied straight into bytes
+                for (int i = 0; i < replyLength; i++) {
+                    replies[replyCount++] = (byte) response.charAt(i);
+                }
+                replies[replyCount++] = '\n';
+                if (!keepOpen) {
+                    sendReplies(out, replies, replyCount, checkedIn);
+                    break;
+                }
+            }
+        } catch (SocketException e) {
+            // The controller went away, or the server is closing
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Error on check-in connection: " + e.getMessage());
+            }
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Sends a batch of responses, first waiting for the journal to have the
+     * check-ins among them on disk.
+     *
+     * @throws IOException if the journal failed to write; nothing is sent
+     */
+    private void sendReplies(OutputStream out, byte[] replies, int count, boolean checkedIn) throws IOException {
+        if (checkedIn && database != null) {
+            database.sync();
+        }
+        out.write(replies, 0, count);
+        out.flush();
+    }
+
+    /**
+     * Reads request lines from a connection through its own buffer. Used by one
+     * thread only, so unlike BufferedInputStream it needs no lock for each byte.
+     */
+    private static class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[8192];
+        private int pos = 0;
+        private int limit = 0;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Checks whether more requests have already arrived.
+         */
+        boolean hasBufferedInput() throws IOException {
+            return pos < limit || in.available() > 0;
+        }
+
+        /**
+         * Reads one line into the given array, without the line break.
+         *
+         * @return The length of the line, -1 at the end of the stream, or -2 if the
+         *         line was too long (the rest of it is skipped)
+         */
+        int readLine(byte[] line) throws IOException {
+            int length = 0;
+            boolean tooLong = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = in.read(buffer);
+                    pos = 0;
+                    if (limit == -1) {
+                        limit = 0;
+                        if (length == 0 && !tooLong) {
+                            return -1;
+                        }
+                        break; // A last line without a line break
+                    }
+                }
+                byte b = buffer[pos++];
+                if (b == '\n') {
+                    break;
+                }
+                if (length < line.length) {
+                    line[length++] = b;
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (tooLong) {
+                return -2;
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Answers one request.
+     *
+     * @param line The request
+     * @param length The length of the request
+     * @param response Where the answer is written
+     * @return false if the connection should be closed
+     */
+    boolean handle(byte[] line, int length, StringBuilder response) {
+        // Split the line into at most three words
+        int[] starts = new int[3];
+        int[] ends = new int[3];
+        int words = 0;
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && (line[pos] == ' ' || line[pos] == '\t')) {
+                pos++;
+            }
+            if (pos == length) {
+                break;
+            }
+            if (words == 3) {
+                return error(response, "too many words");
+            }
+            starts[words] = pos;
+            while (pos < length && line[pos] != ' ' && line[pos] != '\t') {
+                pos++;
+            }
+            ends[words++] = pos;
+        }
+        if (words == 0) {
+            return error(response, "empty request");
+        }
+
+        int idWord;
+        String command;
+        if (words == 3 && isWord(line, starts[0], ends[0], "check") && isWord(line, starts[1], ends[1], "in")) {
+            command = "check in";
+            idWord = 2;
+        } else if (words == 2 && isWord(line, starts[0], ends[0], "status")) {
+            command = "status";
+            idWord = 1;
+        } else if (words == 2 && isWord(line, starts[0], ends[0], "balance")) {
+            command = "balance";
+            idWord = 1;
+        } else if (words == 1 && isWord(line, starts[0], ends[0], "quit")) {
+            response.append("BYE");
+            return false;
+        } else {
+            return error(response, "unknown request, use: check in ID, status ID, balance ID or quit");
+        }
+
+        int id = parseId(line, starts[idWord], ends[idWord]);
+        if (id < 0) {
+            return error(response, "invalid ID");
+        }
+        GymMember member = members.findById(id);
+        if (member == null) {
+            response.append("UNKNOWN");
+            return true;
+        }
+
+        switch (command) {
+            case "check in":
+                if (!member.isActiveStatus()) {
+                    response.append("INACTIVE");
+                } else {
+                    member.markAttendance();
+                    members.getAttendanceHistory().record(id, LocalDate.now());
+                    response.append("OK ").append(member.getAttendance());
+                }
+                break;
+            case "status":
+                response.append(member.isActiveStatus() ? "ACTIVE " : "INACTIVE ")
+                    .append(member.getAttendance()).append(' ');
+                appendAmount(response, member.getLoyaltyPoints());
+                break;
+            default:
+                if (member instanceof PremiumMember) {
+                    PremiumMember premiumMember = (PremiumMember) member;
+                    response.append("BALANCE ");
+                    appendAmount(response, Math.max(0.0,
+                        premiumMember.getPremiumCharge() - premiumMember.getPaidAmount()));
+                } else {
+                    response.append("NONE");
+                }
+                break;
+        }
+        return true;
+    }
+
+    private static boolean error(StringBuilder response, String message) {
+        response.append("ERROR ").append(message);
+        return true;
+    }
+
+    private static boolean isWord(byte[] line, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase((char) line[start + i]) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a member ID.
+     *
+     * @return The ID, or -1 if the word is not a valid ID
+     */
+    private static int parseId(byte[] line, int start, int end) {
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            id = id * 10 + (b - '0');
+            if (id > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) id;
+    }
+
+    /**
+     * Writes an amount with two decimals, without going through String.format.
+     */
+    private static void appendAmount(StringBuilder response, double amount) {
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            response.append('-');
+            cents = -cents;
+        }
+        response.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            response.append('0');
+        }
+        response.append(fraction);
+    }
+
+    /**
+     * Returns the virtual thread per task executor of Java 21 and later, or null
+     * when the running Java does not have one.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null; // Before Java 21, or a preview that is not enabled
+        }
+    }
+
+    /**
+     * Loads the members from the working directory, the same way the GUI does,
+     * and serves check-ins until the program is stopped. The members are saved
+     * when the server stops.
+     */
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            InetAddress address = InetAddress.getByName(args.length > 1 ? args[1] : "127.0.0.1");
+
+            PlanCatalog.watch(new File(PLANS_FILE_NAME));
+            MemberRepository members = new MemberRepository();
+            MemberDatabase database = new MemberDatabase(members, new File(SNAPSHOT_DB_NAME),
+                new File(DELTA_DB_NAME), new File(JOURNAL_DB_NAME), new File(VISITS_DB_NAME));
+            if (database.hasSnapshot()) {
+                database.install(database.readSnapshot(ProgressListener.NONE));
+            } else {
+                MemberRepository imported = new MemberRepository();
+                MemberTableLoader.load(new File(REGULAR_DB_NAME), new File(PREMIUM_DB_NAME), imported);
+                database.install(database.importedMembers(imported));
+            }
+            int replayed = database.openJournal();
+
+            CheckInServer server = new CheckInServer(members, database, address, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                    database.save();
+                    database.close();
+                } catch (IOException e) {
+                    System.err.println("Error saving members: " + e.getMessage());
+                }
+            }));
+
+            System.out.println("Loaded " + members.size() + " members (" + replayed + " journal changes replayed)");
+            System.out.println("Check-in server listening on " + address.getHostAddress() + ":" + server.getPort()
+                + (server.isUsingVirtualThreads() ? " (virtual threads)" : ""));
+            // Serves on this thread until the shutdown hook closes the server
+            server.acceptConnections();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error starting check-in server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
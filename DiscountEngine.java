@@ -0,0 +1,348 @@
+/**
+ * The DiscountEngine class works out loyalty discounts, for one member at a
+ * time as the GUI needs them, and for every member at once when renewals are
+ * quoted at the start of the month.
+ *
+ * The discount depends only on the member type, the price of the plan and the
+ * loyalty tier the member has reached:
+ *   25 points or more    5% of the plan price
+ *   50 points or more   10%
+ *   100 points or more  15%
+ * and premium members get another 5% on top. Each amount is rounded to the penny.
+ *
+ * There are only a few plans in the PlanCatalog and four tiers, so the engine
+ * works out every possible discount once, when it is created, into a table per plan.
+ * Quoting a member is then a matter of finding the row for its price and the
+ * column for its tier, with no rounding and no division. A member whose price
+ * matches no plan (for example one priced under an older price list) is worked
+ * out in full, so the tables never change a result. An engine keeps the prices
+ * of the catalog it was made with; make a new one after the plan prices change.
+ *
+ * Quoting everyone splits the members into ranges that are quoted in parallel
+ * on the common fork-join pool, and writes the results into a plain array of
+ * doubles in member order.
+ *
+ * Usage: java DiscountEngine [quotes file]
+ * (reads the members from the working directory like the GUI and writes a
+ * quote for every member to "renewal_quotes.csv" unless another file is given)
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class DiscountEngine {
+    public static final String DEFAULT_QUOTES_FILE = "renewal_quotes.csv";
+
+    // The same files the GUI uses, in the working directory
+    private static final String REGULAR_DB_NAME = "regular_members.txt";
+    private static final String PREMIUM_DB_NAME = "premium_members.txt";
+    private static final String SNAPSHOT_DB_NAME = "members.dat";
+    private static final String DELTA_DB_NAME = "members.delta";
+    private static final String JOURNAL_DB_NAME = "members.wal";
+    private static final String VISITS_DB_NAME = "members.visits";
+    private static final String PLANS_FILE_NAME = PlanCatalog.DEFAULT_FILE_NAME;
+
+    private static final int TIERS = 4;
+
+    // Ranges smaller than this are quoted on one thread
+    private static final int RANGE_SIZE = 16384;
+
+    // Plan prices, and the discount for each plan and tier at index plan * TIERS + tier
+    private final double[] regularPrices;
+    private final double[] regularDiscounts;
+    private final double[] premiumPrices;
+    private final double[] premiumDiscounts;
+
+    /**
+     * Creates an engine with the discount tables for the current plan prices.
+     */
+    public DiscountEngine() {
+        this(PlanCatalog.current());
+    }
+
+    /**
+     * Creates an engine with the discount tables for the plans of a catalog.
+     *
+     * @param catalog The plans and their prices
+     */
+    public DiscountEngine(PlanCatalog catalog) {
+        int plans = catalog.size();
+        regularPrices = new double[plans];
+        regularDiscounts = new double[plans * TIERS];
+        premiumPrices = new double[plans];
+        premiumDiscounts = new double[plans * TIERS];
+        for (int plan = 0; plan < plans; plan++) {
+            regularPrices[plan] = catalog.getRegularPrice(plan);
+            premiumPrices[plan] = catalog.getPremiumCharge(plan);
+            for (int tier = 0; tier < TIERS; tier++) {
+                regularDiscounts[plan * TIERS + tier] = discountFor(regularPrices[plan], tier, false);
+                premiumDiscounts[plan * TIERS + tier] = discountFor(premiumPrices[plan], tier, true);
+            }
+        }
+    }
+
+    /**
+     * Calculates the discount amount for a given member based on their loyalty points
+     * and member type.
+     *
+     * @param member The GymMember whose discount is to be calculated.
+     * @return The calculated discount amount.
+     */
+    public static double calculateDiscountAmount(GymMember member) {
+        if (member instanceof RegularMember) {
+            return discountFor(((RegularMember) member).getPrice(), tierOf(member), false);
+        } else if (member instanceof PremiumMember) {
+            return discountFor(((PremiumMember) member).getPremiumCharge(), tierOf(member), true);
+        }
+        return 0.0;
+    }
+
+    /**
+     * Returns the price the member's discount is worked out from: the plan price
+     * for a regular member and the premium charge for a premium member.
+     */
+    public static double basePriceOf(GymMember member) {
+        if (member instanceof RegularMember) {
+            return ((RegularMember) member).getPrice();
+        } else if (member instanceof PremiumMember) {
+            return ((PremiumMember) member).getPremiumCharge();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Returns the member's discount from the tables. The result is always the
+     * same as calculateDiscountAmount gives.
+     *
+     * @param member The member to quote
+     * @return The discount amount
+     */
+    public double quote(GymMember member) {
+        if (member instanceof RegularMember) {
+            return lookUp(regularPrices, regularDiscounts, ((RegularMember) member).getPrice(),
+                tierOf(member), false);
+        } else if (member instanceof PremiumMember) {
+            return lookUp(premiumPrices, premiumDiscounts, ((PremiumMember) member).getPremiumCharge(),
+                tierOf(member), true);
+        }
+        return 0.0;
+    }
+
+    /**
+     * Quotes every member in parallel.
+     *
+     * @param members The members to quote
+     * @return The discount of members[i] at index i
+     */
+    public double[] quoteAll(GymMember[] members) {
+        double[] discounts = new double[members.length];
+        quoteAll(members, discounts);
+        return discounts;
+    }
+
+    /**
+     * Quotes every member in parallel into an array the caller provides, so
+     * monthly runs can reuse one array.
+     *
+     * @param members The members to quote
+     * @param discounts Receives the discount of members[i] at index i; must be
+     *                  at least as long as members
+     */
+    public void quoteAll(GymMember[] members, double[] discounts) {
+        if (discounts.length < members.length) {
+            throw new IllegalArgumentException("Room for " + discounts.length
+                + " discounts, but there are " + members.length + " members");
+        }
+        ForkJoinPool.commonPool().invoke(new QuoteTask(members, discounts, 0, members.length));
+    }
+
+    /**
+     * Quotes every member and writes the quotes to a CSV file, one line per
+     * member in the order given: ID, type, plan, base price, loyalty points,
+     * discount and the amount due after the discount.
+     *
+     * @param members The members to quote
+     * @param file The file to write
+     * @param progress Told how far the writing has got, and asked whether to stop
+     * @return The number of members quoted
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedIOException if the writing was cancelled
+     */
+    public int writeQuotes(GymMember[] members, File file, ProgressListener progress) throws IOException {
+        double[] discounts = quoteAll(members);
+        StringBuilder line = new StringBuilder(96);
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 65536)) {
+            writer.write("ID,Type,Plan,Base Price,Loyalty Points,Discount,Amount Due\n");
+            for (int i = 0; i < members.length; i++) {
+                GymMember member = members[i];
+                boolean premium = member instanceof PremiumMember;
+                double basePrice = basePriceOf(member);
+                line.setLength(0);
+                line.append(member.getId()).append(',');
+                line.append(premium ? "Premium" : "Regular").append(',');
+                line.append(premium ? ((PremiumMember) member).getPlan() : ((RegularMember) member).getPlan());
+                line.append(',');
+                appendAmount(line, basePrice);
+                line.append(',');
+                appendAmount(line, member.getLoyaltyPoints());
+                line.append(',');
+                appendAmount(line, discounts[i]);
+                line.append(',');
+                appendAmount(line, basePrice - discounts[i]);
+                line.append('\n');
+                writer.append(line);
+
+                if ((i & 0xFFFF) == 0xFFFF) {
+                    if (progress.isCancelRequested()) {
+                        throw new InterruptedIOException("Quoting cancelled");
+                    }
+                    progress.progress(i + 1, members.length);
+                }
+            }
+        }
+        progress.progress(members.length, members.length);
+        return members.length;
+    }
+
+    /**
+     * Quotes one range of members, splitting it in two while it is large.
+     */
+    @SuppressWarnings("serial")
+    private class QuoteTask extends RecursiveAction {
+        private final GymMember[] members;
+        private final double[] discounts;
+        private final int from;
+        private final int to;
+
+        QuoteTask(GymMember[] members, double[] discounts, int from, int to) {
+            this.members = members;
+            this.discounts = discounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_SIZE) {
+                for (int i = from; i < to; i++) {
+                    discounts[i] = quote(members[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new QuoteTask(members, discounts, from, middle),
+                new QuoteTask(members, discounts, middle, to));
+        }
+    }
+
+    private static double lookUp(double[] prices, double[] discounts, double basePrice, int tier,
+                                 boolean premium) {
+        for (int plan = 0; plan < prices.length; plan++) {
+            if (prices[plan] == basePrice) {
+                return discounts[plan * TIERS + tier];
+            }
+        }
+        return discountFor(basePrice, tier, premium); // A price no plan has
+    }
+
+    /**
+     * Returns the loyalty tier of a member, from 0 (no discount) to 3 (15%).
+     */
+    private static int tierOf(GymMember member) {
+        double loyaltyPoints = member.getLoyaltyPoints();
+        if (loyaltyPoints >= 100.0) {
+            return 3;
+        } else if (loyaltyPoints >= 50.0) {
+            return 2;
+        } else if (loyaltyPoints >= 25.0) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Works out a discount in full. Every discount the engine gives comes from here,
+     * either directly or through the tables.
+     */
+    private static double discountFor(double basePrice, int tier, boolean premium) {
+        double discountAmount = 0.0;
+        if (tier == 3) {
+            discountAmount = Math.round(basePrice * 0.15 * 100.0) / 100.0; // 15% discount
+        } else if (tier == 2) {
+            discountAmount = Math.round(basePrice * 0.10 * 100.0) / 100.0; // 10% discount
+        } else if (tier == 1) {
+            discountAmount = Math.round(basePrice * 0.05 * 100.0) / 100.0; // 5% discount
+        }
+
+        // Additional discount for premium members
+        if (premium) {
+            discountAmount += Math.round(basePrice * 0.05 * 100.0) / 100.0; // Extra 5% for premium members
+        }
+
+        return Math.round(discountAmount * 100.0) / 100.0; // Round final amount to 2 decimal places
+    }
+
+    /**
+     * Appends an amount with two decimal places, without the cost of String.format.
+     */
+    private static void appendAmount(StringBuilder line, double amount) {
+        long pennies = Math.round(amount * 100.0);
+        if (pennies < 0) {
+            line.append('-');
+            pennies = -pennies;
+        }
+        long fraction = pennies % 100;
+        line.append(pennies / 100).append('.');
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    /**
+     * Reads the members from the working directory, with the changes in the
+     * journal, and writes a renewal quote for every member. The member files
+     * are not changed; the journal is only read, and the quotes are refused while
+     * another program has it open.
+     */
+    public static void main(String[] args) {
+        File quotesFile = new File(args.length > 0 ? args[0] : DEFAULT_QUOTES_FILE);
+        try {
+            File plansFile = new File(PLANS_FILE_NAME);
+            if (plansFile.exists()) {
+                PlanCatalog.load(plansFile);
+            }
+            MemberRepository members = new MemberRepository();
+            MemberDatabase database = new MemberDatabase(members, new File(SNAPSHOT_DB_NAME),
+                new File(DELTA_DB_NAME), new File(JOURNAL_DB_NAME), new File(VISITS_DB_NAME));
+            if (database.hasSnapshot()) {
+                database.install(database.readSnapshot(ProgressListener.NONE));
+            } else {
+                MemberRepository imported = new MemberRepository();
+                MemberTableLoader.load(new File(REGULAR_DB_NAME), new File(PREMIUM_DB_NAME), imported);
+                database.install(database.importedMembers(imported));
+            }
+            database.replayJournal();
+
+            long start = System.nanoTime();
+            int quoted = new DiscountEngine().writeQuotes(members.toArray(), quotesFile, ProgressListener.NONE);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Quoted " + quoted + " members into " + quotesFile + " in " + millis + " ms");
+        } catch (IOException e) {
+            System.err.println("Error quoting renewals: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
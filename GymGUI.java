@@ -10,6 +10,8 @@
  * - Activate Membership
  * - Deactivate Membership
  * - Mark Attendance
+ * - Import Check-ins (a turnstile scan file)
+ * - Attendance History (who came in on a day, or a member's recent visits)
  * - Revert Member
  * - Display Member Details
  * - Clear Form Fields
@@ -17,7 +19,8 @@
  * The GUI includes form fields for entering member details such as ID, name, location, phone, email, gender,
  * date of birth, and membership plan. 
  * 
- * The members' data is stored in an ArrayList and can be used to manage member information throughout the system.
+ * The members' data is stored in a MemberRepository, which indexes members by ID so that every button can find
+ * a member without scanning the whole list.
  * 
  * This class extends JFrame to create a window and uses various Swing components such as JPanel, JButton, JTextField, 
  * JLabel, JComboBox, JRadioButton, and JOptionPane to provide user input and display information.
@@ -32,35 +35,49 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InterruptedIOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 
 
 
 
 public class GymGUI extends JFrame {
 
-    private static ArrayList<GymMember> members = new ArrayList<>();
+    private static MemberRepository members = new MemberRepository();
     private JFrame frame;
+    private MemberTask<?> runningTask;
     RegularMember regularMember;
 
     // Form field components
@@ -84,174 +101,100 @@ public class GymGUI extends JFrame {
 
     private static final String REGULAR_DB_NAME = "regular_members.txt";
     private static final String PREMIUM_DB_NAME = "premium_members.txt";
+    private static final String SNAPSHOT_DB_NAME = "members.dat";
+    private static final String DELTA_DB_NAME = "members.delta";
+    private static final String JOURNAL_DB_NAME = "members.wal";
+    private static final String VISITS_DB_NAME = "members.visits";
+    private static final String PLANS_FILE_NAME = PlanCatalog.DEFAULT_FILE_NAME;
+    // The most members the Find Member button lists
+    private static final int MAX_FOUND_MEMBERS = 50;
+    private static final int MAX_CLOSE_MEMBERS = 10;
+
+    private static MemberDatabase database = new MemberDatabase(members,
+        new File(SNAPSHOT_DB_NAME), new File(DELTA_DB_NAME), new File(JOURNAL_DB_NAME),
+        new File(VISITS_DB_NAME));
+    // Deactivates memberships that are not renewed in time
+    private static MembershipExpiryScheduler expiryScheduler = new MembershipExpiryScheduler(members,
+        MembershipExpiryScheduler.DEFAULT_TERM_MONTHS, LocalDate.now());
 /**
- * Saves the members' data to external files. It writes regular members to 
+ * Saves the members' data. Only the members that changed since the last save
+ * are written, as a new segment of "members.delta"; every so often the whole
+ * list is written to the binary snapshot file "members.dat" instead. The
+ * attendance history is saved with them, in "members.visits". Once the data is
+ * safely on disk the member journal is emptied, since every change it holds has
+ * now been saved.
+ *
+ * The member list is captured straight away and written on a background thread,
+ * so members can still be checked in while the save runs.
+ */
+
+    private void saveMembersToFile() {
+        if (isTaskRunning()) {
+            return;
+        }
+        MemberDatabase.PendingSave pending = database.beginSave();
+
+        new MemberTask<MemberDatabase.SaveResult>("Saving Members") {
+            @Override
+            protected MemberDatabase.SaveResult doInBackground() throws IOException {
+                return pending.write(this);
+            }
+
+            @Override
+            protected void succeeded(MemberDatabase.SaveResult result) {
+                String saved = result.isFullSnapshot()
+                    ? "Members: " + SNAPSHOT_DB_NAME + " (all " + result.getSavedCount() + " members)"
+                    : "Members: " + DELTA_DB_NAME + " (" + result.getSavedCount() + " changed members)";
+
+                JOptionPane.showMessageDialog(frame, 
+                    "Data saved successfully !\n" + saved, 
+                    "Save Success", 
+                    JOptionPane.INFORMATION_MESSAGE);
+            }
+
+            @Override
+            protected void failed(Throwable error) {
+                JOptionPane.showMessageDialog(frame, 
+                    "Error saving data to file: " + error.getMessage(),
+                    "Save Error", 
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }.start();
+    }
+/**
+ * Exports the members' data to external text files. It writes regular members to 
  * "regular_members.txt" and premium members to "premium_members.txt". 
- * The data is formatted in a table structure for easy reading.
+ * The data is formatted in a table structure for easy reading. Long fields are
+ * shortened with "...", so the export is meant for reading and printing; the
+ * snapshot written by saveMembersToFile is the real storage format.
  * 
  * @throws IOException if an error occurs while writing to the files.
  */
 
-    private void saveMembersToFile() {
+    private void exportMembersToTables() {
         try {
-            // Save Regular Members
-            FileWriter regularFileWriter = new FileWriter(REGULAR_DB_NAME);
-            BufferedWriter regularBufferedWriter = new BufferedWriter(regularFileWriter);
-
-            // Table border constants
-            String regularTableBorder = "+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n";
-            String regularTableWidth = "| %-83s |";
-
-            // Write header for regular members
-            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            regularBufferedWriter.write("|                                     REGULAR MEMBERS LIST                                                                                                                |\n");
-            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            
-            // Write table header with proper formatting
-            regularBufferedWriter.write(String.format("| %-5s | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7s | %-5s | %-8s |\n",
-                "ID", "Name", "Location", "Phone", "Email", "Start Date", "Plan", "Price(£)", "Att.", "Status"));
-            regularBufferedWriter.write(regularTableBorder + "\n");
-
-            int regularCount = 0;
-            // Write data rows for regular members
-            for (GymMember member : members) {
-                if (member instanceof RegularMember) {
-                    regularCount++;
-                    RegularMember regularMember = (RegularMember) member;
-                    String name = regularMember.getName();
-                    if (name != null && name.length() > 15) {
-                        name = name.substring(0, 12) + "...";
-                    }
-                    
-                    String location = regularMember.getLocation();
-                    if (location != null && location.length() > 12) {
-                        location = location.substring(0, 9) + "...";
-                    }
-                    
-                    String phone = regularMember.getPhone();
-                    if (phone != null && phone.length() >= 10) {
-                        phone = phone.substring(0, 7) + "...";
-                    }
-                    
-                    String email = regularMember.getEmail();
-                    if (email != null && email.length() > 20) {
-                        email = email.substring(0, 17) + "...";
-                    }
-                    
-                    String startDate = regularMember.getMembershipStartDate();
-                    if (startDate != null && startDate.length() > 15) {
-                        startDate = startDate.substring(0, 12) + "...";
-                    }
-                    
-                    String plan = regularMember.getPlan();
-                    if (plan != null && plan.length() > 8) {
-                        plan = plan.substring(0, 5) + "...";
-                    }
-                    
-                    regularBufferedWriter.write(String.format("| %-5d | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7.2f | %-5d | %-8s |\n",
-                        regularMember.getId(),
-                        name,
-                        location,
-                        phone,
-                        email,
-                        startDate,
-                        plan,
-                        regularMember.getPrice(),
-                        regularMember.getAttendance(),
-                        regularMember.isActiveStatus() ? "Active" : "Inactive"));
-                }
-            }
-            
-            // Write footer
-            regularBufferedWriter.write(regularTableBorder + "\n");
-            regularBufferedWriter.write(String.format(regularTableWidth + "\n", "Total Regular Members: " + regularCount));
-            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            regularBufferedWriter.close();
-
-            // Save Premium Members
-            FileWriter premiumFileWriter = new FileWriter(PREMIUM_DB_NAME);
-            BufferedWriter premiumBufferedWriter = new BufferedWriter(premiumFileWriter);
-
-            // Table border constants
-            String premiumTableBorder = "+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n";
-            String premiumTableWidth = "| %-93s |";
-
-            // Write header for premium members
-            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            premiumBufferedWriter.write("|                                       PREMIUM MEMBERS LIST                                                                                                                |\n");
-            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            
-            // Write table header with proper formatting
-            premiumBufferedWriter.write(String.format("| %-5s | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10s | %-7s | %-7s |\n",
-                "ID", "Name", "Location", "Phone", "Trainer", "Start Date", "Plan", "Charge(£)", "Points", "Status"));
-            premiumBufferedWriter.write(premiumTableBorder + "\n");
-
-            int premiumCount = 0;
-            // Write data rows for premium members
-            for (GymMember member : members) {
-                if (member instanceof PremiumMember) {
-                    premiumCount++;
-                    PremiumMember premiumMember = (PremiumMember) member;
-                    String name = premiumMember.getName();
-                    if (name != null && name.length() > 15) {
-                        name = name.substring(0, 12) + "...";
-                    }
-                    
-                    String location = premiumMember.getLocation();
-                    if (location != null && location.length() > 12) {
-                        location = location.substring(0, 9) + "...";
-                    }
-                    
-                    String phone = premiumMember.getPhone();
-                    if (phone != null && phone.length() > 10) {
-                        phone = phone.substring(0, 7) + "...";
-                    }
-                    
-                    String trainer = premiumMember.getPersonalTrainer();
-                    if (trainer != null && trainer.length() > 15) {
-                        trainer = trainer.substring(0, 12) + "...";
-                    }
-                    
-                    String startDate = premiumMember.getMembershipStartDate();
-                    if (startDate != null && startDate.length() > 15) {
-                        startDate = startDate.substring(0, 12) + "...";
-                    }
-                    
-                    String plan = premiumMember.getPlan();
-                    if (plan != null && plan.length() > 8) {
-                        plan = plan.substring(0, 5) + "...";
+            // Both tables are written in a single pass over the members
+            try (MemberTableWriter regularWriter = new MemberTableWriter(new File(REGULAR_DB_NAME), false);
+                 MemberTableWriter premiumWriter = new MemberTableWriter(new File(PREMIUM_DB_NAME), true)) {
+                for (GymMember member : members) {
+                    if (member instanceof RegularMember) {
+                        regularWriter.write(member);
+                    } else if (member instanceof PremiumMember) {
+                        premiumWriter.write(member);
                     }
-                    
-                    premiumBufferedWriter.write(String.format("| %-5d | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10.2f | %-7.0f | %-7s |\n",
-                        premiumMember.getId(),
-                        name,
-                        location,
-                        phone,
-                        trainer,
-                        startDate,
-                        plan,
-                        premiumMember.getPremiumCharge(),
-                        premiumMember.getLoyaltyPoints(),
-                        premiumMember.isActiveStatus() ? "Active" : "Inactive"));
                 }
             }
-            
-            // Write footer
-            premiumBufferedWriter.write(premiumTableBorder + "\n");
-            premiumBufferedWriter.write(String.format(premiumTableWidth + "\n", "Total Premium Members: " + premiumCount));
-            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
-            premiumBufferedWriter.close();
 
             JOptionPane.showMessageDialog(frame, 
-                "Data saved successfully !\n" +
+                "Data exported successfully !\n" +
                 "Regular members: " + REGULAR_DB_NAME + "\n" +
                 "Premium members: " + PREMIUM_DB_NAME, 
-                "Save Success", 
+                "Export Success", 
                 JOptionPane.INFORMATION_MESSAGE);
         } catch (IOException e) {
             JOptionPane.showMessageDialog(frame, 
-                "Error saving data to files: " + e.getMessage(),
-                "Save Error", 
+                "Error exporting data to files: " + e.getMessage(),
+                "Export Error", 
                 JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -262,179 +205,275 @@ public class GymGUI extends JFrame {
  * @param member The GymMember whose discount is to be calculated.
  * @return The calculated discount amount.
  */   
-    private double calculateDiscountAmount(GymMember member) {
-        double discountAmount = 0.0;
-        double basePrice;
-        
-        // Get base price based on member type
-        if (member instanceof RegularMember) {
-            basePrice = ((RegularMember) member).getPrice();
-        } else if (member instanceof PremiumMember) {
-            basePrice = ((PremiumMember) member).getPremiumCharge();
-        } else {
-            return 0.0;
-        }
-        
-        // Calculate discount based on loyalty points
-        double loyaltyPoints = member.getLoyaltyPoints();
-        if (loyaltyPoints >= 100.0) {
-            discountAmount = Math.round(basePrice * 0.15 * 100.0) / 100.0; // 15% discount
-        } else if (loyaltyPoints >= 50.0) {
-            discountAmount = Math.round(basePrice * 0.10 * 100.0) / 100.0; // 10% discount
-        } else if (loyaltyPoints >= 25.0) {
-            discountAmount = Math.round(basePrice * 0.05 * 100.0) / 100.0; // 5% discount
-        }
-
-        // Additional discount for premium members
-        if (member instanceof PremiumMember) {
-            discountAmount += Math.round(basePrice * 0.05 * 100.0) / 100.0; // Extra 5% for premium members
-        }
-
-        return Math.round(discountAmount * 100.0) / 100.0; // Round final amount to 2 decimal places
+    static double calculateDiscountAmount(GymMember member) {
+        return DiscountEngine.calculateDiscountAmount(member);
     }
 /**
- * Reads member data from external files. It loads regular members from 
- * "regular_members.txt" and premium members from "premium_members.txt".
- * The method handles file reading, data parsing, and member object creation.
- * It includes error handling for file operations and data validation.
+ * Reads member data from the binary snapshot file "members.dat", with the
+ * changes saved since then in "members.delta" applied on top. If no snapshot
+ * has been saved yet, the members are imported from the older text tables instead.
+ * The changes recorded in the member journal since the last save are then
+ * replayed on top, so nothing done before a crash is lost.
+ *
+ * The files are read into a new member list on a background thread. The current
+ * members stay in use until the new list is complete, and are kept if the load
+ * fails or is cancelled.
  */
     private void readMembersFromFile() {
-        members.clear(); // Clear existing members before loading
-        boolean regularFileRead = false;
-        boolean premiumFileRead = false;
-        int regularCount = 0;
-        int premiumCount = 0;
+        if (isTaskRunning()) {
+            return;
+        }
+        if (!database.hasSnapshot()) {
+            importMembersFromTables();
+            return;
+        }
 
-        // Read Regular Members
-        try {
-            File regularFile = new File(REGULAR_DB_NAME);
-            if (regularFile.exists()) {
-                BufferedReader regularReader = new BufferedReader(new FileReader(regularFile));
-                String line;
-                boolean dataSection = false;
-                
-                while ((line = regularReader.readLine()) != null) {
-                    // Skip header lines and find start of data
-                    if (line.contains("REGULAR MEMBERS LIST")) {
-                        dataSection = false;
-                        continue;
-                    }
-                    if (line.contains("ID") && line.contains("Name") && line.contains("Location")) {
-                        dataSection = true;
-                        continue;
-                    }
-                    if (!dataSection || line.trim().isEmpty() || line.startsWith("+")) {
-                        continue;
-                    }
+        new MemberTask<MemberDatabase.LoadResult>("Loading Members") {
+            @Override
+            protected MemberDatabase.LoadResult doInBackground() throws IOException {
+                return database.readSnapshot(this);
+            }
 
-                    // Parse member data
-                    try {
-                        String[] data = line.split("\\|");
-                        if (data.length >= 10) {
-                            int id = Integer.parseInt(data[1].trim());
-                            String name = data[2].trim();
-                            String location = data[3].trim();
-                            String phone = data[4].trim();
-                            String email = data[5].trim();
-                            String startDate = data[6].trim();
-                            String plan = data[7].trim();
-                            String refSource = data[9].trim();
-                            boolean isActive = data[10].trim().equals("Active");
-
-                            // Create RegularMember
-                            RegularMember member = new RegularMember(
-                                id, name, location, phone, email,
-                                "Not Specified", // Default gender
-                                startDate, plan, refSource
-                            );
-                            
-                            if (!isActive) {
-                                member.deactivateMembership();
-                            }
-                            
-                            members.add(member);
-                            regularCount++;
-                        }
-                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
-                        System.err.println("Error parsing regular member data: " + line);
-                        continue;
-                    }
+            @Override
+            protected void succeeded(MemberDatabase.LoadResult result) {
+                closeDatabase(); // Finish writing the journal before it is replayed
+                database.install(result);
+                int replayed = openJournal();
+                expiryScheduler.scheduleAll();
+                // Memberships that ran out while the program was closed
+                int lapsed = expiryScheduler.advanceTo(LocalDate.now());
+
+                String summary = String.format("Data loading complete:\n\nTotal Members Loaded: %d", result.getLoadedCount());
+                if (replayed > 0) {
+                    summary += String.format("\nUnsaved changes recovered: %d", replayed);
                 }
-                regularReader.close();
-                regularFileRead = true;
+                if (lapsed > 0) {
+                    summary += String.format("\nLapsed memberships deactivated: %d", lapsed);
+                }
+                JOptionPane.showMessageDialog(frame,
+                    summary,
+                    "Load Summary",
+                    JOptionPane.INFORMATION_MESSAGE);
             }
+
+            @Override
+            protected void failed(Throwable error) {
+                JOptionPane.showMessageDialog(frame,
+                    "Error reading members file: " + error.getMessage(),
+                    "File Read Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }.start();
+    }
+
+/**
+ * Opens the member journal, replays the changes it holds on top of the loaded
+ * members and starts recording every new change to it.
+ *
+ * @return The number of changes replayed from the journal.
+ */
+    private int openJournal() {
+        try {
+            return database.openJournal();
+        } catch (MemberJournal.InUseException e) {
+            // Saving now would overwrite the other program's changes
+            JOptionPane.showMessageDialog(frame,
+                e.getMessage(),
+                "Members In Use",
+                JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+            return 0;
         } catch (IOException e) {
             JOptionPane.showMessageDialog(frame,
-                "Error reading regular members file: " + e.getMessage(),
-                "File Read Error",
+                "Error opening member journal: " + e.getMessage() + "\n" +
+                "Changes will only be kept when the members are saved.",
+                "Journal Error",
                 JOptionPane.ERROR_MESSAGE);
+            return 0;
         }
+    }
 
-        // Read Premium Members
+/**
+ * Stops recording changes and closes the member journal, writing any
+ * changes that are still waiting to go to disk.
+ */
+    private static void closeDatabase() {
         try {
-            File premiumFile = new File(PREMIUM_DB_NAME);
-            if (premiumFile.exists()) {
-                BufferedReader premiumReader = new BufferedReader(new FileReader(premiumFile));
-                String line;
-                boolean dataSection = false;
-                
-                while ((line = premiumReader.readLine()) != null) {
-                    // Skip header lines and find start of data
-                    if (line.contains("PREMIUM MEMBERS LIST")) {
-                        dataSection = false;
-                        continue;
-                    }
-                    if (line.contains("ID") && line.contains("Name") && line.contains("Location")) {
-                        dataSection = true;
-                        continue;
-                    }
-                    if (!dataSection || line.trim().isEmpty() || line.startsWith("+")) {
-                        continue;
-                    }
+            database.close();
+        } catch (IOException e) {
+            System.err.println("Error closing member journal: " + e.getMessage());
+        }
+    }
 
-                    // Parse member data
-                    try {
-                        String[] data = line.split("\\|");
-                        if (data.length >= 11) {
-                            int id = Integer.parseInt(data[1].trim());
-                            String name = data[2].trim();
-                            String location = data[3].trim();
-                            String phone = data[4].trim();
-                            String gender = data[5].trim();
-                            String dob = data[6].trim();
-                            String plan = data[7].trim();
-                            String trainer = data[8].trim();
-                            double charge = Double.parseDouble(data[9].trim().replace("£", ""));
-                            boolean isActive = data[11].trim().equals("Active");
-
-                            // Create PremiumMember
-                            PremiumMember member = new PremiumMember(
-                                id, name, location, phone,
-                                gender,
-                                dob,
-                                trainer,
-                                plan,
-                                charge
-                            );
-                            
-                            if (!isActive) {
-                                member.deactivateMembership();
-                            }
-                            
-                            members.add(member);
-                            premiumCount++;
-                        }
-                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
-                        System.err.println("Error parsing premium member data: " + line);
-                        continue;
-                    }
+/**
+ * Checks whether a save or load is still running, and tells the user to wait if so.
+ *
+ * @return true if another task is running.
+ */
+    private boolean isTaskRunning() {
+        if (runningTask == null) {
+            return false;
+        }
+        JOptionPane.showMessageDialog(frame,
+            "Please wait until the current save or load has finished.",
+            "Please Wait",
+            JOptionPane.INFORMATION_MESSAGE);
+        return true;
+    }
+
+/**
+ * Runs a save or load on a background thread, so the window stays responsive.
+ * If the task takes more than a moment, a small window with a progress bar and a
+ * Cancel button is shown. The result is handed back on the event thread. Only one
+ * task runs at a time, so a save and a load never overlap.
+ */
+    private abstract class MemberTask<T> extends SwingWorker<T, Void> implements ProgressListener {
+        private final String title;
+        private final JDialog progressDialog;
+        private final Timer showTimer;
+        private volatile boolean cancelRequested = false;
+
+        MemberTask(String title) {
+            this.title = title;
+            JProgressBar progressBar = new JProgressBar(0, 100);
+            progressBar.setIndeterminate(true); // Until the task reports its first progress
+            JButton cancelButton = new JButton("Cancel");
+            cancelButton.addActionListener(e -> {
+                cancelRequested = true;
+                cancelButton.setEnabled(false);
+            });
+
+            JPanel content = new JPanel(new BorderLayout(10, 10));
+            content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            content.setPreferredSize(new Dimension(300, 110));
+            content.add(new JLabel(title + "..."), BorderLayout.NORTH);
+            content.add(progressBar, BorderLayout.CENTER);
+            content.add(cancelButton, BorderLayout.SOUTH);
+
+            progressDialog = new JDialog(frame, title, false);
+            progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+            progressDialog.add(content);
+            progressDialog.pack();
+            progressDialog.setLocationRelativeTo(frame);
+
+            // Quick tasks finish before the progress window would appear
+            showTimer = new Timer(500, e -> progressDialog.setVisible(true));
+            showTimer.setRepeats(false);
+
+            addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setValue((Integer) e.getNewValue());
+                }
+            });
+        }
+
+        void start() {
+            runningTask = this;
+            showTimer.start();
+            execute();
+        }
+
+        @Override
+        public void progress(int done, int total) {
+            setProgress(total == 0 ? 100 : (int) (done * 100L / total));
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return cancelRequested;
+        }
+
+        @Override
+        protected void done() {
+            showTimer.stop();
+            progressDialog.dispose();
+            runningTask = null;
+            try {
+                succeeded(get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof InterruptedIOException) {
+                    JOptionPane.showMessageDialog(frame,
+                        title + " was cancelled.",
+                        "Cancelled",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    failed(e.getCause());
                 }
-                premiumReader.close();
-                premiumFileRead = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (IOException e) {
+        }
+
+        /**
+         * Called on the event thread with the result of the task.
+         */
+        protected abstract void succeeded(T result);
+
+        /**
+         * Called on the event thread when the task failed.
+         */
+        protected abstract void failed(Throwable error);
+    }
+/**
+ * Imports member data from the exported text tables. It loads regular members from 
+ * "regular_members.txt" and premium members from "premium_members.txt".
+ * Both files are memory-mapped and parsed in parallel by MemberTableLoader on a
+ * background thread, and the members are added in file order. The imported members
+ * then replace the current ones, and a summary of what was loaded is shown.
+ */
+    private void importMembersFromTables() {
+        MemberRepository imported = new MemberRepository();
+
+        new MemberTask<MemberTableLoader.Summary>("Importing Members") {
+            @Override
+            protected MemberTableLoader.Summary doInBackground() throws IOException {
+                MemberTableLoader.Summary result = MemberTableLoader.load(
+                    new File(REGULAR_DB_NAME), new File(PREMIUM_DB_NAME), imported);
+                if (isCancelRequested()) {
+                    throw new InterruptedIOException("Cancelled");
+                }
+                return result;
+            }
+
+            @Override
+            protected void succeeded(MemberTableLoader.Summary result) {
+                closeDatabase(); // Finish writing the journal before it is replayed
+                database.install(database.importedMembers(imported));
+                openJournal();
+                expiryScheduler.scheduleAll();
+                expiryScheduler.advanceTo(LocalDate.now());
+                showImportSummary(result);
+            }
+
+            @Override
+            protected void failed(Throwable error) {
+                JOptionPane.showMessageDialog(frame,
+                    "Error importing members: " + error.getMessage(),
+                    "File Read Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }.start();
+    }
+
+/**
+ * Shows what was imported from each text table, and any file errors.
+ *
+ * @param result The outcome of the import.
+ */
+    private void showImportSummary(MemberTableLoader.Summary result) {
+        MemberTableLoader.FileResult regular = result.getRegular();
+        MemberTableLoader.FileResult premium = result.getPremium();
+
+        if (regular.getError() != null) {
+            JOptionPane.showMessageDialog(frame,
+                "Error reading regular members file: " + regular.getError(),
+                "File Read Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+        if (premium.getError() != null) {
             JOptionPane.showMessageDialog(frame,
-                "Error reading premium members file: " + e.getMessage(),
+                "Error reading premium members file: " + premium.getError(),
                 "File Read Error",
                 JOptionPane.ERROR_MESSAGE);
         }
@@ -443,19 +482,24 @@ public class GymGUI extends JFrame {
         StringBuilder summary = new StringBuilder();
         summary.append("Data loading complete:\n\n");
         
-        if (regularFileRead) {
-            summary.append(String.format("Regular Members: %d loaded\n", regularCount));
+        if (regular.isRead()) {
+            summary.append(String.format("Regular Members: %d loaded\n", regular.getLoadedCount()));
         } else {
             summary.append("Regular Members: File not found or error reading file\n");
         }
         
-        if (premiumFileRead) {
-            summary.append(String.format("Premium Members: %d loaded\n", premiumCount));
+        if (premium.isRead()) {
+            summary.append(String.format("Premium Members: %d loaded\n", premium.getLoadedCount()));
         } else {
             summary.append("Premium Members: File not found or error reading file\n");
         }
+
+        int rejected = regular.getRejectedCount() + premium.getRejectedCount();
+        if (rejected > 0) {
+            summary.append(String.format("Rows skipped (invalid or duplicate ID): %d\n", rejected));
+        }
         
-        summary.append(String.format("\nTotal Members Loaded: %d", regularCount + premiumCount));
+        summary.append(String.format("\nTotal Members Loaded: %d", regular.getLoadedCount() + premium.getLoadedCount()));
 
         JOptionPane.showMessageDialog(frame,
             summary.toString(),
@@ -463,6 +507,95 @@ public class GymGUI extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
     }
 
+/**
+ * Marks attendance for every scan in a turnstile scan file. The file is read and
+ * applied by CheckInIngester on a background thread, and a summary is shown
+ * afterwards, listing any scans for unknown IDs or inactive members.
+ *
+ * @param file The scan file chosen by the user.
+ */
+    private void importCheckIns(File file) {
+        if (isTaskRunning()) {
+            return;
+        }
+
+        new MemberTask<CheckInIngester.Result>("Importing Check-ins") {
+            @Override
+            protected CheckInIngester.Result doInBackground() throws IOException {
+                CheckInIngester.Result result = CheckInIngester.ingest(file, members, this);
+                // Only report the visits once the journal has them on disk
+                database.sync();
+                return result;
+            }
+
+            @Override
+            protected void succeeded(CheckInIngester.Result result) {
+                showCheckInSummary(result);
+            }
+
+            @Override
+            protected void failed(Throwable error) {
+                JOptionPane.showMessageDialog(frame,
+                    "Error reading check-in file: " + error.getMessage(),
+                    "File Read Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }.start();
+    }
+
+/**
+ * Shows what a check-in import did, with the IDs whose scans were not counted.
+ *
+ * @param result The outcome of the import.
+ */
+    private void showCheckInSummary(CheckInIngester.Result result) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Check-in import complete:\n\n");
+        summary.append(String.format("Scans read: %d\n", result.getScanCount()));
+        summary.append(String.format("Attendance marked: %d scans for %d members\n",
+            result.getAppliedScans(), result.getAppliedMembers()));
+
+        int[] unknownIds = result.getUnknownIds();
+        if (unknownIds.length > 0) {
+            summary.append(String.format("\nUnknown IDs (%d scans): %s\n",
+                result.getUnknownScans(), listIds(unknownIds)));
+        }
+        int[] inactiveIds = result.getInactiveIds();
+        if (inactiveIds.length > 0) {
+            summary.append(String.format("\nInactive members (%d scans): %s\n",
+                result.getInactiveScans(), listIds(inactiveIds)));
+        }
+        if (result.getMalformedLines() > 0) {
+            summary.append(String.format("\nLines skipped (not a scan): %d\n", result.getMalformedLines()));
+        }
+
+        JOptionPane.showMessageDialog(frame,
+            summary.toString(),
+            "Check-in Summary",
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+
+/**
+ * Lists IDs for a message, showing only the first few of a long list.
+ *
+ * @param ids The IDs to list.
+ * @return The IDs separated by commas.
+ */
+    private static String listIds(int[] ids) {
+        final int shown = 20;
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < Math.min(ids.length, shown); i++) {
+            if (i > 0) {
+                list.append(", ");
+            }
+            list.append(ids[i]);
+        }
+        if (ids.length > shown) {
+            list.append(" and ").append(ids.length - shown).append(" more");
+        }
+        return list.toString();
+    }
+
 /**
  * Adds a button to calculate discounts for members. Prompts the user for a member ID,
  * finds the corresponding member, calculates the discount, and displays the results.
@@ -484,58 +617,52 @@ public class GymGUI extends JFrame {
 
             try {
                 int id = Integer.parseInt(idInput);
-                boolean found = false;
 
                 // Find the member and calculate discount
-                for (GymMember member : members) {
-                    if (member.getId() == id) {
-                        found = true;
-                        double basePrice;
-                        String memberType;
-                        
-                        if (member instanceof RegularMember) {
-                            basePrice = ((RegularMember) member).getPrice();
-                            memberType = "Regular";
-                        } else if (member instanceof PremiumMember) {
-                            basePrice = ((PremiumMember) member).getPremiumCharge();
-                            memberType = "Premium";
-                        } else {
-                            basePrice = 0.0;
-                            memberType = "Unknown";
-                        }
-
-                        double discountAmount = calculateDiscountAmount(member);
-                        double finalPrice = basePrice - discountAmount;
-
-                        // Create a detailed message
-                        String message = String.format(
-                            "Member Details:\n" +
-                            "----------------\n" +
-                            "ID: %d\n" +
-                            "Name: %s\n" +
-                            "Type: %s\n" +
-                            "Base Price: £%.2f\n" +
-                            "Loyalty Points: %.0f\n" +
-                            "Discount Amount: £%.2f\n" +
-                            "Final Price: £%.2f",
-                            member.getId(),
-                            member.getName(),
-                            memberType,
-                            basePrice,
-                            member.getLoyaltyPoints(),
-                            discountAmount,
-                            finalPrice
-                        );
-
-                        JOptionPane.showMessageDialog(frame, 
-                            message,
-                            "Discount Calculation", 
-                            JOptionPane.INFORMATION_MESSAGE);
-                        break;
+                GymMember member = members.findById(id);
+                if (member != null) {
+                    double basePrice;
+                    String memberType;
+                
+                    if (member instanceof RegularMember) {
+                        basePrice = ((RegularMember) member).getPrice();
+                        memberType = "Regular";
+                    } else if (member instanceof PremiumMember) {
+                        basePrice = ((PremiumMember) member).getPremiumCharge();
+                        memberType = "Premium";
+                    } else {
+                        basePrice = 0.0;
+                        memberType = "Unknown";
                     }
-                }
 
-                if (!found) {
+                    double discountAmount = calculateDiscountAmount(member);
+                    double finalPrice = basePrice - discountAmount;
+
+                    // Create a detailed message
+                    String message = String.format(
+                        "Member Details:\n" +
+                        "----------------\n" +
+                        "ID: %d\n" +
+                        "Name: %s\n" +
+                        "Type: %s\n" +
+                        "Base Price: £%.2f\n" +
+                        "Loyalty Points: %.0f\n" +
+                        "Discount Amount: £%.2f\n" +
+                        "Final Price: £%.2f",
+                        member.getId(),
+                        member.getName(),
+                        memberType,
+                        basePrice,
+                        member.getLoyaltyPoints(),
+                        discountAmount,
+                        finalPrice
+                    );
+
+                    JOptionPane.showMessageDialog(frame, 
+                        message,
+                        "Discount Calculation", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
                     JOptionPane.showMessageDialog(frame, 
                         "No member found with ID: " + id,
                         "Error",
@@ -628,136 +755,129 @@ public class GymGUI extends JFrame {
 
             try {
                 int id = Integer.parseInt(idInput);
-                boolean found = false;
 
                 // Find the member and process payment
-                for (GymMember member : members) {
-                    if (member.getId() == id) {
-                        found = true;
+                GymMember member = members.findById(id);
+                if (member != null) {
+                    // Check if member is active
+                    if (!member.isActiveStatus()) {
+                        int activate = JOptionPane.showConfirmDialog(
+                            frame,
+                            "This member's membership is currently inactive. Do you want to activate it?",
+                            "Inactive Membership",
+                            JOptionPane.YES_NO_OPTION
+                        );
                         
-                        // Check if member is active
-                        if (!member.isActiveStatus()) {
-                            int activate = JOptionPane.showConfirmDialog(
+                        if (activate == JOptionPane.YES_OPTION) {
+                            member.activateMembership();
+                        } else {
+                            JOptionPane.showMessageDialog(
                                 frame,
-                                "This member's membership is currently inactive. Do you want to activate it?",
-                                "Inactive Membership",
-                                JOptionPane.YES_NO_OPTION
+                                "Payment cancelled. Membership remains inactive.",
+                                "Payment Cancelled",
+                                JOptionPane.INFORMATION_MESSAGE
                             );
-                            
-                            if (activate == JOptionPane.YES_OPTION) {
-                                member.activateMembership();
-                            } else {
-                                JOptionPane.showMessageDialog(
-                                    frame,
-                                    "Payment cancelled. Membership remains inactive.",
-                                    "Payment Cancelled",
-                                    JOptionPane.INFORMATION_MESSAGE
-                                );
-                                return;
-                            }
+                            return;
                         }
-                        
-                        // Calculate due amount based on member type
-                        double dueAmount = 0.0;
-                        String memberType = "";
-                        
-                        if (member instanceof RegularMember) {
-                            RegularMember regularMember = (RegularMember) member;
-                            dueAmount = regularMember.getPrice();
-                            memberType = "Regular";
-                        } else if (member instanceof PremiumMember) {
-                            PremiumMember premiumMember = (PremiumMember) member;
-                            dueAmount = premiumMember.getPremiumCharge();
-                            memberType = "Premium";
-                        }
-                        
-                        // Apply any discount
-                        double discountAmount = calculateDiscountAmount(member);
-                        double finalAmount = dueAmount - discountAmount;
-                        
-                        // Create payment information message
-                        String paymentInfo = String.format(
-                            "Member Details:\n" +
-                            "-----------------\n" +
-                            "ID: %d\n" +
-                            "Name: %s\n" +
-                            "Type: %s\n" +
-                            "Due Amount: £%.2f\n" +
-                            "Discount: £%.2f\n" +
-                            "Final Amount Due: £%.2f\n\n" +
-                            "Proceed with payment?",
-                            member.getId(),
-                            member.getName(),
-                            memberType,
-                            dueAmount,
-                            discountAmount,
-                            finalAmount
-                        );
-                        
-                        // Confirm payment
-                        int confirmPayment = JOptionPane.showConfirmDialog(
+                    }
+                    
+                    // Calculate due amount based on member type
+                    double dueAmount = 0.0;
+                    String memberType = "";
+                    
+                    if (member instanceof RegularMember) {
+                        RegularMember regularMember = (RegularMember) member;
+                        dueAmount = regularMember.getPrice();
+                        memberType = "Regular";
+                    } else if (member instanceof PremiumMember) {
+                        PremiumMember premiumMember = (PremiumMember) member;
+                        dueAmount = premiumMember.getPremiumCharge();
+                        memberType = "Premium";
+                    }
+                    
+                    // Apply any discount
+                    double discountAmount = calculateDiscountAmount(member);
+                    double finalAmount = dueAmount - discountAmount;
+                    
+                    // Create payment information message
+                    String paymentInfo = String.format(
+                        "Member Details:\n" +
+                        "-----------------\n" +
+                        "ID: %d\n" +
+                        "Name: %s\n" +
+                        "Type: %s\n" +
+                        "Due Amount: £%.2f\n" +
+                        "Discount: £%.2f\n" +
+                        "Final Amount Due: £%.2f\n\n" +
+                        "Proceed with payment?",
+                        member.getId(),
+                        member.getName(),
+                        memberType,
+                        dueAmount,
+                        discountAmount,
+                        finalAmount
+                    );
+                    
+                    // Confirm payment
+                    int confirmPayment = JOptionPane.showConfirmDialog(
+                        frame,
+                        paymentInfo,
+                        "Payment Confirmation",
+                        JOptionPane.YES_NO_OPTION
+                    );
+                    
+                    if (confirmPayment == JOptionPane.YES_OPTION) {
+                        // Process payment
+                        String paymentMethod = (String) JOptionPane.showInputDialog(
                             frame,
-                            paymentInfo,
-                            "Payment Confirmation",
-                            JOptionPane.YES_NO_OPTION
+                            "Select payment method:",
+                            "Payment Method",
+                            JOptionPane.QUESTION_MESSAGE,
+                            null,
+                            new String[]{"Cash", "Credit Card", "Debit Card", "Bank Transfer"},
+                            "Cash"
                         );
                         
-                        if (confirmPayment == JOptionPane.YES_OPTION) {
-                            // Process payment
-                            String paymentMethod = (String) JOptionPane.showInputDialog(
-                                frame,
-                                "Select payment method:",
-                                "Payment Method",
-                                JOptionPane.QUESTION_MESSAGE,
-                                null,
-                                new String[]{"Cash", "Credit Card", "Debit Card", "Bank Transfer"},
-                                "Cash"
-                            );
+                        if (paymentMethod != null) {
+                            // Add loyalty points for payment (cast to int for whole points)
+                            int pointsEarned = (int) (finalAmount / 10); // 1 point for every £10
                             
-                            if (paymentMethod != null) {
-                                // Add loyalty points for payment (cast to int for whole points)
-                                int pointsEarned = (int) (finalAmount / 10); // 1 point for every £10
-                                
-                                // Safely add loyalty points
-                                if (pointsEarned > 0) {
-                                    member.addLoyaltyPoints(pointsEarned);
-                                }
-                                
-                                // Update payment status based on member type
-                                if (member instanceof PremiumMember) {
-                                    ((PremiumMember) member).payDueAmount(finalAmount);
-                                }
-                                
-                                JOptionPane.showMessageDialog(
-                                    frame,
-                                    String.format(
-                                        "Payment Successful!\n" +
-                                        "Amount Paid: £%.2f\n" +
-                                        "Payment Method: %s\n" +
-                                        "Loyalty Points Earned: %d\n" +
-                                        "New Total Loyalty Points: %.0f",
-                                        finalAmount,
-                                        paymentMethod,
-                                        pointsEarned,
-                                        member.getLoyaltyPoints()
-                                    ),
-                                    "Payment Complete",
-                                    JOptionPane.INFORMATION_MESSAGE
-                                );
+                            // Safely add loyalty points
+                            if (pointsEarned > 0) {
+                                member.addLoyaltyPoints(pointsEarned);
                             }
-                        } else {
+                            
+                            // Update payment status based on member type
+                            if (member instanceof PremiumMember) {
+                                ((PremiumMember) member).payDueAmount(finalAmount);
+                            }
+                            
                             JOptionPane.showMessageDialog(
                                 frame,
-                                "Payment cancelled.",
-                                "Payment Cancelled",
+                                String.format(
+                                    "Payment Successful!\n" +
+                                    "Amount Paid: £%.2f\n" +
+                                    "Payment Method: %s\n" +
+                                    "Loyalty Points Earned: %d\n" +
+                                    "New Total Loyalty Points: %.0f",
+                                    finalAmount,
+                                    paymentMethod,
+                                    pointsEarned,
+                                    member.getLoyaltyPoints()
+                                ),
+                                "Payment Complete",
                                 JOptionPane.INFORMATION_MESSAGE
                             );
                         }
-                        break;
+                    } else {
+                        JOptionPane.showMessageDialog(
+                            frame,
+                            "Payment cancelled.",
+                            "Payment Cancelled",
+                            JOptionPane.INFORMATION_MESSAGE
+                        );
                     }
-                }
-
-                if (!found) {
+                } else {
                     JOptionPane.showMessageDialog(
                         frame,
                         "No member found with ID: " + id,
@@ -807,14 +927,16 @@ public class GymGUI extends JFrame {
             }
             
             // Check if files exist before loading
+            File snapshotFile = new File(SNAPSHOT_DB_NAME);
             File regularFile = new File(REGULAR_DB_NAME);
             File premiumFile = new File(PREMIUM_DB_NAME);
             
-            if (!regularFile.exists() && !premiumFile.exists()) {
+            if (!snapshotFile.exists() && !regularFile.exists() && !premiumFile.exists()) {
                 JOptionPane.showMessageDialog(
                     frame,
                     "No member files found!\n" +
                     "Expected files:\n" +
+                    "- " + SNAPSHOT_DB_NAME + "\n" +
                     "- " + REGULAR_DB_NAME + "\n" +
                     "- " + PREMIUM_DB_NAME,
                     "Files Not Found",
@@ -828,6 +950,255 @@ public class GymGUI extends JFrame {
         });
     }
 
+    /**
+     * Adds a button to import a turnstile scan file. Each line of the file holds a
+     * member ID and the time of the scan, and attendance is marked once per scan.
+     *
+     * @param panel The JPanel to which the button will be added.
+     */
+    private void addImportCheckInsButton(JPanel panel) {
+        JButton importCheckInsButton = new JButton("Import Check-ins");
+        importCheckInsButton.setBounds(540, 500, 200, 30);
+        panel.add(importCheckInsButton);
+        importCheckInsButton.setBackground(new Color(105, 105, 105));
+        importCheckInsButton.setForeground(Color.WHITE);
+
+        importCheckInsButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(new File("."));
+            chooser.setDialogTitle("Choose a turnstile scan file");
+            if (chooser.showOpenDialog(frame) == JFileChooser.APPROVE_OPTION) {
+                importCheckIns(chooser.getSelectedFile());
+            }
+        });
+    }
+
+    /**
+     * Adds a button to find members by name, phone number or email address,
+     * the way front-desk staff usually look members up. Text with an @ is
+     * taken as an email address, digits as a phone number, and anything else
+     * as the start of a name. When no name starts with the text, the members
+     * whose name, location, email or referral source come closest to it are
+     * shown instead, so misspelt or shortened names are still found.
+     *
+     * @param panel The JPanel to which the button will be added.
+     */
+    private void addFindMemberButton(JPanel panel) {
+        JButton findMemberButton = new JButton("Find Member");
+        findMemberButton.setBounds(780, 500, 200, 30);
+        panel.add(findMemberButton);
+        findMemberButton.setBackground(new Color(105, 105, 105));
+        findMemberButton.setForeground(Color.WHITE);
+
+        findMemberButton.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(frame, "Enter a name, phone number or email:");
+            if (input == null || input.trim().isEmpty()) {
+                return; // User cancelled or entered nothing
+            }
+            String text = input.trim();
+
+            GymMember[] found;
+            String searchedBy;
+            boolean closeMatches = false;
+            if (text.indexOf('@') >= 0) {
+                found = members.findByEmail(text);
+                searchedBy = "email";
+            } else if (text.matches("[0-9+\\- ]+")) {
+                found = members.findByPhone(text);
+                searchedBy = "phone number";
+            } else {
+                found = members.findByNamePrefix(text, MAX_FOUND_MEMBERS + 1);
+                searchedBy = "name";
+                if (found.length == 0) {
+                    found = members.searchFuzzy(text, MAX_CLOSE_MEMBERS);
+                    closeMatches = true;
+                }
+            }
+
+            if (found.length == 0) {
+                JOptionPane.showMessageDialog(frame,
+                    "No member found with " + searchedBy + ": " + text,
+                    "Find Member",
+                    JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            StringBuilder message = new StringBuilder();
+            if (closeMatches) {
+                message.append("No name starts with \"").append(text).append("\"; the closest members are:\n");
+            }
+            int shown = Math.min(found.length, MAX_FOUND_MEMBERS);
+            for (int i = 0; i < shown; i++) {
+                GymMember member = found[i];
+                message.append(String.format("%d  %s  (%s, %s, %s)\n",
+                    member.getId(),
+                    member.getName(),
+                    member instanceof PremiumMember ? "Premium" : "Regular",
+                    member.getPhone(),
+                    member.isActiveStatus() ? "Active" : "Inactive"));
+            }
+            if (found.length > shown) {
+                message.append("...and more; type more of the name to narrow the search.");
+            }
+            JOptionPane.showMessageDialog(frame,
+                message.toString(),
+                "Members Found",
+                JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /**
+     * Adds a button to look up the attendance history. A date (2026-03-03)
+     * shows how many members came in that day and their IDs; a member ID shows
+     * how often the member came in over the last week, month and three months.
+     *
+     * @param panel The JPanel to which the button will be added.
+     */
+    private void addAttendanceHistoryButton(JPanel panel) {
+        JButton attendanceHistoryButton = new JButton("Attendance History");
+        attendanceHistoryButton.setBounds(60, 340, 200, 30);  // Above Calculate Discount
+        panel.add(attendanceHistoryButton);
+        attendanceHistoryButton.setBackground(new Color(105, 105, 105));
+        attendanceHistoryButton.setForeground(Color.WHITE);
+
+        attendanceHistoryButton.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(frame, "Enter a date (YYYY-MM-DD) or a member ID:");
+            if (input == null || input.trim().isEmpty()) {
+                return; // User cancelled or entered nothing
+            }
+            String text = input.trim();
+            AttendanceHistory history = members.getAttendanceHistory();
+
+            String message;
+            if (text.indexOf('-') > 0) {
+                LocalDate day;
+                try {
+                    day = LocalDate.parse(text);
+                } catch (DateTimeParseException exception) {
+                    JOptionPane.showMessageDialog(frame, "Invalid date: " + text);
+                    return;
+                }
+                int[] ids = history.membersOn(day);
+                message = ids.length == 0
+                    ? "No member came in on " + day
+                    : String.format("%d members came in on %s:\n%s", ids.length, day, listIds(ids));
+            } else {
+                int id;
+                try {
+                    id = Integer.parseInt(text);
+                } catch (NumberFormatException exception) {
+                    JOptionPane.showMessageDialog(frame, "Invalid ID input.");
+                    return;
+                }
+                GymMember member = members.findById(id);
+                if (member == null) {
+                    JOptionPane.showMessageDialog(frame, "Member with Id " + id + " not found");
+                    return;
+                }
+                LocalDate lastVisit = history.lastVisit(id);
+                message = String.format("%s (ID %d)\n\nDays in over the last 7 days: %d\n"
+                        + "Last 30 days: %d\nLast 90 days: %d\nLast visit: %s",
+                    member.getName(), id,
+                    history.visitsInLast(id, 7), history.visitsInLast(id, 30), history.visitsInLast(id, 90),
+                    lastVisit == null ? "none recorded" : lastVisit.toString());
+            }
+            JOptionPane.showMessageDialog(frame,
+                message,
+                "Attendance History",
+                JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /**
+     * Adds a button to export members to the text tables. The tables are easy to
+     * read and print, but long fields are shortened, so they are not used for saving.
+     *
+     * @param panel The JPanel to which the button will be added.
+     */
+    private void addExportTablesButton(JPanel panel) {
+        JButton exportTablesButton = new JButton("Export Tables");
+        exportTablesButton.setBounds(300, 500, 200, 30);
+        panel.add(exportTablesButton);
+        exportTablesButton.setBackground(new Color(105, 105, 105));
+        exportTablesButton.setForeground(Color.WHITE);
+
+        exportTablesButton.addActionListener(e -> {
+            if (members.isEmpty()) {
+                JOptionPane.showMessageDialog(frame,
+                    "No members to export!",
+                    "Export Error",
+                    JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            exportMembersToTables();
+        });
+    }
+
+/**
+ * Checks that the year, month and day chosen in a set of date boxes make a
+ * real date, so that, for example, 31 February is not accepted.
+ *
+ * @param year The chosen year.
+ * @param month The chosen month, 1 to 12.
+ * @param day The chosen day of the month.
+ * @return true if the date exists.
+ */
+    private static boolean isRealDate(Object year, int month, Object day) {
+        try {
+            LocalDate.of(Integer.parseInt(String.valueOf(year)), month, Integer.parseInt(String.valueOf(day)));
+            return true;
+        } catch (DateTimeException | NumberFormatException ex) {
+            return false;
+        }
+    }
+
+/**
+ * Returns the names of the plans in the current price list, in the order of
+ * the plans file.
+ */
+    private static String[] planNames() {
+        PlanCatalog catalog = PlanCatalog.current();
+        String[] names = new String[catalog.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = catalog.getName(i);
+        }
+        return names;
+    }
+
+/**
+ * Fills the plan box with "Select Plan" and the plans of the current price
+ * list, keeping the chosen plan if it is still there.
+ */
+    private static void refreshPlanComboBox() {
+        Object selected = memberComboBox.getSelectedItem();
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement("Select Plan");
+        model.addAll(Arrays.asList(planNames()));
+        memberComboBox.setModel(model);
+        if (selected != null && model.getIndexOf(selected) >= 0) {
+            memberComboBox.setSelectedItem(selected);
+        } else {
+            memberComboBox.setSelectedIndex(0);
+        }
+    }
+
+/**
+ * Sorts a member table by a column when its header is clicked. Clicking the
+ * same header again reverses the order.
+ *
+ * @param table The table whose header is clicked.
+ * @param model The model behind the table.
+ */
+    private static void sortOnHeaderClick(JTable table, MemberTableModel model) {
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.sortBy(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+    }
+
     public static void main(String[] args) {
         GymGUI gui = new GymGUI();
         gui.frame = new JFrame("GYM Management System");
@@ -990,8 +1361,23 @@ public class GymGUI extends JFrame {
         panel.add(planJLabel);
 
         // Membership Type Combo Box
-        String[] planType = { "Select Plan", "Basic", "Standard", "Deluxe" };
-        gui.memberComboBox = new JComboBox<>(planType);
+        gui.memberComboBox = new JComboBox<>();
+        refreshPlanComboBox();
+        // The plans file may have changed since the box was filled
+        gui.memberComboBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                refreshPlanComboBox();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
         gui.memberComboBox.setBounds(700, 200, 250, 30);
         panel.add(gui.memberComboBox);
 
@@ -1058,11 +1444,9 @@ public class GymGUI extends JFrame {
             }
         
             // Check for duplicate ID
-            for (GymMember member : members) {
-                if (member.getId() == id) {
-                    JOptionPane.showMessageDialog(gui.frame, "Error: A member with this ID already exists!", "Input Error", JOptionPane.ERROR_MESSAGE);
-                    return; // Exit if ID already exists
-                }
+            if (members.containsId(id)) {
+                JOptionPane.showMessageDialog(gui.frame, "Error: A member with this ID already exists!", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return; // Exit if ID already exists
             }
         
             // Get input values
@@ -1078,7 +1462,16 @@ public class GymGUI extends JFrame {
                                           (MembershipmonthsComboBox.getSelectedIndex() + 1) + "-" + // Months are 0-based
                                           MembershipdayComboBox.getSelectedItem();
             String refferalSource = ReferralSourceField.getText();
-            
+
+            // Check that the chosen dates exist
+            if (!isRealDate(yearComboBox.getSelectedItem(), dobMonthComboBox.getSelectedIndex() + 1, dayComboBox.getSelectedItem())) {
+                JOptionPane.showMessageDialog(gui.frame, "Error: The date of birth is not a real date!", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!isRealDate(MembershipYearComboBox.getSelectedItem(), MembershipmonthsComboBox.getSelectedIndex() + 1, MembershipdayComboBox.getSelectedItem())) {
+                JOptionPane.showMessageDialog(gui.frame, "Error: The membership start date is not a real date!", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
         
             // Create and add the regular member
            RegularMember regularMember = new RegularMember(id, name, location, phone, email, gender, dob, membershipStartDate,refferalSource
@@ -1166,14 +1559,12 @@ public class GymGUI extends JFrame {
                 }
             
                 // Check for duplicate ID
-                for (GymMember member : members) {
-                    if (member.getId() == id) {
-                        JOptionPane.showMessageDialog(gui.frame, 
-                            "Error: A member with this ID already exists!", 
-                            "Input Error", 
-                            JOptionPane.ERROR_MESSAGE);
-                        return;
-                    }
+                if (members.containsId(id)) {
+                    JOptionPane.showMessageDialog(gui.frame, 
+                        "Error: A member with this ID already exists!", 
+                        "Input Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
             
                 // Get input values
@@ -1184,9 +1575,28 @@ public class GymGUI extends JFrame {
                 String dob = yearComboBox.getSelectedItem() + "-" +
                              (dobMonthComboBox.getSelectedIndex() + 1) + "-" +
                              dayComboBox.getSelectedItem();
+                String membershipStartDate = MembershipYearComboBox.getSelectedItem() + "-" +
+                                             (MembershipmonthsComboBox.getSelectedIndex() + 1) + "-" +
+                                             MembershipdayComboBox.getSelectedItem();
                 String referralSource = ReferralSourceField.getText();
                 String trainerName = TrainerField.getText();
                 String planCharge = PremiumPlanField.getText();
+
+                // Check that the chosen date of birth exists
+                if (!isRealDate(yearComboBox.getSelectedItem(), dobMonthComboBox.getSelectedIndex() + 1, dayComboBox.getSelectedItem())) {
+                    JOptionPane.showMessageDialog(gui.frame, 
+                        "Error: The date of birth is not a real date!", 
+                        "Input Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (!isRealDate(MembershipYearComboBox.getSelectedItem(), MembershipmonthsComboBox.getSelectedIndex() + 1, MembershipdayComboBox.getSelectedItem())) {
+                    JOptionPane.showMessageDialog(gui.frame, 
+                        "Error: The membership start date is not a real date!", 
+                        "Input Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 
                 // Validate premium plan charge
                 double premiumCharge;
@@ -1208,7 +1618,7 @@ public class GymGUI extends JFrame {
                 }
             
                 // Create and add the premium member
-                PremiumMember premiumMember = new PremiumMember(id, name, location, phone, gender, dob, trainerName, referralSource, premiumCharge);
+                PremiumMember premiumMember = new PremiumMember(id, name, location, phone, gender, dob, membershipStartDate, trainerName, referralSource, premiumCharge);
                 members.add(premiumMember);
             
                 JOptionPane.showMessageDialog(gui.frame, 
@@ -1230,17 +1640,11 @@ public class GymGUI extends JFrame {
                 String input = JOptionPane.showInputDialog(gui.frame, "Enter id: ");
                 try {
                     int id = Integer.parseInt(input);
-                    boolean found = false;
-                    for (GymMember member : members) {
-                        if (member.getId() == id) {
-                            member.activateMembership(); 
-                            JOptionPane.showMessageDialog(gui.frame, "Membership activated for: " + member.getName());
-                            found = true;
-                            break;
-                        }
-                    }
-
-                    if (!found) {
+                    GymMember member = members.findById(id);
+                    if (member != null) {
+                        member.activateMembership(); 
+                        JOptionPane.showMessageDialog(gui.frame, "Membership activated for: " + member.getName());
+                    } else {
                         JOptionPane.showMessageDialog(gui.frame, "Member with Id " + id + " not found");
                     }
 
@@ -1263,17 +1667,11 @@ public class GymGUI extends JFrame {
                  String input = JOptionPane.showInputDialog(gui.frame, "Enter id: ");
                  try {
                      int id = Integer.parseInt(input);
-                     boolean found = false;
-                     for (GymMember member : members) {
-                         if (member.getId() == id) {
-                             member.deactivateMembership(); // You'll need to implement this method
-                             JOptionPane.showMessageDialog(gui.frame, "Membership deactivated for: " + member.getName());
-                             found = true;
-                             break;
-                         }
-                     }
- 
-                     if (!found) {
+                     GymMember member = members.findById(id);
+                     if (member != null) {
+                         member.deactivateMembership(); // You'll need to implement this method
+                         JOptionPane.showMessageDialog(gui.frame, "Membership deactivated for: " + member.getName());
+                     } else {
                          JOptionPane.showMessageDialog(gui.frame, "Member with Id " + id + " not found");
                      }
  
@@ -1291,8 +1689,34 @@ public class GymGUI extends JFrame {
         markAttendenceButton.setBackground(new Color(105, 105, 105));
         markAttendenceButton.setForeground(Color.WHITE);
         markAttendenceButton.addActionListener(e -> {
-            // Mark attendance logic here
-            JOptionPane.showMessageDialog(gui.frame, "Attendance marked successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            String input = JOptionPane.showInputDialog(gui.frame, "Enter id: ");
+            if (input == null || input.trim().isEmpty()) {
+                return; // User cancelled or entered empty ID
+            }
+            try {
+                int id = Integer.parseInt(input.trim());
+                GymMember member = members.findById(id);
+                if (member == null) {
+                    JOptionPane.showMessageDialog(gui.frame, "Member with Id " + id + " not found");
+                } else if (!member.isActiveStatus()) {
+                    JOptionPane.showMessageDialog(gui.frame, "Membership is not active for: " + member.getName());
+                } else {
+                    member.markAttendance();
+                    members.getAttendanceHistory().record(id, LocalDate.now());
+                    // Only report the visit once the journal has it on disk
+                    database.sync();
+                    JOptionPane.showMessageDialog(gui.frame,
+                        "Attendance marked successfully for: " + member.getName() +
+                        "\nTotal attendance: " + member.getAttendance(),
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                }
+            } catch (NumberFormatException exception) {
+                JOptionPane.showMessageDialog(gui.frame, "Invalid ID input.");
+            } catch (IOException exception) {
+                JOptionPane.showMessageDialog(gui.frame,
+                    "Attendance was marked but could not be written to the journal: " + exception.getMessage(),
+                    "Journal Error", JOptionPane.ERROR_MESSAGE);
+            }
         });
 
         // Upgrade Plan Button
@@ -1310,47 +1734,41 @@ public class GymGUI extends JFrame {
 
             try {
                 int id = Integer.parseInt(idInput);
-                boolean found = false;
 
                 // Find the member and upgrade their plan
-                for (GymMember member : members) {
-                    if (member.getId() == id) {
-                        if (member instanceof RegularMember) {
-                            found = true;
-                            RegularMember regularMember = (RegularMember) member;
-                            
-                            // Show current plan
-                            JOptionPane.showMessageDialog(gui.frame, 
-                                "Current Plan: " + regularMember.getPlan() + "\n" +
-                                "Current Price: " + regularMember.getPrice(),
-                                "Current Plan Information",
-                                JOptionPane.INFORMATION_MESSAGE);
-
-                            // Get new plan
-                            String[] plans = {"Basic", "Standard", "Deluxe"};
-                            String newPlan = (String) JOptionPane.showInputDialog(gui.frame,
-                                "Select new plan:",
-                                "Upgrade Plan",
-                                JOptionPane.QUESTION_MESSAGE,
-                                null,
-                                plans,
-                                regularMember.getPlan());
-
-                            if (newPlan != null) {
-                                String result = regularMember.upgradePlan(newPlan);
-                                JOptionPane.showMessageDialog(gui.frame, result);
-                            }
-                        } else {
-                            JOptionPane.showMessageDialog(gui.frame, 
-                                "This ID belongs to a premium member. Only regular members can use this upgrade option.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
+                GymMember member = members.findById(id);
+                if (member != null) {
+                    if (member instanceof RegularMember) {
+                        RegularMember regularMember = (RegularMember) member;
+                        
+                        // Show current plan
+                        JOptionPane.showMessageDialog(gui.frame, 
+                            "Current Plan: " + regularMember.getPlan() + "\n" +
+                            "Current Price: " + regularMember.getPrice(),
+                            "Current Plan Information",
+                            JOptionPane.INFORMATION_MESSAGE);
+
+                        // Get new plan
+                        String[] plans = planNames();
+                        String newPlan = (String) JOptionPane.showInputDialog(gui.frame,
+                            "Select new plan:",
+                            "Upgrade Plan",
+                            JOptionPane.QUESTION_MESSAGE,
+                            null,
+                            plans,
+                            regularMember.getPlan());
+
+                        if (newPlan != null) {
+                            String result = regularMember.upgradePlan(newPlan);
+                            JOptionPane.showMessageDialog(gui.frame, result);
                         }
-                        break;
+                    } else {
+                        JOptionPane.showMessageDialog(gui.frame, 
+                            "This ID belongs to a premium member. Only regular members can use this upgrade option.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
                     }
-                }
-
-                if (!found) {
+                } else {
                     JOptionPane.showMessageDialog(gui.frame, 
                         "No member found with ID: " + id,
                         "Error",
@@ -1380,40 +1798,34 @@ public class GymGUI extends JFrame {
 
             try {
                 int id = Integer.parseInt(idInput);
-                boolean found = false;
 
                 // Find the member and revert them
-                for (GymMember member : members) {
-                    if (member.getId() == id) {
-                        found = true;
-                        // Get removal reason
-                        String removalReason = JOptionPane.showInputDialog(gui.frame, 
-                            "Enter reason for reverting member " + member.getName() + ":");
-                        
-                        if (removalReason == null) {
-                            return; // User cancelled
-                        }
-
-                        if (member instanceof RegularMember) {
-                            RegularMember regularMember = (RegularMember) member;
-                            regularMember.revertRegularMember(removalReason);
-                            JOptionPane.showMessageDialog(gui.frame, 
-                                "Regular member " + member.getName() + " has been reverted successfully!", 
-                                "Success", 
-                                JOptionPane.INFORMATION_MESSAGE);
-                        } else if (member instanceof PremiumMember) {
-                            PremiumMember premiumMember = (PremiumMember) member;
-                            premiumMember.revertPremiumMember();
-                            JOptionPane.showMessageDialog(gui.frame, 
-                                "Premium member " + member.getName() + " has been reverted successfully!", 
-                                "Success", 
-                                JOptionPane.INFORMATION_MESSAGE);
-                        }
-                        break;
+                GymMember member = members.findById(id);
+                if (member != null) {
+                    // Get removal reason
+                    String removalReason = JOptionPane.showInputDialog(gui.frame, 
+                        "Enter reason for reverting member " + member.getName() + ":");
+                    
+                    if (removalReason == null) {
+                        return; // User cancelled
                     }
-                }
 
-                if (!found) {
+                    if (member instanceof RegularMember) {
+                        RegularMember regularMember = (RegularMember) member;
+                        regularMember.revertRegularMember(removalReason);
+                        JOptionPane.showMessageDialog(gui.frame, 
+                            "Regular member " + member.getName() + " has been reverted successfully!", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                    } else if (member instanceof PremiumMember) {
+                        PremiumMember premiumMember = (PremiumMember) member;
+                        premiumMember.revertPremiumMember();
+                        JOptionPane.showMessageDialog(gui.frame, 
+                            "Premium member " + member.getName() + " has been reverted successfully!", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                    }
+                } else {
                     JOptionPane.showMessageDialog(gui.frame, 
                         "No member found with ID: " + id, 
                         "Error", 
@@ -1444,63 +1856,15 @@ public class GymGUI extends JFrame {
             JTabbedPane tabbedPane = new JTabbedPane();
             tabbedPane.setBackground(Color.WHITE);
 
-            // Create table models for regular and premium members
-            String[] regularColumns = {"ID", "Name", "Location", "Phone", "Email", "Gender", "DOB", "Plan", "Ref Source", "Status"};
-            String[] premiumColumns = {"ID", "Name", "Location", "Phone", "Gender", "DOB", "Plan", "Personal Trainer", "Charge", "Paid", "Status"};
-            
-            DefaultTableModel regularModel = new DefaultTableModel(regularColumns, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false; // Make table read-only
-                }
-            };
-            
-            DefaultTableModel premiumModel = new DefaultTableModel(premiumColumns, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false; // Make table read-only
-                }
-            };
-
-            // Add data to the models
-            for (GymMember member : members) {
-                if (member instanceof RegularMember) {
-                    RegularMember regularMember = (RegularMember) member;
-                    Object[] row = {
-                        regularMember.getId(),
-                        regularMember.getName(),
-                        regularMember.getLocation(),
-                        regularMember.getPhone(),
-                        regularMember.getEmail(),
-                        regularMember.getGender(),
-                        regularMember.getDOB(),
-                        regularMember.getPlan(),
-                        regularMember.getReferralSource(),
-                        regularMember.isActiveStatus() ? "Active" : "Inactive"
-                    };
-                    regularModel.addRow(row);
-                } else if (member instanceof PremiumMember) {
-                    PremiumMember premiumMember = (PremiumMember) member;
-                    Object[] row = {
-                        premiumMember.getId(),
-                        premiumMember.getName(),
-                        premiumMember.getLocation(),
-                        premiumMember.getPhone(),
-                        premiumMember.getGender(),
-                        premiumMember.getDOB(),
-                        premiumMember.getPlan(),
-                        premiumMember.getPersonalTrainer(),
-                        String.format("£%.2f", premiumMember.getPremiumCharge()),
-                        String.format("£%.2f", premiumMember.getPaidAmount()),
-                        premiumMember.isActiveStatus() ? "Active" : "Inactive"
-                    };
-                    premiumModel.addRow(row);
-                }
-            }
+            // The models read straight from the member list, formatting only the rows on screen
+            MemberTableModel regularModel = new MemberTableModel(members, false);
+            MemberTableModel premiumModel = new MemberTableModel(members, true);
 
             // Create tables
             JTable regularTable = new JTable(regularModel);
             JTable premiumTable = new JTable(premiumModel);
+            sortOnHeaderClick(regularTable, regularModel);
+            sortOnHeaderClick(premiumTable, premiumModel);
 
             // Style the tables
             regularTable.setRowHeight(25);
@@ -1549,8 +1913,36 @@ public class GymGUI extends JFrame {
             tabbedPane.addTab("Regular Members", regularScrollPane);
             tabbedPane.addTab("Premium Members", premiumScrollPane);
 
+            // Search field that filters both tables as the user types
+            JTextField searchField = new JTextField();
+            searchField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent event) {
+                    applyFilter();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent event) {
+                    applyFilter();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent event) {
+                    applyFilter();
+                }
+
+                private void applyFilter() {
+                    regularModel.setFilter(searchField.getText());
+                    premiumModel.setFilter(searchField.getText());
+                }
+            });
+            JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+            searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+            searchPanel.add(searchField, BorderLayout.CENTER);
+
             // Create a panel to hold the tabbed pane
-            JPanel displayPanel = new JPanel(new BorderLayout());
+            JPanel displayPanel = new JPanel(new BorderLayout(0, 5));
+            displayPanel.add(searchPanel, BorderLayout.NORTH);
             displayPanel.add(tabbedPane, BorderLayout.CENTER);
 
             // Show the panel in a dialog
@@ -1577,6 +1969,18 @@ public class GymGUI extends JFrame {
         // Add Load Members Button
         gui.addLoadMembersButton(panel);
 
+        // Add Export Tables Button
+        gui.addExportTablesButton(panel);
+
+        // Add Import Check-ins Button
+        gui.addImportCheckInsButton(panel);
+
+        // Add Find Member Button
+        gui.addFindMemberButton(panel);
+
+        // Add Attendance History Button
+        gui.addAttendanceHistoryButton(panel);
+
         // Add Calculate Discount Button
         gui.addCalculateDiscountButton(panel);
 
@@ -1590,7 +1994,28 @@ public class GymGUI extends JFrame {
         gui.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         gui.frame.setVisible(true);
 
-        gui.readMembersFromFile();
+        // Write the last journal records when the window is closed
+        Runtime.getRuntime().addShutdownHook(new Thread(GymGUI::closeDatabase));
+
+        SwingUtilities.invokeLater(gui::watchPlanPrices);
+        SwingUtilities.invokeLater(gui::readMembersFromFile);
+        expiryScheduler.start();
+    }
+/**
+ * Loads the plan prices from "plans.txt", if there is one, and picks up any
+ * later change to the file while the program runs.
+ */
+    private void watchPlanPrices() {
+        try {
+            PlanCatalog.watch(new File(PLANS_FILE_NAME));
+            refreshPlanComboBox();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(frame,
+                "Error reading plan prices: " + e.getMessage() + "\n" +
+                "The standard plan prices will be used.",
+                "Plan Prices Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
     }
 }
 
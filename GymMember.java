@@ -5,25 +5,76 @@
  * This abstract class serves as a parent class for specific types of gym members
  * (e.g., RegularMember, PremiumMember) and includes shared properties and methods
  * like attendance tracking, loyalty points, and membership status.
+ *
+ * A member can be changed from several threads at once, for example by two
+ * turnstiles. Every method that changes a member is synchronized on the member,
+ * so each change is atomic and listeners see changes in the order they were made.
+ * The changing fields are volatile, so the accessors never block.
+ *
+ * Check-ins are the exception: they happen far more often than anything else, so
+ * attendance and loyalty points are counters updated with single atomic
+ * instructions and no lock. Loyalty points are kept in hundredths of a point in
+ * a long, so they can be added the same way as attendance. No visit or point is
+ * ever lost, but listeners are told about these changes after the lock-free
+ * update, so they hear about check-ins in the order each thread made them only:
+ * check-ins from two threads at once may be reported in either order, and a
+ * listener may already see the other thread's visit in the member's state.
+ *
+ * The date of birth and membership start date are given as text such as
+ * "2025-4-7", but kept as a count of days since 1 January 1970 (as
+ * LocalDate.toEpochDay gives), so they can be compared and indexed without
+ * reading text. They are given back as ISO dates ("2025-04-07"). A date that
+ * cannot be read, such as the empty one of a member imported from the text
+ * tables, is kept as NO_DATE and given back as "". A day past the end of its
+ * month, which older versions of the form allowed, is read as the last day
+ * of the month.
  * 
  * @author (Nipekshya Shakya)
  * @version (13 April 2025)
  */
 
-
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
 
 public abstract class GymMember {
+    /**
+     * The day number of a date that is not known.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final VarHandle ATTENDANCE;
+    private static final VarHandle LOYALTY_HUNDREDTHS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ATTENDANCE = lookup.findVarHandle(GymMember.class, "attendance", int.class);
+            LOYALTY_HUNDREDTHS = lookup.findVarHandle(GymMember.class, "loyaltyHundredths", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     protected int id;
     protected String name;
     protected String location;
     protected String phone;
-    protected String email;
+    protected volatile String email;
     protected String gender;
-    protected String DOB;
-    protected String membershipStartDate;
-    protected int attendance = 0;
-    protected double loyaltyPoints = 0.0;
-    protected boolean activeStatus = false;
+    // Days since 1 January 1970, or NO_DATE
+    protected int dobDay;
+    protected volatile int membershipStartDay;
+    protected volatile int attendance = 0;
+    private volatile long loyaltyHundredths = 0;
+    protected volatile boolean activeStatus = false;
+    // The day the membership runs out unless renewed, or NO_DATE; set by MembershipExpiryScheduler
+    protected volatile int renewalDay = NO_DATE;
+    private volatile MemberChangeListener changeListener;
+    // Guarded by the MemberDatabase that tracks this member
+    private volatile boolean dirty = false;
+    // Position in the MemberRepository holding this member; set by the repository
+    private volatile int position = -1;
 
         /**
      * Constructs a GymMember object with the given personal and membership details.
@@ -46,8 +97,8 @@ public abstract class GymMember {
         this.phone = phone;
         this.email = email;
         this.gender = gender;
-        this.DOB = DOB;
-        this.membershipStartDate = membershipStartDate;
+        this.dobDay = parseDate(DOB);
+        this.membershipStartDay = parseDate(membershipStartDate);
     }
 
     // Accessor Methods
@@ -76,11 +127,25 @@ public abstract class GymMember {
     }
 
     public String getDOB() {
-        return DOB;
+        return formatDate(dobDay);
     }
 
     public String getMembershipStartDate() {
-        return membershipStartDate;
+        return formatDate(membershipStartDay);
+    }
+
+    /**
+     * Returns the date of birth as a count of days since 1 January 1970, or NO_DATE.
+     */
+    public int getDOBDay() {
+        return dobDay;
+    }
+
+    /**
+     * Returns the membership start date as a count of days since 1 January 1970, or NO_DATE.
+     */
+    public int getMembershipStartDay() {
+        return membershipStartDay;
     }
 
     public int getAttendance() {
@@ -88,13 +153,21 @@ public abstract class GymMember {
     }
 
     public double getLoyaltyPoints() {
-        return loyaltyPoints;
+        return loyaltyHundredths / 100.0;
     }
 
     public boolean isActiveStatus() {
         return activeStatus;
     }
 
+    /**
+     * Returns the day the membership runs out unless it is renewed first, as a
+     * count of days since 1 January 1970, or NO_DATE if it has not been given one.
+     */
+    public int getRenewalDay() {
+        return renewalDay;
+    }
+
         /**
      * Abstract method to be implemented by subclasses to define
      * how attendance should be marked for different types of members.
@@ -102,39 +175,241 @@ public abstract class GymMember {
 
     public abstract void markAttendance();
 
+    /**
+     * Marks several visits at once, as if markAttendance had been called that
+     * many times, but tells the listeners only once. Used when check-ins are
+     * read in bulk from the turnstile logs.
+     *
+     * @param visits The number of visits; nothing happens if it is not positive
+     */
+    public abstract void markAttendance(int visits);
+
         /**
      * Activates the member's gym membership.
      * Deactivates the member's gym membership.
      */
 
-    public void activateMembership() {
+    public synchronized void activateMembership() {
         activeStatus = true;
+        fireChanged(MemberChange.ACTIVATED);
     }
 
-    public void deactivateMembership() {
+    public synchronized void deactivateMembership() {
         if (activeStatus) {
             activeStatus = false;
+            fireChanged(MemberChange.DEACTIVATED);
         }
     }
 
         /**
      * Resets the member's activity by setting attendance to 0,
      * loyalty points to 0.0, and deactivating the membership.
+     * Subclasses reset their own fields before calling this, so that
+     * listeners are told about the revert once the member is fully reset.
      */
 
-    public void resetMember() {
+    public synchronized void resetMember() {
         activeStatus = false;
         attendance = 0;
-        loyaltyPoints = 0.0;
+        loyaltyHundredths = 0;
+        fireChanged(MemberChange.REVERTED);
     }
 
     /**
-     * Adds loyalty points to the member's account.
+     * Sets the day the membership runs out, so it is saved with the member and
+     * kept when the program stops. Called by MembershipExpiryScheduler.
+     *
+     * @param day The renewal day, as a count of days since 1 January 1970
+     */
+    synchronized void renewUntil(int day) {
+        if (renewalDay != day) {
+            renewalDay = day;
+            fireChanged(MemberChange.RENEWED);
+        }
+    }
+
+    /**
+     * Restores the renewal day of a member that is being read back from a
+     * saved snapshot or replayed from the member journal.
+     *
+     * @param day The saved renewal day, or NO_DATE
+     */
+    void restoreRenewalDay(int day) {
+        renewalDay = day;
+    }
+
+    /**
+     * Restores the attendance, loyalty points and status of a member
+     * that is being read back from a saved snapshot.
+     *
+     * @param attendance The saved attendance count
+     * @param loyaltyPoints The saved loyalty points
+     * @param activeStatus The saved membership status
+     */
+    synchronized void restoreState(int attendance, double loyaltyPoints, boolean activeStatus) {
+        this.attendance = attendance;
+        this.loyaltyHundredths = Math.round(loyaltyPoints * 100);
+        this.activeStatus = activeStatus;
+    }
+
+    /**
+     * Counts more visits and adds the loyalty points earned by them, without
+     * taking a lock. Two threads checking in the same member at once each get
+     * a different attendance back, so exactly one of them sees any given count.
+     *
+     * @param visits The number of visits to count
+     * @param points The loyalty points earned by the visits
+     * @return The attendance including these visits
+     */
+    protected final int countVisits(int visits, int points) {
+        int attendance = (int) ATTENDANCE.getAndAdd(this, visits) + visits;
+        LOYALTY_HUNDREDTHS.getAndAdd(this, points * 100L);
+        return attendance;
+    }
+
+    /**
+     * Adds loyalty points to the member's account, without taking a lock.
      * @param points The number of points to add
      */
     public void addLoyaltyPoints(int points) {
         if (points > 0) {
-            this.loyaltyPoints += points;
+            LOYALTY_HUNDREDTHS.getAndAdd(this, points * 100L);
+            fireChanged(MemberChange.LOYALTY_POINTS_ADDED);
+        }
+    }
+
+    /**
+     * Sets the listener that is told about every change to this member.
+     * MemberRepository sets this when the member is added.
+     *
+     * @param changeListener The listener, or null to stop notifications
+     */
+    void setChangeListener(MemberChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Returns the member's position in the MemberRepository holding it, so the
+     * repository can find it without a lookup by ID.
+     */
+    int getPosition() {
+        return position;
+    }
+
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Checks whether the member has changed since the last save.
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the member as changed since the last save.
+     *
+     * @return true if the member was not already marked
+     */
+    boolean markDirty() {
+        if (dirty) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Clears the changed mark. Called just before the member is saved, so a
+     * change made while the save is running marks the member again.
+     */
+    void markClean() {
+        dirty = false;
+    }
+
+    /**
+     * Reads a date written as year-month-day, with or without leading zeros
+     * ("2025-4-7" or "2025-04-07").
+     *
+     * @param text The date, may be null
+     * @return The day since 1 January 1970, or NO_DATE if the text is not a date
+     */
+    static int parseDate(String text) {
+        if (text == null) {
+            return NO_DATE;
+        }
+        int end = text.length();
+        int pos = 0;
+        while (pos < end && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        while (end > pos && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        int[] parts = new int[3];
+        for (int part = 0; part < 3; part++) {
+            int start = pos;
+            int value = 0;
+            while (pos < end && pos - start < 4 && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+                value = value * 10 + (text.charAt(pos++) - '0');
+            }
+            if (pos == start || (part < 2 && (pos == end || text.charAt(pos++) != '-'))) {
+                return NO_DATE;
+            }
+            parts[part] = value;
+        }
+        int year = parts[0];
+        int month = parts[1];
+        int day = parts[2];
+        if (pos != end || year == 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NO_DATE;
+        }
+        LocalDate first = LocalDate.of(year, month, 1);
+        return (int) first.toEpochDay() + Math.min(day, first.lengthOfMonth()) - 1;
+    }
+
+    /**
+     * Writes a day since 1 January 1970 as an ISO date ("2025-04-07").
+     *
+     * @param day The day, or NO_DATE
+     * @return The date, or "" for NO_DATE
+     */
+    static String formatDate(int day) {
+        if (day == NO_DATE) {
+            return "";
+        }
+        LocalDate date = LocalDate.ofEpochDay(day);
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            return date.toString();
+        }
+        char[] text = new char[10];
+        putDigits(text, 0, year, 4);
+        text[4] = '-';
+        putDigits(text, 5, date.getMonthValue(), 2);
+        text[7] = '-';
+        putDigits(text, 8, date.getDayOfMonth(), 2);
+        return new String(text);
+    }
+
+    private static void putDigits(char[] text, int at, int value, int digits) {
+        for (int i = at + digits - 1; i >= at; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Tells the change listener, if there is one, that this member has changed.
+     * Called at the end of every method that changes the member's state.
+     *
+     * @param change The kind of change that was made
+     */
+    protected void fireChanged(MemberChange change) {
+        MemberChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.memberChanged(this, change);
         }
     }
 
@@ -150,10 +425,10 @@ public abstract class GymMember {
         System.out.println("Phone: " + phone);
         System.out.println("Email: " + email);
         System.out.println("Gender: " + gender);
-        System.out.println("Date of Birth: " + DOB);
-        System.out.println("Membership Start Date: " + membershipStartDate);
+        System.out.println("Date of Birth: " + getDOB());
+        System.out.println("Membership Start Date: " + getMembershipStartDate());
         System.out.println("Attendance: " + attendance);
-        System.out.println("Loyalty Points: " + loyaltyPoints);
+        System.out.println("Loyalty Points: " + getLoyaltyPoints());
         System.out.println("Active Status: " + activeStatus);
     }
 }
\ No newline at end of file
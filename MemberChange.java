@@ -0,0 +1,22 @@
+/**
+ * The MemberChange enum lists the kinds of change a gym member can go through.
+ * A value is passed to every MemberChangeListener when a member changes, and
+ * its ordinal is written to the member journal, so new values must only ever
+ * be added at the end.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+public enum MemberChange {
+    ADDED,
+    ACTIVATED,
+    DEACTIVATED,
+    ATTENDANCE_MARKED,
+    LOYALTY_POINTS_ADDED,
+    PAYMENT_MADE,
+    DISCOUNT_CALCULATED,
+    PLAN_UPGRADED,
+    REVERTED,
+    RENEWED
+}
@@ -0,0 +1,21 @@
+/**
+ * The MemberChangeListener interface is implemented by classes that need to
+ * hear about every change made to the members of a MemberRepository, such as
+ * the member journal.
+ *
+ * The listener is called right after the change has been made, on the thread
+ * that made it, so it sees the member's new state.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+public interface MemberChangeListener {
+    /**
+     * Called after a member has been added or one of its fields has changed.
+     *
+     * @param member The member that changed
+     * @param change The kind of change
+     */
+    void memberChanged(GymMember member, MemberChange change);
+}
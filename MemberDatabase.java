@@ -0,0 +1,401 @@
+/**
+ * The MemberDatabase class keeps the members of a MemberRepository on disk.
+ * It ties together the four files the members are stored in:
+ * - the snapshot ("members.dat"), a full copy of every member
+ * - the delta file ("members.delta"), segments holding only the members that
+ *   changed between two saves
+ * - the journal ("members.wal"), a record of every change since the last save
+ * - the attendance history ("members.visits", see AttendanceSnapshot), which is
+ *   rewritten with every full snapshot and gets the visits recorded since the
+ *   last save appended at every other save
+ *
+ * Members report every change to the database, which remembers which members
+ * changed. A save then writes only those members as a new delta segment, so
+ * its cost depends on the number of changes rather than on the number of
+ * members. Once the delta file grows past half the size of the snapshot, the
+ * next save writes a fresh snapshot instead and starts a new delta file.
+ *
+ * Saving and loading are split so that the slow part can run on a background
+ * thread while the members keep changing:
+ * - beginSave captures the member list, the changed members and a journal mark
+ *   in a moment, and PendingSave.write then writes them. Changes made while the
+ *   write runs stay in the journal, which is only cut back to the mark.
+ * - readSnapshot reads the files into a new repository, and install puts it in
+ *   place of the current members in one step.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MemberDatabase implements Closeable {
+    private final MemberRepository members;
+    private final File snapshotFile;
+    private final File deltaFile;
+    private final File journalFile;
+    private final File visitsFile;
+
+    // Set by openJournal and close; read without the lock by sync
+    private volatile MemberJournal journal;
+    private final MemberChangeListener changeTracker = this::trackChange;
+    private final VisitListener visitTracker = this::trackVisits;
+
+    // Members changed and visits recorded since the last save; guarded by this
+    private List<GymMember> changedMembers = new ArrayList<>();
+    private long[] unsavedVisits = new long[1024];
+    private int unsavedVisitCount;
+    private boolean fullSaveNeeded = true;
+    private int snapshotChecksum;
+
+    /**
+     * Creates a database for the given repository and files.
+     *
+     * @param members The repository whose members are stored
+     * @param snapshotFile The full snapshot file
+     * @param deltaFile The file that delta segments are appended to
+     * @param journalFile The journal file
+     * @param visitsFile The attendance history file
+     */
+    public MemberDatabase(MemberRepository members, File snapshotFile, File deltaFile, File journalFile,
+                          File visitsFile) {
+        this.members = members;
+        this.snapshotFile = snapshotFile;
+        this.deltaFile = deltaFile;
+        this.journalFile = journalFile;
+        this.visitsFile = visitsFile;
+    }
+
+    /**
+     * Holds the outcome of a save.
+     */
+    public static class SaveResult {
+        private final boolean fullSnapshot;
+        private final int savedCount;
+
+        SaveResult(boolean fullSnapshot, int savedCount) {
+            this.fullSnapshot = fullSnapshot;
+            this.savedCount = savedCount;
+        }
+
+        public boolean isFullSnapshot() {
+            return fullSnapshot;
+        }
+
+        public int getSavedCount() {
+            return savedCount;
+        }
+    }
+
+    /**
+     * Holds members that were read in the background, ready to be installed.
+     */
+    public static class LoadResult {
+        private final MemberRepository loaded;
+        private final boolean fromSnapshot;
+        private final int snapshotChecksum;
+
+        LoadResult(MemberRepository loaded, boolean fromSnapshot, int snapshotChecksum) {
+            this.loaded = loaded;
+            this.fromSnapshot = fromSnapshot;
+            this.snapshotChecksum = snapshotChecksum;
+        }
+
+        public int getLoadedCount() {
+            return loaded.size();
+        }
+    }
+
+    public boolean hasSnapshot() {
+        return snapshotFile.exists();
+    }
+
+    /**
+     * Reads the snapshot, with the delta segments applied on top, and the
+     * attendance history into a new repository. Nothing the rest of the program
+     * can see is changed, so this can run on a background thread.
+     *
+     * @param progress Told how far the load has got, and asked whether to stop
+     * @return The members read, ready to be installed
+     * @throws IOException if the snapshot or delta file cannot be read
+     * @throws InterruptedIOException if the load was cancelled
+     */
+    public LoadResult readSnapshot(ProgressListener progress) throws IOException {
+        MemberRepository loaded = new MemberRepository();
+        MemberSnapshot.load(snapshotFile, loaded, progress);
+        int checksum = MemberSnapshot.readChecksum(snapshotFile);
+        MemberSnapshot.applyDeltas(deltaFile, checksum, loaded);
+        AttendanceSnapshot.load(visitsFile, loaded.getAttendanceHistory());
+        return new LoadResult(loaded, true, checksum);
+    }
+
+    /**
+     * Wraps members that were imported some other way, such as from the text
+     * tables, so they can be installed. They are written in full at the next save.
+     *
+     * @param imported The imported members
+     * @return The members, ready to be installed
+     */
+    public LoadResult importedMembers(MemberRepository imported) {
+        return new LoadResult(imported, false, 0);
+    }
+
+    /**
+     * Puts the loaded members in place of the members in the repository, and
+     * the saved attendance history in place of the current one. Members that
+     * were imported some other way keep the current history. Call close first,
+     * and openJournal afterwards to replay the changes made since the last save.
+     *
+     * @param result The members to install
+     */
+    public synchronized void install(LoadResult result) {
+        members.replaceAllWith(result.loaded);
+        if (result.fromSnapshot) {
+            members.getAttendanceHistory().replaceWith(result.loaded.getAttendanceHistory());
+        }
+        snapshotChecksum = result.snapshotChecksum;
+        changedMembers = new ArrayList<>();
+        unsavedVisitCount = 0;
+        fullSaveNeeded = !result.fromSnapshot;
+    }
+
+    /**
+     * Replays the journal over the loaded members, then starts recording and
+     * tracking every new change. Call this once the members are loaded.
+     *
+     * @return The number of changes replayed from the journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public int openJournal() throws IOException {
+        journal = MemberJournal.open(journalFile, members);
+        int replayed = journal.getReplayedCount();
+        synchronized (this) {
+            changedMembers = new ArrayList<>();
+            // Replayed changes are not marked on the members, so write everything next time
+            if (replayed > 0 || !snapshotFile.exists()) {
+                fullSaveNeeded = true;
+            }
+        }
+        members.addChangeListener(changeTracker);
+        members.addChangeListener(journal);
+        // The tracker must hear about a visit before the journal does, so a visit
+        // is never in the journal before a save's mark but missing from the save
+        members.getAttendanceHistory().addVisitListener(visitTracker);
+        members.getAttendanceHistory().addVisitListener(journal);
+        return replayed;
+    }
+
+    /**
+     * Replays the journal over the loaded members without opening it, for
+     * programs that only read the members. The journal is left as it is and
+     * new changes are not recorded.
+     *
+     * @return The number of changes replayed from the journal
+     * @throws IOException if the journal cannot be read, or another program has it open
+     */
+    public int replayJournal() throws IOException {
+        return MemberJournal.replay(journalFile, members);
+    }
+
+    /**
+     * Waits until every change made so far is in the journal on disk. The
+     * journal is written in the background, so a change is only safe from a
+     * crash once this returns; call it before telling anyone a change was made.
+     * Does nothing if the journal is not open.
+     *
+     * @throws IOException if the journal failed to write
+     */
+    public void sync() throws IOException {
+        MemberJournal current = journal;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    /**
+     * Saves the members that changed since the last save as a delta segment,
+     * or writes a full snapshot when there is none yet, when the journal had to
+     * be replayed, or when the delta file has grown too large. The journal is
+     * emptied afterwards, since the changes it holds are now saved.
+     *
+     * @return What was saved
+     * @throws IOException if the members cannot be saved
+     */
+    public SaveResult save() throws IOException {
+        return beginSave().write(ProgressListener.NONE);
+    }
+
+    /**
+     * Captures what the next save has to write: the member list (for a full
+     * snapshot) or the changed members (for a delta segment), and a journal
+     * mark. Call this on the thread that changes the members; the returned
+     * save can then be written on any thread while the members keep changing.
+     * Only one save may be in progress at a time.
+     *
+     * @return The save, ready to be written
+     */
+    public synchronized PendingSave beginSave() {
+        List<GymMember> changed = changedMembers;
+        changedMembers = new ArrayList<>();
+        boolean full = fullSaveNeeded || !snapshotFile.exists()
+            || deltaFile.length() > snapshotFile.length() / 2;
+        fullSaveNeeded = false;
+        // Clear the marks now, so a change made during the save is tracked again
+        for (GymMember member : changed) {
+            member.markClean();
+        }
+        GymMember[] all = full ? members.toArray() : null;
+        long[] visits = unsavedVisits;
+        int visitCount = unsavedVisitCount;
+        unsavedVisits = new long[1024];
+        unsavedVisitCount = 0;
+        long mark = journal != null ? journal.mark() : 0;
+        return new PendingSave(full, all, changed, visits, visitCount, journal, mark);
+    }
+
+    /**
+     * A save captured by beginSave, waiting to be written.
+     *
+     * Members may change while the save is written, so the files can hold a
+     * mix of older and newer states. That is safe because the journal is only
+     * cut back to the mark taken in beginSave: every change made after the mark
+     * is replayed over the saved files at the next start.
+     */
+    public class PendingSave {
+        private final boolean full;
+        private final GymMember[] all;
+        private final List<GymMember> changed;
+        private final long[] visits;
+        private final int visitCount;
+        private final MemberJournal saveJournal;
+        private final long mark;
+
+        PendingSave(boolean full, GymMember[] all, List<GymMember> changed, long[] visits, int visitCount,
+                    MemberJournal saveJournal, long mark) {
+            this.full = full;
+            this.all = all;
+            this.changed = changed;
+            this.visits = visits;
+            this.visitCount = visitCount;
+            this.saveJournal = saveJournal;
+            this.mark = mark;
+        }
+
+        /**
+         * Writes the captured members and visits and cuts the journal back to
+         * the mark. A full snapshot rewrites the whole attendance history, as it
+         * is when the write gets to it. If the save fails or is cancelled, the
+         * next save writes a full snapshot.
+         *
+         * @param progress Told how far the save has got, and asked whether to stop
+         * @return What was saved
+         * @throws IOException if the members cannot be saved
+         * @throws InterruptedIOException if the save was cancelled
+         */
+        public SaveResult write(ProgressListener progress) throws IOException {
+            try {
+                int saved;
+                if (full) {
+                    MemberSnapshot.save(snapshotFile, all, progress);
+                    int checksum = MemberSnapshot.readChecksum(snapshotFile);
+                    synchronized (MemberDatabase.this) {
+                        snapshotChecksum = checksum;
+                    }
+                    // Old segments are ignored from now on, since they name the old snapshot
+                    deleteDeltas();
+                    saved = all.length;
+                } else {
+                    if (!changed.isEmpty()) {
+                        if (progress.isCancelRequested()) {
+                            throw new InterruptedIOException("Cancelled");
+                        }
+                        int checksum;
+                        synchronized (MemberDatabase.this) {
+                            checksum = snapshotChecksum;
+                        }
+                        MemberSnapshot.appendDelta(deltaFile, checksum, changed);
+                    }
+                    saved = changed.size();
+                    progress.progress(saved, saved);
+                }
+                if (full || !visitsFile.exists()) {
+                    AttendanceSnapshot.save(visitsFile, members.getAttendanceHistory());
+                } else if (visitCount > 0) {
+                    AttendanceSnapshot.append(visitsFile, visits, visitCount);
+                }
+                if (saveJournal != null) {
+                    saveJournal.discardBefore(mark);
+                }
+                return new SaveResult(full, saved);
+            } catch (IOException e) {
+                synchronized (MemberDatabase.this) {
+                    // Nothing is known to be saved, so write everything next time
+                    fullSaveNeeded = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking changes and closes the journal, writing any changes that
+     * are still waiting to go to disk.
+     *
+     * @throws IOException if the last journal records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        members.removeChangeListener(changeTracker);
+        members.getAttendanceHistory().removeVisitListener(visitTracker);
+        synchronized (this) {
+            for (GymMember member : changedMembers) {
+                member.markClean();
+            }
+            changedMembers = new ArrayList<>();
+            unsavedVisitCount = 0;
+            fullSaveNeeded = true;
+        }
+        if (journal != null) {
+            members.removeChangeListener(journal);
+            members.getAttendanceHistory().removeVisitListener(journal);
+            MemberJournal closing = journal;
+            journal = null;
+            closing.close();
+        }
+    }
+
+    private void deleteDeltas() throws IOException {
+        if (deltaFile.exists() && !deltaFile.delete()) {
+            throw new IOException("Could not delete " + deltaFile.getName());
+        }
+    }
+
+    private void trackChange(GymMember member, MemberChange change) {
+        // A member already waiting for the next save needs nothing more, so most
+        // changes skip the lock. The save reads the member after clearing the mark,
+        // so a change that sees the mark just before it is cleared is still saved.
+        if (member.isDirty()) {
+            return;
+        }
+        synchronized (this) {
+            if (member.markDirty()) {
+                changedMembers.add(member);
+            }
+        }
+    }
+
+    private synchronized void trackVisits(long[] visits, int count) {
+        if (unsavedVisitCount + count > unsavedVisits.length) {
+            unsavedVisits = Arrays.copyOf(unsavedVisits,
+                Math.max(unsavedVisits.length * 2, unsavedVisitCount + count));
+        }
+        System.arraycopy(visits, 0, unsavedVisits, unsavedVisitCount, count);
+        unsavedVisitCount += count;
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * The MemberDateIndex class keeps members sorted by one of their dates, either
+ * the membership start date or the date of birth, so that the members whose
+ * date falls in a range can be found with two binary searches instead of a
+ * pass over every member.
+ *
+ * Dates are kept as day numbers (see GymMember), in an int array beside the
+ * array of members, so a search compares ints and never looks at the members
+ * themselves. Members without the date are left out. Members with the same date
+ * are kept in the order they were added.
+ *
+ * Like MemberNameIndex, an index never changes once it is made; adding a member
+ * gives a new index. Most members are in one large sorted array, and members
+ * added since it was made are in a second, small one, which is merged into the
+ * large one once it holds RECENT_LIMIT members.
+ *
+ * MemberRepository builds the index the first time it is searched, and keeps it
+ * up to date from then on.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+
+class MemberDateIndex {
+    private static final int RECENT_LIMIT = 4096;
+    private static final int[] NO_DAYS = new int[0];
+    private static final GymMember[] NONE = new GymMember[0];
+
+    private final boolean byBirth;
+    // sortedDays[i] is the date of sorted[i], ascending; the same for recent
+    private final int[] sortedDays;
+    private final GymMember[] sorted;
+    private final int[] recentDays;
+    private final GymMember[] recent;
+
+    private MemberDateIndex(boolean byBirth, int[] sortedDays, GymMember[] sorted, int[] recentDays, GymMember[] recent) {
+        this.byBirth = byBirth;
+        this.sortedDays = sortedDays;
+        this.sorted = sorted;
+        this.recentDays = recentDays;
+        this.recent = recent;
+    }
+
+    /**
+     * Builds an index of the given members.
+     *
+     * @param byBirth true to index the date of birth, false for the membership start date
+     * @param members The members, in the order they were added
+     * @return The index
+     */
+    static MemberDateIndex build(boolean byBirth, GymMember[] members) {
+        // Each key holds a date in its top half and the member's place in the array in
+        // its bottom half, so sorting the keys sorts by date and then by place
+        long[] keys = new long[members.length];
+        int count = 0;
+        for (int i = 0; i < members.length; i++) {
+            int day = dayOf(byBirth, members[i]);
+            if (day != GymMember.NO_DATE) {
+                keys[count++] = ((long) day << 32) | i;
+            }
+        }
+        Arrays.parallelSort(keys, 0, count);
+
+        int[] days = new int[count];
+        GymMember[] sorted = new GymMember[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = (int) (keys[i] >> 32);
+            sorted[i] = members[(int) keys[i]];
+        }
+        return new MemberDateIndex(byBirth, days, sorted, NO_DAYS, NONE);
+    }
+
+    /**
+     * Returns an index that also holds the given member.
+     */
+    MemberDateIndex with(GymMember member) {
+        int day = dayOf(byBirth, member);
+        if (day == GymMember.NO_DATE) {
+            return this;
+        }
+        int position = upperBound(recentDays, day);
+        int[] grownDays = new int[recentDays.length + 1];
+        GymMember[] grown = new GymMember[recent.length + 1];
+        System.arraycopy(recentDays, 0, grownDays, 0, position);
+        System.arraycopy(recent, 0, grown, 0, position);
+        grownDays[position] = day;
+        grown[position] = member;
+        System.arraycopy(recentDays, position, grownDays, position + 1, recentDays.length - position);
+        System.arraycopy(recent, position, grown, position + 1, recent.length - position);
+        if (grown.length < RECENT_LIMIT) {
+            return new MemberDateIndex(byBirth, sortedDays, sorted, grownDays, grown);
+        }
+        return merge(grownDays, grown);
+    }
+
+    /**
+     * Returns the members whose date is between two days, in date order.
+     *
+     * @param fromDay The first day, as a day number
+     * @param toDay The last day, as a day number, included
+     * @return The members; none if toDay is before fromDay
+     */
+    GymMember[] find(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return NONE;
+        }
+        int fromSorted = lowerBound(sortedDays, fromDay);
+        int toSorted = upperBound(sortedDays, toDay);
+        int fromRecent = lowerBound(recentDays, fromDay);
+        int toRecent = upperBound(recentDays, toDay);
+
+        GymMember[] found = new GymMember[(toSorted - fromSorted) + (toRecent - fromRecent)];
+        int count = 0;
+        while (fromSorted < toSorted && fromRecent < toRecent) {
+            // Recent members were added later, so they go after older ones with the same date
+            if (sortedDays[fromSorted] <= recentDays[fromRecent]) {
+                found[count++] = sorted[fromSorted++];
+            } else {
+                found[count++] = recent[fromRecent++];
+            }
+        }
+        System.arraycopy(sorted, fromSorted, found, count, toSorted - fromSorted);
+        count += toSorted - fromSorted;
+        System.arraycopy(recent, fromRecent, found, count, toRecent - fromRecent);
+        return found;
+    }
+
+    /**
+     * Returns the number of members whose date is between two days.
+     *
+     * @param fromDay The first day, as a day number
+     * @param toDay The last day, as a day number, included
+     */
+    int count(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return 0;
+        }
+        return upperBound(sortedDays, toDay) - lowerBound(sortedDays, fromDay)
+            + upperBound(recentDays, toDay) - lowerBound(recentDays, fromDay);
+    }
+
+    int size() {
+        return sorted.length + recent.length;
+    }
+
+    /**
+     * Merges the recent members into the large sorted arrays, copying the
+     * members between two places in one block, as MemberNameIndex does.
+     */
+    private MemberDateIndex merge(int[] newDays, GymMember[] added) {
+        int[] days = new int[sortedDays.length + newDays.length];
+        GymMember[] merged = new GymMember[sorted.length + added.length];
+        int copied = 0;
+        for (int r = 0; r < added.length; r++) {
+            int position = upperBound(sortedDays, newDays[r]);
+            System.arraycopy(sortedDays, copied, days, copied + r, position - copied);
+            System.arraycopy(sorted, copied, merged, copied + r, position - copied);
+            days[position + r] = newDays[r];
+            merged[position + r] = added[r];
+            copied = position;
+        }
+        System.arraycopy(sortedDays, copied, days, copied + added.length, sortedDays.length - copied);
+        System.arraycopy(sorted, copied, merged, copied + added.length, sorted.length - copied);
+        return new MemberDateIndex(byBirth, days, merged, NO_DAYS, NONE);
+    }
+
+    /**
+     * Returns the position of the first day at or after the given one.
+     */
+    private static int lowerBound(int[] days, int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position of the first day after the given one.
+     */
+    private static int upperBound(int[] days, int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int dayOf(boolean byBirth, GymMember member) {
+        return byBirth ? member.getDOBDay() : member.getMembershipStartDay();
+    }
+}
@@ -0,0 +1,503 @@
+/**
+ * The MemberGenerator class makes up realistic gym members and gym traffic for
+ * load testing. It writes:
+ * - a member population in the formats the program reads: the binary snapshot
+ *   ("members.dat") and the two text tables ("regular_members.txt" and
+ *   "premium_members.txt")
+ * - a stream of check-in, payment, upgrade and revert events ("events.txt")
+ *   that can be replayed against the members with replayEvents
+ * - a turnstile scan file ("scans.txt") for CheckInIngester
+ *
+ * Everything is worked out from a seed, so the same seed always gives the same
+ * files. Each member is built from its own random numbers, derived from the seed
+ * and the member's position, so any member can be rebuilt on its own and nothing
+ * has to be kept in memory: members and events are written as they are made, and
+ * millions of them can be generated with a small heap.
+ *
+ * Plans, trainers, referral sources, locations and payment states are picked
+ * with weights that roughly follow a real gym: most members are regular members
+ * on the basic plan, a few trainers have most of the premium members, and visits
+ * are spread so that some members come far more often than others.
+ *
+ * Event file layout, one event per line (lines starting with "#" are comments):
+ *   2026-01-01T06:00:03 CHECKIN 1042
+ *   2026-01-01T06:00:07 PAY 1043 5000.00
+ *   2026-01-01T06:00:12 UPGRADE 1042 standard
+ *   2026-01-01T06:00:20 REVERT 1042 Moved away
+ *
+ * Usage: java MemberGenerator <members> <events> [seed] [directory]
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+public class MemberGenerator {
+    public static final int FIRST_ID = 1;
+    public static final long DEFAULT_SEED = 42;
+
+    private static final double PREMIUM_SHARE = 0.3;
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Anisha", "Bikash", "Binita", "Dipesh", "Gita", "Hari",
+        "Kabita", "Kiran", "Manish", "Nabin", "Niruta", "Prakash", "Pooja", "Rajesh", "Sabina", "Sandeep",
+        "Sita", "Sujan", "Sunita"};
+    private static final String[] LAST_NAMES = {"Adhikari", "Bhandari", "Gurung", "Karki", "KC", "Khadka",
+        "Lama", "Magar", "Maharjan", "Pandey", "Poudel", "Rai", "Sharma", "Shakya", "Shrestha", "Tamang",
+        "Thapa", "Basnet", "Joshi", "Limbu"};
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "yahoo.com", "outlook.com"};
+    private static final String[] REMOVAL_REASONS = {"Moved away", "Too expensive", "Health reasons",
+        "Joined another gym", "No time"};
+
+    private static final Weighted LOCATIONS = new Weighted(
+        new String[] {"Kathmandu", "Lalitpur", "Bhaktapur", "Pokhara", "Chitwan", "Biratnagar", "Butwal"},
+        new int[] {35, 20, 12, 12, 8, 7, 6});
+    private static final Weighted GENDERS = new Weighted(
+        new String[] {"Male", "Female", "Other"},
+        new int[] {52, 46, 2});
+    private static final Weighted REFERRALS = new Weighted(
+        new String[] {"Friend", "Social Media", "Website", "Walk-in", "Advertisement"},
+        new int[] {35, 25, 15, 15, 10});
+    // Always the built-in prices, so a seed gives the same members whatever plans.txt says
+    private static final PlanCatalog PLAN_PRICES = PlanCatalog.defaults();
+    private static final Weighted REGULAR_PLANS = new Weighted(
+        new String[] {"basic", "standard", "deluxe"},
+        new int[] {60, 28, 12});
+    private static final Weighted PREMIUM_PLANS = new Weighted(
+        new String[] {"Basic", "Standard", "Deluxe"},
+        new int[] {55, 30, 15});
+    // A few popular trainers have most of the premium members
+    private static final Weighted TRAINERS = new Weighted(
+        new String[] {"Ram Thapa", "Sita Rai", "Hari Gurung", "Gita Tamang", "Bikash Lama", "Sunita Karki",
+            "Prakash Magar", "Anisha Shrestha", "Nabin Basnet", "Pooja Joshi", "Kiran Limbu", "Sujan KC"},
+        new int[] {24, 18, 13, 10, 8, 7, 5, 4, 4, 3, 2, 2});
+    private static final Weighted EVENT_TYPES = new Weighted(
+        new String[] {"CHECKIN", "PAY", "UPGRADE", "REVERT"},
+        new int[] {85, 8, 5, 2});
+
+    // Payments are made in instalments of this size
+    private static final double INSTALMENT = 5000.0;
+
+    // The gym is open from 06:00 to 21:00, with an event every few seconds on average
+    private static final int OPENING_SECOND = 6 * 3600;
+    private static final int CLOSING_SECOND = 21 * 3600;
+    private static final double MEAN_SECONDS_BETWEEN_EVENTS = 3.0;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final long seed;
+    private final int memberCount;
+
+    /**
+     * Creates a generator for a population of the given size.
+     *
+     * @param seed The seed that all the random choices are worked out from
+     * @param memberCount The number of members in the population
+     */
+    public MemberGenerator(long seed, int memberCount) {
+        this.seed = seed;
+        this.memberCount = memberCount;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    /**
+     * Returns the ID of the member at the given position of the population.
+     */
+    public int idOf(int index) {
+        return FIRST_ID + index;
+    }
+
+    /**
+     * Checks whether the member at the given position is a premium member,
+     * without building the whole member.
+     */
+    public boolean isPremium(int index) {
+        return randomFor(index).nextDouble() < PREMIUM_SHARE;
+    }
+
+    /**
+     * Builds the member at the given position of the population. The same
+     * seed and position always give the same member.
+     *
+     * @param index The position, from 0 to getMemberCount() - 1
+     * @return A new member
+     */
+    public GymMember member(int index) {
+        SplittableRandom random = randomFor(index);
+        boolean premium = random.nextDouble() < PREMIUM_SHARE; // Always the first draw, see isPremium
+
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String name = firstName + " " + lastName;
+        String location = LOCATIONS.pick(random);
+        String phone = "98" + (10000000 + random.nextInt(90000000));
+        String gender = GENDERS.pick(random);
+        String dob = date(random, 1965, 2007);
+        String startDate = date(random, 2016, 2026);
+        String referral = REFERRALS.pick(random);
+
+        // Most members come now and then, a few come almost every day
+        int attendance = (int) Math.min(300, -Math.log(1.0 - random.nextDouble()) * 15);
+        boolean active = random.nextDouble() < 0.8;
+
+        if (premium) {
+            String plan = PREMIUM_PLANS.pick(random);
+            double charge = PLAN_PRICES.getPremiumCharge(plan);
+            PremiumMember member = new PremiumMember(idOf(index), name, location, phone, gender, dob,
+                TRAINERS.pick(random), referral, charge);
+
+            // About half have paid in full, a third are paying in instalments, the rest have not paid yet
+            double paymentState = random.nextDouble();
+            double paid = 0.0;
+            boolean fullPayment = false;
+            double discount = 0.0;
+            if (paymentState < 0.45) {
+                paid = charge;
+                fullPayment = true;
+                if (random.nextBoolean()) {
+                    discount = 0.10 * charge;
+                }
+            } else if (paymentState < 0.80) {
+                int instalments = (int) (charge / INSTALMENT);
+                paid = INSTALMENT * (1 + random.nextInt(instalments - 1));
+            }
+            member.restorePaymentState("", startDate, plan, fullPayment, paid, discount);
+            member.restoreState(attendance, attendance * 5.0, active);
+            return member;
+        }
+
+        String email = (firstName + "." + lastName + index).toLowerCase() + "@"
+            + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        RegularMember member = new RegularMember(idOf(index), name, location, phone, email,
+            gender, dob, startDate, referral);
+        if (random.nextDouble() < 0.05) {
+            // Reverted members start over on the basic plan
+            member.restorePlanState(false, REMOVAL_REASONS[random.nextInt(REMOVAL_REASONS.length)],
+                PLAN_PRICES.getName(0), PLAN_PRICES.getRegularPrice(0));
+            member.restoreState(0, 0.0, false);
+        } else {
+            String plan = REGULAR_PLANS.pick(random);
+            member.restorePlanState(attendance >= member.getAttendanceLimit(), "", plan,
+                PLAN_PRICES.getRegularPrice(plan));
+            member.restoreState(attendance, attendance * 5.0, active);
+        }
+        return member;
+    }
+
+    /**
+     * Writes the whole population to a snapshot and to the two text tables,
+     * one member at a time.
+     *
+     * @param snapshotFile The snapshot file to write
+     * @param regularFile The regular members table to write
+     * @param premiumFile The premium members table to write
+     * @param progress Told how far the generator has got, and asked whether to stop
+     * @throws IOException if a file cannot be written
+     */
+    public void writeMembers(File snapshotFile, File regularFile, File premiumFile,
+                             ProgressListener progress) throws IOException {
+        try (MemberSnapshot.Writer snapshot = new MemberSnapshot.Writer(snapshotFile, memberCount);
+             MemberTableWriter regular = new MemberTableWriter(regularFile, false);
+             MemberTableWriter premium = new MemberTableWriter(premiumFile, true)) {
+            for (int index = 0; index < memberCount; index++) {
+                if (index % 10000 == 0) {
+                    if (progress.isCancelRequested()) {
+                        throw new java.io.InterruptedIOException("Cancelled");
+                    }
+                    progress.progress(index, memberCount);
+                }
+                GymMember member = member(index);
+                snapshot.write(member);
+                if (member instanceof PremiumMember) {
+                    premium.write(member);
+                } else {
+                    regular.write(member);
+                }
+            }
+            snapshot.commit();
+        }
+        progress.progress(memberCount, memberCount);
+    }
+
+    /**
+     * Writes a stream of events against the population, with the time of each
+     * event. Check-ins favour some members over others, payments only go to
+     * premium members and upgrades ask for a plan of the member's own kind.
+     *
+     * @param eventFile The event file to write
+     * @param eventCount The number of events
+     * @throws IOException if the file cannot be written
+     */
+    public void writeEvents(File eventFile, long eventCount) throws IOException {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ 0x5DEECE66DL));
+        DateTimeFormatter format = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        long second = OPENING_SECOND;
+        StringBuilder line = new StringBuilder(64);
+
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(eventFile), 1 << 16)) {
+            out.write("# Gym events: seed " + seed + ", " + memberCount + " members, " + eventCount + " events\n");
+            for (long event = 0; event < eventCount; event++) {
+                second = nextSecond(random, second);
+                String type = EVENT_TYPES.pick(random);
+                int index = pickMember(random);
+                if (type.equals("PAY")) {
+                    index = nextPremium(index);
+                }
+
+                line.setLength(0);
+                line.append(format.format(FIRST_DAY.plusSeconds(second))).append(' ')
+                    .append(type).append(' ').append(idOf(index));
+                if (type.equals("PAY")) {
+                    line.append(' ').append((long) INSTALMENT * (1 + random.nextInt(4))).append(".00");
+                } else if (type.equals("UPGRADE")) {
+                    Weighted plans = isPremium(index) ? PREMIUM_PLANS : REGULAR_PLANS;
+                    line.append(' ').append(plans.pick(random));
+                } else if (type.equals("REVERT") && !isPremium(index)) {
+                    line.append(' ').append(REMOVAL_REASONS[random.nextInt(REMOVAL_REASONS.length)]);
+                }
+                line.append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    /**
+     * Writes a turnstile scan file, one "ID,time" line per scan, for
+     * CheckInIngester. About one scan in two hundred is for an ID that does
+     * not exist, like a lost card read by mistake.
+     *
+     * @param scanFile The scan file to write
+     * @param scanCount The number of scans
+     * @throws IOException if the file cannot be written
+     */
+    public void writeScans(File scanFile, long scanCount) throws IOException {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ 0x2545F4914F6CDD1DL));
+        DateTimeFormatter format = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        long second = OPENING_SECOND;
+        StringBuilder line = new StringBuilder(32);
+
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(scanFile), 1 << 16)) {
+            out.write("# Turnstile scans: seed " + seed + ", " + memberCount + " members, " + scanCount + " scans\n");
+            for (long scan = 0; scan < scanCount; scan++) {
+                second = nextSecond(random, second);
+                int id = random.nextInt(200) == 0
+                    ? idOf(memberCount + random.nextInt(1000)) : idOf(pickMember(random));
+                line.setLength(0);
+                line.append(id).append(',').append(format.format(FIRST_DAY.plusSeconds(second))).append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    /**
+     * Applies the events in an event file to the members, in order. Events for
+     * members that do not exist, or that do not fit the kind of member, are skipped.
+     *
+     * @param eventFile The event file to read
+     * @param members The members to apply the events to
+     * @return The number of events applied
+     * @throws IOException if the file cannot be read or holds a malformed line
+     */
+    public static int replayEvents(File eventFile, MemberRepository members) throws IOException {
+        int applied = 0;
+        int lineNumber = 0;
+        try (BufferedReader in = new BufferedReader(new FileReader(eventFile), 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(" ", 4);
+                if (parts.length < 3) {
+                    throw new IOException("Malformed event on line " + lineNumber + ": " + line);
+                }
+                GymMember member;
+                try {
+                    member = members.findById(Integer.parseInt(parts[2]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed member ID on line " + lineNumber + ": " + line);
+                }
+                if (member == null) {
+                    continue;
+                }
+
+                switch (parts[1]) {
+                    case "CHECKIN":
+                        member.markAttendance();
+                        break;
+                    case "PAY":
+                        if (!(member instanceof PremiumMember) || parts.length < 4) {
+                            continue;
+                        }
+                        try {
+                            ((PremiumMember) member).payDueAmount(Double.parseDouble(parts[3]));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Malformed amount on line " + lineNumber + ": " + line);
+                        }
+                        break;
+                    case "UPGRADE":
+                        if (parts.length < 4) {
+                            continue;
+                        }
+                        if (member instanceof PremiumMember) {
+                            ((PremiumMember) member).upgradePlan(parts[3]);
+                        } else {
+                            ((RegularMember) member).upgradePlan(parts[3]);
+                        }
+                        break;
+                    case "REVERT":
+                        if (member instanceof PremiumMember) {
+                            ((PremiumMember) member).revertPremiumMember();
+                        } else {
+                            ((RegularMember) member).revertRegularMember(parts.length < 4 ? "" : parts[3]);
+                        }
+                        break;
+                    default:
+                        throw new IOException("Unknown event on line " + lineNumber + ": " + line);
+                }
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Writes a population and an event stream to a directory.
+     * Usage: java MemberGenerator members events [seed] [directory]
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java MemberGenerator <members> <events> [seed] [directory]");
+            System.exit(1);
+        }
+        try {
+            int memberCount = Integer.parseInt(args[0]);
+            long eventCount = Long.parseLong(args[1]);
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+            File directory = new File(args.length > 3 ? args[3] : "generated");
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            // A journal or delta file left in the directory belongs to other members
+            new File(directory, "members.wal").delete();
+            new File(directory, "members.delta").delete();
+
+            MemberGenerator generator = new MemberGenerator(seed, memberCount);
+            long start = System.nanoTime();
+            generator.writeMembers(new File(directory, "members.dat"),
+                new File(directory, "regular_members.txt"),
+                new File(directory, "premium_members.txt"),
+                ProgressListener.NONE);
+            long membersDone = System.nanoTime();
+            generator.writeEvents(new File(directory, "events.txt"), eventCount);
+            generator.writeScans(new File(directory, "scans.txt"), eventCount);
+            long eventsDone = System.nanoTime();
+
+            System.out.printf("Wrote %d members in %d ms, and %d events and %d scans in %d ms to %s%n",
+                memberCount, (membersDone - start) / 1_000_000,
+                eventCount, eventCount, (eventsDone - membersDone) / 1_000_000, directory);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error generating members: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the time of the next event, a few seconds after the last one,
+     * moving on to the next morning once the gym has closed.
+     */
+    private static long nextSecond(SplittableRandom random, long second) {
+        second += 1 + (long) (-Math.log(1.0 - random.nextDouble()) * MEAN_SECONDS_BETWEEN_EVENTS);
+        if (second % 86400 >= CLOSING_SECOND) {
+            second = (second / 86400 + 1) * 86400 + OPENING_SECOND; // Next morning
+        }
+        return second;
+    }
+
+    /**
+     * Picks the member for the next event. Squaring favours the members near
+     * the start, who have been coming the longest.
+     */
+    private int pickMember(SplittableRandom random) {
+        double skew = random.nextDouble();
+        return (int) (skew * skew * memberCount);
+    }
+
+    /**
+     * Returns the first premium member at or after the given position,
+     * wrapping around to the start.
+     */
+    private int nextPremium(int index) {
+        for (int i = 0; i < memberCount; i++) {
+            int candidate = (index + i) % memberCount;
+            if (isPremium(candidate)) {
+                return candidate;
+            }
+        }
+        return index; // No premium members at all
+    }
+
+    private SplittableRandom randomFor(int index) {
+        return new SplittableRandom(mix(seed + 0x9E3779B97F4A7C15L * (index + 1)));
+    }
+
+    /**
+     * Returns a date between the given years, written the way the GUI writes
+     * dates ("2001-7-15").
+     */
+    private static String date(SplittableRandom random, int fromYear, int toYear) {
+        return (fromYear + random.nextInt(toYear - fromYear + 1)) + "-"
+            + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28));
+    }
+
+    /**
+     * Scrambles the bits of a number, so that nearby inputs give unrelated outputs.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A list of values to pick from, each with a weight.
+     */
+    private static class Weighted {
+        private final String[] values;
+        private final int[] cumulative;
+
+        Weighted(String[] values, int[] weights) {
+            this.values = values;
+            this.cumulative = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+
+        String pick(SplittableRandom random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            int i = 0;
+            while (roll >= cumulative[i]) {
+                i++;
+            }
+            return values[i];
+        }
+    }
+}
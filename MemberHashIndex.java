@@ -0,0 +1,190 @@
+/**
+ * The MemberHashIndex class finds members by phone number or by email address.
+ * It is an open-addressing hash table like the ID index of MemberRepository,
+ * but keyed on a string, and several members may share a key (two members of
+ * one family can give the same phone number).
+ *
+ * The hash of a phone number is the String hash code, which the String keeps
+ * once it has been worked out, so the index only stores the hash and the member:
+ * no keys are copied. Email addresses are matched ignoring case; their hash is
+ * worked out from the lower-case characters without making a lower-case copy.
+ * Members with no phone number or email address are not indexed.
+ *
+ * Lookups never take a lock, in the same way as MemberRepository: each slot's
+ * hash is written before the slot itself, and a larger table is published in one
+ * volatile write. Changes are made by MemberRepository while holding its lock.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class MemberHashIndex {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final GymMember[] NONE = new GymMember[0];
+    // Marks the slot of a member that has been taken out, so probe chains stay whole
+    private static final Object REMOVED = new Object();
+
+    private final boolean byEmail;
+    private volatile Table table;
+
+    private static class Table {
+        final int[] hashes;
+        final AtomicReferenceArray<Object> slots;
+        final int mask;
+        // Slots holding a member or REMOVED; changed only while holding the repository lock
+        int used;
+
+        Table(int capacity) {
+            hashes = new int[capacity];
+            slots = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param byEmail true to index email addresses, false to index phone numbers
+     * @param expectedCount The number of members expected, so the table does not have to grow
+     */
+    MemberHashIndex(boolean byEmail, int expectedCount) {
+        this.byEmail = byEmail;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedCount * 2) {
+            capacity *= 2;
+        }
+        this.table = new Table(capacity);
+    }
+
+    /**
+     * Returns the members with the given key.
+     *
+     * @param key The phone number, or the email address in any case
+     * @return The members, in no particular order; an empty array if there are none
+     */
+    GymMember[] find(String key) {
+        if (key == null || key.isEmpty()) {
+            return NONE;
+        }
+        Table t = table;
+        int hash = hashOf(key);
+        GymMember[] found = NONE;
+        int slot = spread(hash) & t.mask;
+        Object entry;
+        while ((entry = t.slots.get(slot)) != null) {
+            if (entry != REMOVED && t.hashes[slot] == hash && matches((GymMember) entry, key)) {
+                found = Arrays.copyOf(found, found.length + 1);
+                found[found.length - 1] = (GymMember) entry;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return found;
+    }
+
+    /**
+     * Adds a member. Called while holding the repository lock.
+     */
+    void add(GymMember member) {
+        String key = keyOf(member);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        Table t = table;
+        // Keep the table at most half full, counting removed slots
+        if ((t.used + 1) * 2 > t.hashes.length) {
+            t = rehash(t);
+            table = t;
+        }
+        int hash = hashOf(key);
+        int slot = spread(hash) & t.mask;
+        while (t.slots.get(slot) != null) {
+            slot = (slot + 1) & t.mask;
+        }
+        t.hashes[slot] = hash;
+        t.slots.set(slot, member);
+        t.used++;
+    }
+
+    /**
+     * Takes a member out. Called while holding the repository lock.
+     */
+    void remove(GymMember member) {
+        String key = keyOf(member);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        Table t = table;
+        int slot = spread(hashOf(key)) & t.mask;
+        Object entry;
+        while ((entry = t.slots.get(slot)) != null) {
+            if (entry == member) {
+                t.slots.set(slot, REMOVED);
+                return;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Builds a table without the removed slots, twice as large if it is more
+     * than a quarter full of members.
+     */
+    private static Table rehash(Table t) {
+        int live = 0;
+        for (int i = 0; i < t.hashes.length; i++) {
+            Object entry = t.slots.get(i);
+            if (entry != null && entry != REMOVED) {
+                live++;
+            }
+        }
+        Table grown = new Table(live * 4 > t.hashes.length ? t.hashes.length * 2 : t.hashes.length);
+        for (int i = 0; i < t.hashes.length; i++) {
+            Object entry = t.slots.get(i);
+            if (entry != null && entry != REMOVED) {
+                int slot = spread(t.hashes[i]) & grown.mask;
+                while (grown.slots.get(slot) != null) {
+                    slot = (slot + 1) & grown.mask;
+                }
+                grown.hashes[slot] = t.hashes[i];
+                grown.slots.set(slot, entry);
+                grown.used++;
+            }
+        }
+        return grown;
+    }
+
+    private String keyOf(GymMember member) {
+        return byEmail ? member.getEmail() : member.getPhone();
+    }
+
+    private boolean matches(GymMember member, String key) {
+        return byEmail ? key.equalsIgnoreCase(member.getEmail()) : key.equals(member.getPhone());
+    }
+
+    /**
+     * Returns the String hash code of a phone number, or of the lower-case form
+     * of an email address.
+     */
+    private int hashOf(String key) {
+        if (!byEmail) {
+            return key.hashCode();
+        }
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads the bits of the hash so that similar keys do not fall into
+     * neighbouring slots.
+     */
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * The MemberIdBitmap class is a compressed set of member IDs, used by
+ * AttendanceHistory to list the members who came in on a day.
+ *
+ * An ID is split in two: its top 16 bits pick a chunk, and its bottom 16 bits
+ * are kept in that chunk's container. (The sign bit is flipped first, so that
+ * negative IDs come before positive ones.) Only chunks holding at least one ID
+ * have a container, in order of their top bits. A container holding up to
+ * MAX_ARRAY_SIZE IDs is a sorted array of their bottom bits, two bytes per ID;
+ * a fuller one is a bitmap of 65536 bits (8 KB), which is then the smaller of
+ * the two. Member IDs are handed out in sequence, so the members of a busy day
+ * fill a few bitmap chunks and the members of a quiet one a few short arrays.
+ *
+ * Intersecting and merging two sets works chunk by chunk: two bitmaps are
+ * combined a word (64 IDs) at a time, and arrays by walking them side by side.
+ *
+ * The class is not thread-safe; AttendanceHistory guards it.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+
+class MemberIdBitmap {
+    // Containers holding at most this many IDs are sorted arrays; fuller ones are bitmaps
+    static final int MAX_ARRAY_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // keys[i] is the top 16 bits of the IDs in containers[i], ascending; a container is
+    // a char[] of bottom bits, ascending, or a long[] bitmap, and sizes[i] is its ID count
+    private char[] keys = new char[4];
+    private Object[] containers = new Object[4];
+    private int[] sizes = new int[4];
+    private int containerCount;
+    private int cardinality;
+
+    /**
+     * Adds an ID. Adding IDs in ascending order is the quickest.
+     *
+     * @param id The ID to add
+     * @return false if the ID was already in the set
+     */
+    boolean add(int id) {
+        id ^= Integer.MIN_VALUE;
+        char key = (char) (id >>> 16);
+        char low = (char) id;
+        int index = findContainer(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new char[4], 0);
+        }
+
+        Object container = containers[index];
+        int size = sizes[index];
+        if (container instanceof long[]) {
+            long[] bits = (long[]) container;
+            long bit = 1L << low;
+            if ((bits[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= bit;
+        } else {
+            char[] values = (char[]) container;
+            // IDs usually arrive in order, so try the end first
+            int at = size > 0 && values[size - 1] < low ? -size - 1 : Arrays.binarySearch(values, 0, size, low);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            if (size == MAX_ARRAY_SIZE) {
+                long[] bits = toBitmap(values, size);
+                bits[low >>> 6] |= 1L << low;
+                containers[index] = bits;
+            } else {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, Math.min(size * 2, MAX_ARRAY_SIZE));
+                    containers[index] = values;
+                }
+                System.arraycopy(values, at, values, at + 1, size - at);
+                values[at] = low;
+            }
+        }
+        sizes[index] = size + 1;
+        cardinality++;
+        return true;
+    }
+
+    boolean contains(int id) {
+        id ^= Integer.MIN_VALUE;
+        int index = findContainer((char) (id >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        if (container instanceof long[]) {
+            return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, sizes[index], low) >= 0;
+    }
+
+    /**
+     * Returns the number of IDs in the set.
+     */
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Returns the IDs in the set, in ascending order.
+     */
+    int[] toArray() {
+        int[] ids = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < containerCount; i++) {
+            int high = (keys[i] << 16) ^ Integer.MIN_VALUE;
+            Object container = containers[i];
+            if (container instanceof long[]) {
+                long[] bits = (long[]) container;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        ids[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) container;
+                for (int j = 0; j < sizes[i]; j++) {
+                    ids[n++] = high | values[j];
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns a new set of the IDs that are in every one of the given sets.
+     *
+     * @param sets The sets, best given smallest first; there must be at least one
+     */
+    static MemberIdBitmap and(MemberIdBitmap[] sets) {
+        MemberIdBitmap result = new MemberIdBitmap();
+        intersect(sets, result);
+        return result;
+    }
+
+    /**
+     * Returns the number of IDs that are in every one of the given sets,
+     * without making a set of them.
+     *
+     * @param sets The sets, best given smallest first; there must be at least one
+     */
+    static int andCardinality(MemberIdBitmap[] sets) {
+        return intersect(sets, null);
+    }
+
+    /**
+     * Adds every ID of the other set to this one.
+     */
+    void addAll(MemberIdBitmap other) {
+        for (int j = 0; j < other.containerCount; j++) {
+            int index = findContainer(other.keys[j]);
+            Object theirs = other.containers[j];
+            int theirSize = other.sizes[j];
+            if (index < 0) {
+                // Copied, so that changing this set never changes the other
+                Object copy = theirs instanceof long[] ? ((long[]) theirs).clone()
+                    : Arrays.copyOf((char[]) theirs, Math.max(theirSize, 4));
+                insertContainer(-index - 1, other.keys[j], copy, theirSize);
+                cardinality += theirSize;
+            } else {
+                cardinality -= sizes[index];
+                orContainer(index, theirs, theirSize);
+                cardinality += sizes[index];
+            }
+        }
+    }
+
+    /**
+     * Intersects the sets chunk by chunk. Only the chunks of the first set are
+     * looked at. Where every set has a bitmap, the bitmaps are combined a word
+     * at a time; otherwise each ID of the smallest array is looked up in the
+     * other containers.
+     *
+     * @param result The set to add the common IDs to, or null to only count them
+     * @return The number of common IDs
+     */
+    private static int intersect(MemberIdBitmap[] sets, MemberIdBitmap result) {
+        MemberIdBitmap first = sets[0];
+        Object[] chunk = new Object[sets.length];
+        int[] chunkSizes = new int[sets.length];
+        long[] words = null;
+        int total = 0;
+
+        chunks:
+        for (int i = 0; i < first.containerCount; i++) {
+            char key = first.keys[i];
+            int smallest = -1;
+            for (int s = 0; s < sets.length; s++) {
+                int index = s == 0 ? i : sets[s].findContainer(key);
+                if (index < 0) {
+                    continue chunks; // No common IDs in this chunk
+                }
+                chunk[s] = sets[s].containers[index];
+                chunkSizes[s] = sets[s].sizes[index];
+                if (chunk[s] instanceof char[] && (smallest < 0 || chunkSizes[s] < chunkSizes[smallest])) {
+                    smallest = s;
+                }
+            }
+
+            if (smallest < 0) {
+                if (words == null) {
+                    words = new long[BITMAP_WORDS];
+                }
+                System.arraycopy((long[]) chunk[0], 0, words, 0, BITMAP_WORDS);
+                for (int s = 1; s < sets.length; s++) {
+                    long[] bits = (long[]) chunk[s];
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        words[w] &= bits[w];
+                    }
+                }
+                int size = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    size += Long.bitCount(words[w]);
+                }
+                total += size;
+                if (result != null && size > MAX_ARRAY_SIZE) {
+                    result.appendContainer(key, words.clone(), size);
+                } else if (result != null && size > 0) {
+                    char[] values = new char[size];
+                    int n = 0;
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        long word = words[w];
+                        while (word != 0) {
+                            values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                            word &= word - 1;
+                        }
+                    }
+                    result.appendContainer(key, values, size);
+                }
+                continue;
+            }
+
+            char[] candidates = (char[]) chunk[smallest];
+            char[] values = result == null ? null : new char[chunkSizes[smallest]];
+            int size = 0;
+            for (int k = 0; k < chunkSizes[smallest]; k++) {
+                char low = candidates[k];
+                boolean everywhere = true;
+                for (int s = 0; s < sets.length && everywhere; s++) {
+                    if (s == smallest) {
+                        continue;
+                    }
+                    everywhere = chunk[s] instanceof long[]
+                        ? (((long[]) chunk[s])[low >>> 6] & (1L << low)) != 0
+                        : Arrays.binarySearch((char[]) chunk[s], 0, chunkSizes[s], low) >= 0;
+                }
+                if (everywhere) {
+                    if (values != null) {
+                        values[size] = low;
+                    }
+                    size++;
+                }
+            }
+            total += size;
+            if (values != null && size > 0) {
+                result.appendContainer(key, values, size);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Merges the other container into container index, turning it into a
+     * bitmap if it grows past MAX_ARRAY_SIZE.
+     */
+    private void orContainer(int index, Object theirs, int theirSize) {
+        Object mine = containers[index];
+        int mySize = sizes[index];
+        if (mine instanceof char[] && theirs instanceof char[]) {
+            char[] a = (char[]) mine;
+            char[] b = (char[]) theirs;
+            char[] merged = new char[mySize + theirSize];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < mySize && j < theirSize) {
+                if (a[i] < b[j]) {
+                    merged[size++] = a[i++];
+                } else if (a[i] > b[j]) {
+                    merged[size++] = b[j++];
+                } else {
+                    merged[size++] = a[i++];
+                    j++;
+                }
+            }
+            while (i < mySize) {
+                merged[size++] = a[i++];
+            }
+            while (j < theirSize) {
+                merged[size++] = b[j++];
+            }
+            containers[index] = size > MAX_ARRAY_SIZE ? toBitmap(merged, size) : merged;
+            sizes[index] = size;
+            return;
+        }
+
+        long[] bits = mine instanceof long[] ? (long[]) mine : toBitmap((char[]) mine, mySize);
+        if (theirs instanceof long[]) {
+            long[] theirBits = (long[]) theirs;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] |= theirBits[w];
+            }
+        } else {
+            char[] values = (char[]) theirs;
+            for (int i = 0; i < theirSize; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+        int size = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            size += Long.bitCount(bits[w]);
+        }
+        containers[index] = bits;
+        sizes[index] = size;
+    }
+
+    private static long[] toBitmap(char[] values, int size) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < size; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the index of the container for the given top bits, or
+     * -(insertion point) - 1 if there is none.
+     */
+    private int findContainer(char key) {
+        // New IDs are usually in the last chunk
+        if (containerCount > 0 && keys[containerCount - 1] == key) {
+            return containerCount - 1;
+        }
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    private void appendContainer(char key, Object container, int size) {
+        insertContainer(containerCount, key, container, size);
+        cardinality += size;
+    }
+
+    private void insertContainer(int index, char key, Object container, int size) {
+        if (containerCount == keys.length) {
+            keys = Arrays.copyOf(keys, containerCount * 2);
+            containers = Arrays.copyOf(containers, containerCount * 2);
+            sizes = Arrays.copyOf(sizes, containerCount * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        System.arraycopy(sizes, index, sizes, index + 1, containerCount - index);
+        keys[index] = key;
+        containers[index] = container;
+        sizes[index] = size;
+        containerCount++;
+    }
+}
@@ -0,0 +1,589 @@
+/**
+ * The MemberJournal class is a write-ahead log of member changes. Every time a
+ * member is added, activated, deactivated, checked in, pays, is upgraded or is
+ * reverted, a small record is appended to "members.wal", so nothing is lost if
+ * the program stops before the members are saved. Visits recorded in the
+ * attendance history are appended the same way.
+ *
+ * Records are appended by the thread that made the change and written to disk by
+ * a background flusher thread. The flusher writes everything that has piled up
+ * since its last write and then calls fsync once for the whole batch (group
+ * commit), so many changes share the cost of a single disk flush.
+ *
+ * A record holds the member's new state rather than the operation, so replaying a
+ * record twice gives the same result as replaying it once. When the program starts,
+ * the last snapshot is loaded and the journal is replayed on top of it. A record
+ * that was only partly written when the program stopped fails its checksum and is
+ * cut off, together with anything after it.
+ *
+ * A save can run while members keep changing. It takes a mark when it starts,
+ * and once the saved files are on disk it discards only the records from before
+ * the mark; the records made during the save are kept, so whatever the save
+ * missed is replayed after the next start.
+ *
+ * Only one program may have the journal open at a time. It is locked when it is
+ * opened, and a second program that tries to open it fails straight away rather
+ * than appending records in between the first one's.
+ *
+ * File layout:
+ * - Header: magic number "GYMJ" and format version
+ * - Records: payload length, CRC32 of the payload, then the payload: a change code
+ *   followed by a full member record and the renewal day (for new members), the
+ *   member ID and renewal day (for renewals) or a state record (for every other
+ *   change); or the code VISITS followed by a number of visits and the visits as
+ *   AttendanceHistory.visit packs them
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class MemberJournal implements MemberChangeListener, VisitListener, Closeable {
+    private static final int MAGIC = 0x47594D4A; // "GYMJ"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 6;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    // Payloads larger than this can only come from a damaged file
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private static final MemberChange[] CHANGES = MemberChange.values();
+    // Change code of a record of visits; well clear of the MemberChange ordinals
+    private static final int VISITS = 255;
+    private static final int MAX_VISITS_PER_RECORD = (MAX_RECORD_SIZE - 5) / 8;
+
+    private final File file;
+    private final int replayedCount;
+
+    // Guards the pending buffer, the sequence numbers and the closed flag
+    private final Object lock = new Object();
+    private byte[] pending = new byte[1 << 16];
+    private int pendingLength = 0;
+    private long appendedSequence = 0;
+    private long durableSequence = 0;
+    // Bytes of records appended since the journal was opened, including replayed ones
+    private long appendedBytes;
+    private boolean closed = false;
+    private IOException failure;
+
+    // Held by the flusher while it writes, and by discardBefore, so the two never
+    // overlap; guards the channel and the offset of the first record in the file
+    private final Object writeLock = new Object();
+    private FileChannel channel;
+    private long fileStartBytes = 0;
+    private byte[] writing = new byte[1 << 16];
+    private final Thread flusher;
+
+    private MemberJournal(File file, FileChannel channel, int replayedCount, long replayedBytes) {
+        this.file = file;
+        this.channel = channel;
+        this.replayedCount = replayedCount;
+        this.appendedBytes = replayedBytes;
+        this.flusher = new Thread(this::flushLoop, "member-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the journal file, replays every complete record into the repository
+     * and gets the journal ready to append new records. The file is created if
+     * it does not exist yet.
+     *
+     * @param file The journal file
+     * @param members The repository to replay the records into
+     * @return The open journal
+     * @throws InUseException if another program has the journal open
+     * @throws IOException if the file cannot be opened or is not a member journal
+     */
+    public static MemberJournal open(File file, MemberRepository members) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lockExclusively(channel, file);
+            Replay replay;
+            if (channel.size() < HEADER_SIZE) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putShort(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+                replay = new Replay();
+            } else {
+                replay = replayRecords(channel, file, members);
+            }
+            // Cut off a partly written record so new records follow the last good one
+            channel.truncate(replay.validEnd);
+            channel.position(replay.validEnd);
+            return new MemberJournal(file, channel, replay.count, replay.validEnd - HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replays every complete record into the repository without opening the
+     * journal for writing: the file is left exactly as it is, torn record and
+     * all. For programs that only read the members, such as DiscountEngine.
+     *
+     * @param file The journal file; a missing file holds no records
+     * @param members The repository to replay the records into
+     * @return The number of records replayed
+     * @throws InUseException if another program has the journal open
+     * @throws IOException if the file cannot be read or is not a member journal
+     */
+    public static int replay(File file, MemberRepository members) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // A shared lock cannot be taken while a writer holds the journal, whose
+            // records could otherwise be read half written
+            FileLock fileLock;
+            try {
+                fileLock = channel.tryLock(0, Long.MAX_VALUE, true);
+            } catch (OverlappingFileLockException e) {
+                fileLock = null;
+            }
+            if (fileLock == null) {
+                throw new InUseException(file.getName() + " is in use by another program."
+                    + " Close it first, so its latest changes are included.");
+            }
+            if (channel.size() < HEADER_SIZE) {
+                return 0;
+            }
+            return replayRecords(channel, file, members).count;
+        }
+    }
+
+    /**
+     * Returns the number of records that were replayed when the journal was opened.
+     */
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends a record for the change. Called by the member repository.
+     */
+    @Override
+    public void memberChanged(GymMember member, MemberChange change) {
+        try {
+            append(change, member);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends records of the visits, split so no record is too large. Called by
+     * the attendance history.
+     */
+    @Override
+    public void visitsRecorded(long[] visits, int count) {
+        try {
+            for (int from = 0; from < count; from += MAX_VISITS_PER_RECORD) {
+                append(encodeVisits(visits, from, Math.min(count - from, MAX_VISITS_PER_RECORD)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a record describing the member's state after a change. The record
+     * is written to disk by the flusher thread shortly afterwards; call sync to
+     * wait until it is.
+     *
+     * @param change The kind of change
+     * @param member The member after the change
+     * @return The sequence number of the record
+     * @throws IOException if the journal has already failed to write
+     */
+    public long append(MemberChange change, GymMember member) throws IOException {
+        // Check-ins change a member without locking it, so two records for the same
+        // member could otherwise be encoded in one order and appended in the other.
+        // Holding the member makes the last record always hold its latest state.
+        synchronized (member) {
+            return append(encode(change, member));
+        }
+    }
+
+    private long append(byte[] record) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Journal " + file.getName() + " is closed");
+            }
+            if (failure != null) {
+                throw new IOException("Journal " + file.getName() + " failed to write", failure);
+            }
+            if (pendingLength + record.length > pending.length) {
+                byte[] grown = new byte[Math.max(pending.length * 2, pendingLength + record.length)];
+                System.arraycopy(pending, 0, grown, 0, pendingLength);
+                pending = grown;
+            }
+            System.arraycopy(record, 0, pending, pendingLength, record.length);
+            pendingLength += record.length;
+            appendedBytes += record.length;
+            appendedSequence++;
+            lock.notifyAll();
+            return appendedSequence;
+        }
+    }
+
+    /**
+     * Waits until every record appended so far has been written and flushed to disk.
+     *
+     * @throws IOException if the flusher failed to write the journal
+     */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            long target = appendedSequence;
+            while (durableSequence < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal", e);
+                }
+            }
+            if (failure != null) {
+                throw new IOException("Journal " + file.getName() + " failed to write", failure);
+            }
+        }
+    }
+
+    /**
+     * Returns a mark for the current end of the journal. Pass it to discardBefore
+     * once every change made before the mark has been saved.
+     *
+     * @return The mark
+     */
+    public long mark() {
+        synchronized (lock) {
+            return appendedBytes;
+        }
+    }
+
+    /**
+     * Removes the records appended before the mark, after a save has put those
+     * changes on disk. Records appended after the mark are kept. Records from
+     * before the mark that are still waiting to be written are kept too; because
+     * records hold the member's new state, replaying them over a save that already
+     * has the change does no harm.
+     *
+     * The remaining records are copied to a new file that is then moved over the
+     * journal, so a crash at any point leaves either the old or the new journal.
+     *
+     * @param mark A mark returned by mark()
+     * @throws IOException if the journal cannot be rewritten
+     */
+    public void discardBefore(long mark) throws IOException {
+        synchronized (writeLock) {
+            long fileLength = channel.size();
+            long cut = Math.min(mark - fileStartBytes, fileLength - HEADER_SIZE);
+            if (cut <= 0) {
+                return;
+            }
+
+            File tempFile = new File(file.getPath() + ".tmp");
+            FileChannel rewritten = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                // Lock the new file before it takes the journal's name, so the
+                // journal is never unlocked while this program has it open
+                lockExclusively(rewritten, file);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putShort(VERSION).flip();
+                while (header.hasRemaining()) {
+                    rewritten.write(header);
+                }
+                long position = HEADER_SIZE + cut;
+                while (position < fileLength) {
+                    position += channel.transferTo(position, fileLength - position, rewritten);
+                }
+                rewritten.force(true);
+                // The new channel follows the file to its new name
+                Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                rewritten.close();
+                tempFile.delete();
+                throw e;
+            }
+
+            FileChannel old = channel;
+            channel = rewritten;
+            fileStartBytes += cut;
+            old.close();
+        }
+    }
+
+    /**
+     * Writes the remaining records, stops the flusher thread and closes the file.
+     *
+     * @throws IOException if the last records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writeLock) {
+            channel.close();
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Journal " + file.getName() + " failed to write", failure);
+            }
+        }
+    }
+
+    /**
+     * Body of the flusher thread: takes everything appended since the last
+     * write, writes it in one go and forces it to disk.
+     */
+    private void flushLoop() {
+        while (true) {
+            int length;
+            long batchSequence;
+            synchronized (lock) {
+                while (pendingLength == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // Only close() stops the flusher
+                    }
+                }
+                if (pendingLength == 0) {
+                    return; // Closed and fully written
+                }
+                // Swap buffers so appends can continue while this batch is written
+                byte[] batch = pending;
+                pending = writing;
+                writing = batch;
+                length = pendingLength;
+                pendingLength = 0;
+                batchSequence = appendedSequence;
+            }
+
+            try {
+                synchronized (writeLock) {
+                    ByteBuffer buffer = ByteBuffer.wrap(writing, 0, length);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing member journal: " + e.getMessage());
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durableSequence = batchSequence;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Checks the header and applies every complete record, stopping at the end
+     * of the file or at the first record that was not completely written.
+     */
+    private static Replay replayRecords(FileChannel channel, File file, MemberRepository members) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel), 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException(file.getName() + " is not a member journal");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + file.getName());
+        }
+        Replay replay = new Replay();
+        CRC32 crc = new CRC32();
+        while (true) {
+            byte[] payload = readRecord(in, crc);
+            if (payload == null) {
+                return replay; // End of the journal, or a torn record at the end
+            }
+            applyRecord(payload, members);
+            replay.validEnd += RECORD_HEADER_SIZE + payload.length;
+            replay.count++;
+        }
+    }
+
+    /**
+     * Takes an exclusive lock on the whole file. The lock is released when the
+     * channel is closed.
+     */
+    private static void lockExclusively(FileChannel channel, File file) throws IOException {
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null; // Already open in this program
+        }
+        if (fileLock == null) {
+            throw new InUseException(file.getName() + " is in use by another program."
+                + " Close it before starting this one, so the two do not overwrite each other's changes.");
+        }
+    }
+
+    /**
+     * Builds a complete record: length, checksum and payload.
+     */
+    private static byte[] encode(MemberChange change, GymMember member) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // Length and checksum are filled in below
+        out.writeInt(0);
+        out.writeByte(change.ordinal());
+        if (change == MemberChange.ADDED) {
+            MemberSnapshot.writeMember(out, member);
+            out.writeInt(member.getRenewalDay());
+        } else if (change == MemberChange.RENEWED) {
+            out.writeInt(member.getId());
+            out.writeInt(member.getRenewalDay());
+        } else {
+            MemberSnapshot.writeState(out, member);
+        }
+        return seal(bytes.toByteArray());
+    }
+
+    /**
+     * Builds a complete record of some of the visits.
+     */
+    private static byte[] encodeVisits(long[] visits, int from, int count) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + 5 + count * 8);
+        record.position(RECORD_HEADER_SIZE);
+        record.put((byte) VISITS).putInt(count);
+        for (int i = from; i < from + count; i++) {
+            record.putLong(visits[i]);
+        }
+        return seal(record.array());
+    }
+
+    /**
+     * Fills in the length and checksum at the start of a record.
+     */
+    private static byte[] seal(byte[] record) {
+        int payloadLength = record.length - RECORD_HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_SIZE, payloadLength);
+        ByteBuffer.wrap(record).putInt(payloadLength).putInt((int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Reads the next record's payload, or returns null at the end of the file
+     * or at a record that was not completely written.
+     */
+    private static byte[] readRecord(DataInputStream in, CRC32 crc) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            crc.reset();
+            crc.update(payload, 0, length);
+            return (int) crc.getValue() == checksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void applyRecord(byte[] payload, MemberRepository members) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int code = in.readUnsignedByte();
+        if (code == VISITS) {
+            int count = in.readInt();
+            long[] visits = new long[count];
+            for (int i = 0; i < count; i++) {
+                visits[i] = in.readLong();
+            }
+            members.getAttendanceHistory().addAll(visits, count);
+            return;
+        }
+        if (code >= CHANGES.length) {
+            throw new IOException("Unknown journal change code: " + code);
+        }
+        if (CHANGES[code] == MemberChange.ADDED) {
+            GymMember member = MemberSnapshot.readMember(in);
+            member.restoreRenewalDay(in.readInt());
+            if (!members.add(member)) {
+                members.replace(member); // Already in the snapshot
+            }
+        } else if (CHANGES[code] == MemberChange.RENEWED) {
+            GymMember member = members.findById(in.readInt());
+            int renewalDay = in.readInt();
+            if (member != null) {
+                member.restoreRenewalDay(renewalDay);
+            }
+        } else {
+            MemberSnapshot.readState(in, members);
+        }
+    }
+
+    /**
+     * What replayRecords found: the number of records and where the last good one ends.
+     */
+    private static class Replay {
+        int count = 0;
+        long validEnd = HEADER_SIZE;
+    }
+
+    /**
+     * Thrown by open and replay when another program already has the journal open.
+     */
+    public static class InUseException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public InUseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * The MemberLineParser class reads the data rows of the exported member tables
+ * straight from the bytes of the file, without splitting the line into Strings.
+ *
+ * Columns are found by scanning for the "|" separator and trimming spaces in
+ * place. Numbers (IDs, attendance, prices and charges) are parsed digit by digit
+ * from the bytes, and a leading "£" is skipped by moving past it. The only objects
+ * created for a row are the Strings a member actually keeps (name, location and
+ * so on) and the member itself; those Strings are decoded through one scratch
+ * buffer that is reused for every row the parser reads.
+ *
+ * A parser is not thread-safe. MemberTableLoader gives each worker thread its own.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+class MemberLineParser {
+    private static final byte SEPARATOR = '|';
+    private static final byte[] ACTIVE = { 'A', 'c', 't', 'i', 'v', 'e' };
+
+    // "£" is 0xC2 0xA3 in UTF-8 and 0xA3 in ISO-8859-1 / windows-1252
+    private static final int POUND_LEAD_BYTE = 0xC2;
+    private static final int POUND_BYTE = 0xA3;
+
+    // Longest mantissa that a double holds exactly (below 2^53)
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15
+    };
+
+    private final Charset charset;
+    private byte[] scratch = new byte[128];
+
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    private int cursor;      // Start of the next column
+    private int fieldStart;  // Trimmed bounds of the current column
+    private int fieldEnd;
+
+    /**
+     * Creates a parser for table files written in the given charset.
+     *
+     * @param charset The charset the table was written with
+     */
+    MemberLineParser(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Points the parser at the next line to read.
+     *
+     * @param buffer The buffer holding the file
+     * @param lineStart Position of the first byte of the line
+     * @param lineEnd Position just after the last byte of the line
+     */
+    void reset(ByteBuffer buffer, int lineStart, int lineEnd) {
+        this.buffer = buffer;
+        this.lineStart = lineStart;
+        this.lineEnd = lineEnd;
+        this.cursor = lineStart;
+    }
+
+    /**
+     * Checks whether the current line is a member row: it starts with "|"
+     * and its first column is a number. Borders, titles, the column header
+     * and the total line all fail this check.
+     *
+     * @return true if the line holds member data
+     */
+    boolean isDataRow() {
+        if (lineStart >= lineEnd || buffer.get(lineStart) != SEPARATOR) {
+            return false;
+        }
+        for (int i = lineStart + 1; i < lineEnd; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ') {
+                return b >= '0' && b <= '9';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the current line as a row of the regular members table:
+     * ID | Name | Location | Phone | Email | Start Date | Plan | Price | Att. | Status
+     *
+     * @return The member described by the row
+     * @throws IllegalArgumentException if a column is missing or a number is malformed
+     */
+    RegularMember parseRegular() {
+        cursor = lineStart + 1; // Skip the leading "|"
+        int id = readInt();
+        String name = readString();
+        String location = readString();
+        String phone = readString();
+        String email = readString();
+        String startDate = readString();
+        String plan = readString();
+        double price = readDecimal();
+        int attendance = readInt();
+        boolean isActive = readActive();
+
+        RegularMember member = new RegularMember(id, name, location, phone, email,
+            "Not Specified", "", startDate, "");
+        member.restorePlanState(attendance >= member.getAttendanceLimit(), "", plan, price);
+        member.restoreState(attendance, 0.0, isActive);
+        return member;
+    }
+
+    /**
+     * Parses the current line as a row of the premium members table:
+     * ID | Name | Location | Phone | Trainer | Start Date | Plan | Charge | Points | Status
+     *
+     * @return The member described by the row
+     * @throws IllegalArgumentException if a column is missing or a number is malformed
+     */
+    PremiumMember parsePremium() {
+        cursor = lineStart + 1; // Skip the leading "|"
+        int id = readInt();
+        String name = readString();
+        String location = readString();
+        String phone = readString();
+        String trainer = readString();
+        String startDate = readString();
+        String plan = readString();
+        double charge = readDecimal();
+        double points = readDecimal();
+        boolean isActive = readActive();
+
+        PremiumMember member = new PremiumMember(id, name, location, phone,
+            "Not Specified", "", trainer, "", charge);
+        member.restorePaymentState("", startDate, plan, false, 0.0, 0.0);
+        member.restoreState(0, points, isActive);
+        return member;
+    }
+
+    /**
+     * Returns the current line as a String. Only used for error messages.
+     */
+    String lineText() {
+        return decode(lineStart, lineEnd);
+    }
+
+    /**
+     * Moves to the next column and trims the spaces around it.
+     */
+    private void nextField() {
+        if (cursor >= lineEnd) {
+            throw new IllegalArgumentException("Missing column");
+        }
+        int start = cursor;
+        int end = start;
+        while (end < lineEnd && buffer.get(end) != SEPARATOR) {
+            end++;
+        }
+        cursor = end + 1;
+
+        // Compare as unsigned so the bytes of "£" are not mistaken for spaces
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        fieldStart = start;
+        fieldEnd = end;
+    }
+
+    private String readString() {
+        nextField();
+        return decode(fieldStart, fieldEnd);
+    }
+
+    private boolean readActive() {
+        nextField();
+        if (fieldEnd - fieldStart != ACTIVE.length) {
+            return false;
+        }
+        for (int i = 0; i < ACTIVE.length; i++) {
+            if (buffer.get(fieldStart + i) != ACTIVE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readInt() {
+        nextField();
+        int pos = fieldStart;
+        boolean negative = false;
+        if (pos < fieldEnd && buffer.get(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        if (pos == fieldEnd) {
+            throw malformed();
+        }
+        long value = 0;
+        for (; pos < fieldEnd; pos++) {
+            int digit = buffer.get(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed();
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw malformed();
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw malformed();
+        }
+        return (int) value;
+    }
+
+    private double readDecimal() {
+        nextField();
+        int pos = fieldStart;
+        if (pos < fieldEnd && (buffer.get(pos) & 0xFF) == POUND_LEAD_BYTE) {
+            pos++;
+        }
+        if (pos < fieldEnd && (buffer.get(pos) & 0xFF) == POUND_BYTE) {
+            pos++;
+        }
+        boolean negative = false;
+        if (pos < fieldEnd && buffer.get(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1; // Digits after the decimal point, -1 until one is seen
+        for (; pos < fieldEnd; pos++) {
+            byte b = buffer.get(pos);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed();
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+            if (scale >= 0) {
+                scale++;
+            }
+            if (digits > MAX_DIGITS) {
+                // Too many digits to be exact in a double; let the JDK handle this rare case
+                return Double.parseDouble(decode(fieldStart, fieldEnd).replace("£", ""));
+            }
+        }
+        if (digits == 0) {
+            throw malformed();
+        }
+        // Both operands are exact, so the division rounds the same way Double.parseDouble does
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decodes a range of the buffer to a String through the reused scratch buffer.
+     */
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private NumberFormatException malformed() {
+        return new NumberFormatException("Invalid number: " + decode(fieldStart, fieldEnd));
+    }
+}
@@ -0,0 +1,421 @@
+/**
+ * The MemberMetrics class keeps the running totals that management follows:
+ * how many members are active, how many are regular and premium, the revenue
+ * booked from premium payments, the balance still owed on premium charges, how
+ * the loyalty points are spread over the discount tiers, and how many members
+ * are on each plan. Reading them costs the same however many members there are.
+ *
+ * The totals are worked out once, in one parallel pass over every member, and
+ * after that only the member that changed is looked at: the repository passes
+ * every change on, and the member's old share of the totals is taken off and
+ * its new share added. The share each member last added is kept in arrays
+ * indexed by the member's position in the repository (about 30 bytes a member),
+ * so the old share is known without a before-change hook on every setter.
+ *
+ * Amounts are added up in pennies and points in hundredths of a point, in longs,
+ * so the totals never drift however many changes are made.
+ *
+ * The share of a member is worked out again while holding the lock, so the last
+ * update of a member always sees its latest state, even when two threads check
+ * the same member in at once.
+ *
+ * MemberRepository makes the totals the first time they are asked for (see
+ * MemberRepository.getMetrics), keeps them up to date, and works them out again
+ * in one pass when a new member list is loaded.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class MemberMetrics {
+    // Lower bounds of the loyalty tiers, the same as the discount tiers in DiscountEngine
+    private static final long[] TIER_HUNDREDTHS = {0, 2500, 5000, 10000};
+    private static final int TIERS = TIER_HUNDREDTHS.length;
+
+    // Members taken on one thread when the totals are worked out in parallel
+    private static final int RANGE_SIZE = 16384;
+
+    // Bits of the flags kept for each member
+    private static final byte COUNTED = 1;
+    private static final byte ACTIVE = 2;
+    private static final byte PREMIUM = 4;
+
+    // The totals; changed while holding this
+    private long memberCount;
+    private long activeCount;
+    private long premiumCount;
+    private long paidPennies;
+    private long outstandingPennies;
+    private long loyaltyHundredths;
+    private final long[] tierCounts = new long[TIERS];
+    private String[] planNames = new String[8];
+    private long[] planCounts = new long[8];
+    private int planCount;
+
+    // The share each member last added, by position in the repository
+    private byte[] flags = new byte[0];
+    private short[] plans = new short[0];
+    private long[] paid = new long[0];
+    private long[] outstanding = new long[0];
+    private long[] points = new long[0];
+
+    /**
+     * The totals at one moment. Never changes once made.
+     */
+    public static class Totals {
+        private final long memberCount;
+        private final long activeCount;
+        private final long premiumCount;
+        private final long paidPennies;
+        private final long outstandingPennies;
+        private final long loyaltyHundredths;
+        private final long[] tierCounts;
+        private final Map<String, Long> membersPerPlan;
+
+        private Totals(MemberMetrics metrics) {
+            memberCount = metrics.memberCount;
+            activeCount = metrics.activeCount;
+            premiumCount = metrics.premiumCount;
+            paidPennies = metrics.paidPennies;
+            outstandingPennies = metrics.outstandingPennies;
+            loyaltyHundredths = metrics.loyaltyHundredths;
+            tierCounts = metrics.tierCounts.clone();
+            Map<String, Long> perPlan = new LinkedHashMap<>();
+            for (int i = 0; i < metrics.planCount; i++) {
+                if (metrics.planCounts[i] > 0) {
+                    perPlan.put(metrics.planNames[i], metrics.planCounts[i]);
+                }
+            }
+            membersPerPlan = perPlan;
+        }
+
+        public long getMemberCount() {
+            return memberCount;
+        }
+
+        public long getActiveCount() {
+            return activeCount;
+        }
+
+        public long getInactiveCount() {
+            return memberCount - activeCount;
+        }
+
+        public long getRegularCount() {
+            return memberCount - premiumCount;
+        }
+
+        public long getPremiumCount() {
+            return premiumCount;
+        }
+
+        /**
+         * Returns the total paid towards premium charges.
+         */
+        public double getRevenueBooked() {
+            return paidPennies / 100.0;
+        }
+
+        /**
+         * Returns the total of premium charges less what has been paid towards them.
+         */
+        public double getOutstandingBalance() {
+            return outstandingPennies / 100.0;
+        }
+
+        public double getTotalLoyaltyPoints() {
+            return loyaltyHundredths / 100.0;
+        }
+
+        /**
+         * Returns how many members are in each loyalty tier: below 25 points,
+         * 25 to 50, 50 to 100, and 100 or more.
+         */
+        public long[] getLoyaltyTierCounts() {
+            return tierCounts.clone();
+        }
+
+        /**
+         * Returns how many members are on each plan, by plan name, in the order
+         * the plans were first seen.
+         */
+        public Map<String, Long> getMembersPerPlan() {
+            return new LinkedHashMap<>(membersPerPlan);
+        }
+    }
+
+    MemberMetrics() {
+    }
+
+    /**
+     * Returns the totals as they are now.
+     */
+    public synchronized Totals getTotals() {
+        return new Totals(this);
+    }
+
+    /**
+     * Takes a member's old share off the totals and adds its new one.
+     *
+     * @param position The member's position in the repository
+     * @param member The member as it is now
+     */
+    synchronized void update(int position, GymMember member) {
+        if (position >= flags.length) {
+            grow(Math.max(position + 1, flags.length * 2));
+        }
+        if ((flags[position] & COUNTED) != 0) {
+            subtract(position);
+        }
+        add(position, member);
+    }
+
+    /**
+     * Works every total out again from the given members, in one parallel pass.
+     *
+     * @param members The members, in repository order
+     */
+    synchronized void rebuild(GymMember[] members) {
+        memberCount = 0;
+        activeCount = 0;
+        premiumCount = 0;
+        paidPennies = 0;
+        outstandingPennies = 0;
+        loyaltyHundredths = 0;
+        Arrays.fill(tierCounts, 0);
+        Arrays.fill(planCounts, 0);
+        flags = new byte[members.length];
+        plans = new short[members.length];
+        paid = new long[members.length];
+        outstanding = new long[members.length];
+        points = new long[members.length];
+
+        // Plan numbers are handed out by one thread, before the parallel pass
+        for (GymMember member : members) {
+            planNumber(planOf(member));
+        }
+        Partial total = ForkJoinPool.commonPool().invoke(new RebuildTask(members, 0, members.length));
+        memberCount = total.memberCount;
+        activeCount = total.activeCount;
+        premiumCount = total.premiumCount;
+        paidPennies = total.paidPennies;
+        outstandingPennies = total.outstandingPennies;
+        loyaltyHundredths = total.loyaltyHundredths;
+        System.arraycopy(total.tierCounts, 0, tierCounts, 0, TIERS);
+        System.arraycopy(total.planCounts, 0, planCounts, 0, total.planCounts.length);
+
+        // A member moved to a plan not seen yet while the pass was running is added now
+        for (int position = 0; position < members.length; position++) {
+            if (flags[position] == 0) {
+                add(position, members[position]);
+            }
+        }
+    }
+
+    /**
+     * The totals of one range of members.
+     */
+    private static class Partial {
+        long memberCount;
+        long activeCount;
+        long premiumCount;
+        long paidPennies;
+        long outstandingPennies;
+        long loyaltyHundredths;
+        final long[] tierCounts = new long[TIERS];
+        final long[] planCounts;
+
+        Partial(int plans) {
+            planCounts = new long[plans];
+        }
+
+        void add(Partial other) {
+            memberCount += other.memberCount;
+            activeCount += other.activeCount;
+            premiumCount += other.premiumCount;
+            paidPennies += other.paidPennies;
+            outstandingPennies += other.outstandingPennies;
+            loyaltyHundredths += other.loyaltyHundredths;
+            for (int i = 0; i < TIERS; i++) {
+                tierCounts[i] += other.tierCounts[i];
+            }
+            for (int i = 0; i < planCounts.length; i++) {
+                planCounts[i] += other.planCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Works out the totals of one range of members, splitting it in two while
+     * it is large, and records each member's share. Plan numbers are only read,
+     * so ranges never change anything they share; a member whose plan has no
+     * number is left for rebuild to add afterwards.
+     */
+    @SuppressWarnings("serial")
+    private class RebuildTask extends RecursiveTask<Partial> {
+        private final GymMember[] members;
+        private final int from;
+        private final int to;
+
+        RebuildTask(GymMember[] members, int from, int to) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > RANGE_SIZE) {
+                int middle = (from + to) >>> 1;
+                RebuildTask right = new RebuildTask(members, middle, to);
+                right.fork();
+                Partial left = new RebuildTask(members, from, middle).compute();
+                left.add(right.join());
+                return left;
+            }
+            Partial partial = new Partial(planCount);
+            for (int position = from; position < to; position++) {
+                int plan = findPlan(planOf(members[position]));
+                if (plan < 0) {
+                    continue;
+                }
+                record(position, members[position], plan);
+                partial.memberCount++;
+                if ((flags[position] & ACTIVE) != 0) {
+                    partial.activeCount++;
+                }
+                if ((flags[position] & PREMIUM) != 0) {
+                    partial.premiumCount++;
+                }
+                partial.paidPennies += paid[position];
+                partial.outstandingPennies += outstanding[position];
+                partial.loyaltyHundredths += points[position];
+                partial.tierCounts[tierOf(points[position])]++;
+                partial.planCounts[plans[position]]++;
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Records a member's share in the arrays, without touching the totals.
+     */
+    private void record(int position, GymMember member, int plan) {
+        byte memberFlags = COUNTED;
+        if (member.isActiveStatus()) {
+            memberFlags |= ACTIVE;
+        }
+        long paidPennies = 0;
+        long outstandingPennies = 0;
+        if (member instanceof PremiumMember) {
+            PremiumMember premiumMember = (PremiumMember) member;
+            memberFlags |= PREMIUM;
+            paidPennies = Math.round(premiumMember.getPaidAmount() * 100.0);
+            outstandingPennies = Math.round(premiumMember.getPremiumCharge() * 100.0) - paidPennies;
+        }
+        flags[position] = memberFlags;
+        plans[position] = (short) plan;
+        paid[position] = paidPennies;
+        outstanding[position] = outstandingPennies;
+        points[position] = Math.round(member.getLoyaltyPoints() * 100.0);
+    }
+
+    private void add(int position, GymMember member) {
+        record(position, member, planNumber(planOf(member)));
+        memberCount++;
+        if ((flags[position] & ACTIVE) != 0) {
+            activeCount++;
+        }
+        if ((flags[position] & PREMIUM) != 0) {
+            premiumCount++;
+        }
+        paidPennies += paid[position];
+        outstandingPennies += outstanding[position];
+        loyaltyHundredths += points[position];
+        tierCounts[tierOf(points[position])]++;
+        planCounts[plans[position]]++;
+    }
+
+    private void subtract(int position) {
+        memberCount--;
+        if ((flags[position] & ACTIVE) != 0) {
+            activeCount--;
+        }
+        if ((flags[position] & PREMIUM) != 0) {
+            premiumCount--;
+        }
+        paidPennies -= paid[position];
+        outstandingPennies -= outstanding[position];
+        loyaltyHundredths -= points[position];
+        tierCounts[tierOf(points[position])]--;
+        planCounts[plans[position]]--;
+        flags[position] = 0;
+    }
+
+    /**
+     * Returns the number of a plan name, adding it if it has not been seen.
+     * Members share the plan catalog's strings, so the names usually match by
+     * reference.
+     */
+    private int planNumber(String plan) {
+        int number = findPlan(plan);
+        if (number >= 0) {
+            return number;
+        }
+        if (planCount == planNames.length) {
+            planNames = Arrays.copyOf(planNames, planCount * 2);
+            planCounts = Arrays.copyOf(planCounts, planCount * 2);
+        }
+        planNames[planCount] = plan;
+        return planCount++;
+    }
+
+    /**
+     * Returns the number of a plan name, or -1 if it has not been seen.
+     */
+    private int findPlan(String plan) {
+        for (int i = 0; i < planCount; i++) {
+            if (planNames[i] == plan) {
+                return i;
+            }
+        }
+        for (int i = 0; i < planCount; i++) {
+            if (planNames[i].equals(plan)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String planOf(GymMember member) {
+        String plan = null;
+        if (member instanceof RegularMember) {
+            plan = ((RegularMember) member).getPlan();
+        } else if (member instanceof PremiumMember) {
+            plan = ((PremiumMember) member).getPlan();
+        }
+        return plan == null ? "" : plan;
+    }
+
+    private static int tierOf(long hundredths) {
+        int tier = TIERS - 1;
+        while (tier > 0 && hundredths < TIER_HUNDREDTHS[tier]) {
+            tier--;
+        }
+        return tier;
+    }
+
+    private void grow(int capacity) {
+        flags = Arrays.copyOf(flags, capacity);
+        plans = Arrays.copyOf(plans, capacity);
+        paid = Arrays.copyOf(paid, capacity);
+        outstanding = Arrays.copyOf(outstanding, capacity);
+        points = Arrays.copyOf(points, capacity);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * The MemberNameIndex class keeps members sorted by name, ignoring case, so
+ * that the members whose name starts with what was typed at the front desk can
+ * be found with a binary search instead of a pass over every member.
+ *
+ * An index never changes once it is made; adding a member gives a new index.
+ * Most members are in one large sorted array. Members added since it was made
+ * are kept in a second, small sorted array, which is copied on every addition,
+ * and merged into the large one once it holds RECENT_LIMIT members. Adding a
+ * member therefore costs a copy of the small array, plus now and then a merge,
+ * rather than a copy of every member.
+ *
+ * MemberRepository builds the index the first time it is searched, and keeps it
+ * up to date from then on.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+class MemberNameIndex {
+    /**
+     * The order of the index: by name, ignoring case, then by ID.
+     */
+    static final Comparator<GymMember> NAME_ORDER = (a, b) -> {
+        int order = String.CASE_INSENSITIVE_ORDER.compare(nameOf(a), nameOf(b));
+        return order != 0 ? order : Integer.compare(a.getId(), b.getId());
+    };
+
+    private static final int RECENT_LIMIT = 4096;
+    private static final GymMember[] NONE = new GymMember[0];
+
+    private final GymMember[] sorted;
+    private final GymMember[] recent;
+
+    private MemberNameIndex(GymMember[] sorted, GymMember[] recent) {
+        this.sorted = sorted;
+        this.recent = recent;
+    }
+
+    /**
+     * Builds an index of the given members.
+     *
+     * @param members The members; the array is sorted in place and kept by the index
+     * @return The index
+     */
+    static MemberNameIndex build(GymMember[] members) {
+        Arrays.parallelSort(members, NAME_ORDER);
+        return new MemberNameIndex(members, NONE);
+    }
+
+    /**
+     * Returns an index that also holds the given member.
+     */
+    MemberNameIndex with(GymMember member) {
+        int position = lowerBound(recent, member);
+        GymMember[] grown = new GymMember[recent.length + 1];
+        System.arraycopy(recent, 0, grown, 0, position);
+        grown[position] = member;
+        System.arraycopy(recent, position, grown, position + 1, recent.length - position);
+        if (grown.length < RECENT_LIMIT) {
+            return new MemberNameIndex(sorted, grown);
+        }
+        return new MemberNameIndex(merge(sorted, grown), NONE);
+    }
+
+    /**
+     * Returns the members whose name starts with the given text, ignoring case,
+     * in name order.
+     *
+     * @param prefix The start of the name; an empty text matches every member
+     * @param limit The most members to return
+     * @return The matching members, at most limit of them
+     */
+    GymMember[] findByPrefix(String prefix, int limit) {
+        int fromSorted = lowerBound(sorted, prefix);
+        int fromRecent = lowerBound(recent, prefix);
+        GymMember[] found = new GymMember[Math.min(limit, 16)];
+        int count = 0;
+        while (count < limit) {
+            GymMember next;
+            boolean sortedMatches = fromSorted < sorted.length && startsWith(sorted[fromSorted], prefix);
+            boolean recentMatches = fromRecent < recent.length && startsWith(recent[fromRecent], prefix);
+            if (sortedMatches && (!recentMatches || NAME_ORDER.compare(sorted[fromSorted], recent[fromRecent]) < 0)) {
+                next = sorted[fromSorted++];
+            } else if (recentMatches) {
+                next = recent[fromRecent++];
+            } else {
+                break;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = next;
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    int size() {
+        return sorted.length + recent.length;
+    }
+
+    /**
+     * Merges the small array of recent members into the large sorted array.
+     * Each recent member's place is found with a binary search and the members
+     * between two places are copied in one block, so the large array is copied
+     * but hardly compared.
+     */
+    private static GymMember[] merge(GymMember[] sorted, GymMember[] recent) {
+        GymMember[] merged = new GymMember[sorted.length + recent.length];
+        int copied = 0;
+        for (int r = 0; r < recent.length; r++) {
+            int position = lowerBound(sorted, recent[r]);
+            System.arraycopy(sorted, copied, merged, copied + r, position - copied);
+            merged[position + r] = recent[r];
+            copied = position;
+        }
+        System.arraycopy(sorted, copied, merged, copied + recent.length, sorted.length - copied);
+        return merged;
+    }
+
+    /**
+     * Returns the position of the first member that sorts at or after the given one.
+     */
+    private static int lowerBound(GymMember[] members, GymMember member) {
+        int low = 0;
+        int high = members.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (NAME_ORDER.compare(members[middle], member) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position of the first member whose name sorts at or after the
+     * given text; every name starting with the text comes at or after it.
+     */
+    private static int lowerBound(GymMember[] members, String prefix) {
+        int low = 0;
+        int high = members.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(nameOf(members[middle]), prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean startsWith(GymMember member, String prefix) {
+        return nameOf(member).regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static String nameOf(GymMember member) {
+        String name = member.getName();
+        return name == null ? "" : name;
+    }
+}
@@ -0,0 +1,808 @@
+/**
+ * The MemberRepository class holds every gym member known to the system and
+ * keeps a hash index on the member ID, so that finding a member, adding a member
+ * and checking for a duplicate ID all take constant time no matter how many
+ * members there are.
+ *
+ * The index is an open-addressing table keyed directly on the primitive int ID,
+ * so no Integer objects are created for a lookup. Members themselves are kept in
+ * a plain array in the order they were added, which is used for iteration
+ * (for example when saving or displaying members).
+ *
+ * Several threads (turnstiles, front-desk terminals, the GUI) can use the same
+ * repository at once. Reading never takes a lock: the arrays are published
+ * through a volatile table, and slots are filled in with volatile writes, so a
+ * reader always sees fully added members. Adding and replacing members is
+ * serialised on the repository. Iterators are weakly consistent: they show the
+ * members that were there when they were created and never throw
+ * ConcurrentModificationException.
+ *
+ * Members can also be found by the start of their name, by phone number and
+ * by email address, through secondary indexes (MemberNameIndex and
+ * MemberHashIndex), and by roughly matching text, through a trigram index
+ * (MemberTrigramIndex) of names, locations, emails and referral sources.
+ * Members whose membership started, or who were born, between two dates are
+ * found through date indexes (MemberDateIndex). An index is built the first
+ * time it is searched, so loading members costs nothing extra, and is kept up
+ * to date from then on as members are added and replaced. A member's name,
+ * phone, email and dates never change while it is in the repository:
+ * reverting a member keeps them, and loaded changes arrive as a new copy of
+ * the member, through replace.
+ *
+ * Every member added to the repository reports its changes back to it, and
+ * the repository passes them on to its MemberViews and then to the registered
+ * MemberChangeListeners. Views also follow the members that are replaced or
+ * read back from saved files, which listeners are not told about, and so do
+ * the running totals of MemberMetrics, made the first time they are asked for.
+ *
+ * The repository also keeps the AttendanceHistory of its members, the days
+ * each of them came in, which the places that check members in record into.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+public class MemberRepository implements Iterable<GymMember> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Replaced whenever an array has to grow; only changed while holding this
+    private volatile Table table = new Table(INITIAL_CAPACITY, INITIAL_CAPACITY * 2);
+
+    // Secondary indexes, null until first searched; only changed while holding this
+    private volatile MemberNameIndex nameIndex;
+    private volatile MemberHashIndex phoneIndex;
+    private volatile MemberHashIndex emailIndex;
+    private volatile MemberTrigramIndex trigramIndex;
+    private volatile MemberDateIndex startDateIndex;
+    private volatile MemberDateIndex birthDateIndex;
+    // Running totals, null until first asked for; only set while holding this
+    private volatile MemberMetrics metrics;
+    // Kept by member ID, so it outlives the member objects
+    private final AttendanceHistory attendanceHistory = new AttendanceHistory();
+
+    private final List<MemberChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<MemberView> views = new CopyOnWriteArrayList<>();
+    private final MemberChangeListener dispatcher = this::dispatchChange;
+
+    /**
+     * The arrays behind the repository. A reader takes the current table once
+     * and works on it; a writer that needs bigger arrays builds a new table and
+     * publishes it in one volatile write.
+     */
+    private static class Table {
+        // Members in insertion order, members[0] to members[size - 1]
+        final AtomicReferenceArray<GymMember> members;
+        volatile int size;
+
+        // Hash index: slots[i] is the member in slot i, or null if empty, ids[i] is its ID
+        // and positions[i] its position in members. ids[i] and positions[i] are written
+        // before slots[i], so a reader that sees the member also sees the rest.
+        final int[] ids;
+        final int[] positions;
+        final AtomicReferenceArray<GymMember> slots;
+        final int mask;
+
+        Table(int capacity, int tableSize) {
+            this(new AtomicReferenceArray<>(capacity), 0, new int[tableSize], new int[tableSize],
+                new AtomicReferenceArray<>(tableSize));
+        }
+
+        Table(AtomicReferenceArray<GymMember> members, int size, int[] ids, int[] positions,
+              AtomicReferenceArray<GymMember> slots) {
+            this.members = members;
+            this.size = size;
+            this.ids = ids;
+            this.positions = positions;
+            this.slots = slots;
+            this.mask = ids.length - 1;
+        }
+
+        GymMember find(int id) {
+            int slot = hash(id) & mask;
+            GymMember member;
+            while ((member = slots.get(slot)) != null) {
+                if (ids[slot] == id) {
+                    return member;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the member with the given ID. Never blocks, even while another
+     * thread is adding members.
+     *
+     * @param id The ID to look for
+     * @return The member, or null if no member has this ID
+     */
+    public GymMember findById(int id) {
+        return table.find(id);
+    }
+
+    /**
+     * Returns the members whose name starts with the given text, ignoring case,
+     * in name order. The first search builds the name index.
+     *
+     * @param prefix The start of the name
+     * @param limit The most members to return
+     * @return The matching members, at most limit of them
+     */
+    public GymMember[] findByNamePrefix(String prefix, int limit) {
+        MemberNameIndex index = nameIndex;
+        if (index == null) {
+            index = buildNameIndex();
+        }
+        return index.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Returns the members with the given phone number. The first search builds
+     * the phone index.
+     *
+     * @param phone The phone number, exactly as it was entered
+     * @return The members, in no particular order
+     */
+    public GymMember[] findByPhone(String phone) {
+        MemberHashIndex index = phoneIndex;
+        if (index == null) {
+            index = buildHashIndex(false);
+        }
+        return index.find(phone);
+    }
+
+    /**
+     * Returns the members with the given email address, ignoring case. The first
+     * search builds the email index.
+     *
+     * @param email The email address
+     * @return The members, in no particular order
+     */
+    public GymMember[] findByEmail(String email) {
+        MemberHashIndex index = emailIndex;
+        if (index == null) {
+            index = buildHashIndex(true);
+        }
+        return index.find(email);
+    }
+
+    /**
+     * Returns the members that best match some text, allowing for spelling
+     * mistakes and shortened words. The name, location, email address and
+     * referral source of each member are searched. The first search builds the
+     * trigram index.
+     *
+     * @param text The text to look for
+     * @param limit The most members to return
+     * @return The best matching members, best first
+     */
+    public GymMember[] searchFuzzy(String text, int limit) {
+        MemberTrigramIndex index = trigramIndex;
+        if (index == null) {
+            index = buildTrigramIndex();
+        }
+        return index.search(text, limit);
+    }
+
+    /**
+     * Returns the members whose membership started between two dates, in order
+     * of start date. The first search builds the start date index.
+     *
+     * @param from The first date
+     * @param to The last date, included
+     * @return The members; none if to is before from
+     */
+    public GymMember[] findByStartDate(LocalDate from, LocalDate to) {
+        return dateIndex(false).find((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Returns the number of members whose membership started between two dates.
+     *
+     * @param from The first date
+     * @param to The last date, included
+     */
+    public int countByStartDate(LocalDate from, LocalDate to) {
+        return dateIndex(false).count((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Returns the members born between two dates, oldest first. The first
+     * search builds the date of birth index.
+     *
+     * @param from The first date
+     * @param to The last date, included
+     * @return The members; none if to is before from
+     */
+    public GymMember[] findByDateOfBirth(LocalDate from, LocalDate to) {
+        return dateIndex(true).find((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Returns the members who reach the given age between two dates, for
+     * example the members turning 18 this month, oldest first. A member born on
+     * 29 February has their birthday on 28 February in other years.
+     *
+     * @param age The age in years
+     * @param from The first date
+     * @param to The last date, included
+     * @return The members
+     */
+    public GymMember[] findTurningAge(int age, LocalDate from, LocalDate to) {
+        // A birthday moves later as the date of birth does, so the members born
+        // between the earliest and the latest fitting dates of birth are the ones
+        LocalDate earliest = from.minusYears(age);
+        if (earliest.plusYears(age).isBefore(from)) {
+            earliest = earliest.plusDays(1);
+        }
+        LocalDate latest = to.minusYears(age);
+        if (!latest.plusDays(1).plusYears(age).isAfter(to)) {
+            latest = latest.plusDays(1);
+        }
+        return findByDateOfBirth(earliest, latest);
+    }
+
+    /**
+     * Checks whether a member with the given ID already exists.
+     *
+     * @param id The ID to check
+     * @return true if the ID is taken
+     */
+    public boolean containsId(int id) {
+        return findById(id) != null;
+    }
+
+    /**
+     * Adds a member to the repository.
+     *
+     * The new member is locked until the listeners have been told about it, so
+     * another thread that finds it straight away cannot change it before the
+     * addition itself has been recorded.
+     *
+     * @param member The member to add
+     * @return true if the member was added, false if its ID is already taken
+     */
+    public boolean add(GymMember member) {
+        synchronized (member) {
+            synchronized (this) {
+                if (!insert(member)) {
+                    return false;
+                }
+                member.setChangeListener(dispatcher);
+            }
+            // Listeners are told outside the repository lock, since they take locks of their own
+            dispatchChange(member, MemberChange.ADDED);
+        }
+        return true;
+    }
+
+    /**
+     * Puts a member in place of the member that has the same ID, keeping its
+     * position. Used when a saved copy of a member is read back over the
+     * one already loaded. Listeners are not told about the replacement.
+     *
+     * @param member The new copy of the member
+     * @return The member that was replaced, or null if there was none
+     */
+    public synchronized GymMember replace(GymMember member) {
+        Table t = table;
+        int id = member.getId();
+        int slot = hash(id) & t.mask;
+        GymMember old;
+        while ((old = t.slots.get(slot)) != null) {
+            if (t.ids[slot] == id) {
+                int position = t.positions[slot];
+                old.setChangeListener(null);
+                member.setChangeListener(dispatcher);
+                member.setPosition(position);
+                t.members.set(position, member);
+                t.slots.set(slot, member);
+                replaceInIndexes(old, member, position);
+                for (MemberView view : views) {
+                    view.replace(old, member);
+                }
+                if (metrics != null) {
+                    metrics.update(position, member);
+                }
+                return old;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return null;
+    }
+
+    /**
+     * Moves every member of another repository into this one, in place of the
+     * members it holds now. The other repository is left empty. Used to put a
+     * member list that was loaded in the background in place in one step.
+     * Listeners are not told about the replacement.
+     *
+     * @param loaded The repository holding the new members
+     */
+    public void replaceAllWith(MemberRepository loaded) {
+        Table incoming;
+        MemberNameIndex incomingNames;
+        MemberHashIndex incomingPhones;
+        MemberHashIndex incomingEmails;
+        MemberTrigramIndex incomingTrigrams;
+        MemberDateIndex incomingStartDates;
+        MemberDateIndex incomingBirthDates;
+        synchronized (loaded) {
+            incoming = loaded.table;
+            incomingNames = loaded.nameIndex;
+            incomingPhones = loaded.phoneIndex;
+            incomingEmails = loaded.emailIndex;
+            incomingTrigrams = loaded.trigramIndex;
+            incomingStartDates = loaded.startDateIndex;
+            incomingBirthDates = loaded.birthDateIndex;
+            loaded.table = new Table(INITIAL_CAPACITY, INITIAL_CAPACITY * 2);
+            loaded.dropIndexes();
+        }
+        synchronized (this) {
+            Table old = table;
+            for (int i = 0; i < old.size; i++) {
+                old.members.get(i).setChangeListener(null);
+            }
+            for (int i = 0; i < incoming.size; i++) {
+                incoming.members.get(i).setChangeListener(dispatcher);
+            }
+            table = incoming;
+            nameIndex = incomingNames;
+            phoneIndex = incomingPhones;
+            emailIndex = incomingEmails;
+            trigramIndex = incomingTrigrams;
+            startDateIndex = incomingStartDates;
+            birthDateIndex = incomingBirthDates;
+            for (MemberView view : views) {
+                view.rebuild(this);
+            }
+            if (metrics != null) {
+                metrics.rebuild(toArray());
+            }
+        }
+    }
+
+    /**
+     * Registers a listener to be told about every member that is added or changed.
+     *
+     * @param listener The listener to add
+     */
+    public void addChangeListener(MemberChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about member changes.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeChangeListener(MemberChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Makes a live view of the members matching a filter, checking each member
+     * again after any change. The view is filled straight away, with a pass over
+     * every member, and kept up to date until it is removed.
+     *
+     * @param filter The filter; it must only read members through their accessors
+     * @return The view
+     */
+    public MemberView createView(Predicate<GymMember> filter) {
+        return createView(filter, EnumSet.allOf(MemberChange.class));
+    }
+
+    /**
+     * Makes a live view of the members matching a filter, checking a member
+     * again only after the given kinds of change (and when it is added or read
+     * back from a saved file). The view is filled straight away, with a pass
+     * over every member, and kept up to date until it is removed.
+     *
+     * @param filter The filter; it must only read members through their accessors
+     * @param changes The kinds of change that can decide whether a member matches
+     * @return The view
+     */
+    public MemberView createView(Predicate<GymMember> filter, Set<MemberChange> changes) {
+        MemberView view = new MemberView(filter, changes);
+        // Registered before it is filled, so no change made meanwhile is missed
+        views.add(view);
+        view.rebuild(this);
+        return view;
+    }
+
+    /**
+     * Stops keeping a view up to date.
+     *
+     * @param view The view to remove
+     */
+    public void removeView(MemberView view) {
+        views.remove(view);
+    }
+
+    /**
+     * Checks a member against the views again after its state has been read
+     * back from a saved file in place. Called by MemberSnapshot.readState.
+     */
+    void stateRestored(GymMember member) {
+        for (MemberView view : views) {
+            view.check(member);
+        }
+        updateMetrics(member);
+    }
+
+    /**
+     * Returns the running totals of the members: active and inactive counts,
+     * premium revenue and balances, loyalty tiers and members per plan. The
+     * first call works them out in one parallel pass over every member; after
+     * that they are kept up to date as members change, and reading them does
+     * not depend on the number of members.
+     *
+     * @return The totals, kept up to date until the repository is discarded
+     */
+    public MemberMetrics getMetrics() {
+        MemberMetrics m = metrics;
+        if (m == null) {
+            m = buildMetrics();
+        }
+        return m;
+    }
+
+    /**
+     * Returns the days the members came in. The history is kept when the
+     * members are replaced or cleared, since it belongs to the member IDs.
+     */
+    public AttendanceHistory getAttendanceHistory() {
+        return attendanceHistory;
+    }
+
+    /**
+     * Makes room for the given number of members, so that a bulk load of a
+     * known size does not have to grow the arrays and rebuild the index
+     * again and again.
+     *
+     * @param capacity The number of members the repository should be able to hold
+     */
+    public synchronized void ensureCapacity(int capacity) {
+        Table t = table;
+        if (capacity > t.members.length()) {
+            t = new Table(copyOf(t.members, t.size, capacity), t.size, t.ids, t.positions, t.slots);
+        }
+        int tableSize = t.ids.length;
+        while (tableSize < capacity * 2) {
+            tableSize *= 2;
+        }
+        if (tableSize != t.ids.length) {
+            t = rehash(t, tableSize);
+        }
+        table = t;
+    }
+
+    /**
+     * Returns the member at the given position in insertion order.
+     *
+     * @param index Position from 0 to size() - 1
+     * @return The member at that position
+     */
+    public GymMember get(int index) {
+        Table t = table;
+        int size = t.size;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return t.members.get(index);
+    }
+
+    /**
+     * Returns a copy of the member list in insertion order. Changes to the
+     * repository after the call do not affect the copy, so it can be handed
+     * to another thread, for example to be saved in the background.
+     *
+     * @return The members, one per array element
+     */
+    public GymMember[] toArray() {
+        Table t = table;
+        int size = t.size;
+        GymMember[] copy = new GymMember[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = t.members.get(i);
+        }
+        return copy;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every member and shrinks the index back to its initial size.
+     */
+    public synchronized void clear() {
+        Table old = table;
+        for (int i = 0; i < old.size; i++) {
+            old.members.get(i).setChangeListener(null);
+        }
+        table = new Table(INITIAL_CAPACITY, INITIAL_CAPACITY * 2);
+        dropIndexes();
+        for (MemberView view : views) {
+            view.rebuild(this);
+        }
+        if (metrics != null) {
+            metrics.rebuild(new GymMember[0]);
+        }
+    }
+
+    /**
+     * Returns an iterator over the members in the order they were added.
+     * It shows the members that were in the repository when it was created.
+     */
+    @Override
+    public Iterator<GymMember> iterator() {
+        Table t = table;
+        int size = t.size;
+        return new Iterator<GymMember>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public GymMember next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return t.members.get(next++);
+            }
+        };
+    }
+
+    private synchronized MemberNameIndex buildNameIndex() {
+        if (nameIndex == null) {
+            nameIndex = MemberNameIndex.build(toArray());
+        }
+        return nameIndex;
+    }
+
+    private MemberDateIndex dateIndex(boolean byBirth) {
+        MemberDateIndex index = byBirth ? birthDateIndex : startDateIndex;
+        if (index == null) {
+            index = buildDateIndex(byBirth);
+        }
+        return index;
+    }
+
+    private synchronized MemberDateIndex buildDateIndex(boolean byBirth) {
+        MemberDateIndex index = byBirth ? birthDateIndex : startDateIndex;
+        if (index == null) {
+            index = MemberDateIndex.build(byBirth, toArray());
+            if (byBirth) {
+                birthDateIndex = index;
+            } else {
+                startDateIndex = index;
+            }
+        }
+        return index;
+    }
+
+    private synchronized MemberHashIndex buildHashIndex(boolean byEmail) {
+        MemberHashIndex index = byEmail ? emailIndex : phoneIndex;
+        if (index == null) {
+            Table t = table;
+            index = new MemberHashIndex(byEmail, t.size);
+            for (int i = 0; i < t.size; i++) {
+                index.add(t.members.get(i));
+            }
+            if (byEmail) {
+                emailIndex = index;
+            } else {
+                phoneIndex = index;
+            }
+        }
+        return index;
+    }
+
+    private synchronized MemberMetrics buildMetrics() {
+        if (metrics == null) {
+            MemberMetrics built = new MemberMetrics();
+            // Published before the pass, so changes made meanwhile wait for it and are then applied
+            synchronized (built) {
+                metrics = built;
+                built.rebuild(toArray());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Passes a member's new state on to the running totals, if they have been made.
+     */
+    private void updateMetrics(GymMember member) {
+        MemberMetrics m = metrics;
+        if (m != null) {
+            Table t = table;
+            int position = member.getPosition();
+            // A member that has since been replaced or cleared away no longer counts
+            if (position >= 0 && position < t.size && t.members.get(position) == member) {
+                m.update(position, member);
+            }
+        }
+    }
+
+    private synchronized MemberTrigramIndex buildTrigramIndex() {
+        if (trigramIndex == null) {
+            Table t = table;
+            MemberTrigramIndex index = new MemberTrigramIndex(t.size);
+            for (int i = 0; i < t.size; i++) {
+                index.add(t.members.get(i));
+            }
+            trigramIndex = index;
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Adds a new member to the indexes that have been built. Called while holding this.
+     */
+    private void addToIndexes(GymMember member) {
+        if (nameIndex != null) {
+            nameIndex = nameIndex.with(member);
+        }
+        if (phoneIndex != null) {
+            phoneIndex.add(member);
+        }
+        if (emailIndex != null) {
+            emailIndex.add(member);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(member);
+        }
+        if (startDateIndex != null) {
+            startDateIndex = startDateIndex.with(member);
+        }
+        if (birthDateIndex != null) {
+            birthDateIndex = birthDateIndex.with(member);
+        }
+    }
+
+    /**
+     * Puts a new copy of a member in the indexes in place of the old one.
+     * Called while holding this. The name and date indexes cannot take members
+     * out, so they are dropped and built again at the next search; replacing
+     * only happens while changes are being loaded. The trigram index holds
+     * members in the order they were added, like the repository, so the new
+     * copy takes the old one's position there unless its indexed text differs.
+     */
+    private void replaceInIndexes(GymMember old, GymMember member, int position) {
+        nameIndex = null;
+        startDateIndex = null;
+        birthDateIndex = null;
+        if (phoneIndex != null) {
+            phoneIndex.remove(old);
+            phoneIndex.add(member);
+        }
+        if (emailIndex != null) {
+            emailIndex.remove(old);
+            emailIndex.add(member);
+        }
+        if (trigramIndex != null && !trigramIndex.replace(position, old, member)) {
+            trigramIndex = null;
+        }
+    }
+
+    private void dropIndexes() {
+        nameIndex = null;
+        phoneIndex = null;
+        emailIndex = null;
+        trigramIndex = null;
+        startDateIndex = null;
+        birthDateIndex = null;
+    }
+
+    private void dispatchChange(GymMember member, MemberChange change) {
+        for (MemberView view : views) {
+            view.memberChanged(member, change);
+        }
+        updateMetrics(member);
+        for (MemberChangeListener listener : listeners) {
+            listener.memberChanged(member, change);
+        }
+    }
+
+    /**
+     * Adds a member to the arrays, growing them first if they are full.
+     * Called while holding this.
+     *
+     * @return false if the ID is already taken
+     */
+    private boolean insert(GymMember member) {
+        Table t = table;
+        int id = member.getId();
+        if (t.find(id) != null) {
+            return false; // Duplicate ID
+        }
+
+        int size = t.size;
+        // Keep the index at most half full so probe sequences stay short
+        if (size == t.members.length() || (size + 1) * 2 > t.ids.length) {
+            AtomicReferenceArray<GymMember> members = size == t.members.length()
+                ? copyOf(t.members, size, size * 2) : t.members;
+            t = new Table(members, size, t.ids, t.positions, t.slots);
+            if ((size + 1) * 2 > t.ids.length) {
+                t = rehash(t, t.ids.length * 2);
+            }
+            table = t;
+        }
+
+        int slot = hash(id) & t.mask;
+        while (t.slots.get(slot) != null) {
+            slot = (slot + 1) & t.mask;
+        }
+        member.setPosition(size);
+        t.members.set(size, member);
+        t.ids[slot] = id;
+        t.positions[slot] = size;
+        t.slots.set(slot, member);
+        t.size = size + 1;
+        addToIndexes(member);
+        return true;
+    }
+
+    private static AtomicReferenceArray<GymMember> copyOf(AtomicReferenceArray<GymMember> members,
+                                                          int size, int capacity) {
+        AtomicReferenceArray<GymMember> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < size; i++) {
+            grown.set(i, members.get(i));
+        }
+        return grown;
+    }
+
+    /**
+     * Builds a larger hash index for the members of a table.
+     *
+     * @param capacity The new index size, always a power of two
+     * @return A table with the same members and the new index
+     */
+    private static Table rehash(Table t, int capacity) {
+        int[] newIds = new int[capacity];
+        int[] newPositions = new int[capacity];
+        AtomicReferenceArray<GymMember> newSlots = new AtomicReferenceArray<>(capacity);
+        int newMask = capacity - 1;
+        for (int i = 0; i < t.size; i++) {
+            GymMember member = t.members.get(i);
+            int id = member.getId();
+            int slot = hash(id) & newMask;
+            while (newSlots.get(slot) != null) {
+                slot = (slot + 1) & newMask;
+            }
+            newIds[slot] = id;
+            newPositions[slot] = i;
+            newSlots.set(slot, member);
+        }
+        return new Table(t.members, t.size, newIds, newPositions, newSlots);
+    }
+
+    /**
+     * Spreads the bits of the ID so that sequential IDs do not fall into
+     * neighbouring slots and build long probe chains.
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
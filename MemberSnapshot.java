@@ -0,0 +1,639 @@
+/**
+ * The MemberSnapshot class saves and loads the whole member database in a
+ * compact binary format. Unlike the ASCII tables, every field is stored in
+ * full, so a save followed by a load gives back exactly the same members.
+ *
+ * File layout:
+ * - Header: magic number "GYMS", format version, number of records
+ * - Records: a type tag (regular or premium) followed by the member's fields,
+ *   with every string stored as a 2-byte length followed by its UTF-8 bytes,
+ *   and the member's renewal day
+ * - Trailer: CRC32 checksum of everything before it
+ *
+ * A snapshot is first written to a temporary file and then moved over the old
+ * one, so a crash in the middle of a save never leaves a half-written database.
+ * The same goes for a save that is cancelled through its ProgressListener.
+ *
+ * Between full snapshots, changed members can be saved as delta segments that
+ * are appended to a separate delta file. A segment has the same layout as a
+ * snapshot (with magic number "GYMD") but holds only the members that changed
+ * since the previous save, and its header also holds the checksum of the
+ * snapshot it was written against. Loading applies the segments in order on top
+ * of that snapshot, each record replacing the member with the same ID; segments
+ * left over from an older snapshot are ignored.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+public class MemberSnapshot {
+    private static final int MAGIC = 0x47594D53; // "GYMS"
+    private static final int DELTA_MAGIC = 0x47594D44; // "GYMD"
+    private static final short VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Progress is reported, and cancellation checked, once per this many members
+    private static final int PROGRESS_STEP = 4096;
+
+    static final byte TYPE_REGULAR = 1;
+    static final byte TYPE_PREMIUM = 2;
+
+    // A string length of 0xFFFF marks a null field
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private MemberSnapshot() {
+    }
+
+    /**
+     * Writes every member in the repository to a snapshot file.
+     *
+     * @param file The snapshot file to write
+     * @param members The members to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(File file, MemberRepository members) throws IOException {
+        save(file, members.toArray(), ProgressListener.NONE);
+    }
+
+    /**
+     * Writes the given members to a snapshot file, reporting progress as it goes.
+     * If the save is cancelled or fails, the old snapshot is left untouched.
+     *
+     * @param file The snapshot file to write
+     * @param members The members to save
+     * @param progress Told how far the save has got, and asked whether to stop
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedIOException if the save was cancelled
+     */
+    public static void save(File file, GymMember[] members, ProgressListener progress) throws IOException {
+        try (Writer writer = new Writer(file, members.length)) {
+            for (int i = 0; i < members.length; i++) {
+                if (i % PROGRESS_STEP == 0) {
+                    reportProgress(progress, i, members.length);
+                }
+                writer.write(members[i]);
+            }
+            writer.commit();
+        }
+        progress.progress(members.length, members.length);
+    }
+
+    /**
+     * Writes a snapshot one member at a time, so that a snapshot of any size
+     * can be written without holding all the members in memory. The number of
+     * members must be known up front, since it is part of the header.
+     *
+     * The members go to a temporary file; commit moves it over the snapshot.
+     * Closing the writer without committing deletes the temporary file and
+     * leaves the old snapshot as it was.
+     */
+    public static class Writer implements Closeable {
+        private final File file;
+        private final File tempFile;
+        private final int expectedCount;
+        private final CRC32 crc = new CRC32();
+        private final FileOutputStream fileOut;
+        private final DataOutputStream out;
+        private int count = 0;
+        private boolean committed = false;
+
+        /**
+         * Creates the temporary file and writes the header.
+         *
+         * @param file The snapshot file to write
+         * @param expectedCount The number of members that will be written
+         * @throws IOException if the file cannot be created
+         */
+        public Writer(File file, int expectedCount) throws IOException {
+            this.file = file;
+            this.tempFile = new File(file.getPath() + ".tmp");
+            this.expectedCount = expectedCount;
+            this.fileOut = new FileOutputStream(tempFile);
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(fileOut, crc), BUFFER_SIZE));
+            try {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(expectedCount);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes the next member.
+         *
+         * @param member The member to write
+         * @throws IOException if the member cannot be written
+         */
+        public void write(GymMember member) throws IOException {
+            if (count == expectedCount) {
+                throw new IOException("More than " + expectedCount + " members written to " + file.getName());
+            }
+            writeMember(out, member);
+            out.writeInt(member.getRenewalDay());
+            count++;
+        }
+
+        /**
+         * Writes the checksum, forces the file to disk and moves it over the
+         * snapshot.
+         *
+         * @throws IOException if fewer members were written than expected, or
+         *         the file cannot be written
+         */
+        public void commit() throws IOException {
+            if (count != expectedCount) {
+                throw new IOException("Only " + count + " of " + expectedCount + " members written to " + file.getName());
+            }
+            out.flush();
+            // The checksum itself is written past the checked stream
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+            fileOut.close();
+            Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        /**
+         * Closes the temporary file, and deletes it if the snapshot was not committed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            try {
+                fileOut.close();
+            } finally {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot file and adds its members to the repository.
+     *
+     * @param file The snapshot file to read
+     * @param members The repository to add the members to
+     * @return The number of members read
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static int load(File file, MemberRepository members) throws IOException {
+        return load(file, members, ProgressListener.NONE);
+    }
+
+    /**
+     * Reads a snapshot file and adds its members to the repository, reporting
+     * progress as it goes.
+     *
+     * @param file The snapshot file to read
+     * @param members The repository to add the members to
+     * @param progress Told how far the load has got, and asked whether to stop
+     * @return The number of members read
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     * @throws InterruptedIOException if the load was cancelled
+     */
+    public static int load(File file, MemberRepository members, ProgressListener progress) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            // The checksum sits above the buffer so read-ahead bytes are not counted
+            BufferedInputStream bufferedIn = new BufferedInputStream(fileIn, BUFFER_SIZE);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(bufferedIn, crc));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file.getName() + " is not a member snapshot");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file.getName());
+            }
+            int count = in.readInt();
+            members.ensureCapacity(members.size() + count);
+            for (int i = 0; i < count; i++) {
+                if (i % PROGRESS_STEP == 0) {
+                    reportProgress(progress, i, count);
+                }
+                members.add(readSavedMember(in));
+            }
+            int expected = (int) crc.getValue();
+            int stored = new DataInputStream(bufferedIn).readInt();
+            if (stored != expected) {
+                throw new IOException("Snapshot " + file.getName() + " is corrupted (checksum mismatch)");
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Returns the checksum stored at the end of a snapshot file. It identifies
+     * the snapshot that delta segments are written against.
+     *
+     * @param file The snapshot file
+     * @return The snapshot's checksum
+     * @throws IOException if the file cannot be read
+     */
+    public static int readChecksum(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            long position = channel.size() - 4;
+            while (trailer.hasRemaining()) {
+                if (position < 0 || channel.read(trailer, position + trailer.position()) < 0) {
+                    throw new IOException(file.getName() + " is too short to be a member snapshot");
+                }
+            }
+            return trailer.getInt(0);
+        }
+    }
+
+    /**
+     * Appends a delta segment holding the given members to the delta file,
+     * and forces it to disk.
+     *
+     * @param deltaFile The delta file, created if it does not exist
+     * @param baseChecksum The checksum of the snapshot the changes apply to
+     * @param changed The members that changed since the last save
+     * @throws IOException if the segment cannot be written
+     */
+    public static void appendDelta(File deltaFile, int baseChecksum, List<GymMember> changed) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(deltaFile, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(fileOut, crc), BUFFER_SIZE));
+            out.writeInt(DELTA_MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(baseChecksum);
+            out.writeInt(changed.size());
+            for (GymMember member : changed) {
+                writeMember(out, member);
+                out.writeInt(member.getRenewalDay());
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+        }
+    }
+
+    /**
+     * Applies every delta segment in the delta file, in order, to the members
+     * loaded from the snapshot. A segment that was only partly written (the
+     * program stopped during a save) is cut off; the changes it held are still
+     * in the member journal. Segments written against a different snapshot are
+     * cut off as well, since that snapshot already replaced them.
+     *
+     * @param deltaFile The delta file
+     * @param baseChecksum The checksum of the loaded snapshot
+     * @param members The repository holding the snapshot members
+     * @return The number of member records applied
+     * @throws IOException if the file cannot be read
+     */
+    public static int applyDeltas(File deltaFile, int baseChecksum, MemberRepository members) throws IOException {
+        if (!deltaFile.exists()) {
+            return 0;
+        }
+        int applied = 0;
+        long validEnd = 0;
+        CRC32 crc = new CRC32();
+        try (FileInputStream fileIn = new FileInputStream(deltaFile)) {
+            CountingInputStream countingIn = new CountingInputStream(
+                new BufferedInputStream(fileIn, BUFFER_SIZE));
+            DataInputStream trailerIn = new DataInputStream(countingIn);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(countingIn, crc));
+            while (true) {
+                // Read the whole segment before applying it, so a torn segment changes nothing
+                List<GymMember> segment;
+                try {
+                    crc.reset();
+                    if (in.readInt() != DELTA_MAGIC) {
+                        break;
+                    }
+                    if (in.readShort() != VERSION || in.readInt() != baseChecksum) {
+                        break;
+                    }
+                    int count = in.readInt();
+                    segment = new ArrayList<>(Math.min(count, 1 << 16));
+                    for (int i = 0; i < count; i++) {
+                        segment.add(readSavedMember(in));
+                    }
+                    if (trailerIn.readInt() != (int) crc.getValue()) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    break; // Torn or damaged segment at the end of the file
+                }
+                for (GymMember member : segment) {
+                    if (!members.add(member)) {
+                        members.replace(member);
+                    }
+                }
+                applied += segment.size();
+                validEnd = countingIn.getCount();
+            }
+        }
+        if (validEnd < deltaFile.length()) {
+            try (FileChannel channel = FileChannel.open(deltaFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Writes one member record: a type tag followed by all of its fields.
+     *
+     * @param out The output to write to
+     * @param member The member to write
+     * @throws IOException if writing fails
+     */
+    static void writeMember(DataOutput out, GymMember member) throws IOException {
+        // Holds the member still, so the record never mixes fields from before and after a change
+        synchronized (member) {
+            writeMemberFields(out, member);
+        }
+    }
+
+    private static void writeMemberFields(DataOutput out, GymMember member) throws IOException {
+        if (member instanceof RegularMember) {
+            out.writeByte(TYPE_REGULAR);
+        } else if (member instanceof PremiumMember) {
+            out.writeByte(TYPE_PREMIUM);
+        } else {
+            throw new IOException("Unknown member type: " + member.getClass().getName());
+        }
+
+        out.writeInt(member.getId());
+        writeString(out, member.getName());
+        writeString(out, member.getLocation());
+        writeString(out, member.getPhone());
+        writeString(out, member.getEmail());
+        writeString(out, member.getGender());
+        writeString(out, member.getDOB());
+        writeString(out, member.getMembershipStartDate());
+        out.writeInt(member.getAttendance());
+        out.writeDouble(member.getLoyaltyPoints());
+        out.writeBoolean(member.isActiveStatus());
+
+        if (member instanceof RegularMember) {
+            RegularMember regularMember = (RegularMember) member;
+            writeString(out, regularMember.getReferralSource());
+            writeString(out, regularMember.getPlan());
+            out.writeDouble(regularMember.getPrice());
+            out.writeBoolean(regularMember.isEligibleForUpgrade());
+            writeString(out, regularMember.getRemovalReason());
+        } else {
+            PremiumMember premiumMember = (PremiumMember) member;
+            writeString(out, premiumMember.getReferralSource());
+            writeString(out, premiumMember.getPlan());
+            out.writeDouble(premiumMember.getPremiumCharge());
+            writeString(out, premiumMember.getPersonalTrainer());
+            out.writeBoolean(premiumMember.isFullPayment());
+            out.writeDouble(premiumMember.getPaidAmount());
+            out.writeDouble(premiumMember.getDiscountAmount());
+        }
+    }
+
+    /**
+     * Reads one member record written by writeMember.
+     *
+     * @param in The input to read from
+     * @return The member read
+     * @throws IOException if reading fails or the record type is unknown
+     */
+    static GymMember readMember(DataInput in) throws IOException {
+        byte type = in.readByte();
+        if (type != TYPE_REGULAR && type != TYPE_PREMIUM) {
+            throw new IOException("Unknown member record type: " + type);
+        }
+
+        int id = in.readInt();
+        String name = readString(in);
+        String location = readString(in);
+        String phone = readString(in);
+        String email = readString(in);
+        String gender = readString(in);
+        String dob = readString(in);
+        String startDate = readString(in);
+        int attendance = in.readInt();
+        double loyaltyPoints = in.readDouble();
+        boolean active = in.readBoolean();
+        String referralSource = readString(in);
+        String plan = readString(in);
+
+        GymMember member;
+        if (type == TYPE_REGULAR) {
+            double price = in.readDouble();
+            boolean eligible = in.readBoolean();
+            String removalReason = readString(in);
+            RegularMember regularMember = new RegularMember(id, name, location, phone, email,
+                gender, dob, startDate, referralSource);
+            regularMember.restorePlanState(eligible, removalReason, plan, price);
+            member = regularMember;
+        } else {
+            double premiumCharge = in.readDouble();
+            String trainer = readString(in);
+            boolean fullPayment = in.readBoolean();
+            double paidAmount = in.readDouble();
+            double discountAmount = in.readDouble();
+            PremiumMember premiumMember = new PremiumMember(id, name, location, phone, gender,
+                dob, trainer, referralSource, premiumCharge);
+            premiumMember.restorePaymentState(email, startDate, plan, fullPayment, paidAmount, discountAmount);
+            member = premiumMember;
+        }
+        member.restoreState(attendance, loyaltyPoints, active);
+        return member;
+    }
+
+    /**
+     * Reads a member record of a snapshot or delta segment, with the renewal
+     * day that follows it.
+     */
+    private static GymMember readSavedMember(DataInput in) throws IOException {
+        GymMember member = readMember(in);
+        member.restoreRenewalDay(in.readInt());
+        return member;
+    }
+
+    /**
+     * Writes only the fields of a member that can change after it has been
+     * added (attendance, points, status, plan and payment details). This is
+     * much smaller than a full record and is what the journal writes for
+     * every change other than adding a member.
+     *
+     * @param out The output to write to
+     * @param member The member whose state is written
+     * @throws IOException if writing fails
+     */
+    static void writeState(DataOutput out, GymMember member) throws IOException {
+        boolean regular = member instanceof RegularMember;
+        out.writeByte(regular ? TYPE_REGULAR : TYPE_PREMIUM);
+        out.writeInt(member.getId());
+        out.writeInt(member.getAttendance());
+        out.writeDouble(member.getLoyaltyPoints());
+        out.writeBoolean(member.isActiveStatus());
+        if (regular) {
+            RegularMember regularMember = (RegularMember) member;
+            writeString(out, regularMember.getPlan());
+            out.writeDouble(regularMember.getPrice());
+            out.writeBoolean(regularMember.isEligibleForUpgrade());
+            writeString(out, regularMember.getRemovalReason());
+        } else {
+            PremiumMember premiumMember = (PremiumMember) member;
+            writeString(out, premiumMember.getPlan());
+            out.writeDouble(premiumMember.getPremiumCharge());
+            writeString(out, premiumMember.getPersonalTrainer());
+            out.writeBoolean(premiumMember.isFullPayment());
+            out.writeDouble(premiumMember.getPaidAmount());
+            out.writeDouble(premiumMember.getDiscountAmount());
+        }
+    }
+
+    /**
+     * Reads a state record written by writeState and applies it to the
+     * matching member in the repository.
+     *
+     * @param in The input to read from
+     * @param members The repository holding the member
+     * @return true if the member was found and updated
+     * @throws IOException if reading fails or the record type is unknown
+     */
+    static boolean readState(DataInput in, MemberRepository members) throws IOException {
+        byte type = in.readByte();
+        if (type != TYPE_REGULAR && type != TYPE_PREMIUM) {
+            throw new IOException("Unknown member record type: " + type);
+        }
+        int id = in.readInt();
+        int attendance = in.readInt();
+        double loyaltyPoints = in.readDouble();
+        boolean active = in.readBoolean();
+        String plan = readString(in);
+
+        // The rest of the record is always read, even for a missing member, so the input stays aligned
+        GymMember member = members.findById(id);
+        if (type == TYPE_REGULAR) {
+            double price = in.readDouble();
+            boolean eligible = in.readBoolean();
+            String removalReason = readString(in);
+            if (!(member instanceof RegularMember)) {
+                return false;
+            }
+            ((RegularMember) member).restorePlanState(eligible, removalReason, plan, price);
+        } else {
+            double premiumCharge = in.readDouble();
+            String trainer = readString(in);
+            boolean fullPayment = in.readBoolean();
+            double paidAmount = in.readDouble();
+            double discountAmount = in.readDouble();
+            if (!(member instanceof PremiumMember)) {
+                return false;
+            }
+            PremiumMember premiumMember = (PremiumMember) member;
+            premiumMember.restoreCharge(premiumCharge, trainer);
+            premiumMember.restorePaymentState(premiumMember.getEmail(), premiumMember.getMembershipStartDate(),
+                plan, fullPayment, paidAmount, discountAmount);
+        }
+        member.restoreState(attendance, loyaltyPoints, active);
+        members.stateRestored(member);
+        return true;
+    }
+
+    /**
+     * Passes progress on to the listener and stops the task if it asks to.
+     */
+    private static void reportProgress(ProgressListener progress, int done, int total) throws IOException {
+        if (progress.isCancelRequested()) {
+            throw new InterruptedIOException("Cancelled");
+        }
+        progress.progress(done, total);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IOException("Field too long to save (" + bytes.length + " bytes)");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts the bytes read through it, so the end of the last good delta
+     * segment is known.
+     */
+    static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * The MemberTableLoader class imports members from the exported text tables
+ * ("regular_members.txt" and "premium_members.txt") using every CPU core.
+ *
+ * Each file is memory-mapped and split into chunks that always end on a line
+ * break. The chunks are parsed as tasks on a fork-join pool and the results are
+ * joined back together in file order, so members are added in the same order as
+ * a line-by-line read would add them. The regular and premium files are parsed
+ * at the same time.
+ *
+ * Every row can be recognised on its own (data rows start with "|" followed by a
+ * numeric ID), so a chunk does not need to know anything about the lines before it.
+ * Rows are read by a MemberLineParser working directly on the mapped bytes; each
+ * chunk has its own parser, and its scratch buffer, for all of its rows. The
+ * parsers go away with their chunks, so nothing is left holding the mapping
+ * once the load is over and the file can be unmapped.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class MemberTableLoader {
+    // Chunks smaller than this are parsed by a single task
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    // The exporter writes through FileWriter, which uses the platform charset
+    private static final Charset TABLE_CHARSET = Charset.defaultCharset();
+
+    private MemberTableLoader() {
+    }
+
+    /**
+     * Loads both table files in parallel and adds the members to the repository,
+     * regular members first and then premium members.
+     *
+     * @param regularFile The regular members table
+     * @param premiumFile The premium members table
+     * @param members The repository to add the members to
+     * @return A summary of what was loaded from each file
+     */
+    public static Summary load(File regularFile, File premiumFile, MemberRepository members) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        FileLoad regular = FileLoad.start(regularFile, false, pool);
+        FileLoad premium = FileLoad.start(premiumFile, true, pool);
+
+        Summary summary = new Summary();
+        summary.regular = regular.finish(members);
+        summary.premium = premium.finish(members);
+        return summary;
+    }
+
+    /**
+     * Holds the outcome of loading one table file.
+     */
+    public static class FileResult {
+        private boolean read;
+        private int loadedCount;
+        private int rejectedCount;
+        private String error;
+
+        public boolean isRead() {
+            return read;
+        }
+
+        public int getLoadedCount() {
+            return loadedCount;
+        }
+
+        public int getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Holds the outcome of loading both table files.
+     */
+    public static class Summary {
+        private FileResult regular;
+        private FileResult premium;
+
+        public FileResult getRegular() {
+            return regular;
+        }
+
+        public FileResult getPremium() {
+            return premium;
+        }
+    }
+
+    /**
+     * A table file that is being parsed in the background.
+     */
+    private static class FileLoad {
+        private final FileResult result = new FileResult();
+        private ForkJoinTask<ChunkResult> task;
+
+        static FileLoad start(File file, boolean premium, ForkJoinPool pool) {
+            FileLoad load = new FileLoad();
+            if (!file.exists()) {
+                return load;
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException(file.getName() + " is too large to map (" + size + " bytes)");
+                }
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                load.task = pool.submit(new ChunkTask(buffer, 0, (int) size, premium));
+            } catch (IOException e) {
+                load.result.error = e.getMessage();
+            }
+            return load;
+        }
+
+        FileResult finish(MemberRepository members) {
+            if (task == null) {
+                return result;
+            }
+            ChunkResult parsed = task.join();
+            members.ensureCapacity(members.size() + parsed.members.size());
+            for (GymMember member : parsed.members) {
+                if (members.add(member)) {
+                    result.loadedCount++;
+                } else {
+                    result.rejectedCount++; // Duplicate ID
+                }
+            }
+            result.rejectedCount += parsed.rejectedCount;
+            result.read = true;
+            return result;
+        }
+    }
+
+    /**
+     * Members parsed from one chunk, in file order.
+     */
+    private static class ChunkResult {
+        final List<GymMember> members;
+        int rejectedCount;
+
+        ChunkResult(List<GymMember> members) {
+            this.members = members;
+        }
+    }
+
+    /**
+     * Parses the lines between start and end, splitting itself in two while
+     * the range is larger than CHUNK_SIZE.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveTask<ChunkResult> {
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final boolean premium;
+
+        ChunkTask(MappedByteBuffer buffer, int start, int end, boolean premium) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.premium = premium;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (end - start > CHUNK_SIZE) {
+                int split = nextLineStart(start + (end - start) / 2);
+                if (split > start && split < end) {
+                    ChunkTask left = new ChunkTask(buffer, start, split, premium);
+                    ChunkTask right = new ChunkTask(buffer, split, end, premium);
+                    left.fork();
+                    ChunkResult rightResult = right.compute();
+                    ChunkResult leftResult = left.join();
+                    leftResult.members.addAll(rightResult.members);
+                    leftResult.rejectedCount += rightResult.rejectedCount;
+                    return leftResult;
+                }
+            }
+            return parseRange();
+        }
+
+        /**
+         * Returns the position just after the next line break at or after pos,
+         * or end if there is none.
+         */
+        private int nextLineStart(int pos) {
+            while (pos < end) {
+                if (buffer.get(pos++) == '\n') {
+                    return pos;
+                }
+            }
+            return end;
+        }
+
+        private ChunkResult parseRange() {
+            ChunkResult result = new ChunkResult(new ArrayList<>());
+            MemberLineParser parser = new MemberLineParser(TABLE_CHARSET);
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                parser.reset(buffer, lineStart, lineEnd);
+                // Only data rows start with "|" and a numeric ID
+                if (parser.isDataRow()) {
+                    try {
+                        result.members.add(premium ? parser.parsePremium() : parser.parseRegular());
+                    } catch (IllegalArgumentException ex) {
+                        System.err.println("Error parsing " + (premium ? "premium" : "regular")
+                            + " member data: " + parser.lineText());
+                        result.rejectedCount++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * The MemberTableModel class shows the regular or the premium members of a
+ * MemberRepository in a JTable without copying them.
+ *
+ * The model only keeps an index: an array holding the repository position of
+ * the member shown on each row. Cell values are read from the member and
+ * formatted when the table asks for them, which it only does for the rows on
+ * screen. Sorting and filtering rearrange the index and never copy any members.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import javax.swing.table.AbstractTableModel;
+
+public class MemberTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] REGULAR_COLUMNS = {"ID", "Name", "Location", "Phone", "Email", "Gender", "DOB", "Plan", "Ref Source", "Status"};
+    private static final String[] PREMIUM_COLUMNS = {"ID", "Name", "Location", "Phone", "Gender", "DOB", "Plan", "Personal Trainer", "Charge", "Paid", "Status"};
+
+    // Premium columns that hold amounts of money
+    private static final int CHARGE_COLUMN = 8;
+    private static final int PAID_COLUMN = 9;
+
+    private final MemberRepository members;
+    private final boolean premium;
+    private final String[] columns;
+
+    // rows[i] is the repository position of the member shown on row i
+    private int[] rows = new int[0];
+    private int rowCount = 0;
+
+    private String filter = "";
+    private int sortColumn = -1;
+    private boolean ascending = true;
+
+    /**
+     * Creates a model showing one kind of member.
+     *
+     * @param members The repository to read the members from
+     * @param premium true to show premium members, false to show regular members
+     */
+    public MemberTableModel(MemberRepository members, boolean premium) {
+        this.members = members;
+        this.premium = premium;
+        this.columns = premium ? PREMIUM_COLUMNS : REGULAR_COLUMNS;
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index from the repository, keeping the current filter and
+     * sort order. Call this after members have been added or loaded.
+     */
+    public void refresh() {
+        int size = members.size();
+        if (rows.length < size) {
+            rows = new int[size];
+        }
+        rowCount = 0;
+        for (int position = 0; position < size; position++) {
+            GymMember member = members.get(position);
+            if ((member instanceof PremiumMember) == premium && matchesFilter(member)) {
+                rows[rowCount++] = position;
+            }
+        }
+        if (sortColumn >= 0) {
+            sortRows();
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows only the members whose ID, name, location, phone, email or trainer,
+     * or plan contains the given text, ignoring case.
+     *
+     * @param text The text to look for; empty to show every member
+     */
+    public void setFilter(String text) {
+        filter = text == null ? "" : text.trim();
+        refresh();
+    }
+
+    /**
+     * Sorts the rows by a column. Sorting again by the same column reverses
+     * the order. Rows with equal values keep their repository order.
+     *
+     * @param column The column to sort by
+     */
+    public void sortBy(int column) {
+        if (column < 0 || column >= columns.length) {
+            return;
+        }
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        sortRows();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Returns the member shown on a row.
+     *
+     * @param row The row number in the table
+     * @return The member on that row
+     */
+    public GymMember getMemberAt(int row) {
+        return members.get(rows[row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table read-only
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        GymMember member = getMemberAt(row);
+        if (premium) {
+            PremiumMember premiumMember = (PremiumMember) member;
+            if (column == CHARGE_COLUMN) {
+                return String.format("£%.2f", premiumMember.getPremiumCharge());
+            }
+            if (column == PAID_COLUMN) {
+                return String.format("£%.2f", premiumMember.getPaidAmount());
+            }
+        }
+        if (column == 0) {
+            return member.getId();
+        }
+        return textValue(member, column);
+    }
+
+    /**
+     * Returns the text shown in a column other than the ID and money columns.
+     */
+    private String textValue(GymMember member, int column) {
+        switch (columns[column]) {
+            case "Name":
+                return member.getName();
+            case "Location":
+                return member.getLocation();
+            case "Phone":
+                return member.getPhone();
+            case "Email":
+                return member.getEmail();
+            case "Gender":
+                return member.getGender();
+            case "DOB":
+                return member.getDOB();
+            case "Plan":
+                return premium ? ((PremiumMember) member).getPlan() : ((RegularMember) member).getPlan();
+            case "Ref Source":
+                return ((RegularMember) member).getReferralSource();
+            case "Personal Trainer":
+                return ((PremiumMember) member).getPersonalTrainer();
+            case "Status":
+                return member.isActiveStatus() ? "Active" : "Inactive";
+            default:
+                return "";
+        }
+    }
+
+    private boolean matchesFilter(GymMember member) {
+        return matches(member, filter);
+    }
+
+    /**
+     * Checks whether a member matches the text typed in a search box: the text
+     * is part of the ID, or occurs in the name, location, phone, email (personal
+     * trainer for premium members) or plan, ignoring case.
+     *
+     * @param member The member to check
+     * @param filter The search text; an empty text matches every member
+     * @return true if the member matches
+     */
+    static boolean matches(GymMember member, String filter) {
+        if (filter.isEmpty()) {
+            return true;
+        }
+        boolean premium = member instanceof PremiumMember;
+        String contact = premium ? ((PremiumMember) member).getPersonalTrainer() : member.getEmail();
+        String plan = premium ? ((PremiumMember) member).getPlan() : ((RegularMember) member).getPlan();
+        return Integer.toString(member.getId()).contains(filter)
+            || containsIgnoreCase(member.getName(), filter)
+            || containsIgnoreCase(member.getLocation(), filter)
+            || containsIgnoreCase(member.getPhone(), filter)
+            || containsIgnoreCase(contact, filter)
+            || containsIgnoreCase(plan, filter);
+    }
+
+    /**
+     * Checks whether text occurs in value, ignoring case, without creating
+     * lower-case copies of either string.
+     */
+    private static boolean containsIgnoreCase(String value, String text) {
+        if (value == null) {
+            return false;
+        }
+        int last = value.length() - text.length();
+        for (int start = 0; start <= last; start++) {
+            if (value.regionMatches(true, start, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the index by the sort column with a merge sort, which keeps rows
+     * with equal values in repository order.
+     */
+    private void sortRows() {
+        int[] scratch = new int[rowCount];
+        mergeSort(rows, scratch, 0, rowCount);
+    }
+
+    private void mergeSort(int[] index, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(index, scratch, from, middle);
+        mergeSort(index, scratch, middle, to);
+        if (compareRows(index[middle - 1], index[middle]) <= 0) {
+            return; // Already in order
+        }
+        System.arraycopy(index, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareRows(scratch[left], scratch[right]) <= 0)) {
+                index[i] = scratch[left++];
+            } else {
+                index[i] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * Compares the members at two repository positions by the sort column.
+     */
+    private int compareRows(int positionA, int positionB) {
+        GymMember a = members.get(positionA);
+        GymMember b = members.get(positionB);
+        int result;
+        if (sortColumn == 0) {
+            result = Integer.compare(a.getId(), b.getId());
+        } else if (premium && sortColumn == CHARGE_COLUMN) {
+            result = Double.compare(((PremiumMember) a).getPremiumCharge(), ((PremiumMember) b).getPremiumCharge());
+        } else if (premium && sortColumn == PAID_COLUMN) {
+            result = Double.compare(((PremiumMember) a).getPaidAmount(), ((PremiumMember) b).getPaidAmount());
+        } else {
+            result = compareText(textValue(a, sortColumn), textValue(b, sortColumn));
+        }
+        return ascending ? result : -result;
+    }
+
+    private static int compareText(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(a, b);
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ * The MemberTableWriter class writes one of the text tables that members are
+ * exported to: "regular_members.txt" or "premium_members.txt". The header is
+ * written when the writer is opened, each member is written as one row as soon
+ * as it is passed in, and the footer with the member count is written on close,
+ * so a table of any size can be written without holding the members in memory.
+ *
+ * Long fields are shortened with "...", so the tables are meant for reading and
+ * printing; the member snapshot is the real storage format.
+ *
+ * Rows are laid out without String.format: each field is copied, shortened and
+ * padded straight into one character array that is reused for every row, and
+ * the row is encoded into a byte buffer that is written to the file channel when
+ * it fills up. The bytes are the same as String.format and a FileWriter would
+ * give: the platform character set is used, and numbers are only laid out by
+ * hand when the formatting locale writes them with plain ASCII digits and they
+ * are whole. Any other number is still formatted with String.format.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class MemberTableWriter implements Closeable {
+    // Table border constants
+    private static final String TABLE_BORDER = "+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n";
+    private static final String REGULAR_TABLE_WIDTH = "| %-83s |";
+    private static final String PREMIUM_TABLE_WIDTH = "| %-93s |";
+
+    // Whole numbers above this are not exactly representable in a double's integer part
+    private static final double LARGEST_WHOLE = 1e15;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    // Whether the formatting locale writes numbers as plain ASCII, so they can be laid out by hand
+    private final boolean plainNumbers;
+    private final boolean premium;
+    private int count = 0;
+
+    // The row being laid out
+    private char[] row = new char[256];
+    private int length = 0;
+
+    /**
+     * Creates the table file and writes its header.
+     *
+     * @param file The file to write
+     * @param premium true for the premium members table, false for the regular one
+     * @throws IOException if the file cannot be written
+     */
+    public MemberTableWriter(File file, boolean premium) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        // Characters the platform charset cannot encode are replaced, as a FileWriter does
+        this.encoder = Charset.defaultCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        this.plainNumbers = symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.'
+            && symbols.getMinusSign() == '-';
+        this.premium = premium;
+
+        try {
+            if (premium) {
+                // Write header for premium members
+                writeText(TABLE_BORDER);
+                writeText("|                                       PREMIUM MEMBERS LIST                                                                                                                |\n");
+                writeText(TABLE_BORDER);
+
+                // Write table header with proper formatting
+                writeText(String.format("| %-5s | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10s | %-7s | %-7s |\n",
+                    "ID", "Name", "Location", "Phone", "Trainer", "Start Date", "Plan", "Charge(£)", "Points", "Status"));
+            } else {
+                // Write header for regular members
+                writeText(TABLE_BORDER);
+                writeText("|                                     REGULAR MEMBERS LIST                                                                                                                |\n");
+                writeText(TABLE_BORDER);
+
+                // Write table header with proper formatting
+                writeText(String.format("| %-5s | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7s | %-5s | %-8s |\n",
+                    "ID", "Name", "Location", "Phone", "Email", "Start Date", "Plan", "Price(£)", "Att.", "Status"));
+            }
+            writeText(TABLE_BORDER + "\n");
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes one member as a row of the table.
+     *
+     * @param member The member to write; must match the kind of table
+     * @throws IOException if the row cannot be written
+     */
+    public void write(GymMember member) throws IOException {
+        if (premium) {
+            writePremium((PremiumMember) member);
+        } else {
+            writeRegular((RegularMember) member);
+        }
+        count++;
+    }
+
+    /**
+     * Returns the number of members written so far.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Writes the footer with the member count and closes the file.
+     *
+     * @throws IOException if the footer cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeText(TABLE_BORDER + "\n");
+            if (premium) {
+                writeText(String.format(PREMIUM_TABLE_WIDTH + "\n", "Total Premium Members: " + count));
+            } else {
+                writeText(String.format(REGULAR_TABLE_WIDTH + "\n", "Total Regular Members: " + count));
+            }
+            writeText(TABLE_BORDER);
+            encoder.encode(CharBuffer.allocate(0), bytes, true);
+            encoder.flush(bytes);
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeRegular(RegularMember regularMember) throws IOException {
+        // | %-5d | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7.2f | %-5d | %-8s |
+        append("| ");
+        appendInt(regularMember.getId(), 5);
+        append(" | ");
+        appendField(regularMember.getName(), 15, 12, 15);
+        append(" | ");
+        appendField(regularMember.getLocation(), 12, 9, 12);
+        append(" | ");
+        appendField(regularMember.getPhone(), 9, 7, 10); // Shortened from 10 characters, unlike the premium table
+        append(" | ");
+        appendField(regularMember.getEmail(), 20, 17, 20);
+        append(" | ");
+        appendField(regularMember.getMembershipStartDate(), 15, 12, 15);
+        append(" | ");
+        appendField(regularMember.getPlan(), 8, 5, 8);
+        append(" | ");
+        appendDecimal(regularMember.getPrice(), 2, 7);
+        append(" | ");
+        appendInt(regularMember.getAttendance(), 5);
+        append(" | ");
+        appendPadded(regularMember.isActiveStatus() ? "Active" : "Inactive", 8);
+        append(" |\n");
+        flushRow();
+    }
+
+    private void writePremium(PremiumMember premiumMember) throws IOException {
+        // | %-5d | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10.2f | %-7.0f | %-7s |
+        append("| ");
+        appendInt(premiumMember.getId(), 5);
+        append(" | ");
+        appendField(premiumMember.getName(), 15, 12, 15);
+        append(" | ");
+        appendField(premiumMember.getLocation(), 12, 9, 12);
+        append(" | ");
+        appendField(premiumMember.getPhone(), 10, 7, 10);
+        append(" | ");
+        appendField(premiumMember.getPersonalTrainer(), 15, 12, 15);
+        append(" | ");
+        appendField(premiumMember.getMembershipStartDate(), 15, 12, 15);
+        append(" | ");
+        appendField(premiumMember.getPlan(), 8, 5, 8);
+        append(" | ");
+        appendDecimal(premiumMember.getPremiumCharge(), 2, 10);
+        append(" | ");
+        appendDecimal(premiumMember.getLoyaltyPoints(), 0, 7);
+        append(" | ");
+        appendPadded(premiumMember.isActiveStatus() ? "Active" : "Inactive", 7);
+        append(" |\n");
+        flushRow();
+    }
+
+    /**
+     * Appends a field, shortened to its first kept characters and "..." when it
+     * is longer than limit, and padded with spaces to width.
+     */
+    private void appendField(String value, int limit, int kept, int width) {
+        if (value == null) {
+            appendPadded("null", width);
+            return;
+        }
+        int start = length;
+        if (value.length() > limit) {
+            ensureRoom(kept + 3);
+            value.getChars(0, kept, row, length);
+            length += kept;
+            append("...");
+        } else {
+            append(value);
+        }
+        pad(start, width);
+    }
+
+    private void appendPadded(String value, int width) {
+        int start = length;
+        append(value);
+        pad(start, width);
+    }
+
+    /**
+     * Appends an int left-aligned in width characters, like %-5d.
+     */
+    private void appendInt(int value, int width) {
+        int start = length;
+        if (!plainNumbers) {
+            append(String.format("%d", value));
+        } else {
+            appendLong(value);
+        }
+        pad(start, width);
+    }
+
+    /**
+     * Appends a number with the given decimal places, left-aligned in width
+     * characters, like %-7.2f.
+     */
+    private void appendDecimal(double value, int decimals, int width) {
+        int start = length;
+        boolean negativeZero = value == 0 && Double.doubleToRawLongBits(value) != 0;
+        if (plainNumbers && value == Math.rint(value) && Math.abs(value) < LARGEST_WHOLE && !negativeZero) {
+            appendLong((long) value);
+            if (decimals > 0) {
+                ensureRoom(decimals + 1);
+                row[length++] = '.';
+                for (int i = 0; i < decimals; i++) {
+                    row[length++] = '0';
+                }
+            }
+        } else {
+            append(String.format("%." + decimals + "f", value));
+        }
+        pad(start, width);
+    }
+
+    private void appendLong(long value) {
+        ensureRoom(20);
+        if (value < 0) {
+            row[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            row[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    /**
+     * Pads the text appended since start with spaces to width characters.
+     */
+    private void pad(int start, int width) {
+        int spaces = width - (length - start);
+        if (spaces > 0) {
+            ensureRoom(spaces);
+            Arrays.fill(row, length, length + spaces, ' ');
+            length += spaces;
+        }
+    }
+
+    private void append(String text) {
+        ensureRoom(text.length());
+        text.getChars(0, text.length(), row, length);
+        length += text.length();
+    }
+
+    private void ensureRoom(int extra) {
+        if (length + extra > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, length + extra));
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        append(text);
+        flushRow();
+    }
+
+    /**
+     * Encodes the row into the byte buffer, writing the buffer out whenever it fills up.
+     */
+    private void flushRow() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(row, 0, length);
+        CoderResult result;
+        while ((result = encoder.encode(chars, bytes, false)).isOverflow()) {
+            drain();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        length = 0;
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
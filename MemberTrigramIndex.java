@@ -0,0 +1,572 @@
+/**
+ * The MemberTrigramIndex class finds members from text that is only roughly
+ * right: names and places spelt differently, typing mistakes, and the values that
+ * were shortened with "..." when the members were exported to the text tables.
+ *
+ * The name, location, email address and referral source of each member are split
+ * into words (runs of letters, in lower case; numbers and single letters are
+ * left out). Every distinct word is kept once, in the vocabulary, with the list
+ * of members that use it. Each word is also broken into trigrams, the overlapping
+ * groups of three letters of the word with two spaces in front ("ram" gives
+ * "  r", " ra" and "ram"), and each trigram lists the words it occurs in.
+ *
+ * A search splits its text into words the same way. For each of them, the words
+ * of the vocabulary sharing trigrams with it are scored by how many they share:
+ *   similarity = 0.6 * shared / all + 0.4 * shared / fewer
+ * where all is the number of different trigrams of the two words together and
+ * fewer the number of trigrams of the shorter word. The second part lets a
+ * shortened word ("kathm") match the whole word. Words scoring below
+ * MIN_SIMILARITY are ignored. A member scores the similarity of its best
+ * matching word for each searched word, added up over the searched words, and
+ * the members with the highest scores are returned.
+ *
+ * There are far fewer distinct words than members, so comparing trigrams is
+ * quick, and the member lists are read in member order into reusable score
+ * arrays. Searches can run at the same time; adding a member waits for them.
+ *
+ * MemberRepository builds the index the first time it is searched and adds each
+ * new member from then on. Reverting a member does not change the indexed fields.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class MemberTrigramIndex {
+    static final double MIN_SIMILARITY = 0.4;
+
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final int[] EMPTY = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Members in the order they were indexed; a member's position is its number in the lists below
+    private GymMember[] members;
+    private int memberCount;
+
+    // The vocabulary: words[w] is word number w, wordMembers[w] the positions of the
+    // members using it (ascending, wordMemberCounts[w] of them), wordTrigramCounts[w]
+    // the number of different trigrams of the word
+    private String[] words = new String[1024];
+    private int wordCount;
+    private int[][] wordMembers = new int[1024][];
+    private int[] wordMemberCounts = new int[1024];
+    private int[] wordTrigramCounts = new int[1024];
+    // Open-addressing table from a word to its number plus one (0 for an empty slot)
+    private int[] wordSlots = new int[2048];
+
+    // Open-addressing table from a trigram to the numbers of the words it occurs in
+    private long[] trigramKeys = new long[4096];
+    private int[][] trigramWords = new int[4096][];
+    private int[] trigramWordCounts = new int[4096];
+    private int trigramCount;
+
+    // Score arrays of finished searches, kept for the next ones
+    private final ConcurrentLinkedQueue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param expectedCount The number of members expected
+     */
+    MemberTrigramIndex(int expectedCount) {
+        members = new GymMember[Math.max(16, expectedCount)];
+    }
+
+    /**
+     * Adds a member to the index. Called while holding the repository lock.
+     */
+    void add(GymMember member) {
+        lock.writeLock().lock();
+        try {
+            if (memberCount == members.length) {
+                members = Arrays.copyOf(members, memberCount * 2);
+            }
+            int position = memberCount++;
+            members[position] = member;
+
+            char[] buffer = new char[64];
+            addWords(member.getName(), position, buffer);
+            addWords(member.getLocation(), position, buffer);
+            addWords(member.getEmail(), position, buffer);
+            addWords(referralSourceOf(member), position, buffer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts a new copy of a member in place of the old one, if the indexed text
+     * of the two is the same. Called while holding the repository lock.
+     *
+     * @param position The member's position, the order in which it was added
+     * @return true if the copy was put in place, false if its text differs and
+     *         the index has to be built again
+     */
+    boolean replace(int position, GymMember old, GymMember member) {
+        if (position >= memberCount || members[position] != old
+                || !Objects.equals(old.getName(), member.getName())
+                || !Objects.equals(old.getLocation(), member.getLocation())
+                || !Objects.equals(old.getEmail(), member.getEmail())
+                || !Objects.equals(referralSourceOf(old), referralSourceOf(member))) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            members[position] = member;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    int size() {
+        return memberCount;
+    }
+
+    /**
+     * Finds the members that best match the text.
+     *
+     * @param text The text to look for, in any case and with any punctuation
+     * @param limit The most members to return
+     * @return The best matching members, best first; members with the same score
+     *         are in the order they were added
+     */
+    GymMember[] search(String text, int limit) {
+        String[] queryWords = splitWords(text);
+        if (queryWords.length == 0 || limit <= 0) {
+            return new GymMember[0];
+        }
+        lock.readLock().lock();
+        Scratch scratch = takeScratch();
+        try {
+            scratch.startSearch();
+            for (String queryWord : queryWords) {
+                scoreWord(queryWord, scratch);
+            }
+            return best(scratch, limit);
+        } finally {
+            scratches.offer(scratch);
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the score of one searched word to every member with a word like it.
+     */
+    private void scoreWord(String queryWord, Scratch scratch) {
+        long[] trigrams = trigramsOf(queryWord);
+        scratch.startWord();
+
+        // Count the trigrams each word of the vocabulary shares with the searched word
+        int touchedWords = 0;
+        for (long trigram : trigrams) {
+            int slot = findTrigram(trigram);
+            if (trigramWords[slot] == null) {
+                continue;
+            }
+            int[] list = trigramWords[slot];
+            for (int i = 0; i < trigramWordCounts[slot]; i++) {
+                int word = list[i];
+                if (scratch.wordStamps[word] != scratch.wordStamp) {
+                    scratch.wordStamps[word] = scratch.wordStamp;
+                    scratch.shared[word] = 0;
+                    scratch.touchedWords[touchedWords++] = word;
+                }
+                scratch.shared[word]++;
+            }
+        }
+
+        for (int t = 0; t < touchedWords; t++) {
+            int word = scratch.touchedWords[t];
+            int shared = scratch.shared[word];
+            int all = trigrams.length + wordTrigramCounts[word] - shared;
+            int fewer = Math.min(trigrams.length, wordTrigramCounts[word]);
+            float similarity = (float) (0.6 * shared / all + 0.4 * shared / fewer);
+            if (similarity < MIN_SIMILARITY) {
+                continue;
+            }
+            int[] positions = wordMembers[word];
+            for (int i = 0; i < wordMemberCounts[word]; i++) {
+                scratch.score(positions[i], similarity);
+            }
+        }
+    }
+
+    /**
+     * Picks the members with the highest scores, with a heap of the best found so far.
+     */
+    private GymMember[] best(Scratch scratch, int limit) {
+        int size = Math.min(limit, scratch.touchedCount);
+        int[] heap = new int[size]; // Positions, the worst of the best at the top
+        int count = 0;
+        for (int i = 0; i < scratch.touchedCount; i++) {
+            int position = scratch.touched[i];
+            if (count < size) {
+                heap[count] = position;
+                siftUp(heap, count++, scratch.scores);
+            } else if (isBetter(position, heap[0], scratch.scores)) {
+                heap[0] = position;
+                siftDown(heap, count, scratch.scores);
+            }
+        }
+        GymMember[] found = new GymMember[count];
+        while (count > 0) {
+            found[count - 1] = members[heap[0]];
+            heap[0] = heap[--count];
+            siftDown(heap, count, scratch.scores);
+        }
+        return found;
+    }
+
+    private static boolean isBetter(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        int position = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBetter(heap[parent], position, scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = position;
+    }
+
+    private static void siftDown(int[] heap, int count, float[] scores) {
+        if (count == 0) {
+            return;
+        }
+        int position = heap[0];
+        int index = 0;
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && isBetter(heap[child], heap[child + 1], scores)) {
+                child++;
+            }
+            if (!isBetter(position, heap[child], scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = position;
+    }
+
+    /**
+     * Adds every word of a field to the index for the member at the given position.
+     */
+    private void addWords(String field, int position, char[] buffer) {
+        if (field == null) {
+            return;
+        }
+        int length = field.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetter(field.charAt(i))) {
+                i++;
+            }
+            int wordLength = 0;
+            while (i < length && Character.isLetter(field.charAt(i))) {
+                if (wordLength == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, wordLength * 2);
+                }
+                buffer[wordLength++] = Character.toLowerCase(field.charAt(i++));
+            }
+            if (wordLength >= MIN_WORD_LENGTH) {
+                int word = wordNumber(buffer, wordLength);
+                addPosting(word, position);
+            }
+        }
+    }
+
+    /**
+     * Adds a member position to a word's list, once; the same member can use a
+     * word in several fields.
+     */
+    private void addPosting(int word, int position) {
+        int count = wordMemberCounts[word];
+        int[] list = wordMembers[word];
+        if (count > 0 && list[count - 1] == position) {
+            return;
+        }
+        if (count == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, count * 2));
+            wordMembers[word] = list;
+        }
+        list[count] = position;
+        wordMemberCounts[word] = count + 1;
+    }
+
+    /**
+     * Returns the number of a word, adding it to the vocabulary if it is new.
+     */
+    private int wordNumber(char[] buffer, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int mask = wordSlots.length - 1;
+        int slot = spread(hash) & mask;
+        int entry;
+        while ((entry = wordSlots[slot]) != 0) {
+            String word = words[entry - 1];
+            if (word.length() == length && sameChars(word, buffer, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int number = wordCount++;
+        if (number == words.length) {
+            int grown = number * 2;
+            words = Arrays.copyOf(words, grown);
+            wordMembers = Arrays.copyOf(wordMembers, grown);
+            wordMemberCounts = Arrays.copyOf(wordMemberCounts, grown);
+            wordTrigramCounts = Arrays.copyOf(wordTrigramCounts, grown);
+        }
+        String word = new String(buffer, 0, length);
+        words[number] = word;
+        wordMembers[number] = EMPTY;
+        wordSlots[slot] = number + 1;
+        if (wordCount * 2 > wordSlots.length) {
+            rehashWords();
+        }
+
+        long[] trigrams = trigramsOf(word);
+        wordTrigramCounts[number] = trigrams.length;
+        for (long trigram : trigrams) {
+            addTrigram(trigram, number);
+        }
+        return number;
+    }
+
+    private void addTrigram(long trigram, int word) {
+        int slot = findTrigram(trigram);
+        if (trigramWords[slot] == null) {
+            trigramKeys[slot] = trigram;
+            trigramWords[slot] = new int[4];
+            trigramCount++;
+        }
+        int count = trigramWordCounts[slot];
+        if (count == trigramWords[slot].length) {
+            trigramWords[slot] = Arrays.copyOf(trigramWords[slot], count * 2);
+        }
+        trigramWords[slot][count] = word;
+        trigramWordCounts[slot] = count + 1;
+        if (trigramCount * 2 > trigramKeys.length) {
+            rehashTrigrams();
+        }
+    }
+
+    /**
+     * Returns the slot of a trigram, or the empty slot where it would go.
+     */
+    private int findTrigram(long trigram) {
+        int mask = trigramKeys.length - 1;
+        int slot = spread(Long.hashCode(trigram)) & mask;
+        while (trigramWords[slot] != null && trigramKeys[slot] != trigram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehashWords() {
+        int[] grown = new int[wordSlots.length * 2];
+        int mask = grown.length - 1;
+        for (int number = 0; number < wordCount; number++) {
+            int slot = spread(words[number].hashCode()) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = number + 1;
+        }
+        wordSlots = grown;
+    }
+
+    private void rehashTrigrams() {
+        long[] oldKeys = trigramKeys;
+        int[][] oldWords = trigramWords;
+        int[] oldCounts = trigramWordCounts;
+        trigramKeys = new long[oldKeys.length * 2];
+        trigramWords = new int[oldKeys.length * 2][];
+        trigramWordCounts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldWords[i] != null) {
+                int slot = findTrigram(oldKeys[i]);
+                trigramKeys[slot] = oldKeys[i];
+                trigramWords[slot] = oldWords[i];
+                trigramWordCounts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private Scratch takeScratch() {
+        Scratch scratch = scratches.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        scratch.fit(memberCount, wordCount);
+        return scratch;
+    }
+
+    /**
+     * The working arrays of one search. Stamps tell which entries belong to the
+     * current search, so the arrays never have to be cleared; the stamps only
+     * ever go up, and new arrays start at 0, below every stamp in use.
+     */
+    private static class Scratch {
+        float[] scores = new float[0];
+        // The score the current searched word has given each member so far
+        float[] wordScores = new float[0];
+        int[] searchStamps = new int[0];
+        int[] memberWordStamps = new int[0];
+        int[] touched = new int[0];
+        int touchedCount;
+
+        int[] shared = new int[0];
+        int[] wordStamps = new int[0];
+        int[] touchedWords = new int[0];
+
+        int searchStamp;
+        int wordStamp;
+
+        void fit(int memberCount, int wordCount) {
+            if (scores.length < memberCount) {
+                int size = memberCount + memberCount / 4;
+                scores = new float[size];
+                wordScores = new float[size];
+                searchStamps = new int[size];
+                memberWordStamps = new int[size];
+                touched = new int[size];
+            }
+            if (shared.length < wordCount) {
+                int size = wordCount + wordCount / 4;
+                shared = new int[size];
+                wordStamps = new int[size];
+                touchedWords = new int[size];
+            }
+        }
+
+        void startSearch() {
+            searchStamp++;
+            touchedCount = 0;
+        }
+
+        void startWord() {
+            wordStamp++;
+        }
+
+        /**
+         * Gives a member the similarity of a word it uses, keeping only the best
+         * similarity for each searched word.
+         */
+        void score(int position, float similarity) {
+            if (searchStamps[position] != searchStamp) {
+                searchStamps[position] = searchStamp;
+                scores[position] = 0;
+                touched[touchedCount++] = position;
+            }
+            if (memberWordStamps[position] != wordStamp) {
+                memberWordStamps[position] = wordStamp;
+                wordScores[position] = similarity;
+                scores[position] += similarity;
+            } else if (similarity > wordScores[position]) {
+                scores[position] += similarity - wordScores[position];
+                wordScores[position] = similarity;
+            }
+        }
+    }
+
+    /**
+     * Splits text into the words that are indexed: runs of letters, in lower
+     * case, of at least MIN_WORD_LENGTH letters.
+     */
+    static String[] splitWords(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String[] found = new String[4];
+        int count = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetter(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetter(text.charAt(i))) {
+                i++;
+            }
+            if (i - start >= MIN_WORD_LENGTH) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                // Lowered one char at a time, as addWords does, so the words match
+                // the indexed ones whatever the default locale
+                char[] word = new char[i - start];
+                for (int c = 0; c < word.length; c++) {
+                    word[c] = Character.toLowerCase(text.charAt(start + c));
+                }
+                found[count++] = new String(word);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Returns the different trigrams of a lower-case word, each packed into a long.
+     */
+    private static long[] trigramsOf(String word) {
+        long[] trigrams = new long[word.length()];
+        char first = ' ';
+        char second = ' ';
+        for (int i = 0; i < word.length(); i++) {
+            char third = word.charAt(i);
+            trigrams[i] = ((long) first << 32) | ((long) second << 16) | third;
+            first = second;
+            second = third;
+        }
+        Arrays.sort(trigrams);
+        int count = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[count++] = trigrams[i];
+            }
+        }
+        return count == trigrams.length ? trigrams : Arrays.copyOf(trigrams, count);
+    }
+
+    private static String referralSourceOf(GymMember member) {
+        if (member instanceof PremiumMember) {
+            return ((PremiumMember) member).getReferralSource();
+        } else if (member instanceof RegularMember) {
+            return ((RegularMember) member).getReferralSource();
+        }
+        return null;
+    }
+
+    private static boolean sameChars(String word, char[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * The MemberView class is a live list of the members of a MemberRepository
+ * that match a filter, such as "active premium members with unpaid dues". The
+ * filter is checked against every member once, when the view is made, and
+ * after that only against the members that change: the repository passes every
+ * change on to its views, which add or drop the member. Reading a view costs as
+ * much as the members in it, and counting them costs nothing.
+ *
+ * Most changes are check-ins, which cannot change whether a member matches most
+ * filters. A view can therefore be told which kinds of change its filter
+ * depends on; other changes are ignored. New members and members read back
+ * from saved files are always checked.
+ *
+ * The filter is checked while holding the view's lock, and can be called from
+ * any thread that changes a member, sometimes while the member or the
+ * repository is locked. It must only read the member through its accessors,
+ * which never block, and never change anything. Checking while holding the lock
+ * means that the last check of a member always sees its latest state, even if
+ * two threads change the member at once.
+ *
+ * The members are kept in an array, in no particular order, with a hash table
+ * from member ID to position in the array, so a member is added or dropped by
+ * moving at most one other member.
+ *
+ * Views are made with MemberRepository.createView.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public class MemberView {
+    private final Predicate<GymMember> filter;
+    private final Set<MemberChange> changes;
+
+    // The members in the view, in the first count places; changed while holding this
+    private GymMember[] members = new GymMember[16];
+    private volatile int count;
+    // Open-addressing table from member ID to position in members plus one (0 for an empty slot)
+    private int[] slotIds = new int[32];
+    private int[] slotPositions = new int[32];
+
+    /**
+     * Creates an empty view. Called by MemberRepository, which then fills it.
+     *
+     * @param filter The filter members must match
+     * @param changes The kinds of change after which a member is checked again
+     */
+    MemberView(Predicate<GymMember> filter, Set<MemberChange> changes) {
+        this.filter = filter;
+        this.changes = EnumSet.copyOf(changes);
+        this.changes.add(MemberChange.ADDED);
+    }
+
+    /**
+     * Returns the number of members in the view.
+     */
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the members in the view, in no particular order.
+     */
+    public synchronized GymMember[] toArray() {
+        return Arrays.copyOf(members, count);
+    }
+
+    /**
+     * Checks whether a member is in the view.
+     *
+     * @param member The member to look for
+     * @return true if the member is in the view
+     */
+    public synchronized boolean contains(GymMember member) {
+        int slot = findSlot(member.getId());
+        return slotPositions[slot] != 0 && members[slotPositions[slot] - 1] == member;
+    }
+
+    /**
+     * Checks a member again after a change, if the view depends on that kind of change.
+     */
+    void memberChanged(GymMember member, MemberChange change) {
+        if (changes.contains(change)) {
+            check(member);
+        }
+    }
+
+    /**
+     * Adds the member to the view or drops it, depending on whether it matches
+     * the filter now.
+     */
+    synchronized void check(GymMember member) {
+        if (filter.test(member)) {
+            put(member);
+        } else {
+            drop(member.getId());
+        }
+    }
+
+    /**
+     * Puts a new copy of a member in place of the old one, checking it again.
+     */
+    synchronized void replace(GymMember old, GymMember member) {
+        drop(old.getId());
+        if (filter.test(member)) {
+            put(member);
+        }
+    }
+
+    /**
+     * Empties the view and checks every member of the given list.
+     */
+    synchronized void rebuild(Iterable<GymMember> all) {
+        members = new GymMember[16];
+        count = 0;
+        slotIds = new int[32];
+        slotPositions = new int[32];
+        for (GymMember member : all) {
+            if (filter.test(member)) {
+                put(member);
+            }
+        }
+    }
+
+    private void put(GymMember member) {
+        int slot = findSlot(member.getId());
+        if (slotPositions[slot] != 0) {
+            members[slotPositions[slot] - 1] = member;
+            return;
+        }
+        if (count == members.length) {
+            members = Arrays.copyOf(members, count * 2);
+        }
+        members[count] = member;
+        slotIds[slot] = member.getId();
+        slotPositions[slot] = count + 1;
+        count++;
+        if (count * 2 > slotIds.length) {
+            rehash(slotIds.length * 2);
+        }
+    }
+
+    /**
+     * Drops the member with the given ID, if it is in the view. The last member
+     * in the array takes its place, and the slot is emptied by moving later
+     * members of its probe chain back, so no removed markers are needed.
+     */
+    private void drop(int id) {
+        int slot = findSlot(id);
+        int position = slotPositions[slot];
+        if (position == 0) {
+            return;
+        }
+        int last = count - 1;
+        if (position - 1 != last) {
+            GymMember moved = members[last];
+            members[position - 1] = moved;
+            slotPositions[findSlot(moved.getId())] = position;
+        }
+        members[last] = null;
+        count = last;
+
+        int mask = slotIds.length - 1;
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        while (slotPositions[next] != 0) {
+            int home = spread(slotIds[next]) & mask;
+            // Move the entry back if its home slot is not between the empty slot and itself
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                slotIds[empty] = slotIds[next];
+                slotPositions[empty] = slotPositions[next];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotIds[empty] = 0;
+        slotPositions[empty] = 0;
+    }
+
+    /**
+     * Returns the slot of a member ID, or the empty slot where it would go.
+     */
+    private int findSlot(int id) {
+        int mask = slotIds.length - 1;
+        int slot = spread(id) & mask;
+        while (slotPositions[slot] != 0 && slotIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        slotIds = new int[capacity];
+        slotPositions = new int[capacity];
+        for (int i = 0; i < count; i++) {
+            int slot = findSlot(members[i].getId());
+            slotIds[slot] = members[i].getId();
+            slotPositions[slot] = i + 1;
+        }
+    }
+
+    private static int spread(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
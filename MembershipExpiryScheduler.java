@@ -0,0 +1,555 @@
+/**
+ * The MembershipExpiryScheduler class deactivates memberships that have not
+ * been renewed in time. Every active member has a renewal day; on that day,
+ * unless the membership was renewed first, the member is deactivated through
+ * deactivateMembership, just as if the Deactivate button had been pressed, so
+ * the change is recorded in the member journal and passed on to the views.
+ *
+ * A membership runs for a term of whole months. A member's renewal day is kept
+ * on the member (GymMember.getRenewalDay), so it is saved in the snapshot and
+ * the journal like any other change. An active member that has none yet, when
+ * it is added or when the scheduler is given the members (scheduleAll), is due
+ * on the first term boundary on or after today counted from its membership
+ * start date, or a full term from today if it has no start date; a day given
+ * by scheduleAll is not journaled, so loading the members writes nothing.
+ * Activating a member, which is how the front desk renews a membership, makes
+ * it due a term from the scheduler's current day; deactivating or reverting it
+ * cancels its renewal day. A renewal day that passed while the program was
+ * not running is scheduled for today, so the first advanceTo after loading
+ * deactivates it.
+ *
+ * The renewal days are kept in a hierarchical timing wheel of days, so the
+ * work done for a member does not grow with the number of members: scheduling,
+ * renewing and cancelling each take constant time, and nothing is done for a
+ * member on the days it is not due. The wheel has LEVELS rings of SLOTS slots.
+ * A ring covers SLOTS times as many days as the ring below it, and a member is
+ * kept in the lowest ring whose span still tells its renewal day apart from
+ * today: the first ring holds the members due in the next few weeks, one slot
+ * per day, the second one slot per SLOTS days, and so on. When the days reach
+ * the start of a slot of a higher ring, its members are moved down to the ring
+ * below, which happens at most LEVELS - 1 times per member. Passing a day only
+ * looks at the one slot of the first ring for that day. Each slot is a doubly
+ * linked list of entries, and the entries, their links and a table of entries
+ * by member ID are kept in int arrays: about 35 bytes per member, and no
+ * object per member.
+ *
+ * Members that are due are deactivated in batches of BATCH_SIZE: a batch is
+ * taken off the wheel while holding the scheduler, and the members are then
+ * deactivated without it, each under its own lock. A member renewed in the
+ * meantime is left active.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.Closeable;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class MembershipExpiryScheduler implements Closeable {
+    public static final int DEFAULT_TERM_MONTHS = 12;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int BATCH_SIZE = 1024;
+    private static final long CHECK_INTERVAL_MILLIS = 60_000;
+    private static final int NONE = -1;
+
+    private final MemberRepository members;
+    private final int termMonths;
+    private final MemberChangeListener listener = this::memberChanged;
+    private Thread checkThread;
+
+    // The last day the wheel has been turned to; every member due on it or before has been taken off
+    private int today;
+    // The first entry of each slot, heads[level * SLOTS + slot], or NONE
+    private final int[] heads = new int[LEVELS * SLOTS];
+    // The entries: the member ID, its renewal day and the links of its slot's list;
+    // entryNext also links the free entries, starting at freeEntry
+    private int[] entryIds = new int[1024];
+    private int[] entryDays = new int[1024];
+    private int[] entryNext = new int[1024];
+    private int[] entryPrev = new int[1024];
+    private int usedEntries;
+    private int freeEntry = NONE;
+    // Open-addressing table of entries by member ID; tableEntries[slot] is the entry plus one, or 0 if empty
+    private int[] tableIds = new int[2048];
+    private int[] tableEntries = new int[2048];
+    private int size;
+
+    /**
+     * Creates a scheduler for the members of a repository and starts following
+     * their changes. Call scheduleAll to schedule the members already there, and
+     * start to deactivate members on a background thread as the days pass.
+     *
+     * @param members The members
+     * @param termMonths The length of a membership term in months
+     * @param today The current day
+     */
+    public MembershipExpiryScheduler(MemberRepository members, int termMonths, LocalDate today) {
+        if (termMonths <= 0) {
+            throw new IllegalArgumentException("The term must be at least one month");
+        }
+        this.members = members;
+        this.termMonths = termMonths;
+        this.today = toDay(today);
+        Arrays.fill(heads, NONE);
+        members.addChangeListener(listener);
+    }
+
+    /**
+     * Schedules every active member of the repository on its saved renewal
+     * day, in place of the renewal days scheduled so far; members without one
+     * are given one from their membership start date. Used after the members
+     * have been loaded; call advanceTo afterwards to deactivate the members
+     * whose renewal day passed while the program was not running.
+     *
+     * Nothing is journaled and no member is marked changed: a renewal day
+     * given here is kept on the member without firing RENEWED, so it is saved
+     * with the next full snapshot and worked out the same way until then.
+     */
+    public void scheduleAll() {
+        LocalDate current;
+        synchronized (this) {
+            Arrays.fill(heads, NONE);
+            Arrays.fill(tableEntries, 0);
+            usedEntries = 0;
+            freeEntry = NONE;
+            size = 0;
+            current = LocalDate.ofEpochDay(today);
+        }
+        for (GymMember member : members) {
+            // Member first, then the scheduler, as when the member changes
+            synchronized (member) {
+                if (member.isActiveStatus()) {
+                    int renewalDay = member.getRenewalDay();
+                    if (renewalDay == GymMember.NO_DATE) {
+                        renewalDay = firstRenewalDay(member, current);
+                        member.restoreRenewalDay(renewalDay);
+                    }
+                    synchronized (this) {
+                        add(member.getId(), renewalDay);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the day a member is due to renew, in place of any renewal day it had.
+     * The member is deactivated on that day unless it is renewed first.
+     *
+     * @param id The member's ID
+     * @param renewalDay The renewal day
+     */
+    public synchronized void schedule(int id, LocalDate renewalDay) {
+        add(id, toDay(renewalDay));
+    }
+
+    /**
+     * Cancels a member's renewal day, so it is not deactivated.
+     *
+     * @param id The member's ID
+     * @return false if the member had no renewal day
+     */
+    public synchronized boolean cancel(int id) {
+        int slot = findSlot(id);
+        if (tableEntries[slot] == 0) {
+            return false;
+        }
+        int entry = tableEntries[slot] - 1;
+        removeSlot(slot);
+        unlink(entry);
+        freeEntry(entry);
+        return true;
+    }
+
+    /**
+     * Returns the day a member is due to renew.
+     *
+     * @param id The member's ID
+     * @return The renewal day, or null if the member has none
+     */
+    public synchronized LocalDate getRenewalDay(int id) {
+        int slot = findSlot(id);
+        return tableEntries[slot] == 0 ? null : LocalDate.ofEpochDay(entryDays[tableEntries[slot] - 1]);
+    }
+
+    /**
+     * Returns the number of members with a renewal day.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Turns the wheel on to the given day and deactivates every member due on
+     * it or before, in batches.
+     *
+     * @param day The current day; a day before the last one given only
+     *            deactivates the members scheduled since for a day already past
+     * @return The number of members deactivated
+     */
+    public int advanceTo(LocalDate day) {
+        int target = toDay(day);
+        int[] batch = new int[BATCH_SIZE];
+        int deactivated = 0;
+        int count;
+        do {
+            synchronized (this) {
+                count = takeDue(target, batch);
+            }
+            for (int i = 0; i < count; i++) {
+                if (deactivate(batch[i])) {
+                    deactivated++;
+                }
+            }
+        } while (count == BATCH_SIZE);
+        return deactivated;
+    }
+
+    /**
+     * Starts a background thread that turns the wheel to the current day every
+     * minute. Calling this again has no effect.
+     */
+    public synchronized void start() {
+        if (checkThread != null) {
+            return;
+        }
+        checkThread = new Thread(this::checkLoop, "membership-expiry");
+        checkThread.setDaemon(true);
+        checkThread.start();
+    }
+
+    /**
+     * Stops the background thread and stops following the members' changes.
+     */
+    @Override
+    public void close() {
+        members.removeChangeListener(listener);
+        Thread thread;
+        synchronized (this) {
+            thread = checkThread;
+            checkThread = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void checkLoop() {
+        while (true) {
+            try {
+                int deactivated = advanceTo(LocalDate.now());
+                if (deactivated > 0) {
+                    System.out.println("Deactivated " + deactivated + " lapsed memberships");
+                }
+                Thread.sleep(CHECK_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error deactivating lapsed memberships: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Follows the changes to the members: adding an active member, activating
+     * a member or giving it a renewal day schedules it, deactivating or
+     * reverting it cancels it.
+     */
+    private void memberChanged(GymMember member, MemberChange change) {
+        switch (change) {
+            case ADDED:
+                if (member.isActiveStatus()) {
+                    schedule(member, currentDay());
+                }
+                break;
+            case ACTIVATED:
+                int renewalDay = toDay(currentDay().plusMonths(termMonths));
+                member.renewUntil(renewalDay);
+                synchronized (this) {
+                    add(member.getId(), renewalDay);
+                }
+                break;
+            case RENEWED:
+                // Also told when the scheduler gives a member its renewal day
+                if (member.isActiveStatus()) {
+                    synchronized (this) {
+                        add(member.getId(), member.getRenewalDay());
+                    }
+                }
+                break;
+            case DEACTIVATED:
+            case REVERTED:
+                cancel(member.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Schedules a newly added active member on its renewal day, giving it one
+     * first if it has none. Called while holding the member, not the scheduler.
+     */
+    private void schedule(GymMember member, LocalDate current) {
+        int renewalDay = member.getRenewalDay();
+        if (renewalDay == GymMember.NO_DATE) {
+            renewalDay = firstRenewalDay(member, current);
+            member.renewUntil(renewalDay);
+        }
+        synchronized (this) {
+            add(member.getId(), renewalDay);
+        }
+    }
+
+    private synchronized LocalDate currentDay() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    /**
+     * Deactivates a member taken off the wheel, unless it has been renewed since.
+     *
+     * @return true if the member was deactivated
+     */
+    private boolean deactivate(int id) {
+        GymMember member = members.findById(id);
+        if (member == null) {
+            return false;
+        }
+        // Renewing takes the member's lock and then the scheduler's, so holding the
+        // member's lock here keeps a renewal from slipping in between
+        synchronized (member) {
+            synchronized (this) {
+                if (tableEntries[findSlot(id)] != 0) {
+                    return false;
+                }
+            }
+            if (!member.isActiveStatus()) {
+                return false;
+            }
+            member.deactivateMembership();
+            return true;
+        }
+    }
+
+    /**
+     * Returns the first term boundary on or after the given day, counted from
+     * the member's start date, or a full term from the day if it has no start
+     * date. A boundary on the day itself is due that day rather than a term later.
+     */
+    private int firstRenewalDay(GymMember member, LocalDate current) {
+        if (member.getMembershipStartDay() == GymMember.NO_DATE) {
+            return toDay(current.plusMonths(termMonths));
+        }
+        LocalDate start = LocalDate.ofEpochDay(member.getMembershipStartDay());
+        long months = (current.getYear() - start.getYear()) * 12L + current.getMonthValue() - start.getMonthValue();
+        // The boundary at or just before months is on or before the day (or after
+        // it by less than a month), so at most one more term is needed
+        long terms = Math.max(1, months / termMonths);
+        LocalDate renewal = start.plusMonths(terms * termMonths);
+        while (renewal.isBefore(current)) {
+            terms++;
+            renewal = start.plusMonths(terms * termMonths);
+        }
+        return toDay(renewal);
+    }
+
+    /**
+     * Takes the members due on or before the target day off the wheel, turning
+     * it a day at a time, until the batch is full.
+     *
+     * @return The number of member IDs put in the batch
+     */
+    private int takeDue(int target, int[] batch) {
+        int count = 0;
+        while (true) {
+            int head = SLOT_MASK & today;
+            while (heads[head] != NONE && count < batch.length) {
+                int entry = heads[head];
+                batch[count++] = entryIds[entry];
+                removeSlot(findSlot(entryIds[entry]));
+                unlink(entry);
+                freeEntry(entry);
+            }
+            if (count == batch.length || today >= target) {
+                return count;
+            }
+            if (size == 0) {
+                today = target;
+                continue;
+            }
+            today++;
+            // Higher rings first, so their members can move all the way down to today's slot
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((today & ((1 << shift) - 1)) == 0) {
+                    cascade(level * SLOTS + ((today >>> shift) & SLOT_MASK));
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the members of a slot of a higher ring down to the rings below.
+     */
+    private void cascade(int head) {
+        int entry = heads[head];
+        heads[head] = NONE;
+        while (entry != NONE) {
+            int next = entryNext[entry];
+            link(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * Schedules a member, replacing the entry it had. Called while holding this.
+     */
+    private void add(int id, int day) {
+        int slot = findSlot(id);
+        int entry;
+        if (tableEntries[slot] != 0) {
+            entry = tableEntries[slot] - 1;
+            unlink(entry);
+        } else {
+            entry = newEntry();
+            entryIds[entry] = id;
+            // newEntry may have grown the arrays, but not the table
+            tableIds[slot] = id;
+            tableEntries[slot] = entry + 1;
+            size++;
+            if (size * 2 > tableIds.length) {
+                rehash(tableIds.length * 2);
+            }
+        }
+        entryDays[entry] = day;
+        link(entry);
+    }
+
+    /**
+     * Puts an entry at the front of the slot for its day: the lowest ring
+     * whose span holds every day from today to the entry's, or today's slot if
+     * the day has passed.
+     */
+    private void link(int entry) {
+        int day = entryDays[entry];
+        int head;
+        if (day <= today) {
+            head = today & SLOT_MASK;
+        } else {
+            int differing = day ^ today;
+            int level = 0;
+            while (level < LEVELS - 1 && (differing >>> (SLOT_BITS * (level + 1))) != 0) {
+                level++;
+            }
+            head = level * SLOTS + ((day >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        int first = heads[head];
+        entryNext[entry] = first;
+        // A negative link is the slot's head, -1 - head, so unlinking needs no search
+        entryPrev[entry] = -1 - head;
+        if (first != NONE) {
+            entryPrev[first] = entry;
+        }
+        heads[head] = entry;
+    }
+
+    private void unlink(int entry) {
+        int prev = entryPrev[entry];
+        int next = entryNext[entry];
+        if (prev < 0) {
+            heads[-1 - prev] = next;
+        } else {
+            entryNext[prev] = next;
+        }
+        if (next != NONE) {
+            entryPrev[next] = prev;
+        }
+    }
+
+    private int newEntry() {
+        if (freeEntry != NONE) {
+            int entry = freeEntry;
+            freeEntry = entryNext[entry];
+            return entry;
+        }
+        if (usedEntries == entryIds.length) {
+            int capacity = usedEntries * 2;
+            entryIds = Arrays.copyOf(entryIds, capacity);
+            entryDays = Arrays.copyOf(entryDays, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+            entryPrev = Arrays.copyOf(entryPrev, capacity);
+        }
+        return usedEntries++;
+    }
+
+    private void freeEntry(int entry) {
+        entryNext[entry] = freeEntry;
+        freeEntry = entry;
+    }
+
+    /**
+     * Returns the table slot of a member ID, or the empty slot where it would go.
+     */
+    private int findSlot(int id) {
+        int mask = tableIds.length - 1;
+        int slot = hash(id) & mask;
+        while (tableEntries[slot] != 0 && tableIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a table slot, moving later members of the probe sequence back
+     * so that none of them is cut off from its home slot.
+     */
+    private void removeSlot(int slot) {
+        int mask = tableIds.length - 1;
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        while (tableEntries[next] != 0) {
+            int home = hash(tableIds[next]) & mask;
+            // The member at next may fill the gap if its home is not between the gap and next
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                tableIds[empty] = tableIds[next];
+                tableEntries[empty] = tableEntries[next];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        tableEntries[empty] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldIds = tableIds;
+        int[] oldEntries = tableEntries;
+        tableIds = new int[capacity];
+        tableEntries = new int[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldEntries[i] != 0) {
+                int slot = findSlot(oldIds[i]);
+                tableIds[slot] = oldIds[i];
+                tableEntries[slot] = oldEntries[i];
+            }
+        }
+    }
+
+    private static int toDay(LocalDate day) {
+        return Math.toIntExact(day.toEpochDay());
+    }
+
+    /**
+     * Spreads the bits of the ID so that sequential IDs do not fall into
+     * neighbouring slots and build long probe chains.
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
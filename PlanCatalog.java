@@ -0,0 +1,279 @@
+/**
+ * The PlanCatalog class is the price list of the membership plans: the name of
+ * every plan, what it costs a regular member and what it costs a premium member.
+ *
+ * The plans are read from a text file, "plans.txt" in the working directory,
+ * with one plan per line:
+ *   # Plan     Regular price   Premium charge
+ *   Basic      6500            50000
+ *   Standard   12500           75000
+ *   Deluxe     18500           100000
+ * Blank lines and lines starting with # are ignored. The first plan is the one
+ * new and reverted regular members are put on. Without the file, the plans above
+ * are used.
+ *
+ * Each plan has a number, its position in the file, and the prices are kept in
+ * arrays indexed by that number. Finding a plan by name compares the name with
+ * each plan in turn, ignoring case, without making a lower-case copy, so a price
+ * lookup creates no objects. Members keep the catalog's own String for their
+ * plan name (see intern), so a million members share three plan name strings,
+ * and the lookup usually matches on the first comparison by reference.
+ *
+ * A catalog never changes once it is made. Reloading the file makes a new
+ * catalog and publishes it in one volatile write, so code that takes current()
+ * once sees one consistent price list. Prices already agreed with a member stay
+ * as they are when the file changes; the new prices apply to later upgrades.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlanCatalog {
+    public static final String DEFAULT_FILE_NAME = "plans.txt";
+
+    // How often watch checks whether the file has changed
+    private static final long WATCH_INTERVAL_MILLIS = 2000;
+
+    private static final PlanCatalog DEFAULTS = new PlanCatalog(
+        new String[] {"Basic", "Standard", "Deluxe"},
+        new double[] {6500, 12500, 18500},
+        new double[] {50000, 75000, 100000});
+
+    private static volatile PlanCatalog current = DEFAULTS;
+    private static Thread watchThread;
+
+    private final String[] names;
+    private final double[] regularPrices;
+    private final double[] premiumCharges;
+
+    private PlanCatalog(String[] names, double[] regularPrices, double[] premiumCharges) {
+        this.names = names;
+        this.regularPrices = regularPrices;
+        this.premiumCharges = premiumCharges;
+    }
+
+    /**
+     * Returns the price list in use.
+     */
+    public static PlanCatalog current() {
+        return current;
+    }
+
+    /**
+     * Returns the price list that is used when there is no plans file.
+     */
+    public static PlanCatalog defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Reads a plans file and makes it the price list in use.
+     *
+     * @param file The plans file
+     * @return The new price list
+     * @throws IOException if the file cannot be read or a line is not a valid plan;
+     *                     the price list in use is then left as it was
+     */
+    public static PlanCatalog load(File file) throws IOException {
+        PlanCatalog catalog = read(file);
+        current = catalog;
+        return catalog;
+    }
+
+    /**
+     * Loads the plans file if there is one, and then checks it every couple of
+     * seconds on a background thread, loading it again whenever it changes.
+     * A changed file that cannot be read is reported and the old prices are kept.
+     * Calling this again has no effect.
+     *
+     * @param file The plans file
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static synchronized void watch(File file) throws IOException {
+        if (watchThread != null) {
+            return;
+        }
+        if (file.exists()) {
+            load(file);
+        }
+        long loadedModified = file.lastModified();
+        long loadedLength = file.length();
+        watchThread = new Thread(() -> watchFile(file, loadedModified, loadedLength), "plan-catalog");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private static void watchFile(File file, long loadedModified, long loadedLength) {
+        while (true) {
+            try {
+                Thread.sleep(WATCH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long modified = file.lastModified();
+            long length = file.length();
+            if (modified == loadedModified && length == loadedLength) {
+                continue;
+            }
+            loadedModified = modified;
+            loadedLength = length;
+            try {
+                if (file.exists()) {
+                    load(file);
+                    System.out.println("Reloaded plan prices from " + file.getName());
+                }
+            } catch (IOException e) {
+                System.err.println("Error reloading plan prices, keeping the old ones: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads a plans file without putting it in use.
+     *
+     * @param file The plans file
+     * @return The price list in the file
+     * @throws IOException if the file cannot be read or a line is not a valid plan
+     */
+    public static PlanCatalog read(File file) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<double[]> prices = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                if (fields.length != 3) {
+                    throw new IOException(file.getName() + " line " + lineNumber
+                        + ": expected a plan name, a regular price and a premium charge");
+                }
+                for (String name : names) {
+                    if (name.equalsIgnoreCase(fields[0])) {
+                        throw new IOException(file.getName() + " line " + lineNumber
+                            + ": plan " + fields[0] + " is listed twice");
+                    }
+                }
+                try {
+                    double regularPrice = Double.parseDouble(fields[1]);
+                    double premiumCharge = Double.parseDouble(fields[2]);
+                    if (!(regularPrice >= 0) || !(premiumCharge >= 0)
+                            || Double.isInfinite(regularPrice) || Double.isInfinite(premiumCharge)) {
+                        throw new NumberFormatException("prices cannot be negative");
+                    }
+                    names.add(fields[0]);
+                    prices.add(new double[] {regularPrice, premiumCharge});
+                } catch (NumberFormatException e) {
+                    throw new IOException(file.getName() + " line " + lineNumber + ": invalid price ("
+                        + e.getMessage() + ")");
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IOException(file.getName() + " lists no plans");
+        }
+
+        int count = names.size();
+        double[] regularPrices = new double[count];
+        double[] premiumCharges = new double[count];
+        for (int i = 0; i < count; i++) {
+            regularPrices[i] = prices.get(i)[0];
+            premiumCharges[i] = prices.get(i)[1];
+        }
+        return new PlanCatalog(names.toArray(new String[0]), regularPrices, premiumCharges);
+    }
+
+    /**
+     * Returns the number of plans.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of a plan, ignoring case.
+     *
+     * @param plan The plan name
+     * @return The plan number, from 0 to size() - 1, or -1 if there is no such plan
+     */
+    public int indexOf(String plan) {
+        if (plan == null) {
+            return -1;
+        }
+        // Plan names held by members are usually this catalog's own strings
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == plan) {
+                return i;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(plan)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the catalog's name for a plan, as written in the plans file.
+     *
+     * @param index The plan number
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public double getRegularPrice(int index) {
+        return regularPrices[index];
+    }
+
+    public double getPremiumCharge(int index) {
+        return premiumCharges[index];
+    }
+
+    /**
+     * Returns the price of a plan for a regular member.
+     *
+     * @param plan The plan name, in any case
+     * @return The price, or -1 if there is no such plan
+     */
+    public double getRegularPrice(String plan) {
+        int index = indexOf(plan);
+        return index < 0 ? -1 : regularPrices[index];
+    }
+
+    /**
+     * Returns the charge of a plan for a premium member.
+     *
+     * @param plan The plan name, in any case
+     * @return The charge, or -1 if there is no such plan
+     */
+    public double getPremiumCharge(String plan) {
+        int index = indexOf(plan);
+        return index < 0 ? -1 : premiumCharges[index];
+    }
+
+    /**
+     * Returns the catalog's own String for a plan name, so that every member
+     * on a plan shares one String. A name that is not in the catalog (for
+     * example a plan that has since been removed) is returned as it is.
+     *
+     * @param plan The plan name, in any case
+     * @return The catalog's name for the plan, or plan itself
+     */
+    public String intern(String plan) {
+        int index = indexOf(plan);
+        return index < 0 ? plan : names[index];
+    }
+}
@@ -7,13 +7,13 @@
  */
 
 public class PremiumMember extends GymMember {
-    private double premiumCharge;
-    private String personalTrainer;
+    private volatile double premiumCharge;
+    private volatile String personalTrainer;
     private String referralSource;
-    private boolean isFullPayment = false;
-    private double paidAmount = 0.0;
-    private double discountAmount = 0.0;
-    private String plan = "Basic"; // Default plan
+    private volatile boolean isFullPayment = false;
+    private volatile double paidAmount = 0.0;
+    private volatile double discountAmount = 0.0;
+    private volatile String plan = PlanCatalog.current().getName(0); // Default plan
 
      /**
      * Constructor for the PremiumMember class.
@@ -34,7 +34,27 @@ public class PremiumMember extends GymMember {
     
     public PremiumMember(int id, String name, String location, String phone, String gender,
                          String DOB, String personalTrainer, String referralSource, double premiumCharge) {
-        super(id, name, location, phone, "", gender, DOB, "");
+        this(id, name, location, phone, gender, DOB, "", personalTrainer, referralSource, premiumCharge);
+    }
+
+    /**
+     * Constructor for a PremiumMember whose membership start date is known,
+     * so its renewal day can be counted from it.
+     *
+     * @param id The unique ID of the gym member.
+     * @param name The name of the gym member.
+     * @param location The location of the gym member.
+     * @param phone The phone number of the gym member.
+     * @param gender The gender of the gym member.
+     * @param DOB The date of birth of the gym member.
+     * @param membershipStartDate The start date of the membership.
+     * @param personalTrainer The name of the personal trainer assigned to the member.
+     * @param referralSource The source from which the member was referred.
+     * @param premiumCharge The premium charge for the membership.
+     */
+    public PremiumMember(int id, String name, String location, String phone, String gender, String DOB,
+                         String membershipStartDate, String personalTrainer, String referralSource, double premiumCharge) {
+        super(id, name, location, phone, "", gender, DOB, membershipStartDate);
         this.personalTrainer = personalTrainer;
         this.referralSource = referralSource;
         this.premiumCharge = premiumCharge;
@@ -78,8 +98,21 @@ public class PremiumMember extends GymMember {
      */
     @Override
     public void markAttendance() {
-        attendance++;
-        loyaltyPoints += 5; // Increment loyalty points
+        markAttendance(1);
+    }
+
+    /**
+     * Marks several visits at once, with 5 loyalty points for each.
+     *
+     * @param visits The number of visits; nothing happens if it is not positive
+     */
+    @Override
+    public void markAttendance(int visits) {
+        if (visits <= 0) {
+            return;
+        }
+        countVisits(visits, 5 * visits); // Without a lock
+        fireChanged(MemberChange.ATTENDANCE_MARKED);
     }
 
     /**
@@ -92,7 +125,7 @@ public class PremiumMember extends GymMember {
      * @param amount The amount being paid by the member.
      * @return A message indicating the result of the payment.
      */
-    public String payDueAmount(double amount) {
+    public synchronized String payDueAmount(double amount) {
         if (isFullPayment) {
             return "Payment is already complete.";
         }
@@ -100,12 +133,14 @@ public class PremiumMember extends GymMember {
         paidAmount += amount;
 
         if (paidAmount > premiumCharge) {
+            fireChanged(MemberChange.PAYMENT_MADE);
             return "Paid amount exceeds the premium charge.";
         }
 
         if (paidAmount == premiumCharge) {
             isFullPayment = true;
         }
+        fireChanged(MemberChange.PAYMENT_MADE);
 
         double remainingAmount = premiumCharge - paidAmount;
         return "Payment successful. Remaining amount to be paid: " + remainingAmount;
@@ -117,7 +152,7 @@ public class PremiumMember extends GymMember {
      * If the full payment has been made, a 10% discount on the premium charge is
      * calculated and printed. If payment is not full, no discount is available.
      */
-    public void calculateDiscount() {
+    public synchronized void calculateDiscount() {
         if (isFullPayment) {
             discountAmount = 0.10 * premiumCharge; // 10% discount
             System.out.println("Discount calculated: " + discountAmount);
@@ -125,6 +160,7 @@ public class PremiumMember extends GymMember {
             discountAmount = 0.0;
             System.out.println("No discount available, payment not full.");
         }
+        fireChanged(MemberChange.DISCOUNT_CALCULATED);
     }
 
     /**
@@ -134,12 +170,47 @@ public class PremiumMember extends GymMember {
      * paid amount, and discount amount. It also calls the resetMember method 
      * from the super class to reset common member details.
      */
-    public void revertPremiumMember() {
-        super.resetMember();
+    public synchronized void revertPremiumMember() {
         this.personalTrainer = "";
         this.isFullPayment = false;
         this.paidAmount = 0.0;
         this.discountAmount = 0.0;
+        super.resetMember();
+    }
+
+    /**
+     * Restores the fields of a Premium Member that is being read back from
+     * a saved snapshot. The constructor takes no email address, and the
+     * snapshot reader uses the one without a start date, so both are restored
+     * here together with the payment details.
+     *
+     * @param email The saved email address
+     * @param membershipStartDate The saved membership start date
+     * @param plan The saved plan name
+     * @param isFullPayment The saved full payment status
+     * @param paidAmount The saved paid amount
+     * @param discountAmount The saved discount amount
+     */
+    synchronized void restorePaymentState(String email, String membershipStartDate, String plan,
+                             boolean isFullPayment, double paidAmount, double discountAmount) {
+        this.email = email;
+        this.membershipStartDay = parseDate(membershipStartDate);
+        this.plan = PlanCatalog.current().intern(plan);
+        this.isFullPayment = isFullPayment;
+        this.paidAmount = paidAmount;
+        this.discountAmount = discountAmount;
+    }
+
+    /**
+     * Restores the charge and trainer of a Premium Member whose changes are
+     * being replayed from the member journal.
+     *
+     * @param premiumCharge The saved premium charge
+     * @param personalTrainer The saved personal trainer
+     */
+    synchronized void restoreCharge(double premiumCharge, String personalTrainer) {
+        this.premiumCharge = premiumCharge;
+        this.personalTrainer = personalTrainer;
     }
 
     /**
@@ -168,30 +239,34 @@ public class PremiumMember extends GymMember {
      * @param newPlan The new plan to upgrade to (Basic, Standard, or Deluxe)
      * @return A message indicating the result of the upgrade
      */
-    public String upgradePlan(String newPlan) {
+    public synchronized String upgradePlan(String newPlan) {
         if (newPlan.equalsIgnoreCase(plan)) {
             return "You are already subscribed to this plan.";
         }
 
-        double newCharge = getPlanPrice(newPlan);
-        if (newCharge == -1) {
+        PlanCatalog catalog = PlanCatalog.current();
+        int index = catalog.indexOf(newPlan);
+        if (index < 0) {
             return "Invalid plan selected.";
         }
+        double newCharge = catalog.getPremiumCharge(index);
 
         // Calculate the difference in charge
         double chargeDifference = newCharge - premiumCharge;
         
         // Update the plan and charge
-        this.plan = newPlan;
+        this.plan = catalog.getName(index);
         this.premiumCharge = newCharge;
         
         // Reset payment status if upgrading to a more expensive plan
         if (chargeDifference > 0) {
             this.isFullPayment = false;
             this.paidAmount = 0.0;
+            fireChanged(MemberChange.PLAN_UPGRADED);
             return "Plan upgraded to " + plan + ". New charge: " + premiumCharge + 
                    ". Please make the new payment.";
         } else {
+            fireChanged(MemberChange.PLAN_UPGRADED);
             return "Plan upgraded to " + plan + ". New charge: " + premiumCharge;
         }
     }
@@ -203,15 +278,6 @@ public class PremiumMember extends GymMember {
      * @return Price of the plan, or -1 if the plan is invalid
      */
     public double getPlanPrice(String plan) {
-        switch (plan.toLowerCase()) {
-            case "basic":
-                return 50000.0;
-            case "standard":
-                return 75000.0;
-            case "deluxe":
-                return 100000.0;
-            default:
-                return -1; // Invalid plan
-        }
+        return PlanCatalog.current().getPremiumCharge(plan);
     }
 }
\ No newline at end of file
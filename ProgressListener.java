@@ -0,0 +1,43 @@
+/**
+ * The ProgressListener interface is implemented by classes that follow a long
+ * save or load, such as the progress dialog of the GUI. The task reports how far
+ * it has got from time to time, and asks the listener whether it should stop.
+ *
+ * Both methods are called on the thread that runs the task, which is usually
+ * not the Swing event thread.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+public interface ProgressListener {
+    /**
+     * A listener that ignores progress and never cancels.
+     */
+    ProgressListener NONE = new ProgressListener() {
+        @Override
+        public void progress(int done, int total) {
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return false;
+        }
+    };
+
+    /**
+     * Called as the task moves on.
+     *
+     * @param done The number of members handled so far
+     * @param total The total number of members to handle
+     */
+    void progress(int done, int total);
+
+    /**
+     * Checked by the task between steps. When this returns true the task stops
+     * and throws an InterruptedIOException, leaving the files as they were.
+     *
+     * @return true if the task should stop
+     */
+    boolean isCancelRequested();
+}
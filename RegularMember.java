@@ -9,11 +9,12 @@
  
 public class RegularMember extends GymMember {
     private final int attendanceLimit = 30;
-    private boolean isEligibleForUpgrade = false;
-    private String removalReason = "";
+    private volatile boolean isEligibleForUpgrade = false;
+    private volatile String removalReason = "";
     private String referralSource;
-    private String plan = "basic";
-    private double price = 6500.0;
+    // New members start on the first plan of the catalog
+    private volatile String plan;
+    private volatile double price;
 
         /**
      * Constructs a RegularMember with personal and membership details.
@@ -33,6 +34,9 @@ public class RegularMember extends GymMember {
                         String gender, String DOB, String membershipStartDate, String referralSource) {
         super(id, name, location, phone, email, gender, DOB, membershipStartDate);
         this.referralSource = referralSource;
+        PlanCatalog catalog = PlanCatalog.current();
+        this.plan = catalog.getName(0);
+        this.price = catalog.getRegularPrice(0);
     }
 
     // Accessor methods
@@ -61,15 +65,39 @@ public class RegularMember extends GymMember {
     }
 
         /**
-     * Increases attendance by one and adds loyalty points.
+     * Increases attendance by one and adds loyalty points, without taking a lock.
      * If attendance reaches the limit, marks the member as eligible for an upgrade.
      */
 
     @Override
     public void markAttendance() {
-        attendance++;
-        loyaltyPoints += 5;
-        if (attendance >= attendanceLimit) {
+        markAttendance(1);
+    }
+
+    /**
+     * Marks several visits at once, with 5 loyalty points for each.
+     *
+     * @param visits The number of visits; nothing happens if it is not positive
+     */
+    @Override
+    public void markAttendance(int visits) {
+        if (visits <= 0) {
+            return;
+        }
+        int total = countVisits(visits, 5 * visits);
+        if (total >= attendanceLimit && !isEligibleForUpgrade) {
+            markEligible();
+        }
+        fireChanged(MemberChange.ATTENDANCE_MARKED);
+    }
+
+    /**
+     * Marks the member as eligible for an upgrade. Happens once per member (until
+     * a revert), so it can take the lock: that way it is set exactly once, and never
+     * after a revert running at the same time has reset the attendance.
+     */
+    private synchronized void markEligible() {
+        if (attendance >= attendanceLimit && !isEligibleForUpgrade) {
             isEligibleForUpgrade = true;
         }
     }
@@ -82,16 +110,7 @@ public class RegularMember extends GymMember {
      */
 
     public double getPlanPrice(String plan) {
-        switch (plan.toLowerCase()) {
-            case "basic":
-                return 6500;
-            case "standard":
-                return 12500;
-            case "deluxe":
-                return 18500;
-            default:
-                return -1; // Invalid plan
-        }
+        return PlanCatalog.current().getRegularPrice(plan);
     }
 
         /**
@@ -102,18 +121,20 @@ public class RegularMember extends GymMember {
      * @return A message indicating success or failure of the upgrade
      */
 
-    public String upgradePlan(String newPlan) {
+    public synchronized String upgradePlan(String newPlan) {
         if (newPlan.equalsIgnoreCase(plan)) {
             return "You are already subscribed to this plan.";
         }
         
-        double newPrice = getPlanPrice(newPlan);
-        if (newPrice == -1) {
+        PlanCatalog catalog = PlanCatalog.current();
+        int index = catalog.indexOf(newPlan);
+        if (index < 0) {
             return "Invalid plan selected.";
         }
 
-        plan = newPlan;
-        price = newPrice;
+        plan = catalog.getName(index);
+        price = catalog.getRegularPrice(index);
+        fireChanged(MemberChange.PLAN_UPGRADED);
         return "Plan upgraded to " + plan + " at price " + price + ".";
     }
 
@@ -122,12 +143,29 @@ public class RegularMember extends GymMember {
      * price, and removal reason (if available).
      */
 
-    public void revertRegularMember(String removalReason) {
-        super.resetMember();
+    public synchronized void revertRegularMember(String removalReason) {
+        PlanCatalog catalog = PlanCatalog.current();
         this.isEligibleForUpgrade = false;
-        this.plan = "basic";
-        this.price = 6500.0;
+        this.plan = catalog.getName(0);
+        this.price = catalog.getRegularPrice(0);
+        this.removalReason = removalReason;
+        super.resetMember();
+    }
+
+    /**
+     * Restores the plan details of a regular member that is being read
+     * back from a saved snapshot.
+     *
+     * @param isEligibleForUpgrade The saved upgrade eligibility
+     * @param removalReason The saved removal reason
+     * @param plan The saved plan name
+     * @param price The saved plan price
+     */
+    synchronized void restorePlanState(boolean isEligibleForUpgrade, String removalReason, String plan, double price) {
+        this.isEligibleForUpgrade = isEligibleForUpgrade;
         this.removalReason = removalReason;
+        this.plan = PlanCatalog.current().intern(plan);
+        this.price = price;
     }
 
     // Display method
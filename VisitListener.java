@@ -0,0 +1,24 @@
+/**
+ * The VisitListener interface is implemented by classes that need to hear
+ * about every visit recorded in an AttendanceHistory, such as the member
+ * journal and the member database, which saves the visits with the members.
+ *
+ * The listener is called on the thread that recorded the visits, once they
+ * are in the history or waiting in one of its buffers, so a query made
+ * afterwards sees them.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+public interface VisitListener {
+    /**
+     * Called after visits have been recorded. A visit that was already in the
+     * history may be passed again.
+     *
+     * @param visits The visits, each packed as AttendanceHistory.visit(id, day) does;
+     *        only valid during the call
+     * @param count The number of visits at the start of the array
+     */
+    void visitsRecorded(long[] visits, int count);
+}
@@ -0,0 +1,88 @@
+/**
+ * Tests for AttendanceSnapshot: the saved days and the appended segments must
+ * load back into the same history, and a segment torn by a crash must be cut
+ * off without losing the ones before it.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceSnapshotTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void savedDaysLoadBack() throws IOException {
+        File file = dir.resolve("members.visits").toFile();
+        AttendanceHistory history = new AttendanceHistory();
+        // Every day, every other day, a few days years apart, and negative IDs
+        for (int i = 0; i < 400; i++) {
+            history.record(1, DAY.minusDays(i));
+            history.record(2, DAY.minusDays(2 * i));
+        }
+        history.record(3, LocalDate.of(1990, 1, 1));
+        history.record(3, DAY);
+        history.record(-4, DAY);
+        AttendanceSnapshot.save(file, history);
+
+        AttendanceHistory loaded = new AttendanceHistory();
+        boolean[] told = new boolean[1];
+        loaded.addVisitListener((visits, count) -> told[0] = true);
+        assertEquals(history.getVisitCount(), AttendanceSnapshot.load(file, loaded));
+        assertFalse(told[0]);
+        assertEquals(history.getVisitCount(), loaded.getVisitCount());
+        for (int id : new int[] {1, 2, 3, -4}) {
+            assertArrayEquals(history.daysVisited(id), loaded.daysVisited(id));
+        }
+        assertArrayEquals(history.membersOnEvery(DAY, DAY.minusDays(2)), loaded.membersOnEvery(DAY, DAY.minusDays(2)));
+    }
+
+    @Test
+    void segmentsLoadAfterTheSavedDaysAndTornOnesAreCutOff() throws IOException {
+        File file = dir.resolve("members.visits").toFile();
+        AttendanceHistory history = new AttendanceHistory();
+        history.record(1, DAY);
+        AttendanceSnapshot.save(file, history);
+
+        AttendanceSnapshot.append(file, new long[] {visit(1, DAY.plusDays(1)), visit(2, DAY)}, 2);
+        long goodLength = file.length();
+        AttendanceSnapshot.append(file, new long[] {visit(3, DAY), visit(3, DAY.plusDays(1))}, 2);
+        // The program stopped before the second segment was all on disk
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(file.length() - 3);
+        }
+
+        AttendanceHistory loaded = new AttendanceHistory();
+        assertEquals(3, AttendanceSnapshot.load(file, loaded));
+        assertTrue(loaded.attended(1, DAY.plusDays(1)));
+        assertTrue(loaded.attended(2, DAY));
+        assertFalse(loaded.attended(3, DAY));
+        assertEquals(goodLength, file.length());
+
+        // The next save appends after the last good segment
+        AttendanceSnapshot.append(file, new long[] {visit(3, DAY)}, 1);
+        loaded = new AttendanceHistory();
+        assertEquals(4, AttendanceSnapshot.load(file, loaded));
+        assertTrue(loaded.attended(3, DAY));
+    }
+
+    private static long visit(int id, LocalDate day) {
+        return AttendanceHistory.visit(id, (int) day.toEpochDay());
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Tests for GymMember's lock-free check-ins: many threads marking attendance
+ * and adding loyalty points on one member at once must lose no visit and no
+ * point, tell the listener once per change, and mark a regular member
+ * eligible for an upgrade exactly once, on the check-in that reaches the
+ * limit.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class GymMemberTest {
+    private static final int THREADS = 8;
+    private static final int CHECK_INS = 2000;
+
+    @Test
+    void concurrentCheckInsLoseNothing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            RegularMember member = regular(round);
+            CountingListener listener = new CountingListener();
+            member.setChangeListener(listener);
+
+            runTogether(() -> {
+                for (int i = 0; i < CHECK_INS; i++) {
+                    member.markAttendance();
+                    member.addLoyaltyPoints(2);
+                }
+            });
+
+            int visits = THREADS * CHECK_INS;
+            assertEquals(visits, member.getAttendance());
+            assertEquals(visits * 7.0, member.getLoyaltyPoints());
+            assertEquals(visits, listener.attendanceMarked.get());
+            assertEquals(visits, listener.pointsAdded.get());
+            assertTrue(member.isEligibleForUpgrade());
+        }
+    }
+
+    @Test
+    void eligibilityIsMarkedExactlyOnceAtTheLimit() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            RegularMember member = regular(round);
+            int limit = member.getAttendanceLimit();
+            member.markAttendance(limit - THREADS);
+            assertFalse(member.isEligibleForUpgrade());
+
+            CountingListener listener = new CountingListener();
+            member.setChangeListener(listener);
+            // One visit from every thread, so exactly one of them reaches the limit
+            runTogether(member::markAttendance);
+
+            assertEquals(limit, member.getAttendance());
+            assertTrue(member.isEligibleForUpgrade());
+            assertEquals(THREADS, listener.attendanceMarked.get());
+            assertEquals(1, listener.becameEligible.get());
+        }
+    }
+
+    @Test
+    void revertClearsEligibilityUntilTheLimitIsReachedAgain() throws InterruptedException {
+        RegularMember member = regular(1);
+        member.markAttendance(member.getAttendanceLimit());
+        assertTrue(member.isEligibleForUpgrade());
+
+        member.revertRegularMember("Moved away");
+        assertFalse(member.isEligibleForUpgrade());
+        assertEquals(0, member.getAttendance());
+
+        CountingListener listener = new CountingListener();
+        member.setChangeListener(listener);
+        runTogether(() -> {
+            for (int i = 0; i < 10; i++) {
+                member.markAttendance();
+            }
+        });
+        assertEquals(THREADS * 10, member.getAttendance());
+        assertTrue(member.isEligibleForUpgrade());
+        assertEquals(1, listener.becameEligible.get());
+    }
+
+    /**
+     * Runs the task on THREADS threads, all let go at the same moment, and
+     * waits for them to finish.
+     */
+    private static void runTogether(Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static RegularMember regular(int id) {
+        return new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "", "Male", "1999-05-04", "2025-01-01",
+            "Friend");
+    }
+
+    /**
+     * Counts the changes it is told about. It also counts the check-ins after
+     * which it first finds the member eligible; as eligibility is only set
+     * once and before the check-in that set it is reported, that count is
+     * one for every time the limit is crossed.
+     */
+    private static class CountingListener implements MemberChangeListener {
+        final AtomicInteger attendanceMarked = new AtomicInteger();
+        final AtomicInteger pointsAdded = new AtomicInteger();
+        final AtomicInteger becameEligible = new AtomicInteger();
+        private boolean seenEligible;
+
+        @Override
+        public void memberChanged(GymMember member, MemberChange change) {
+            if (change == MemberChange.ATTENDANCE_MARKED) {
+                attendanceMarked.incrementAndGet();
+                boolean eligible = ((RegularMember) member).isEligibleForUpgrade();
+                synchronized (this) {
+                    if (eligible && !seenEligible) {
+                        seenEligible = true;
+                        becameEligible.incrementAndGet();
+                    }
+                }
+            } else if (change == MemberChange.LOYALTY_POINTS_ADDED) {
+                pointsAdded.incrementAndGet();
+            }
+        }
+    }
+}
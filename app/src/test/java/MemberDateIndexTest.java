@@ -0,0 +1,149 @@
+/**
+ * Tests for MemberDateIndex and the date searches of MemberRepository,
+ * checked against a pass over every member. The dates crowd around the ends
+ * of February and of the year, where leap days and year boundaries make
+ * birthdays easy to get wrong.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MemberDateIndexTest {
+    @Test
+    void findMatchesAPassOverEveryMember() {
+        Random random = new Random(1);
+        List<GymMember> all = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            all.add(member(id, randomDate(random)));
+        }
+        all.add(member(2000, ""));
+        MemberDateIndex index = MemberDateIndex.build(true, all.toArray(new GymMember[0]));
+        assertEquals(2000, index.size());
+        assertMatches(all, index, random);
+
+        // More than RECENT_LIMIT additions, so the recent members are merged at least once
+        for (int id = 2001; id < 7000; id++) {
+            GymMember member = member(id, id % 100 == 0 ? "" : randomDate(random));
+            all.add(member);
+            index = index.with(member);
+            if (id % 1009 == 0) {
+                assertMatches(all, index, random);
+            }
+        }
+        assertMatches(all, index, random);
+    }
+
+    @Test
+    void findTurningAgeMatchesAPassOverEveryMember() {
+        MemberRepository members = new MemberRepository();
+        int id = 0;
+        // Every day around the ends of February and of the year, in leap and common years
+        for (int year = 1995; year <= 2012; year++) {
+            for (LocalDate day = LocalDate.of(year, 2, 20); day.isBefore(LocalDate.of(year, 3, 8)); day = day.plusDays(1)) {
+                members.add(member(id++, day.toString()));
+            }
+            for (LocalDate day = LocalDate.of(year, 12, 24); day.isBefore(LocalDate.of(year + 1, 1, 8)); day = day.plusDays(1)) {
+                members.add(member(id++, day.toString()));
+            }
+        }
+
+        int[] ages = {0, 1, 3, 4, 13, 18, 21};
+        for (int age : ages) {
+            for (int year = 2010; year <= 2030; year++) {
+                for (LocalDate from = LocalDate.of(year, 2, 24); from.isBefore(LocalDate.of(year, 3, 3)); from = from.plusDays(1)) {
+                    for (int length = 0; length < 4; length++) {
+                        assertTurningAge(members, age, from, from.plusDays(length));
+                    }
+                }
+                assertTurningAge(members, age, LocalDate.of(year, 12, 31), LocalDate.of(year + 1, 1, 1));
+                assertTurningAge(members, age, LocalDate.of(year, 12, 28), LocalDate.of(year + 1, 1, 3));
+                assertTurningAge(members, age, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            }
+        }
+    }
+
+    @Test
+    void leapDayBirthdaysFallOnTheTwentyEighthInOtherYears() {
+        MemberRepository members = new MemberRepository();
+        members.add(member(1, "2008-02-29"));
+        members.add(member(2, "2008-02-28"));
+        members.add(member(3, "2008-03-01"));
+
+        LocalDate feb28 = LocalDate.of(2026, 2, 28);
+        assertIds(members.findTurningAge(18, feb28, feb28), 2, 1);
+        assertIds(members.findTurningAge(18, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1)), 3);
+        LocalDate feb29 = LocalDate.of(2024, 2, 29);
+        assertIds(members.findTurningAge(16, feb29, feb29), 1);
+        assertIds(members.findTurningAge(16, LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 28)), 2);
+        // The member born on the leap day is 18 on the 28th, so not on the day before
+        assertIds(members.findTurningAge(18, LocalDate.of(2026, 2, 27), LocalDate.of(2026, 2, 27)));
+    }
+
+    private static void assertTurningAge(MemberRepository members, int age, LocalDate from, LocalDate to) {
+        List<Integer> expected = new ArrayList<>();
+        for (GymMember member : members) {
+            LocalDate birthday = LocalDate.parse(member.getDOB()).plusYears(age);
+            if (!birthday.isBefore(from) && !birthday.isAfter(to)) {
+                expected.add(member.getId());
+            }
+        }
+        assertEquals(expected, ids(members.findTurningAge(age, from, to)), "age " + age + " from " + from + " to " + to);
+    }
+
+    private static void assertMatches(List<GymMember> all, MemberDateIndex index, Random random) {
+        for (int round = 0; round < 50; round++) {
+            int fromDay = (int) LocalDate.parse(randomDate(random)).toEpochDay();
+            int toDay = fromDay + random.nextInt(400) - 20;
+            List<GymMember> expected = new ArrayList<>();
+            for (GymMember member : all) {
+                int day = member.getDOBDay();
+                if (day != GymMember.NO_DATE && day >= fromDay && day <= toDay) {
+                    expected.add(member);
+                }
+            }
+            // In date order, and in the order they were added for the same date
+            expected.sort((a, b) -> a.getDOBDay() != b.getDOBDay()
+                ? Integer.compare(a.getDOBDay(), b.getDOBDay()) : Integer.compare(a.getId(), b.getId()));
+            assertArrayEquals(expected.toArray(), index.find(fromDay, toDay));
+            assertEquals(expected.size(), index.count(fromDay, toDay));
+        }
+    }
+
+    private static void assertIds(GymMember[] found, int... ids) {
+        List<Integer> expected = new ArrayList<>();
+        for (int id : ids) {
+            expected.add(id);
+        }
+        assertEquals(expected, ids(found));
+    }
+
+    private static List<Integer> ids(GymMember[] found) {
+        List<Integer> ids = new ArrayList<>();
+        for (GymMember member : found) {
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+
+    private static String randomDate(Random random) {
+        int year = 1990 + random.nextInt(20);
+        return random.nextBoolean()
+            ? LocalDate.of(year, 2, 25).plusDays(random.nextInt(8)).toString()
+            : LocalDate.of(year, 12, 29).plusDays(random.nextInt(6)).toString();
+    }
+
+    private static GymMember member(int id, String dateOfBirth) {
+        return new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "", "Male", dateOfBirth, "2025-01-01",
+            "Friend");
+    }
+}
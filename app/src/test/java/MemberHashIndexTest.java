@@ -0,0 +1,112 @@
+/**
+ * Tests for MemberHashIndex: members sharing a key must all be found, email
+ * addresses must match ignoring case, and members taken out must stay out
+ * while the table is rebuilt around them.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MemberHashIndexTest {
+    @Test
+    void findMatchesAMapOfPhoneNumbers() {
+        Random random = new Random(1);
+        MemberHashIndex index = new MemberHashIndex(false, 0);
+        Map<String, List<GymMember>> model = new HashMap<>();
+        List<GymMember> added = new ArrayList<>();
+        for (int id = 0; id < 20000; id++) {
+            // Few enough numbers that many members share one
+            GymMember member = member(id, "98" + random.nextInt(5000), "");
+            index.add(member);
+            model.computeIfAbsent(member.getPhone(), k -> new ArrayList<>()).add(member);
+            added.add(member);
+
+            // Take members out now and then, so removed slots pile up and are rebuilt
+            if (id % 3 == 0) {
+                GymMember gone = added.remove(random.nextInt(added.size()));
+                index.remove(gone);
+                model.get(gone.getPhone()).remove(gone);
+            }
+        }
+        for (int phone = 0; phone < 5000; phone++) {
+            String key = "98" + phone;
+            assertSameMembers(model.getOrDefault(key, List.of()), index.find(key));
+        }
+        assertEquals(0, index.find("99").length);
+    }
+
+    @Test
+    void emailAddressesMatchIgnoringCase() {
+        MemberHashIndex index = new MemberHashIndex(true, 4);
+        GymMember sita = member(1, "981", "Sita.Rai@Mail.com");
+        GymMember brother = member(2, "982", "sita.rai@mail.com");
+        GymMember other = member(3, "983", "hari@mail.com");
+        index.add(sita);
+        index.add(brother);
+        index.add(other);
+
+        assertSameMembers(List.of(sita, brother), index.find("SITA.RAI@MAIL.COM"));
+        assertSameMembers(List.of(other), index.find("Hari@Mail.Com"));
+        // Characters whose case rules differ from ASCII
+        GymMember turkish = member(4, "984", "İLKER@mail.com");
+        index.add(turkish);
+        assertSameMembers(List.of(turkish), index.find("İlker@MAIL.com"));
+
+        index.remove(sita);
+        assertSameMembers(List.of(brother), index.find("sita.rai@mail.com"));
+    }
+
+    @Test
+    void membersWithoutAKeyAreNotIndexed() {
+        MemberHashIndex index = new MemberHashIndex(true, 0);
+        index.add(member(1, "981", ""));
+        index.add(member(2, "982", null));
+        assertEquals(0, index.find("").length);
+        assertEquals(0, index.find(null).length);
+    }
+
+    @Test
+    void repositoryIndexesFollowReplacements() {
+        MemberRepository members = new MemberRepository();
+        members.add(member(1, "981", "a@mail.com"));
+        members.add(member(2, "981", "b@mail.com"));
+        assertEquals(2, members.findByPhone("981").length);
+        assertEquals(1, members.findByEmail("A@MAIL.COM").length);
+
+        GymMember moved = member(1, "985", "c@mail.com");
+        members.replace(moved);
+        assertEquals(1, members.findByPhone("981").length);
+        assertSame(moved, members.findByPhone("985")[0]);
+        assertEquals(0, members.findByEmail("a@mail.com").length);
+        assertSame(moved, members.findByEmail("C@mail.com")[0]);
+
+        members.add(member(3, "985", ""));
+        assertEquals(2, members.findByPhone("985").length);
+    }
+
+    private static void assertSameMembers(List<GymMember> expected, GymMember[] actual) {
+        GymMember[] sorted = actual.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(GymMember::getId));
+        GymMember[] wanted = expected.toArray(new GymMember[0]);
+        Arrays.sort(wanted, Comparator.comparingInt(GymMember::getId));
+        assertEquals(Arrays.asList(wanted), Arrays.asList(sorted));
+    }
+
+    private static GymMember member(int id, String phone, String email) {
+        return new RegularMember(id, "Member " + id, "Kathmandu", phone, email, "Male", "1999-05-04", "2025-01-01",
+            "Friend");
+    }
+}
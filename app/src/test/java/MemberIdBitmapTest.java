@@ -0,0 +1,128 @@
+/**
+ * Tests for MemberIdBitmap, checked against a TreeSet holding the same IDs.
+ * The sets mix chunks that stay sorted arrays with chunks that become
+ * bitmaps, so every pairing of the two is intersected and merged.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class MemberIdBitmapTest {
+    @Test
+    void addAndContainsMatchASortedSet() {
+        Random random = new Random(1);
+        MemberIdBitmap set = new MemberIdBitmap();
+        TreeSet<Integer> model = new TreeSet<>();
+        // One chunk grows past MAX_ARRAY_SIZE in random order and becomes a bitmap
+        for (int i = 0; i < 3 * MemberIdBitmap.MAX_ARRAY_SIZE; i++) {
+            int id = random.nextInt(1 << 14);
+            assertEquals(model.add(id), set.add(id));
+        }
+        // Chunk edges, negative IDs and the ends of the int range
+        int[] edges = {-1, 0, 65535, 65536, -65536, -65537, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (int id : edges) {
+            assertEquals(model.add(id), set.add(id));
+            assertFalse(set.add(id));
+        }
+
+        assertEquals(model.size(), set.cardinality());
+        assertArrayEquals(toArray(model), set.toArray());
+        for (int i = 0; i < 10000; i++) {
+            int id = random.nextInt(1 << 15) - (1 << 14);
+            assertEquals(model.contains(id), set.contains(id));
+        }
+    }
+
+    @Test
+    void andMatchesASortedSet() {
+        Random random = new Random(2);
+        for (int round = 0; round < 20; round++) {
+            int count = 2 + round % 3;
+            MemberIdBitmap[] sets = new MemberIdBitmap[count];
+            TreeSet<Integer> common = null;
+            for (int s = 0; s < count; s++) {
+                TreeSet<Integer> model = new TreeSet<>();
+                sets[s] = randomSet(random, model);
+                if (common == null) {
+                    common = model;
+                } else {
+                    common.retainAll(model);
+                }
+            }
+
+            MemberIdBitmap result = MemberIdBitmap.and(sets);
+            assertArrayEquals(toArray(common), result.toArray());
+            assertEquals(common.size(), result.cardinality());
+            assertEquals(common.size(), MemberIdBitmap.andCardinality(sets));
+        }
+    }
+
+    @Test
+    void andOfOneSetIsACopy() {
+        MemberIdBitmap set = new MemberIdBitmap();
+        for (int id = 0; id < 10000; id += 2) {
+            set.add(id);
+        }
+        MemberIdBitmap copy = MemberIdBitmap.and(new MemberIdBitmap[] {set});
+        assertArrayEquals(set.toArray(), copy.toArray());
+        copy.add(1);
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void addAllMatchesASortedSet() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> model = new TreeSet<>();
+            MemberIdBitmap set = randomSet(random, model);
+            TreeSet<Integer> otherModel = new TreeSet<>();
+            MemberIdBitmap other = randomSet(random, otherModel);
+            int[] otherIds = other.toArray();
+
+            set.addAll(other);
+            model.addAll(otherModel);
+            assertArrayEquals(toArray(model), set.toArray());
+            assertEquals(model.size(), set.cardinality());
+
+            // The merged set must not share containers with the other one
+            for (int id = -70000; id < 70000; id += 7) {
+                set.add(id);
+            }
+            assertArrayEquals(otherIds, other.toArray());
+        }
+    }
+
+    /**
+     * Makes a set with a few chunks, each either sparse (a sorted array) or
+     * dense (a bitmap), so sets made this way overlap in every combination.
+     */
+    private static MemberIdBitmap randomSet(Random random, TreeSet<Integer> model) {
+        MemberIdBitmap set = new MemberIdBitmap();
+        for (int chunk = -2; chunk < 3; chunk++) {
+            int roll = random.nextInt(3);
+            if (roll == 0) {
+                continue;
+            }
+            int adds = roll == 1 ? 200 : 40000;
+            for (int i = 0; i < adds; i++) {
+                int id = (chunk << 16) | random.nextInt(1 << 16);
+                assertEquals(model.add(id), set.add(id));
+            }
+        }
+        return set;
+    }
+
+    private static int[] toArray(TreeSet<Integer> model) {
+        return model.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Tests for MemberJournal: the changes appended must come back when the
+ * journal is replayed, a record torn by a crash must be cut off without
+ * losing the ones before it, and only one program may have the journal open.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberJournalTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysEveryChangeAfterReopening() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        GymMember member = member(1);
+        members.add(member);
+        member.activateMembership();
+        member.markAttendance(3);
+        member.renewUntil((int) DAY.plusYears(1).toEpochDay());
+        members.add(member(2));
+        members.getAttendanceHistory().record(1, DAY);
+        members.getAttendanceHistory().record(2, DAY.plusDays(1));
+        journal.close();
+
+        MemberRepository replayed = new MemberRepository();
+        MemberJournal reopened = MemberJournal.open(file, replayed);
+        assertEquals(7, reopened.getReplayedCount());
+        reopened.close();
+
+        assertEquals(2, replayed.size());
+        GymMember restored = replayed.findById(1);
+        assertTrue(restored.isActiveStatus());
+        assertEquals(3, restored.getAttendance());
+        assertEquals(member.getLoyaltyPoints(), restored.getLoyaltyPoints());
+        assertEquals(DAY.plusYears(1).toEpochDay(), restored.getRenewalDay());
+        assertFalse(replayed.findById(2).isActiveStatus());
+        assertTrue(replayed.getAttendanceHistory().attended(1, DAY));
+        assertTrue(replayed.getAttendanceHistory().attended(2, DAY.plusDays(1)));
+        assertEquals(2, replayed.getAttendanceHistory().getVisitCount());
+    }
+
+    @Test
+    void tornRecordIsCutOffAndAppendingCarriesOn() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        members.add(member(1));
+        members.findById(1).activateMembership();
+        journal.close();
+        long goodLength = file.length();
+
+        // The start of a record whose payload never made it to disk
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(goodLength);
+            raf.writeInt(100);
+            raf.writeInt(0x12345678);
+            raf.write(new byte[20]);
+        }
+
+        MemberRepository replayed = new MemberRepository();
+        journal = openAndFollow(file, replayed);
+        assertEquals(2, journal.getReplayedCount());
+        assertEquals(goodLength, file.length());
+        assertTrue(replayed.findById(1).isActiveStatus());
+
+        replayed.add(member(2));
+        journal.close();
+
+        MemberRepository again = new MemberRepository();
+        MemberJournal reopened = MemberJournal.open(file, again);
+        assertEquals(3, reopened.getReplayedCount());
+        reopened.close();
+        assertTrue(again.findById(1).isActiveStatus());
+        assertNotNull(again.findById(2));
+    }
+
+    @Test
+    void recordWithABadChecksumEndsTheJournal() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        members.add(member(1));
+        journal.sync();
+        long firstEnd = file.length();
+        members.add(member(2));
+        members.add(member(3));
+        journal.close();
+
+        // Damage the second record's payload; the third goes with it
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(firstEnd + 8);
+            int code = raf.read();
+            raf.seek(firstEnd + 8);
+            raf.write(code ^ 0x01);
+        }
+
+        MemberRepository replayed = new MemberRepository();
+        MemberJournal reopened = MemberJournal.open(file, replayed);
+        assertEquals(1, reopened.getReplayedCount());
+        reopened.close();
+        assertEquals(firstEnd, file.length());
+        assertNotNull(replayed.findById(1));
+        assertNull(replayed.findById(2));
+        assertNull(replayed.findById(3));
+    }
+
+    @Test
+    void discardingBeforeAMarkKeepsLaterRecords() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        members.add(member(1));
+        long mark = journal.mark();
+        members.add(member(2));
+        journal.sync();
+        journal.discardBefore(mark);
+        members.add(member(3));
+        journal.close();
+
+        MemberRepository replayed = new MemberRepository();
+        MemberJournal reopened = MemberJournal.open(file, replayed);
+        assertEquals(2, reopened.getReplayedCount());
+        reopened.close();
+        assertNull(replayed.findById(1));
+        assertNotNull(replayed.findById(2));
+        assertNotNull(replayed.findById(3));
+    }
+
+    @Test
+    void onlyOneProgramMayHaveTheJournalOpen() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        members.add(member(1));
+        journal.sync();
+
+        assertThrows(MemberJournal.InUseException.class, () -> MemberJournal.open(file, new MemberRepository()));
+        assertThrows(MemberJournal.InUseException.class, () -> MemberJournal.replay(file, new MemberRepository()));
+        // The failed attempts must not have released the first program's lock
+        assertThrows(MemberJournal.InUseException.class, () -> MemberJournal.open(file, new MemberRepository()));
+
+        // Still locked after the journal is rewritten under a new file
+        journal.discardBefore(journal.mark());
+        assertThrows(MemberJournal.InUseException.class, () -> MemberJournal.open(file, new MemberRepository()));
+        journal.close();
+
+        MemberJournal.open(file, new MemberRepository()).close();
+    }
+
+    @Test
+    void readOnlyReplayLeavesTheFileAlone() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        assertEquals(0, MemberJournal.replay(file, new MemberRepository()));
+        assertFalse(file.exists());
+
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = openAndFollow(file, members);
+        members.add(member(1));
+        journal.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(100);
+        }
+        long tornLength = file.length();
+
+        MemberRepository replayed = new MemberRepository();
+        assertEquals(1, MemberJournal.replay(file, replayed));
+        assertNotNull(replayed.findById(1));
+        assertEquals(tornLength, file.length());
+    }
+
+    private static MemberJournal openAndFollow(File file, MemberRepository members) throws IOException {
+        MemberJournal journal = MemberJournal.open(file, members);
+        members.addChangeListener(journal);
+        members.getAttendanceHistory().addVisitListener(journal);
+        return journal;
+    }
+
+    private static GymMember member(int id) {
+        return new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "",
+            "Male", "1999-05-04", "2025-01-01", "Friend");
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Tests for MemberLineParser: rows of the exported tables must be read the
+ * same way whatever the line ending, empty columns must stay empty, and
+ * numbers that do not fit or are malformed must be rejected rather than
+ * read as something else.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberLineParserTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsARegularRow() {
+        RegularMember member = parseRegular(
+            "| 12    | Sita Rai        | Lalitpur     | 9812345678 | sita@mail.com   | 2025-01-15      | Standard | 12500.00   | 31      | Active  |");
+        assertEquals(12, member.getId());
+        assertEquals("Sita Rai", member.getName());
+        assertEquals("Lalitpur", member.getLocation());
+        assertEquals("9812345678", member.getPhone());
+        assertEquals("sita@mail.com", member.getEmail());
+        assertEquals("2025-01-15", member.getMembershipStartDate());
+        assertEquals("Standard", member.getPlan());
+        assertEquals(12500.0, member.getPrice());
+        assertEquals(31, member.getAttendance());
+        assertTrue(member.isActiveStatus());
+    }
+
+    @Test
+    void readsAPremiumRowWithAPoundSign() {
+        String row = "| 7     | Hari KC         | Pokhara      | 9800000000 | Ram                  | 2024-06-01      | Deluxe   | £75000.50 | 12.5  | Inactive |";
+        for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1}) {
+            MemberLineParser parser = parserOn(row, charset);
+            PremiumMember member = parser.parsePremium();
+            assertEquals(7, member.getId());
+            assertEquals("Ram", member.getPersonalTrainer());
+            assertEquals(75000.5, member.getPremiumCharge());
+            assertEquals(12.5, member.getLoyaltyPoints());
+            assertFalse(member.isActiveStatus());
+        }
+    }
+
+    @Test
+    void readsNegativeIdsAndRejectsOverflowingOnes() {
+        assertEquals(-5, parseRegular(regularRow("-5", "100", "0")).getId());
+        assertEquals(Integer.MAX_VALUE, parseRegular(regularRow("2147483647", "100", "0")).getId());
+        assertEquals(Integer.MIN_VALUE, parseRegular(regularRow("-2147483648", "100", "0")).getId());
+        assertEquals(-3, parseRegular(regularRow("1", "100", "-3")).getAttendance());
+
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("2147483648", "100", "0")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("-2147483649", "100", "0")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("99999999999999999999", "100", "0")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("1", "100", "-")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("1", "100", "1x")));
+    }
+
+    @Test
+    void readsDecimalsWithAndWithoutAFraction() {
+        String[] prices = {"6500", "6500.", "6500.5", "0.1", "-12.25", "£18500.00", "0.000001", "1234567890.1234567"};
+        for (String price : prices) {
+            double expected = Double.parseDouble(price.replace("£", ""));
+            assertEquals(expected, parseRegular(regularRow("1", price, "0")).getPrice(), price);
+        }
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("1", ".", "0")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("1", "1.2.3", "0")));
+        assertThrows(NumberFormatException.class, () -> parseRegular(regularRow("1", "1,000", "0")));
+    }
+
+    @Test
+    void keepsEmptyColumnsEmptyAndRejectsMissingOnes() {
+        RegularMember member = parseRegular("| 3 |  | Kathmandu |  |  |  | Basic | 6500 | 0 |  |");
+        assertEquals("", member.getName());
+        assertEquals("", member.getPhone());
+        assertEquals("", member.getEmail());
+        assertFalse(member.isActiveStatus());
+
+        assertThrows(NumberFormatException.class, () -> parseRegular("| 3 | Name | Kathmandu | 98 | e | 2025-01-01 | Basic |  | 0 | Active |"));
+        assertThrows(IllegalArgumentException.class, () -> parseRegular("| 3 | Name | Kathmandu | 98"));
+    }
+
+    @Test
+    void aSeparatorAlwaysEndsAColumn() {
+        // The tables have no quoting, so a "|" inside a value shifts the later columns
+        assertThrows(NumberFormatException.class,
+            () -> parseRegular("| 4 | Ram | Shyam | Kathmandu | 98 | e | 2025-01-01 | Basic | 6500 | 0 | Active |"));
+    }
+
+    @Test
+    void ignoresTheCarriageReturnOfACrlfLine() {
+        RegularMember member = parseRegular(regularRow("9", "6500", "4") + "\r");
+        assertEquals(9, member.getId());
+        assertTrue(member.isActiveStatus());
+
+        // A row whose last column is a number, with nothing after it but "\r"
+        MemberLineParser parser = parserOn("| 8 | A | B | C | D | 2025-01-01 | Basic | 6500 | 4\r", StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, parser::parseRegular);
+    }
+
+    @Test
+    void recognisesOnlyDataRows() {
+        String[] others = {"", "\r", "+-------+", "| ID    | Name            |", "Total Regular Members: 3", "|   |", "| -1 |"};
+        for (String line : others) {
+            assertFalse(parserOn(line, StandardCharsets.UTF_8).isDataRow(), line);
+        }
+        assertTrue(parserOn("|   42 | Name |", StandardCharsets.UTF_8).isDataRow());
+    }
+
+    @Test
+    void loaderReadsCrlfFilesAndALastLineWithoutANewline() throws IOException {
+        File regular = dir.resolve("regular_members.txt").toFile();
+        String table = "+-------+\r\n"
+            + "| ID    | Name            |\r\n"
+            + regularRow("1", "6500", "2") + "\r\n"
+            + regularRow("2", "12500.5", "0") + "\r\n"
+            + regularRow("3", "18500", "7");
+        Files.write(regular.toPath(), table.getBytes(Charset.defaultCharset()));
+
+        MemberRepository members = new MemberRepository();
+        MemberTableLoader.Summary summary = MemberTableLoader.load(regular, dir.resolve("none.txt").toFile(), members);
+        assertEquals(3, summary.getRegular().getLoadedCount());
+        assertEquals(0, summary.getRegular().getRejectedCount());
+        assertEquals(12500.5, ((RegularMember) members.findById(2)).getPrice());
+        assertEquals(7, members.findById(3).getAttendance());
+        assertTrue(members.findById(3).isActiveStatus());
+    }
+
+    private static String regularRow(String id, String price, String attendance) {
+        return "| " + id + " | Name | Kathmandu | 98 | e@mail.com | 2025-01-01 | Basic | " + price + " | " + attendance + " | Active |";
+    }
+
+    private static RegularMember parseRegular(String line) {
+        return parserOn(line, StandardCharsets.UTF_8).parseRegular();
+    }
+
+    private static MemberLineParser parserOn(String line, Charset charset) {
+        byte[] bytes = line.getBytes(charset);
+        MemberLineParser parser = new MemberLineParser(charset);
+        parser.reset(ByteBuffer.wrap(bytes), 0, bytes.length);
+        return parser;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Tests for MemberNameIndex, checked against a pass over every member. Enough
+ * members are added after the index is built that the recent ones are merged
+ * into the sorted array, and the repository's index is checked to follow
+ * additions and replacements.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MemberNameIndexTest {
+    private static final String[] NAMES = {"Sita", "sita", "SITA RAI", "Sitaram", "Hari", "hari kc", "Ram", "Rama",
+        "Ramesh", "Ñandú", "ñandú pérez", "", "Zed"};
+    private static final String[] PREFIXES = {"", "s", "SI", "sita", "sita ", "Sitaram", "Sitarama", "h", "RAM",
+        "ñ", "Ñandú P", "z", "zz", "a"};
+
+    @Test
+    void findByPrefixMatchesAPassOverEveryMember() {
+        Random random = new Random(1);
+        List<GymMember> all = new ArrayList<>();
+        for (int id = 0; id < 1000; id++) {
+            all.add(member(id, randomName(random)));
+        }
+        MemberNameIndex index = MemberNameIndex.build(all.toArray(new GymMember[0]));
+        assertMatches(all, index);
+
+        // More than RECENT_LIMIT additions, so the recent members are merged at least once
+        for (int id = 1000; id < 6000; id++) {
+            GymMember member = member(id, randomName(random));
+            all.add(member);
+            index = index.with(member);
+            if (id % 997 == 0) {
+                assertMatches(all, index);
+            }
+        }
+        assertEquals(all.size(), index.size());
+        assertMatches(all, index);
+    }
+
+    @Test
+    void limitCutsTheResultsInNameOrder() {
+        List<GymMember> all = new ArrayList<>();
+        for (int id = 50; id > 0; id--) {
+            all.add(member(id, "Sita"));
+        }
+        MemberNameIndex index = MemberNameIndex.build(all.toArray(new GymMember[0]));
+        GymMember[] found = index.findByPrefix("si", 5);
+        assertEquals(5, found.length);
+        for (int i = 0; i < found.length; i++) {
+            assertEquals(i + 1, found[i].getId());
+        }
+        assertEquals(0, index.findByPrefix("si", 0).length);
+    }
+
+    @Test
+    void repositoryIndexFollowsAdditionsAndReplacements() {
+        MemberRepository members = new MemberRepository();
+        members.add(member(1, "Sita"));
+        members.add(member(2, "Hari"));
+        assertIds(members.findByNamePrefix("s", 10), 1);
+
+        members.add(member(3, "sitaram"));
+        assertIds(members.findByNamePrefix("SITA", 10), 1, 3);
+
+        members.replace(member(1, "Gita"));
+        assertIds(members.findByNamePrefix("sita", 10), 3);
+        assertIds(members.findByNamePrefix("g", 10), 1);
+
+        members.clear();
+        assertIds(members.findByNamePrefix("", 10));
+    }
+
+    private static void assertMatches(List<GymMember> all, MemberNameIndex index) {
+        for (String prefix : PREFIXES) {
+            List<GymMember> expected = new ArrayList<>();
+            for (GymMember member : all) {
+                if (member.getName().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    expected.add(member);
+                }
+            }
+            expected.sort(MemberNameIndex.NAME_ORDER);
+            assertArrayEquals(expected.toArray(), index.findByPrefix(prefix, Integer.MAX_VALUE), prefix);
+            int limit = Math.min(expected.size(), 7);
+            assertArrayEquals(expected.subList(0, limit).toArray(), index.findByPrefix(prefix, 7), prefix);
+        }
+    }
+
+    private static void assertIds(GymMember[] found, int... ids) {
+        int[] actual = new int[found.length];
+        for (int i = 0; i < found.length; i++) {
+            actual[i] = found[i].getId();
+        }
+        assertArrayEquals(ids, actual);
+    }
+
+    private static String randomName(Random random) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        return random.nextBoolean() ? name : name + " " + (char) ('a' + random.nextInt(26));
+    }
+
+    private static GymMember member(int id, String name) {
+        return new RegularMember(id, name, "Kathmandu", "98" + id, "", "Male", "1999-05-04", "2025-01-01", "Friend");
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Tests for MemberSnapshot: a saved snapshot must load back the same members,
+ * delta segments must be applied on top of it in order, and a segment that
+ * was torn by a crash or written against an older snapshot must be cut off
+ * without touching the members.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberSnapshotTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotLoadsBackTheSameMembers() throws IOException {
+        File file = dir.resolve("members.dat").toFile();
+        MemberRepository members = new MemberRepository();
+        GymMember regular = regular(1, 4);
+        regular.activateMembership();
+        regular.renewUntil(20800);
+        members.add(regular);
+        members.add(new PremiumMember(2, "Premium 2", "Pokhara", "982", "Female", "1990-02-03",
+            "2024-06-01", "Ram", "Poster", 50000));
+        MemberSnapshot.save(file, members);
+
+        MemberRepository loaded = new MemberRepository();
+        assertEquals(2, MemberSnapshot.load(file, loaded));
+        assertSameMember(regular, loaded.findById(1));
+        assertSameMember(members.findById(2), loaded.findById(2));
+        assertTrue(loaded.findById(2) instanceof PremiumMember);
+    }
+
+    @Test
+    void deltasAreAppliedInOrder() throws IOException {
+        File snapshot = dir.resolve("members.dat").toFile();
+        File delta = dir.resolve("members.delta").toFile();
+        int base = saveSnapshot(snapshot, regular(1, 0), regular(2, 0));
+
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 3), regular(3, 1)));
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 7)));
+        long length = delta.length();
+
+        MemberRepository loaded = load(snapshot);
+        assertEquals(3, MemberSnapshot.applyDeltas(delta, base, loaded));
+        assertEquals(3, loaded.size());
+        assertEquals(7, loaded.findById(1).getAttendance());
+        assertEquals(0, loaded.findById(2).getAttendance());
+        assertEquals(1, loaded.findById(3).getAttendance());
+        assertEquals(length, delta.length());
+    }
+
+    @Test
+    void tornSegmentIsCutOff() throws IOException {
+        File snapshot = dir.resolve("members.dat").toFile();
+        File delta = dir.resolve("members.delta").toFile();
+        int base = saveSnapshot(snapshot, regular(1, 0));
+
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 2)));
+        long goodLength = delta.length();
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 5), regular(2, 5)));
+        // The program stopped before the second segment was all on disk
+        try (RandomAccessFile raf = new RandomAccessFile(delta, "rw")) {
+            raf.setLength(delta.length() - 6);
+        }
+
+        MemberRepository loaded = load(snapshot);
+        assertEquals(1, MemberSnapshot.applyDeltas(delta, base, loaded));
+        assertEquals(2, loaded.findById(1).getAttendance());
+        assertNull(loaded.findById(2));
+        assertEquals(goodLength, delta.length());
+
+        // The next save appends after the last good segment
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(2, 9)));
+        loaded = load(snapshot);
+        assertEquals(2, MemberSnapshot.applyDeltas(delta, base, loaded));
+        assertEquals(9, loaded.findById(2).getAttendance());
+    }
+
+    @Test
+    void damagedSegmentEndsTheDeltas() throws IOException {
+        File snapshot = dir.resolve("members.dat").toFile();
+        File delta = dir.resolve("members.delta").toFile();
+        int base = saveSnapshot(snapshot, regular(1, 0));
+
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 2)));
+        long goodLength = delta.length();
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 5)));
+        MemberSnapshot.appendDelta(delta, base, List.of(regular(1, 8)));
+        try (RandomAccessFile raf = new RandomAccessFile(delta, "rw")) {
+            raf.seek(goodLength + 20);
+            int b = raf.read();
+            raf.seek(goodLength + 20);
+            raf.write(b ^ 0xFF);
+        }
+
+        MemberRepository loaded = load(snapshot);
+        assertEquals(1, MemberSnapshot.applyDeltas(delta, base, loaded));
+        assertEquals(2, loaded.findById(1).getAttendance());
+        assertEquals(goodLength, delta.length());
+    }
+
+    @Test
+    void segmentsOfAnOlderSnapshotAreIgnored() throws IOException {
+        File snapshot = dir.resolve("members.dat").toFile();
+        File delta = dir.resolve("members.delta").toFile();
+        int oldBase = saveSnapshot(snapshot, regular(1, 0));
+        MemberSnapshot.appendDelta(delta, oldBase, List.of(regular(1, 4), regular(2, 4)));
+
+        // A full save replaced the snapshot, but stopped before clearing the deltas
+        int newBase = saveSnapshot(snapshot, regular(1, 6));
+        assertNotEquals(oldBase, newBase);
+
+        MemberRepository loaded = load(snapshot);
+        assertEquals(0, MemberSnapshot.applyDeltas(delta, newBase, loaded));
+        assertEquals(6, loaded.findById(1).getAttendance());
+        assertNull(loaded.findById(2));
+        assertEquals(0, delta.length());
+
+        MemberSnapshot.appendDelta(delta, newBase, List.of(regular(1, 8)));
+        loaded = load(snapshot);
+        assertEquals(1, MemberSnapshot.applyDeltas(delta, newBase, loaded));
+        assertEquals(8, loaded.findById(1).getAttendance());
+    }
+
+    private static int saveSnapshot(File file, GymMember... members) throws IOException {
+        MemberRepository repository = new MemberRepository();
+        for (GymMember member : members) {
+            repository.add(member);
+        }
+        MemberSnapshot.save(file, repository);
+        return MemberSnapshot.readChecksum(file);
+    }
+
+    private static MemberRepository load(File snapshot) throws IOException {
+        MemberRepository loaded = new MemberRepository();
+        MemberSnapshot.load(snapshot, loaded);
+        return loaded;
+    }
+
+    private static GymMember regular(int id, int attendance) {
+        GymMember member = new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "member" + id + "@mail.com",
+            "Male", "1999-05-04", "2025-01-01", "Friend");
+        member.markAttendance(attendance);
+        return member;
+    }
+
+    private static void assertSameMember(GymMember expected, GymMember actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getPhone(), actual.getPhone());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getGender(), actual.getGender());
+        assertEquals(expected.getDOB(), actual.getDOB());
+        assertEquals(expected.getMembershipStartDate(), actual.getMembershipStartDate());
+        assertEquals(expected.getAttendance(), actual.getAttendance());
+        assertEquals(expected.getLoyaltyPoints(), actual.getLoyaltyPoints());
+        assertEquals(expected.isActiveStatus(), actual.isActiveStatus());
+        assertEquals(expected.getRenewalDay(), actual.getRenewalDay());
+    }
+}
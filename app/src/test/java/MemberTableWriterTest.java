@@ -0,0 +1,269 @@
+/**
+ * Golden tests for MemberTableWriter: the tables it writes must be byte for
+ * byte the ones the original saveMembersToFile wrote with String.format and a
+ * FileWriter. That code is kept here, as it was, to produce the expected
+ * bytes. Both are run in the same JVM, so they share its platform charset;
+ * the formatting locale is switched to ones that write numbers differently.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberTableWriterTest {
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        Locale.GERMANY,                               // Decimal comma
+        Locale.forLanguageTag("tr-TR"),
+        Locale.forLanguageTag("th-TH-u-nu-thai"),     // Thai digits
+        Locale.forLanguageTag("ar-EG"),
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void regularTableMatchesTheOriginalExport() throws IOException {
+        for (Locale locale : LOCALES) {
+            assertSameBytes(false, locale);
+        }
+    }
+
+    @Test
+    void premiumTableMatchesTheOriginalExport() throws IOException {
+        for (Locale locale : LOCALES) {
+            assertSameBytes(true, locale);
+        }
+    }
+
+    @Test
+    void emptyTablesMatchTheOriginalExport() throws IOException {
+        File expected = dir.resolve("expected.txt").toFile();
+        File actual = dir.resolve("actual.txt").toFile();
+        for (boolean premium : new boolean[] {false, true}) {
+            writeOriginal(expected, new GymMember[0], premium);
+            new MemberTableWriter(actual, premium).close();
+            assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+        }
+    }
+
+    private void assertSameBytes(boolean premium, Locale locale) throws IOException {
+        Locale saved = Locale.getDefault();
+        Locale savedFormat = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(locale);
+        try {
+            GymMember[] members = members();
+            File expected = dir.resolve("expected.txt").toFile();
+            File actual = dir.resolve("actual.txt").toFile();
+            writeOriginal(expected, members, premium);
+            try (MemberTableWriter writer = new MemberTableWriter(actual, premium)) {
+                for (GymMember member : members) {
+                    if ((member instanceof PremiumMember) == premium) {
+                        writer.write(member);
+                    }
+                }
+                assertEquals(6, writer.getCount());
+            }
+            assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()),
+                (premium ? "premium" : "regular") + " table differs under " + locale);
+        } finally {
+            Locale.setDefault(saved);
+            Locale.setDefault(Locale.Category.FORMAT, savedFormat);
+        }
+    }
+
+    /**
+     * Members whose fields hit every shortening rule, with non-ASCII text and
+     * numbers that round, are negative, or are too large to lay out by hand.
+     */
+    private static GymMember[] members() {
+        GymMember[] members = new GymMember[12];
+        double[] prices = {6500, 12500.555, 0.005, -12.345, 1e16, 99999999.99};
+        double[] points = {0, 2.5, 3.5, 12.49, 1234567.5, -7.5};
+        int[] attendance = {0, 31, -4, 99999, 123456, Integer.MIN_VALUE};
+        String[] names = {"Sita", "Exactly15Chars!", "Sixteen Chars!!!", "Ñandú Pérez", "शिवा श्रेष्ठ कार्की", ""};
+        String[] phones = {"9812345", "981234567", "9812345678", "98123456789", "", "+977-1-4412345"};
+        for (int i = 0; i < 6; i++) {
+            RegularMember regular = new RegularMember(i - 2, names[i], i % 2 == 0 ? "Kathmandu" : "Bhaktapur Durbar",
+                phones[i], i == 3 ? "a.very.long.email.address@example.com" : "m" + i + "@mail.com",
+                "Female", "2000-01-01", i == 4 ? "2025-01-15 (approx)" : "2025-01-15", "Friend");
+            regular.restorePlanState(false, "", i == 5 ? "Platinum Plus" : "Standard", prices[i]);
+            regular.restoreState(attendance[i], 0, i % 2 == 0);
+            members[2 * i] = regular;
+
+            PremiumMember premium = new PremiumMember(1000 + i * 1000, names[5 - i], "Lalitpur", phones[i],
+                "Male", "1990-02-03", "2024-06-01", i == 2 ? "Trainer With A Long Name" : "Ram", "Poster", prices[5 - i]);
+            premium.restoreState(0, points[i], i % 2 == 1);
+            members[2 * i + 1] = premium;
+        }
+        return members;
+    }
+
+    /**
+     * The original saveMembersToFile, for one of the two tables.
+     */
+    private static void writeOriginal(File file, GymMember[] members, boolean premium) throws IOException {
+        if (!premium) {
+            // Save Regular Members
+            FileWriter regularFileWriter = new FileWriter(file);
+            BufferedWriter regularBufferedWriter = new BufferedWriter(regularFileWriter);
+
+            // Table border constants
+            String regularTableBorder = "+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n";
+            String regularTableWidth = "| %-83s |";
+
+            // Write header for regular members
+            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+            regularBufferedWriter.write("|                                     REGULAR MEMBERS LIST                                                                                                                |\n");
+            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+
+            // Write table header with proper formatting
+            regularBufferedWriter.write(String.format("| %-5s | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7s | %-5s | %-8s |\n",
+                "ID", "Name", "Location", "Phone", "Email", "Start Date", "Plan", "Price(£)", "Att.", "Status"));
+            regularBufferedWriter.write(regularTableBorder + "\n");
+
+            int regularCount = 0;
+            // Write data rows for regular members
+            for (GymMember member : members) {
+                if (member instanceof RegularMember) {
+                    regularCount++;
+                    RegularMember regularMember = (RegularMember) member;
+                    String name = regularMember.getName();
+                    if (name != null && name.length() > 15) {
+                        name = name.substring(0, 12) + "...";
+                    }
+
+                    String location = regularMember.getLocation();
+                    if (location != null && location.length() > 12) {
+                        location = location.substring(0, 9) + "...";
+                    }
+
+                    String phone = regularMember.getPhone();
+                    if (phone != null && phone.length() >= 10) {
+                        phone = phone.substring(0, 7) + "...";
+                    }
+
+                    String email = regularMember.getEmail();
+                    if (email != null && email.length() > 20) {
+                        email = email.substring(0, 17) + "...";
+                    }
+
+                    String startDate = regularMember.getMembershipStartDate();
+                    if (startDate != null && startDate.length() > 15) {
+                        startDate = startDate.substring(0, 12) + "...";
+                    }
+
+                    String plan = regularMember.getPlan();
+                    if (plan != null && plan.length() > 8) {
+                        plan = plan.substring(0, 5) + "...";
+                    }
+
+                    regularBufferedWriter.write(String.format("| %-5d | %-15s | %-12s | %-10s | %-20s | %-15s | %-8s | %-7.2f | %-5d | %-8s |\n",
+                        regularMember.getId(),
+                        name,
+                        location,
+                        phone,
+                        email,
+                        startDate,
+                        plan,
+                        regularMember.getPrice(),
+                        regularMember.getAttendance(),
+                        regularMember.isActiveStatus() ? "Active" : "Inactive"));
+                }
+            }
+
+            // Write footer
+            regularBufferedWriter.write(regularTableBorder + "\n");
+            regularBufferedWriter.write(String.format(regularTableWidth + "\n", "Total Regular Members: " + regularCount));
+            regularBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+            regularBufferedWriter.close();
+        } else {
+            // Save Premium Members
+            FileWriter premiumFileWriter = new FileWriter(file);
+            BufferedWriter premiumBufferedWriter = new BufferedWriter(premiumFileWriter);
+
+            // Table border constants
+            String premiumTableBorder = "+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n";
+            String premiumTableWidth = "| %-93s |";
+
+            // Write header for premium members
+            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+            premiumBufferedWriter.write("|                                       PREMIUM MEMBERS LIST                                                                                                                |\n");
+            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+
+            // Write table header with proper formatting
+            premiumBufferedWriter.write(String.format("| %-5s | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10s | %-7s | %-7s |\n",
+                "ID", "Name", "Location", "Phone", "Trainer", "Start Date", "Plan", "Charge(£)", "Points", "Status"));
+            premiumBufferedWriter.write(premiumTableBorder + "\n");
+
+            int premiumCount = 0;
+            // Write data rows for premium members
+            for (GymMember member : members) {
+                if (member instanceof PremiumMember) {
+                    premiumCount++;
+                    PremiumMember premiumMember = (PremiumMember) member;
+                    String name = premiumMember.getName();
+                    if (name != null && name.length() > 15) {
+                        name = name.substring(0, 12) + "...";
+                    }
+
+                    String location = premiumMember.getLocation();
+                    if (location != null && location.length() > 12) {
+                        location = location.substring(0, 9) + "...";
+                    }
+
+                    String phone = premiumMember.getPhone();
+                    if (phone != null && phone.length() > 10) {
+                        phone = phone.substring(0, 7) + "...";
+                    }
+
+                    String trainer = premiumMember.getPersonalTrainer();
+                    if (trainer != null && trainer.length() > 15) {
+                        trainer = trainer.substring(0, 12) + "...";
+                    }
+
+                    String startDate = premiumMember.getMembershipStartDate();
+                    if (startDate != null && startDate.length() > 15) {
+                        startDate = startDate.substring(0, 12) + "...";
+                    }
+
+                    String plan = premiumMember.getPlan();
+                    if (plan != null && plan.length() > 8) {
+                        plan = plan.substring(0, 5) + "...";
+                    }
+
+                    premiumBufferedWriter.write(String.format("| %-5d | %-15s | %-12s | %-10s | %-15s | %-15s | %-8s | %-10.2f | %-7.0f | %-7s |\n",
+                        premiumMember.getId(),
+                        name,
+                        location,
+                        phone,
+                        trainer,
+                        startDate,
+                        plan,
+                        premiumMember.getPremiumCharge(),
+                        premiumMember.getLoyaltyPoints(),
+                        premiumMember.isActiveStatus() ? "Active" : "Inactive"));
+                }
+            }
+
+            // Write footer
+            premiumBufferedWriter.write(premiumTableBorder + "\n");
+            premiumBufferedWriter.write(String.format(premiumTableWidth + "\n", "Total Premium Members: " + premiumCount));
+            premiumBufferedWriter.write("+---------------------------------------------------------------------------------------------------------------------------------------------------------------------------+\n");
+            premiumBufferedWriter.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Tests for MemberTrigramIndex: searches must find the members whose words
+ * they name, with spelling mistakes, and must lower the case of the words
+ * searched for in the same way as the indexed ones, whatever the default
+ * locale.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class MemberTrigramIndexTest {
+    @Test
+    void findsMembersDespiteSpellingMistakes() {
+        MemberRepository members = new MemberRepository();
+        members.add(member(1, "Sita Rai", "Kathmandu"));
+        members.add(member(2, "Hari Khadka", "Pokhara"));
+        members.add(member(3, "Sita Shrestha", "Lalitpur"));
+
+        assertEquals(2, members.searchFuzzy("Khadak", 10)[0].getId());
+        assertEquals(1, members.searchFuzzy("sita katmandu", 10)[0].getId());
+        assertEquals(3, members.searchFuzzy("LALITPUR", 10)[0].getId());
+    }
+
+    @Test
+    void searchWordsAreLoweredWhateverTheLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // In Turkish, "I".toLowerCase() is a dotless i, which no indexed word holds
+            assertArrayEquals(new String[] {"istanbul", "ilam"}, MemberTrigramIndex.splitWords("ISTANBUL, ILAM"));
+
+            MemberRepository members = new MemberRepository();
+            members.add(member(1, "Ilam Gurung", "Istanbul"));
+            members.add(member(2, "Hari Khadka", "Pokhara"));
+            assertEquals(1, members.searchFuzzy("ISTANBUL", 10)[0].getId());
+            assertEquals(1, members.searchFuzzy("ILAM", 10)[0].getId());
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    private static GymMember member(int id, String name, String location) {
+        return new RegularMember(id, name, location, "98" + id, "", "Male", "1999-05-04", "2025-01-01", "Friend");
+    }
+}
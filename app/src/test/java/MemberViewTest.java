@@ -0,0 +1,211 @@
+/**
+ * Tests for MemberView: a view must follow every later change to the
+ * repository it was made from, whether the members are changed, added,
+ * replaced, swapped for a loaded list, cleared, or read back from the
+ * journal, and must match a pass over every member after check-ins from
+ * several threads at once.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberViewTest {
+    private static final Predicate<GymMember> UNPAID = member -> member instanceof PremiumMember
+        && member.isActiveStatus() && !((PremiumMember) member).isFullPayment();
+    private static final Predicate<GymMember> ELIGIBLE = member -> member instanceof RegularMember
+        && ((RegularMember) member).isEligibleForUpgrade();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void viewFollowsChangesMadeAfterItWasCreated() {
+        MemberRepository members = new MemberRepository();
+        members.add(premium(1));
+        members.add(regular(2));
+        MemberView unpaid = members.createView(UNPAID,
+            EnumSet.of(MemberChange.ACTIVATED, MemberChange.DEACTIVATED, MemberChange.PAYMENT_MADE));
+        MemberView eligible = members.createView(ELIGIBLE);
+        assertEquals(0, unpaid.size());
+        assertEquals(0, eligible.size());
+
+        members.findById(1).activateMembership();
+        assertIds(unpaid, 1);
+        members.add(premium(3));
+        members.findById(3).activateMembership();
+        assertIds(unpaid, 1, 3);
+        ((PremiumMember) members.findById(1)).payDueAmount(50000);
+        assertIds(unpaid, 3);
+        members.findById(3).deactivateMembership();
+        assertIds(unpaid);
+
+        RegularMember regular = (RegularMember) members.findById(2);
+        regular.markAttendance(regular.getAttendanceLimit());
+        assertIds(eligible, 2);
+        regular.revertRegularMember("Moved away");
+        assertIds(eligible);
+
+        // Changes the view does not depend on are not checked
+        members.findById(3).activateMembership();
+        members.findById(3).markAttendance();
+        assertIds(unpaid, 3);
+
+        members.removeView(unpaid);
+        members.findById(3).deactivateMembership();
+        assertIds(unpaid, 3);
+    }
+
+    @Test
+    void viewFollowsReplacementsAndLoadedLists() {
+        MemberRepository members = new MemberRepository();
+        members.add(premium(1));
+        members.findById(1).activateMembership();
+        MemberView unpaid = members.createView(UNPAID);
+        assertIds(unpaid, 1);
+
+        // A saved copy read back over the member
+        members.replace(premium(1));
+        assertIds(unpaid);
+        GymMember copy = premium(1);
+        copy.activateMembership();
+        members.replace(copy);
+        assertTrue(unpaid.contains(copy));
+
+        MemberRepository loaded = new MemberRepository();
+        for (int id = 10; id < 13; id++) {
+            GymMember member = premium(id);
+            member.activateMembership();
+            loaded.add(member);
+        }
+        members.replaceAllWith(loaded);
+        assertIds(unpaid, 10, 11, 12);
+        // Members of the old list no longer reach the view
+        copy.deactivateMembership();
+        members.findById(11).deactivateMembership();
+        assertIds(unpaid, 10, 12);
+
+        members.clear();
+        assertIds(unpaid);
+        members.add(premium(20));
+        members.findById(20).activateMembership();
+        assertIds(unpaid, 20);
+    }
+
+    @Test
+    void viewFollowsChangesReadBackFromTheJournal() throws IOException {
+        File file = dir.resolve("members.wal").toFile();
+        MemberRepository members = new MemberRepository();
+        MemberJournal journal = MemberJournal.open(file, members);
+        members.addChangeListener(journal);
+        members.add(premium(1));
+        members.add(premium(2));
+        members.findById(1).activateMembership();
+        members.findById(2).activateMembership();
+        ((PremiumMember) members.findById(2)).payDueAmount(50000);
+        journal.close();
+
+        MemberRepository replayed = new MemberRepository();
+        MemberView unpaid = replayed.createView(UNPAID, EnumSet.of(MemberChange.PAYMENT_MADE));
+        MemberJournal.replay(file, replayed);
+        assertIds(unpaid, 1);
+    }
+
+    @Test
+    void viewMatchesAPassAfterConcurrentChanges() throws InterruptedException {
+        MemberRepository members = new MemberRepository();
+        for (int id = 0; id < 500; id++) {
+            members.add(id % 2 == 0 ? regular(id) : premium(id));
+        }
+        MemberView unpaid = members.createView(UNPAID);
+        MemberView eligible = members.createView(ELIGIBLE,
+            EnumSet.of(MemberChange.ATTENDANCE_MARKED, MemberChange.REVERTED));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    GymMember member = members.get(random.nextInt(members.size()));
+                    switch (random.nextInt(5)) {
+                        case 0 -> member.activateMembership();
+                        case 1 -> member.deactivateMembership();
+                        case 2 -> member.markAttendance();
+                        case 3 -> {
+                            if (member instanceof PremiumMember) {
+                                ((PremiumMember) member).payDueAmount(1000);
+                            }
+                        }
+                        default -> {
+                            if (member instanceof RegularMember && random.nextInt(20) == 0) {
+                                ((RegularMember) member).revertRegularMember("Test");
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertMatchesAPass(members, unpaid, UNPAID);
+        assertMatchesAPass(members, eligible, ELIGIBLE);
+        assertFalse(eligible.isEmpty());
+    }
+
+    private static void assertMatchesAPass(MemberRepository members, MemberView view, Predicate<GymMember> filter) {
+        List<Integer> expected = new ArrayList<>();
+        for (GymMember member : members) {
+            if (filter.test(member)) {
+                expected.add(member.getId());
+                assertTrue(view.contains(member));
+            }
+        }
+        assertEquals(expected.size(), view.size());
+        assertEquals(expected, ids(view));
+    }
+
+    private static void assertIds(MemberView view, Integer... ids) {
+        assertEquals(Arrays.asList(ids), ids(view));
+        assertEquals(ids.length, view.size());
+    }
+
+    private static List<Integer> ids(MemberView view) {
+        List<Integer> ids = new ArrayList<>();
+        for (GymMember member : view.toArray()) {
+            ids.add(member.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private static GymMember regular(int id) {
+        return new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "", "Male", "1999-05-04", "2025-01-01",
+            "Friend");
+    }
+
+    private static GymMember premium(int id) {
+        return new PremiumMember(id, "Premium " + id, "Pokhara", "97" + id, "Female", "1990-02-03", "2024-06-01",
+            "Ram", "Poster", 50000);
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Tests for MembershipExpiryScheduler: members must be deactivated exactly on
+ * their renewal day, however far off it was when they were scheduled, and a
+ * renewal must never be lost to a deactivation running at the same time.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class MembershipExpirySchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Test
+    void deactivatesOnTheRenewalDayInEveryRing() {
+        // Days just inside and just past the span of each ring, so members are
+        // moved down from every ring before they are due
+        int[] daysAhead = {1, 2, 63, 64, 65, 100, 4095, 4096, 4097, 10000, 262143, 262144, 262145, 300000};
+        MemberRepository members = new MemberRepository();
+        MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+        for (int i = 0; i < daysAhead.length; i++) {
+            members.add(activeMember(i + 1, ""));
+            scheduler.schedule(i + 1, TODAY.plusDays(daysAhead[i]));
+        }
+        // A year's term was given to each member when it was added; the schedule replaced it
+        assertEquals(daysAhead.length, scheduler.size());
+
+        for (int i = 0; i < daysAhead.length; i++) {
+            GymMember member = members.findById(i + 1);
+            assertEquals(0, scheduler.advanceTo(TODAY.plusDays(daysAhead[i] - 1)));
+            assertTrue(member.isActiveStatus(), "deactivated before day " + daysAhead[i]);
+            assertEquals(1, scheduler.advanceTo(TODAY.plusDays(daysAhead[i])));
+            assertFalse(member.isActiveStatus(), "still active on day " + daysAhead[i]);
+            assertNull(scheduler.getRenewalDay(i + 1));
+        }
+        assertEquals(0, scheduler.size());
+        scheduler.close();
+    }
+
+    @Test
+    void deactivatesEveryMemberDueOnTheSameDay() {
+        // More than a batch of members, all moved down from the third ring on the same day
+        MemberRepository members = new MemberRepository();
+        MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+        int count = 5000;
+        for (int id = 1; id <= count; id++) {
+            members.add(activeMember(id, ""));
+            scheduler.schedule(id, TODAY.plusDays(4100));
+        }
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(4099)));
+        assertEquals(count, scheduler.advanceTo(TODAY.plusDays(4100)));
+        for (GymMember member : members) {
+            assertFalse(member.isActiveStatus());
+        }
+        scheduler.close();
+    }
+
+    @Test
+    void renewingBeforeTheDayKeepsTheMemberActive() {
+        MemberRepository members = new MemberRepository();
+        MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+        GymMember member = activeMember(1, "");
+        members.add(member);
+        scheduler.schedule(1, TODAY.plusDays(10));
+
+        scheduler.advanceTo(TODAY.plusDays(5));
+        member.activateMembership();
+        LocalDate renewed = TODAY.plusDays(5).plusMonths(12);
+        assertEquals(renewed, scheduler.getRenewalDay(1));
+        assertEquals(renewed.toEpochDay(), member.getRenewalDay());
+
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(10)));
+        assertTrue(member.isActiveStatus());
+        assertEquals(0, scheduler.advanceTo(renewed.minusDays(1)));
+        assertEquals(1, scheduler.advanceTo(renewed));
+        assertFalse(member.isActiveStatus());
+        scheduler.close();
+    }
+
+    @Test
+    void cancelledAndDeactivatedMembersAreNotDue() {
+        MemberRepository members = new MemberRepository();
+        MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+        GymMember kept = activeMember(1, "");
+        GymMember left = activeMember(2, "");
+        members.add(kept);
+        members.add(left);
+        assertEquals(2, scheduler.size());
+
+        assertTrue(scheduler.cancel(1));
+        assertFalse(scheduler.cancel(1));
+        left.deactivateMembership();
+        assertNull(scheduler.getRenewalDay(2));
+        assertEquals(0, scheduler.size());
+
+        assertEquals(0, scheduler.advanceTo(TODAY.plusYears(2)));
+        assertTrue(kept.isActiveStatus());
+        scheduler.close();
+    }
+
+    @Test
+    void scheduleAllKeepsSavedDaysAndCatchesUpOnLapsedOnes() {
+        MemberRepository members = new MemberRepository();
+        GymMember saved = activeMember(1, "2020-01-01");
+        saved.restoreRenewalDay((int) TODAY.plusDays(30).toEpochDay());
+        GymMember lapsed = activeMember(2, "2020-01-01");
+        lapsed.restoreRenewalDay((int) TODAY.minusDays(3).toEpochDay());
+        // No saved day: the start date's anniversary is today, so it is due today
+        GymMember anniversary = activeMember(3, "2019-10-17");
+        GymMember later = activeMember(4, "2019-10-18");
+        for (GymMember member : new GymMember[] {saved, lapsed, anniversary, later}) {
+            members.add(member);
+        }
+
+        List<MemberChange> changes = new ArrayList<>();
+        members.addChangeListener((member, change) -> changes.add(change));
+        MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+        scheduler.scheduleAll();
+        // Scheduling the loaded members must not be journaled or saved as a change
+        assertEquals(List.of(), changes);
+        assertEquals(TODAY.plusDays(30), scheduler.getRenewalDay(1));
+        assertEquals(TODAY, scheduler.getRenewalDay(3));
+        assertEquals(LocalDate.of(2026, 10, 18), scheduler.getRenewalDay(4));
+        assertEquals(LocalDate.of(2026, 10, 18).toEpochDay(), later.getRenewalDay());
+
+        assertEquals(2, scheduler.advanceTo(TODAY));
+        assertTrue(saved.isActiveStatus());
+        assertFalse(lapsed.isActiveStatus());
+        assertFalse(anniversary.isActiveStatus());
+        assertTrue(later.isActiveStatus());
+        scheduler.close();
+    }
+
+    @Test
+    void renewingWhileTheDayPassesIsNeverLost() throws InterruptedException {
+        int count = 20000;
+        for (int round = 0; round < 5; round++) {
+            MemberRepository members = new MemberRepository();
+            MembershipExpiryScheduler scheduler = new MembershipExpiryScheduler(members, 12, TODAY);
+            for (int id = 1; id <= count; id++) {
+                members.add(activeMember(id, ""));
+                scheduler.schedule(id, TODAY.plusDays(1));
+            }
+
+            // Every member is renewed while the day they are due passes; whichever
+            // happens first, the renewal must win
+            CountDownLatch start = new CountDownLatch(1);
+            Thread renewer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int id = count; id >= 1; id--) {
+                    members.findById(id).activateMembership();
+                }
+            });
+            renewer.start();
+            start.countDown();
+            scheduler.advanceTo(TODAY.plusDays(1));
+            renewer.join();
+
+            for (GymMember member : members) {
+                assertTrue(member.isActiveStatus(), "renewal of member " + member.getId() + " lost");
+                LocalDate renewalDay = scheduler.getRenewalDay(member.getId());
+                assertTrue(renewalDay.isAfter(TODAY.plusMonths(11)), "member " + member.getId() + " due " + renewalDay);
+                assertEquals(renewalDay.toEpochDay(), member.getRenewalDay());
+            }
+            assertEquals(count, scheduler.size());
+            scheduler.close();
+        }
+    }
+
+    private static GymMember activeMember(int id, String membershipStartDate) {
+        GymMember member = new RegularMember(id, "Member " + id, "Kathmandu", "98" + id, "",
+            "Female", "2000-01-01", membershipStartDate, "Friend");
+        member.activateMembership();
+        return member;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
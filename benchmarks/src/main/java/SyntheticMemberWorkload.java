@@ -0,0 +1,480 @@
+/**
+ * The SyntheticMemberWorkload class builds a repository of made-up members and
+ * runs single member operations on it for the JMH benchmarks.
+ *
+ * It sits in the default package so it can use the application classes
+ * directly; the benchmarks reach it through the MemberWorkload interface.
+ * Members are visited in a shuffled order, one per call, so a benchmark does
+ * not keep hitting the same few objects in the CPU cache.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+
+import benchmarks.MemberWorkload;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SyntheticMemberWorkload implements MemberWorkload {
+    private static final String[] LOCATIONS = {"Kathmandu", "Lalitpur", "Bhaktapur", "Pokhara", "Chitwan", "Butwal"};
+    private static final String[] GENDERS = {"Male", "Female", "Other"};
+    private static final String[] REFERRALS = {"Friend", "Social Media", "Website", "Walk-in"};
+    private static final String[] TRAINERS = {"Ram Thapa", "Sita Rai", "Hari Gurung", "Gita Tamang"};
+    private static final String[] REGULAR_PLANS = {"basic", "standard", "deluxe"};
+    private static final double[] PREMIUM_CHARGES = {50000, 75000, 100000};
+    private static final LocalDate HISTORY_START = LocalDate.of(2026, 7, 1);
+    private static final int HISTORY_DAYS = 90;
+    // Start dates are spread over 2015 to 2025
+    private static final LocalDate FIRST_START = LocalDate.of(2015, 1, 1);
+    private static final int START_WEEKS = 570;
+
+    private MemberRepository members;
+    private RegularMember[] regular;
+    private PremiumMember[] premium;
+    private int[] memberIds;
+    private int nextId;
+
+    // Cursors into the shuffled arrays above
+    private int regularCursor;
+    private int premiumCursor;
+    private int idCursor;
+    private int missingCursor;
+    private int planCursor;
+    private int weekCursor;
+    private boolean discountPremium;
+
+    private GymMember[] allMembers;
+    private MemberView unpaidView;
+    private boolean historyFilled;
+    private MembershipExpiryScheduler expiry;
+    private DiscountEngine discountEngine;
+    private double[] discounts;
+
+    private MemberDatabase database;
+    private CheckInServer checkInServer;
+    private File snapshotFile;
+    private File deltaFile;
+    private File journalFile;
+    private File visitsFile;
+
+    @Override
+    public void createMembers(int count, long seed) {
+        Random random = new Random(seed);
+        members = new MemberRepository();
+        members.ensureCapacity(count);
+        regular = new RegularMember[(count + 1) / 2];
+        premium = new PremiumMember[count / 2];
+        memberIds = new int[count];
+
+        // IDs are unique but not sequential, like IDs typed in over the years
+        int id = 1000;
+        for (int i = 0; i < count; i++) {
+            id += 1 + random.nextInt(7);
+            String name = "Member " + i;
+            String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+            String phone = "98" + (10000000 + random.nextInt(90000000));
+            String gender = GENDERS[random.nextInt(GENDERS.length)];
+            String dob = (1960 + random.nextInt(45)) + "-" + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28));
+            String start = (2015 + random.nextInt(11)) + "-" + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28));
+            String referral = REFERRALS[random.nextInt(REFERRALS.length)];
+
+            GymMember member;
+            if (i % 2 == 0) {
+                RegularMember regularMember = new RegularMember(id, name, location, phone,
+                    "member" + i + "@example.com", gender, dob, start, referral);
+                regular[i / 2] = regularMember;
+                member = regularMember;
+            } else {
+                PremiumMember premiumMember = new PremiumMember(id, name, location, phone, gender, dob, start,
+                    TRAINERS[random.nextInt(TRAINERS.length)], referral,
+                    PREMIUM_CHARGES[random.nextInt(PREMIUM_CHARGES.length)]);
+                premium[i / 2] = premiumMember;
+                member = premiumMember;
+            }
+            // Spread attendance and loyalty points over the discount tiers
+            member.restoreState(random.nextInt(40), random.nextInt(30) * 5, random.nextBoolean());
+            members.add(member);
+            memberIds[i] = id;
+        }
+        nextId = id + 1;
+
+        allMembers = members.toArray();
+        historyFilled = false;
+        if (expiry != null) {
+            expiry.close();
+            expiry = null;
+        }
+        unpaidView = members.createView(SyntheticMemberWorkload::isUnpaid,
+            EnumSet.of(MemberChange.ACTIVATED, MemberChange.DEACTIVATED, MemberChange.PAYMENT_MADE,
+                MemberChange.DISCOUNT_CALCULATED, MemberChange.PLAN_UPGRADED, MemberChange.REVERTED));
+        discountEngine = new DiscountEngine();
+        discounts = new double[count];
+
+        shuffle(regular, random);
+        shuffle(premium, random);
+        shuffle(memberIds, random);
+        regularCursor = 0;
+        premiumCursor = 0;
+        idCursor = 0;
+    }
+
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public void markAttendanceRegular() {
+        nextRegular().markAttendance();
+    }
+
+    @Override
+    public void markAttendancePremium() {
+        nextPremium().markAttendance();
+    }
+
+    @Override
+    public String payDueAmount() {
+        return nextPremium().payDueAmount(10.0);
+    }
+
+    @Override
+    public String upgradePlan() {
+        return nextRegular().upgradePlan(REGULAR_PLANS[nextPlan()]);
+    }
+
+    @Override
+    public double getPlanPrice() {
+        return nextRegular().getPlanPrice(REGULAR_PLANS[nextPlan()]);
+    }
+
+    @Override
+    public double calculateDiscountAmount() {
+        discountPremium = !discountPremium;
+        GymMember member = discountPremium ? nextPremium() : nextRegular();
+        return GymGUI.calculateDiscountAmount(member);
+    }
+
+    @Override
+    public double quoteDiscountsOneByOne() {
+        double total = 0.0;
+        for (GymMember member : allMembers) {
+            total += GymGUI.calculateDiscountAmount(member);
+        }
+        return total;
+    }
+
+    @Override
+    public double quoteDiscountsInBulk() {
+        discountEngine.quoteAll(allMembers, discounts);
+        double total = 0.0;
+        for (double discount : discounts) {
+            total += discount;
+        }
+        return total;
+    }
+
+    @Override
+    public Object findById() {
+        int id = memberIds[idCursor];
+        idCursor = idCursor + 1 == memberIds.length ? 0 : idCursor + 1;
+        return members.findById(id);
+    }
+
+    @Override
+    public Object findMissingId() {
+        // Past the largest ID, so never one that exists
+        int id = nextId + (missingCursor++ & 0xFFFF);
+        return members.findById(id);
+    }
+
+    @Override
+    public Object findByNamePrefix() {
+        return members.findByNamePrefix(nextRegular().getName(), 20);
+    }
+
+    @Override
+    public Object findByPhone() {
+        return members.findByPhone(nextPremium().getPhone());
+    }
+
+    @Override
+    public Object listUnpaidByScan() {
+        List<GymMember> unpaid = new ArrayList<>();
+        for (GymMember member : members) {
+            if (isUnpaid(member)) {
+                unpaid.add(member);
+            }
+        }
+        return unpaid;
+    }
+
+    @Override
+    public Object listUnpaidFromView() {
+        return unpaidView.toArray();
+    }
+
+    @Override
+    public double totalsByScan() {
+        double outstanding = 0.0;
+        int active = 0;
+        for (GymMember member : members) {
+            if (member.isActiveStatus()) {
+                active++;
+            }
+            if (member instanceof PremiumMember) {
+                PremiumMember premiumMember = (PremiumMember) member;
+                outstanding += premiumMember.getPremiumCharge() - premiumMember.getPaidAmount();
+            }
+        }
+        return outstanding + active;
+    }
+
+    @Override
+    public double totalsFromMetrics() {
+        // The first call works the totals out; later calls read the running totals
+        MemberMetrics.Totals totals = members.getMetrics().getTotals();
+        return totals.getOutstandingBalance() + totals.getActiveCount();
+    }
+
+    @Override
+    public int visitsInMonth() {
+        AttendanceHistory history = filledHistory();
+        int id = memberIds[idCursor];
+        idCursor = idCursor + 1 == memberIds.length ? 0 : idCursor + 1;
+        return history.visitsBetween(id, HISTORY_START.plusDays(30), HISTORY_START.plusDays(59));
+    }
+
+    @Override
+    public int countOnEveryOfThreeDays() {
+        return filledHistory().countOnEvery(HISTORY_START.plusDays(40), HISTORY_START.plusDays(41),
+            HISTORY_START.plusDays(42));
+    }
+
+    @Override
+    public int startedInWeekByScan() {
+        int from = (int) nextWeek().toEpochDay();
+        int count = 0;
+        for (GymMember member : members) {
+            int day = member.getMembershipStartDay();
+            if (day >= from && day <= from + 6) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Object startedInWeekFromIndex() {
+        LocalDate from = nextWeek();
+        return members.findByStartDate(from, from.plusDays(6));
+    }
+
+    @Override
+    public Object turningAgeInMonth() {
+        LocalDate from = LocalDate.of(2026, 1 + (weekCursor++ % 12), 1);
+        return members.findTurningAge(40, from, from.plusMonths(1).minusDays(1));
+    }
+
+    @Override
+    public int renewMembership() {
+        if (expiry == null) {
+            expiry = new MembershipExpiryScheduler(members, 12, HISTORY_START);
+            expiry.scheduleAll();
+        }
+        int id = memberIds[idCursor];
+        idCursor = idCursor + 1 == memberIds.length ? 0 : idCursor + 1;
+        // Renewal days spread over the next three years, across every ring of the wheel
+        expiry.schedule(id, HISTORY_START.plusDays(1 + (id & 1023)));
+        return expiry.size();
+    }
+
+    private LocalDate nextWeek() {
+        weekCursor = weekCursor + 1 == START_WEEKS ? 0 : weekCursor + 1;
+        return FIRST_START.plusWeeks(weekCursor);
+    }
+
+    /**
+     * Returns the attendance history, filling it with HISTORY_DAYS days of
+     * visits the first time, each member coming in on about a third of them.
+     */
+    private AttendanceHistory filledHistory() {
+        AttendanceHistory history = members.getAttendanceHistory();
+        if (!historyFilled) {
+            Random random = new Random(HISTORY_DAYS);
+            long[] visits = new long[memberIds.length];
+            int firstDay = (int) HISTORY_START.toEpochDay();
+            for (int day = firstDay; day < firstDay + HISTORY_DAYS; day++) {
+                int count = 0;
+                for (int id : memberIds) {
+                    if (random.nextInt(3) == 0) {
+                        visits[count++] = AttendanceHistory.visit(id, day);
+                    }
+                }
+                history.recordAll(visits, count);
+            }
+            historyFilled = true;
+        }
+        return history;
+    }
+
+    private static boolean isUnpaid(GymMember member) {
+        return member instanceof PremiumMember && member.isActiveStatus()
+            && !((PremiumMember) member).isFullPayment();
+    }
+
+    @Override
+    public Object searchFuzzy() {
+        // The location with a letter left out, and the referral source
+        RegularMember member = nextRegular();
+        String location = member.getLocation();
+        int missing = 1 + (location.length() - 2) / 2;
+        String misspelt = location.substring(0, missing) + location.substring(missing + 1);
+        return members.searchFuzzy(misspelt + " " + member.getReferralSource(), 10);
+    }
+
+    @Override
+    public void checkInConcurrently(int hotMembers) {
+        // The shuffled cursors are not thread-safe, so each thread picks its own members
+        int id = memberIds[ThreadLocalRandom.current().nextInt(Math.min(hotMembers, memberIds.length))];
+        members.findById(id).markAttendance();
+    }
+
+    @Override
+    public String payConcurrently(int hotMembers) {
+        return premium[ThreadLocalRandom.current().nextInt(Math.min(hotMembers, premium.length))].payDueAmount(10.0);
+    }
+
+    @Override
+    public int randomMemberId() {
+        return memberIds[ThreadLocalRandom.current().nextInt(memberIds.length)];
+    }
+
+    @Override
+    public int startCheckInServer() throws IOException {
+        checkInServer = new CheckInServer(members, InetAddress.getLoopbackAddress(), 0);
+        checkInServer.start();
+        return checkInServer.getPort();
+    }
+
+    @Override
+    public void stopCheckInServer() throws IOException {
+        if (checkInServer != null) {
+            checkInServer.close();
+            checkInServer = null;
+        }
+    }
+
+    @Override
+    public void openDatabase(File directory, boolean journal) throws IOException {
+        snapshotFile = new File(directory, "members.dat");
+        deltaFile = new File(directory, "members.delta");
+        journalFile = new File(directory, "members.wal");
+        visitsFile = new File(directory, "members.visits");
+        snapshotFile.delete();
+        deltaFile.delete();
+        journalFile.delete();
+        visitsFile.delete();
+        database = new MemberDatabase(members, snapshotFile, deltaFile, journalFile, visitsFile);
+        if (journal) {
+            database.openJournal();
+        }
+    }
+
+    @Override
+    public int saveSnapshot() throws IOException {
+        // A new database has never saved, so its first save is a full snapshot
+        return new MemberDatabase(members, snapshotFile, deltaFile, journalFile, visitsFile).save().getSavedCount();
+    }
+
+    @Override
+    public int save() throws IOException {
+        return database.save().getSavedCount();
+    }
+
+    @Override
+    public int load() throws IOException {
+        // Installed into a separate repository, so the benchmark members stay in use
+        MemberDatabase loader = new MemberDatabase(new MemberRepository(), snapshotFile, deltaFile, journalFile, visitsFile);
+        MemberDatabase.LoadResult result = loader.readSnapshot(ProgressListener.NONE);
+        loader.install(result);
+        return result.getLoadedCount();
+    }
+
+    @Override
+    public int exportTables() throws IOException {
+        File directory = snapshotFile.getParentFile();
+        try (MemberTableWriter regularWriter = new MemberTableWriter(new File(directory, "regular_members.txt"), false);
+             MemberTableWriter premiumWriter = new MemberTableWriter(new File(directory, "premium_members.txt"), true)) {
+            for (GymMember member : members) {
+                if (member instanceof PremiumMember) {
+                    premiumWriter.write(member);
+                } else {
+                    regularWriter.write(member);
+                }
+            }
+            return regularWriter.getCount() + premiumWriter.getCount();
+        }
+    }
+
+    @Override
+    public void changeMembers(int count) {
+        for (int i = 0; i < count; i++) {
+            if ((i & 1) == 0) {
+                nextRegular().markAttendance();
+            } else {
+                nextPremium().markAttendance();
+            }
+        }
+    }
+
+    @Override
+    public void closeDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+            database = null;
+        }
+    }
+
+    private RegularMember nextRegular() {
+        RegularMember member = regular[regularCursor];
+        regularCursor = regularCursor + 1 == regular.length ? 0 : regularCursor + 1;
+        return member;
+    }
+
+    private PremiumMember nextPremium() {
+        PremiumMember member = premium[premiumCursor];
+        premiumCursor = premiumCursor + 1 == premium.length ? 0 : premiumCursor + 1;
+        return member;
+    }
+
+    private int nextPlan() {
+        planCursor = planCursor == 2 ? 0 : planCursor + 1;
+        return planCursor;
+    }
+
+    private static void shuffle(Object[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+
+    private static void shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the round trip of a turnstile request to the check-in server over a
+ * loopback TCP connection: the controller sends "check in ID" or "status ID" and
+ * waits for the answer. Each benchmark thread is one controller with its own
+ * connection. The sample mode reports percentiles, so p99 can be read off directly.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class CheckInServerBenchmark {
+    @Param({"100000"})
+    public int members;
+
+    private MemberWorkload workload;
+    private int port;
+
+    /**
+     * One turnstile controller connection.
+     */
+    @State(Scope.Thread)
+    public static class Controller {
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        @Setup(Level.Trial)
+        public void connect(CheckInServerBenchmark benchmark) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), benchmark.port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws IOException {
+            socket.close();
+        }
+
+        int request(String command, int id) throws IOException {
+            out.write((command + id + "\n").getBytes(StandardCharsets.US_ASCII));
+            int length = 0;
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    throw new EOFException("Server closed the connection");
+                }
+                length++;
+            }
+            return length;
+        }
+    }
+
+    @Setup
+    public void startServer() throws IOException {
+        workload = MemberWorkload.create();
+        workload.createMembers(members, 42);
+        port = workload.startCheckInServer();
+    }
+
+    @TearDown
+    public void stopServer() throws IOException {
+        workload.stopCheckInServer();
+    }
+
+    @Benchmark
+    public int checkIn(Controller controller) throws IOException {
+        return controller.request("check in ", workload.randomMemberId());
+    }
+
+    @Benchmark
+    public int status(Controller controller) throws IOException {
+        return controller.request("status ", workload.randomMemberId());
+    }
+}
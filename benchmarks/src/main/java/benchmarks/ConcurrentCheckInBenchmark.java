@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures check-ins and payments coming from several turnstiles at once.
+ * Each thread looks members up by ID and changes them, so the benchmark covers
+ * the lock-free lookup and the per-member locking together. With few hot
+ * members the threads keep competing for the same members; with many they
+ * rarely meet, and throughput should grow with the number of cores.
+ *
+ * Run with -t to change the number of threads, for example -t 1 and -t 8,
+ * and compare the scores.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class ConcurrentCheckInBenchmark {
+    @Param({"100000"})
+    public int members;
+
+    @Param({"16", "100000"})
+    public int hotMembers;
+
+    private MemberWorkload workload;
+
+    @Setup
+    public void createMembers() {
+        workload = MemberWorkload.create();
+        workload.createMembers(members, 42);
+    }
+
+    @Benchmark
+    public void checkIn() {
+        workload.checkInConcurrently(hotMembers);
+    }
+
+    @Benchmark
+    public String pay() {
+        return workload.payConcurrently(hotMembers);
+    }
+}
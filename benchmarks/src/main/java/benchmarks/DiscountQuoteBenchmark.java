@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures quoting the loyalty discount of every member at once, as is done
+ * for renewals at the start of the month: one member at a time with the
+ * calculation the GUI uses, and in parallel with the discount engine and its
+ * tables. Both add up the discounts, so their results can be compared.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DiscountQuoteBenchmark {
+    @Param({"1000000"})
+    public int members;
+
+    private MemberWorkload workload;
+
+    @Setup
+    public void createMembers() {
+        workload = MemberWorkload.create();
+        workload.createMembers(members, 42);
+    }
+
+    @Benchmark
+    public double oneByOne() {
+        return workload.quoteDiscountsOneByOne();
+    }
+
+    @Benchmark
+    public double inBulk() {
+        return workload.quoteDiscountsInBulk();
+    }
+}
@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the single-member operations behind the GUI buttons: marking
+ * attendance, paying, upgrading a plan, working out a discount and finding a
+ * member by ID, by the start of the name or by phone number. Each call works on the next member of a shuffled order, so the
+ * larger data sets also show the cost of reaching members that are not in the
+ * CPU cache.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MemberOperationsBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int members;
+
+    private MemberWorkload workload;
+
+    @Setup
+    public void createMembers() {
+        workload = MemberWorkload.create();
+        workload.createMembers(members, 42);
+    }
+
+    @Benchmark
+    public void markAttendanceRegular() {
+        workload.markAttendanceRegular();
+    }
+
+    @Benchmark
+    public void markAttendancePremium() {
+        workload.markAttendancePremium();
+    }
+
+    @Benchmark
+    public String payDueAmount() {
+        return workload.payDueAmount();
+    }
+
+    @Benchmark
+    public String upgradePlan() {
+        return workload.upgradePlan();
+    }
+
+    @Benchmark
+    public double getPlanPrice() {
+        return workload.getPlanPrice();
+    }
+
+    @Benchmark
+    public double calculateDiscountAmount() {
+        return workload.calculateDiscountAmount();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return workload.findById();
+    }
+
+    @Benchmark
+    public Object findMissingId() {
+        return workload.findMissingId();
+    }
+
+    @Benchmark
+    public Object findByNamePrefix() {
+        return workload.findByNamePrefix();
+    }
+
+    @Benchmark
+    public Object findByPhone() {
+        return workload.findByPhone();
+    }
+
+    @Benchmark
+    public Object listUnpaidByScan() {
+        return workload.listUnpaidByScan();
+    }
+
+    @Benchmark
+    public Object listUnpaidFromView() {
+        return workload.listUnpaidFromView();
+    }
+
+    @Benchmark
+    public double totalsByScan() {
+        return workload.totalsByScan();
+    }
+
+    @Benchmark
+    public double totalsFromMetrics() {
+        return workload.totalsFromMetrics();
+    }
+
+    @Benchmark
+    public int visitsInMonth() {
+        return workload.visitsInMonth();
+    }
+
+    @Benchmark
+    public int countOnEveryOfThreeDays() {
+        return workload.countOnEveryOfThreeDays();
+    }
+
+    @Benchmark
+    public int startedInWeekByScan() {
+        return workload.startedInWeekByScan();
+    }
+
+    @Benchmark
+    public Object startedInWeekFromIndex() {
+        return workload.startedInWeekFromIndex();
+    }
+
+    @Benchmark
+    public Object turningAgeInMonth() {
+        return workload.turningAgeInMonth();
+    }
+
+    @Benchmark
+    public int renewMembership() {
+        return workload.renewMembership();
+    }
+
+    @Benchmark
+    public Object searchFuzzy() {
+        return workload.searchFuzzy();
+    }
+}
@@ -0,0 +1,108 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what the Save Members and Load Members buttons do: writing a full
+ * snapshot, saving only the changed members, reading the files back, and a
+ * save followed by a load. It also measures marking attendance while the
+ * journal records every change, which is what the front desk pays per check-in.
+ *
+ * The files are written to a temporary directory that is deleted afterwards.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class MemberPersistenceBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int members;
+
+    private MemberWorkload workload;
+    private File directory;
+
+    /**
+     * Changes one member in a hundred before each delta save.
+     */
+    @State(Scope.Thread)
+    public static class PendingChanges {
+        @Setup(Level.Invocation)
+        public void changeMembers(MemberPersistenceBenchmark benchmark) {
+            benchmark.workload.changeMembers(Math.max(1, benchmark.members / 100));
+        }
+    }
+
+    @Setup
+    public void openDatabase() throws IOException {
+        workload = MemberWorkload.create();
+        workload.createMembers(members, 42);
+        directory = Files.createTempDirectory("gym-benchmark").toFile();
+        workload.openDatabase(directory, true);
+        workload.saveSnapshot(); // Something for the load benchmarks to read
+    }
+
+    @TearDown
+    public void closeDatabase() throws IOException {
+        workload.closeDatabase();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public int saveSnapshot() throws IOException {
+        return workload.saveSnapshot();
+    }
+
+    @Benchmark
+    public int saveChanges(PendingChanges changes) throws IOException {
+        return workload.save();
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        return workload.load();
+    }
+
+    @Benchmark
+    public int exportTables() throws IOException {
+        return workload.exportTables();
+    }
+
+    @Benchmark
+    public int saveAndLoad() throws IOException {
+        workload.saveSnapshot();
+        return workload.load();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void markAttendanceJournaled() {
+        workload.markAttendanceRegular();
+    }
+}
@@ -0,0 +1,231 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The MemberWorkload interface is how the benchmarks reach the application.
+ *
+ * The application classes are in the default package, which classes in a named
+ * package cannot import, and JMH only accepts benchmarks in a named package. So
+ * the benchmarks call this interface, and SyntheticMemberWorkload (in the default
+ * package, next to the application) implements it. It has one implementation, so
+ * the JIT inlines the calls and they add nothing to the measurements.
+ *
+ * Each operation works on the next member of a shuffled order, so successive
+ * calls touch members spread across the whole data set.
+ *
+ * @author (Nipekshya Shakya)
+ * @version (17 October 2026)
+ */
+public interface MemberWorkload {
+    /**
+     * Creates the workload implementation that sits next to the application classes.
+     */
+    static MemberWorkload create() {
+        try {
+            return (MemberWorkload) Class.forName("SyntheticMemberWorkload")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("SyntheticMemberWorkload is not on the class path", e);
+        }
+    }
+
+    /**
+     * Fills a new repository with synthetic members, half regular and half premium.
+     *
+     * @param count The number of members
+     * @param seed The seed for the random data, so every run builds the same members
+     */
+    void createMembers(int count, long seed);
+
+    int size();
+
+    void markAttendanceRegular();
+
+    void markAttendancePremium();
+
+    String payDueAmount();
+
+    String upgradePlan();
+
+    double getPlanPrice();
+
+    double calculateDiscountAmount();
+
+    /**
+     * Works out the discount of every member, one member at a time.
+     *
+     * @return The total of the discounts
+     */
+    double quoteDiscountsOneByOne();
+
+    /**
+     * Works out the discount of every member with the bulk discount engine,
+     * which quotes the members in parallel.
+     *
+     * @return The total of the discounts
+     */
+    double quoteDiscountsInBulk();
+
+    /**
+     * Looks up an ID that exists.
+     */
+    Object findById();
+
+    /**
+     * Looks up an ID that does not exist.
+     */
+    Object findMissingId();
+
+    /**
+     * Finds the first 20 members whose name starts with the name of an existing member.
+     */
+    Object findByNamePrefix();
+
+    /**
+     * Finds the members with the phone number of an existing member.
+     */
+    Object findByPhone();
+
+    /**
+     * Lists the active premium members with dues left by reading every member.
+     */
+    Object listUnpaidByScan();
+
+    /**
+     * Lists the same members from a live view kept up to date by the repository.
+     */
+    Object listUnpaidFromView();
+
+    /**
+     * Counts the active members and adds up the balance owed on premium charges
+     * by reading every member.
+     */
+    double totalsByScan();
+
+    /**
+     * Reads the same totals from the repository's running totals.
+     */
+    double totalsFromMetrics();
+
+    /**
+     * Counts the days a member came in over 30 days of a 90-day attendance
+     * history, in which every member comes in on about a third of the days.
+     */
+    int visitsInMonth();
+
+    /**
+     * Counts the members who came in on each of three days of the same history.
+     */
+    int countOnEveryOfThreeDays();
+
+    /**
+     * Counts the members whose membership started in a week by reading every
+     * member's start date. Each call takes the next of the weeks the start
+     * dates are spread over.
+     */
+    int startedInWeekByScan();
+
+    /**
+     * Finds the members whose membership started in a week through the
+     * repository's start date index.
+     */
+    Object startedInWeekFromIndex();
+
+    /**
+     * Finds the members turning 40 in a month through the date of birth index.
+     */
+    Object turningAgeInMonth();
+
+    /**
+     * Moves a member's renewal day in the membership expiry scheduler, which
+     * holds every active member.
+     */
+    int renewMembership();
+
+    /**
+     * Finds the 10 members closest to a misspelt location and a referral source.
+     * Every member shares those words with many others, so this is the slowest
+     * kind of fuzzy search.
+     */
+    Object searchFuzzy();
+
+    /**
+     * Checks in a random member, found by ID, as a turnstile does. Safe to call
+     * from several threads at once.
+     *
+     * @param hotMembers How many members the check-ins are spread over; a small
+     *                   number makes threads compete for the same members
+     */
+    void checkInConcurrently(int hotMembers);
+
+    /**
+     * Pays a small amount for a random premium member. Safe to call from several
+     * threads at once.
+     *
+     * @param hotMembers How many premium members the payments are spread over
+     */
+    String payConcurrently(int hotMembers);
+
+    /**
+     * Returns the ID of a random member. Safe to call from several threads at once.
+     */
+    int randomMemberId();
+
+    /**
+     * Starts a check-in server for the members on a free port of the loopback address.
+     *
+     * @return The port the server listens on
+     */
+    int startCheckInServer() throws IOException;
+
+    void stopCheckInServer() throws IOException;
+
+    /**
+     * Opens a member database over the members, keeping its files in a directory.
+     * With a journal, every change is also recorded in the write-ahead journal.
+     *
+     * @param directory The directory for the database files
+     * @param journal true to open the journal
+     */
+    void openDatabase(File directory, boolean journal) throws IOException;
+
+    /**
+     * Writes every member to a new snapshot, as the first save does.
+     *
+     * @return The number of members saved
+     */
+    int saveSnapshot() throws IOException;
+
+    /**
+     * Saves through the database, which writes only the changed members
+     * unless a full snapshot is due.
+     *
+     * @return The number of members saved
+     */
+    int save() throws IOException;
+
+    /**
+     * Reads the saved snapshot and deltas into a new repository and installs it.
+     *
+     * @return The number of members loaded
+     */
+    int load() throws IOException;
+
+    /**
+     * Exports every member to the regular and premium text tables, next to the
+     * database files.
+     *
+     * @return The number of members exported
+     */
+    int exportTables() throws IOException;
+
+    /**
+     * Marks attendance for the given number of members, so the next save has
+     * that many changes to write.
+     */
+    void changeMembers(int count);
+
+    void closeDatabase() throws IOException;
+}